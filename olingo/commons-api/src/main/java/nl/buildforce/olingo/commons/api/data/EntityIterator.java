@@ -11,8 +11,11 @@ import java.util.List;
 
 /**
  * Data representation as an Iterator for a collection of single entities.
+ * <p/>
+ * An iterator may hold resources, like an open database cursor. They are released by {@link #close()}, which the
+ * serializer calls once the content has been written, also if writing failed.
  */
-public abstract class EntityIterator extends AbstractEntityCollection implements Iterator<Entity> {
+public abstract class EntityIterator extends AbstractEntityCollection implements Iterator<Entity>, AutoCloseable {
   
   private URI next;
   
@@ -50,6 +53,14 @@ public abstract class EntityIterator extends AbstractEntityCollection implements
     throw new ODataNotSupportedException("Entity Iterator does not support getOperations() by default");
   }
 
+  /**
+   * Releases the resources held by the iterator. Does nothing by default.
+   */
+  @Override
+  public void close() {
+    // No resources by default
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -8,6 +8,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import nl.buildforce.olingo.commons.api.edm.Edm;
 import nl.buildforce.olingo.commons.api.edm.EdmAction;
@@ -25,61 +26,63 @@ import nl.buildforce.olingo.commons.api.edm.provider.CsdlAnnotation;
 
 public abstract class AbstractEdm implements Edm {
 
-  protected Map<String, EdmSchema> schemas;
-  protected List<EdmSchema> schemaList;
+  protected volatile Map<String, EdmSchema> schemas;
+  protected volatile List<EdmSchema> schemaList;
   private boolean isEntityDerivedFromES;
   private boolean isComplexDerivedFromES;
   private boolean isPreviousES;
 
   private final Map<FullQualifiedName, EdmEntityContainer> entityContainers =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
 
   private final Map<FullQualifiedName, EdmEnumType> enumTypes =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
 
   private final Map<FullQualifiedName, EdmTypeDefinition> typeDefinitions =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
 
   private final Map<FullQualifiedName, EdmEntityType> entityTypes =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
 
   private final Map<FullQualifiedName, EdmComplexType> complexTypes =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
 
   private final Map<FullQualifiedName, EdmAction> unboundActions =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
 
   private final Map<FullQualifiedName, List<EdmFunction>> unboundFunctionsByName =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
 
   private final Map<FunctionMapKey, EdmFunction> unboundFunctionsByKey =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
 
   private final Map<ActionMapKey, EdmAction> boundActions =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
 
   private final Map<FunctionMapKey, EdmFunction> boundFunctions =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
 
   private final Map<FullQualifiedName, EdmTerm> terms =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
 
   private final Map<TargetQualifierMapKey, EdmAnnotations> annotationGroups =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
 
-  private Map<String, String> aliasToNamespaceInfo;
+  private volatile EdmEntityContainer defaultEntityContainer;
+
+  private volatile Map<String, String> aliasToNamespaceInfo;
   
   private final Map<FullQualifiedName, EdmEntityType> entityTypesWithAnnotations =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
   
   private final Map<FullQualifiedName, EdmEntityType> entityTypesDerivedFromES =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
   
   private final Map<FullQualifiedName, EdmComplexType> complexTypesWithAnnotations =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
   
   private final Map<FullQualifiedName, EdmComplexType> complexTypesDerivedFromES =
-      Collections.synchronizedMap(new HashMap<>());
+      new ConcurrentHashMap<>();
 
   private final Map<String, List<CsdlAnnotation>> annotationMap =
           new HashMap<>();
@@ -100,22 +103,34 @@ public abstract class AbstractEdm implements Edm {
 
     EdmSchema schema = schemas.get(namespace);
     if (schema == null) {
-      schema = schemas.get(aliasToNamespaceInfo.get(namespace));
+      schema = schemas.get(lookup(aliasToNamespaceInfo, namespace));
     }
     return schema;
   }
 
-  private void initSchemas() {
-    loadAliasToNamespaceInfo();
-    Map<String, EdmSchema> localSchemas = createSchemas();
-    schemas = Collections.synchronizedMap(localSchemas);
-
-    schemaList = List.copyOf(schemas.values());
+  /*
+   * Creating the schemas fills the caches, so concurrent first requests must not create them twice. The schemas are
+   * created once under the lock and published as immutable map and list.
+   */
+  private synchronized void initSchemas() {
+    if (schemas == null) {
+      loadAliasToNamespaceInfo();
+      Map<String, EdmSchema> localSchemas = createSchemas();
+      schemaList = List.copyOf(localSchemas.values());
+      schemas = Collections.unmodifiableMap(localSchemas);
+    }
   }
 
-  private void loadAliasToNamespaceInfo() {
-    Map<String, String> localAliasToNamespaceInfo = createAliasToNamespaceInfo();
-    aliasToNamespaceInfo = Collections.synchronizedMap(localAliasToNamespaceInfo);
+  private synchronized void loadAliasToNamespaceInfo() {
+    if (aliasToNamespaceInfo != null) {
+      return;
+    }
+    Map<String, String> localAliasToNamespaceInfo = new ConcurrentHashMap<>();
+    createAliasToNamespaceInfo().forEach((alias, namespace) -> {
+      if (alias != null && namespace != null)
+        localAliasToNamespaceInfo.put(alias, namespace);
+    });
+    aliasToNamespaceInfo = localAliasToNamespaceInfo;
   }
 
   @Override
@@ -126,13 +141,16 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEntityContainer getEntityContainer(FullQualifiedName namespaceOrAliasFQN) {
     FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEntityContainer container = entityContainers.get(fqn);
+    EdmEntityContainer container = fqn == null ? defaultEntityContainer : entityContainers.get(fqn);
     if (container == null) {
       container = createEntityContainer(fqn);
       if (container != null) {
-        entityContainers.put(fqn, container);
         if (fqn == null) {
-          entityContainers.put(new FullQualifiedName(container.getNamespace(), container.getName()), container);
+          container = cache(entityContainers, new FullQualifiedName(container.getNamespace(), container.getName()),
+              container);
+          defaultEntityContainer = container;
+        } else {
+          container = cache(entityContainers, fqn, container);
         }
       }
     }
@@ -142,11 +160,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEnumType getEnumType(FullQualifiedName namespaceOrAliasFQN) {
     FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEnumType enumType = enumTypes.get(fqn);
+    EdmEnumType enumType = lookup(enumTypes, fqn);
     if (enumType == null) {
       enumType = createEnumType(fqn);
       if (enumType != null) {
-        enumTypes.put(fqn, enumType);
+        enumType = cache(enumTypes, fqn, enumType);
       }
     }
     return enumType;
@@ -155,11 +173,11 @@ public abstract class AbstractEdm implements Edm {
     @Override
     public EdmTypeDefinition getTypeDefinition(FullQualifiedName namespaceOrAliasFQN) {
     FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmTypeDefinition typeDefinition = typeDefinitions.get(fqn);
+    EdmTypeDefinition typeDefinition = lookup(typeDefinitions, fqn);
     if (typeDefinition == null) {
       typeDefinition = createTypeDefinition(fqn);
       if (typeDefinition != null) {
-        typeDefinitions.put(fqn, typeDefinition);
+        typeDefinition = cache(typeDefinitions, fqn, typeDefinition);
       }
     }
     return typeDefinition;
@@ -168,11 +186,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEntityType getEntityType(FullQualifiedName namespaceOrAliasFQN) {
     FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEntityType entityType = entityTypes.get(fqn);
+    EdmEntityType entityType = lookup(entityTypes, fqn);
     if (entityType == null) {
       entityType = createEntityType(fqn);
       if (entityType != null) {
-        entityTypes.put(fqn, entityType);
+        entityType = cache(entityTypes, fqn, entityType);
       }
     }
     return entityType;
@@ -181,11 +199,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEntityType getEntityTypeWithAnnotations(FullQualifiedName namespaceOrAliasFQN) {
     FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEntityType entityType = entityTypesWithAnnotations.get(fqn);
+    EdmEntityType entityType = lookup(entityTypesWithAnnotations, fqn);
     if (entityType == null) {
       entityType = createEntityType(fqn);
       if (entityType != null) {
-          entityTypesWithAnnotations.put(fqn, entityType);
+          entityType = cache(entityTypesWithAnnotations, fqn, entityType);
       }
     }
     setIsPreviousES(false);
@@ -199,11 +217,11 @@ public abstract class AbstractEdm implements Edm {
     if (!isPreviousES && getEntityContainer() != null) {
        getEntityContainer().getEntitySetsWithAnnotations();
     }
-    EdmEntityType entityType = entityTypesDerivedFromES.get(fqn);
+    EdmEntityType entityType = lookup(entityTypesDerivedFromES, fqn);
     if (entityType == null) {
       entityType = createEntityType(fqn);
       if (entityType != null) {
-          entityTypesDerivedFromES.put(fqn, entityType);
+          entityType = cache(entityTypesDerivedFromES, fqn, entityType);
       }
     }
     this.isEntityDerivedFromES = false;
@@ -217,11 +235,11 @@ public abstract class AbstractEdm implements Edm {
     if (!isPreviousES && getEntityContainer() != null) {
        getEntityContainer().getEntitySetsWithAnnotations();
     }
-    EdmComplexType complexType = complexTypesDerivedFromES.get(fqn);
+    EdmComplexType complexType = lookup(complexTypesDerivedFromES, fqn);
     if (complexType == null) {
       complexType = createComplexType(fqn);
       if (complexType != null) {
-          complexTypesDerivedFromES.put(fqn, complexType);
+          complexType = cache(complexTypesDerivedFromES, fqn, complexType);
       }
     }
     this.isComplexDerivedFromES = false;
@@ -231,11 +249,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmComplexType getComplexType(FullQualifiedName namespaceOrAliasFQN) {
     FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmComplexType complexType = complexTypes.get(fqn);
+    EdmComplexType complexType = lookup(complexTypes, fqn);
     if (complexType == null) {
       complexType = createComplexType(fqn);
       if (complexType != null) {
-        complexTypes.put(fqn, complexType);
+        complexType = cache(complexTypes, fqn, complexType);
       }
     }
     return complexType;
@@ -244,11 +262,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmComplexType getComplexTypeWithAnnotations(FullQualifiedName namespaceOrAliasFQN) {
     FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmComplexType complexType = complexTypesWithAnnotations.get(fqn);
+    EdmComplexType complexType = lookup(complexTypesWithAnnotations, fqn);
     if (complexType == null) {
       complexType = createComplexType(fqn);
       if (complexType != null) {
-          complexTypesWithAnnotations.put(fqn, complexType);
+          complexType = cache(complexTypesWithAnnotations, fqn, complexType);
       }
     }
     setIsPreviousES(false);
@@ -258,11 +276,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmAction getUnboundAction(FullQualifiedName actionName) {
     FullQualifiedName fqn = resolvePossibleAlias(actionName);
-    EdmAction action = unboundActions.get(fqn);
+    EdmAction action = lookup(unboundActions, fqn);
     if (action == null) {
       action = createUnboundAction(fqn);
       if (action != null) {
-        unboundActions.put(actionName, action);
+        action = cache(unboundActions, actionName, action);
       }
     }
 
@@ -276,11 +294,11 @@ public abstract class AbstractEdm implements Edm {
     FullQualifiedName actionFqn = resolvePossibleAlias(actionName);
     FullQualifiedName bindingParameterTypeFqn = resolvePossibleAlias(bindingParameterTypeName);
     ActionMapKey key = new ActionMapKey(actionFqn, bindingParameterTypeFqn, isBindingParameterCollection);
-    EdmAction action = boundActions.get(key);
+    EdmAction action = lookup(boundActions, key);
     if (action == null) {
       action = createBoundAction(actionFqn, bindingParameterTypeFqn, isBindingParameterCollection);
       if (action != null) {
-        boundActions.put(key, action);
+        action = cache(boundActions, key, action);
       }
     }
 
@@ -291,11 +309,11 @@ public abstract class AbstractEdm implements Edm {
   public List<EdmFunction> getUnboundFunctions(FullQualifiedName functionName) {
     FullQualifiedName functionFqn = resolvePossibleAlias(functionName);
 
-    List<EdmFunction> functions = unboundFunctionsByName.get(functionFqn);
+    List<EdmFunction> functions = lookup(unboundFunctionsByName, functionFqn);
     if (functions == null) {
       functions = createUnboundFunctions(functionFqn);
       if (functions != null) {
-        unboundFunctionsByName.put(functionFqn, functions);
+        functions = cache(unboundFunctionsByName, functionFqn, List.copyOf(functions));
 
         for (EdmFunction unbound : functions) {
           FunctionMapKey key = new FunctionMapKey(
@@ -303,7 +321,7 @@ public abstract class AbstractEdm implements Edm {
               unbound.getBindingParameterTypeFqn(),
               unbound.isBindingParameterTypeCollection(),
               unbound.getParameterNames());
-          unboundFunctionsByKey.put(key, unbound);
+          unboundFunctionsByKey.putIfAbsent(key, unbound);
         }
       }
     }
@@ -316,11 +334,11 @@ public abstract class AbstractEdm implements Edm {
     FullQualifiedName functionFqn = resolvePossibleAlias(functionName);
 
     FunctionMapKey key = new FunctionMapKey(functionFqn, null, null, parameterNames);
-    EdmFunction function = unboundFunctionsByKey.get(key);
+    EdmFunction function = lookup(unboundFunctionsByKey, key);
     if (function == null) {
       function = createUnboundFunction(functionFqn, parameterNames);
       if (function != null) {
-        unboundFunctionsByKey.put(key, function);
+        function = cache(unboundFunctionsByKey, key, function);
       }
     }
 
@@ -336,12 +354,12 @@ public abstract class AbstractEdm implements Edm {
     FullQualifiedName bindingParameterTypeFqn = resolvePossibleAlias(bindingParameterTypeName);
     FunctionMapKey key =
         new FunctionMapKey(functionFqn, bindingParameterTypeFqn, isBindingParameterCollection, parameterNames);
-    EdmFunction function = boundFunctions.get(key);
+    EdmFunction function = lookup(boundFunctions, key);
     if (function == null) {
       function = createBoundFunction(functionFqn, bindingParameterTypeFqn, isBindingParameterCollection,
           parameterNames);
       if (function != null) {
-        boundFunctions.put(key, function);
+        function = cache(boundFunctions, key, function);
       }
     }
 
@@ -351,11 +369,11 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmTerm getTerm(FullQualifiedName termName) {
     FullQualifiedName fqn = resolvePossibleAlias(termName);
-    EdmTerm term = terms.get(fqn);
+    EdmTerm term = lookup(terms, fqn);
     if (term == null) {
       term = createTerm(fqn);
       if (term != null) {
-        terms.put(fqn, term);
+        term = cache(terms, fqn, term);
       }
     }
     return term;
@@ -365,11 +383,11 @@ public abstract class AbstractEdm implements Edm {
   public EdmAnnotations getAnnotationGroup(FullQualifiedName targetName, String qualifier) {
     FullQualifiedName fqn = resolvePossibleAlias(targetName);
     TargetQualifierMapKey key = new TargetQualifierMapKey(fqn, qualifier);
-    EdmAnnotations _annotations = annotationGroups.get(key);
+    EdmAnnotations _annotations = lookup(annotationGroups, key);
     if (_annotations == null) {
       _annotations = createAnnotationGroup(fqn, qualifier);
       if (_annotations != null) {
-        annotationGroups.put(key, _annotations);
+        _annotations = cache(annotationGroups, key, _annotations);
       }
     }
     return _annotations;
@@ -381,7 +399,7 @@ public abstract class AbstractEdm implements Edm {
     }
     FullQualifiedName finalFQN = null;
     if (namespaceOrAliasFQN != null) {
-      String namespace = aliasToNamespaceInfo.get(namespaceOrAliasFQN.getNamespace());
+      String namespace = lookup(aliasToNamespaceInfo, namespaceOrAliasFQN.getNamespace());
       // If not contained in info it must be a namespace
       if (namespace == null) {
         finalFQN = namespaceOrAliasFQN;
@@ -392,18 +410,40 @@ public abstract class AbstractEdm implements Edm {
     return finalFQN;
   }
 
+  /*
+   * The caches are read by all requests, so they are lock free. In case two threads create the same element, the
+   * first one put into the cache wins and is returned to both. computeIfAbsent is not used, as creating an element may
+   * read or fill the same cache again, e.g. for the base type of an entity type.
+   */
+  private static <K, V> V lookup(final Map<K, V> cache, final K key) {
+    return key == null ? null : cache.get(key);
+  }
+
+  private static <K, V> V cache(final Map<K, V> cache, final K key, final V value) {
+    if (key == null)
+      return value;
+    final V cached = cache.putIfAbsent(key, value);
+    return cached != null ? cached : value;
+  }
+
   protected abstract Map<String, EdmSchema> createSchemas();
 
   protected abstract Map<String, String> createAliasToNamespaceInfo();
 
   public void cacheAliasNamespaceInfo(String alias, String namespace) {
-    aliasToNamespaceInfo.put(alias, namespace);
+    if (alias != null && namespace != null) {
+      aliasToNamespaceInfo.put(alias, namespace);
+    }
   }
 
   protected abstract EdmEntityContainer createEntityContainer(FullQualifiedName containerName);
 
   public void cacheEntityContainer(FullQualifiedName containerFQN, EdmEntityContainer container) {
-    entityContainers.put(containerFQN, container);
+    if (containerFQN == null) {
+      defaultEntityContainer = container;
+    } else {
+      entityContainers.put(containerFQN, container);
+    }
   }
 
   protected abstract EdmEnumType createEnumType(FullQualifiedName enumName);
@@ -452,10 +492,12 @@ public abstract class AbstractEdm implements Edm {
     if (function.isBound()) {
       boundFunctions.put(key, function);
     } else {
-      if (!unboundFunctionsByName.containsKey(functionName)) {
-        unboundFunctionsByName.put(functionName, new ArrayList<>());
-      }
-      unboundFunctionsByName.get(functionName).add(function);
+      // The lists are read without locking, so they are replaced instead of changed
+      unboundFunctionsByName.merge(functionName, List.of(function), (cached, added) -> {
+        List<EdmFunction> functions = new ArrayList<>(cached);
+        functions.addAll(added);
+        return List.copyOf(functions);
+      });
 
       unboundFunctionsByKey.put(key, function);
     }
@@ -7,6 +7,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -15,6 +16,13 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import nl.buildforce.olingo.commons.api.edm.Edm;
 import nl.buildforce.olingo.commons.api.edm.EdmAction;
@@ -37,6 +45,8 @@ public class EdmImplCachingTest {
 
   private final FullQualifiedName NAME2 = new FullQualifiedName("testNamespace2", "testName2");
 
+  private static final int THREADS = 8;
+
   private Edm edm;
 
   @Test
@@ -264,6 +274,67 @@ public class EdmImplCachingTest {
     assertNotSame(annotationGroup1, annotationGroup2);
   }
 
+  @Test
+  public void concurrentFirstRequestsCreateSchemasOnce() throws Exception {
+    AtomicInteger created = new AtomicInteger();
+    AbstractEdm concurrentEdm = new LocalEdm() {
+      @Override
+      protected Map<String, EdmSchema> createSchemas() {
+        created.incrementAndGet();
+        // Like EdmSchemaImpl, creating a schema caches its functions
+        for (int i = 0; i < 100; i++) {
+          cacheFunction(NAME1, mock(EdmFunction.class));
+        }
+        return super.createSchemas();
+      }
+    };
+
+    List<List<EdmSchema>> schemas = runConcurrently(concurrentEdm::getSchemas);
+
+    assertEquals(1, created.get());
+    for (List<EdmSchema> schemaList : schemas) {
+      assertSame(schemas.get(0), schemaList);
+    }
+    assertEquals(100, concurrentEdm.getUnboundFunctions(NAME1).size());
+  }
+
+  @Test
+  public void concurrentCacheFunctionKeepsAllFunctions() throws Exception {
+    AbstractEdm concurrentEdm = (AbstractEdm) edm;
+
+    runConcurrently(() -> {
+      for (int i = 0; i < 100; i++) {
+        concurrentEdm.cacheFunction(NAME1, mock(EdmFunction.class));
+      }
+      return null;
+    });
+
+    List<EdmFunction> functions = concurrentEdm.getUnboundFunctions(NAME1);
+    assertEquals(THREADS * 100, functions.size());
+    assertThrows(UnsupportedOperationException.class, () -> functions.add(mock(EdmFunction.class)));
+  }
+
+  private static <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    try {
+      CyclicBarrier start = new CyclicBarrier(THREADS);
+      List<Future<T>> futures = new ArrayList<>();
+      for (int i = 0; i < THREADS; i++) {
+        futures.add(executor.submit(() -> {
+          start.await();
+          return task.call();
+        }));
+      }
+      List<T> results = new ArrayList<>();
+      for (Future<T> future : futures) {
+        results.add(future.get(10, TimeUnit.SECONDS));
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Before
   public void setup() { edm = new LocalEdm(); }
 
@@ -93,14 +93,12 @@ public abstract class OData {
      */
     public abstract ODataHttpHandler createHandler(ServiceMetadata serviceMetadata);
 
-// --Commented out by Inspection START (''21-03-09 16:29):
-//  /**
-//   * Creates a new ODataHandler for handling OData requests.
-//   *
-//   * @param serviceMetadata - metadata object required to handle an OData request
-//   */
-//  public abstract ODataHandler createRawHandler(ServiceMetadata serviceMetadata);
-// --Commented out by Inspection STOP (''21-03-09 16:29)
+    /**
+     * Creates a new ODataHandler for handling OData requests.
+     *
+     * @param serviceMetadata - metadata object required to handle an OData request
+     */
+    public abstract ODataHandler createRawHandler(ServiceMetadata serviceMetadata);
 
     /**
      * Creates a metadata object for this service.
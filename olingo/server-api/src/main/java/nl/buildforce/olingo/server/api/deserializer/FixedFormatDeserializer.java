@@ -12,6 +12,7 @@ import nl.buildforce.olingo.commons.api.edm.EdmProperty;
 import nl.buildforce.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import nl.buildforce.olingo.server.api.deserializer.batch.BatchOptions;
 import nl.buildforce.olingo.server.api.deserializer.batch.BatchRequestPart;
+import nl.buildforce.olingo.server.api.deserializer.batch.BatchRequestPartReader;
 
 public interface FixedFormatDeserializer {
 
@@ -45,4 +46,13 @@ public interface FixedFormatDeserializer {
    */
   List<BatchRequestPart> parseBatchRequest(InputStream content, String boundary, BatchOptions options)
       throws BatchDeserializerException;
+
+  /**
+   * Reads batch data part by part from an InputStream.
+   * @param content the data as multipart input stream
+   * @param boundary the boundary between the parts
+   * @param options options for the deserializer
+   * @return a reader returning the batch-request parts in the order of the request
+   */
+  BatchRequestPartReader readBatchRequest(InputStream content, String boundary, BatchOptions options);
 }
\ No newline at end of file
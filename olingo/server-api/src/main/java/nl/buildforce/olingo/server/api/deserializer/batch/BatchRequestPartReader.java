@@ -0,0 +1,19 @@
+/* Copyright Buildƒorce Digital i.o. 2021
+ * Licensed under the EUPL-1.2-or-later
+*/
+package nl.buildforce.olingo.server.api.deserializer.batch;
+
+/**
+ * Reads the {@link BatchRequestPart}s of a batch request one after the other from the request body. Only the part
+ * currently read is held in memory, so the memory needed does not depend on the size of the batch request.
+ */
+public interface BatchRequestPartReader {
+
+  /**
+   * Reads the next part of the batch request.
+   * @return the next part or <code>null</code> if the close delimiter of the batch request has been reached
+   * @throws BatchDeserializerException if the part is malformed or the body ends without close delimiter
+   */
+  BatchRequestPart next() throws BatchDeserializerException;
+
+}
@@ -0,0 +1,24 @@
+/* Copyright Buildƒorce Digital i.o. 2021
+ * Licensed under the EUPL-1.2-or-later
+*/
+package nl.buildforce.olingo.server.api.serializer;
+
+import nl.buildforce.olingo.server.api.deserializer.batch.ODataResponsePart;
+
+/**
+ * Writes the parts of a batch response to an output one after the other, as soon as they are available.
+ */
+public interface BatchResponseWriter {
+
+  /**
+   * Writes one response part including its leading boundary.
+   * @param part the response part
+   */
+  void write(ODataResponsePart part) throws SerializerException;
+
+  /**
+   * Writes the close delimiter of the batch response. No further parts can be written afterwards.
+   */
+  void close() throws SerializerException;
+
+}
@@ -4,6 +4,7 @@
 package nl.buildforce.olingo.server.api.serializer;
 
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.List;
 
 import nl.buildforce.olingo.commons.api.data.EntityMediaObject;
@@ -50,6 +51,14 @@ public interface FixedFormatSerializer {
    */
   InputStream batchResponse(List<ODataResponsePart> batchResponses, String boundary) throws BatchSerializerException;
 
+  /**
+   * Creates a writer, which serializes the parts of a batch response directly into an output stream.
+   * @param output the stream the response is written to
+   * @param boundary the boundary between the parts
+   * @return the writer
+   */
+  BatchResponseWriter batchResponse(OutputStream output, String boundary);
+
   /**
    * Serializes a ODataResponse into an async response.
    * @param odataResponse the response parts
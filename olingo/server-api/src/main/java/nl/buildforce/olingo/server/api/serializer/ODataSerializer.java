@@ -51,15 +51,16 @@ public interface ODataSerializer {
       AbstractEntityCollection entitySet, EntityCollectionSerializerOptions options) throws SerializerException;
 
   /**
-   * Writes entity-collection data into an InputStream.
+   * Writes entity-collection data lazily into the response stream. The entities are taken from the iterator
+   * while the content is written.
    * @param metadata metadata for the service
    * @param entityType the {@link EdmEntityType}
    * @param entities the data of the entity set
    * @param options options for the serializer
    */
-  /*SerializerStreamResult entityCollectionStreamed(ServiceMetadata metadata, EdmEntityType entityType,
+  SerializerStreamResult entityCollectionStreamed(ServiceMetadata metadata, EdmEntityType entityType,
       EntityIterator entities, EntityCollectionSerializerOptions options);
-*/
+
   /**
    * Writes entity data into an InputStream.
    * @param metadata metadata for the service
@@ -0,0 +1,21 @@
+/* Copyright Buildƒorce Digital i.o. 2021
+ * Licensed under the EUPL-1.2-or-later
+*/
+package nl.buildforce.olingo.server.api.uri;
+
+import nl.buildforce.olingo.server.api.OlingoExtension;
+
+/**
+ * <p>Extension that is informed each time the URI of a request has been parsed and validated successfully, before the
+ * request is dispatched to a processor. Intended to measure the time spent for the URI.</p>
+ * <p>The listener is called by concurrent requests, so implementations have to be thread safe and should return
+ * quickly.</p>
+ */
+public interface UriParseListener extends OlingoExtension {
+
+  /**
+   * @param uriInfo the parsed URI
+   * @param nanos time in nanoseconds needed to parse and validate the URI
+   */
+  void uriParsed(UriInfo uriInfo, long nanos);
+}
@@ -3,6 +3,8 @@
 */
 package nl.buildforce.olingo.server.api.uri.queryoption.apply;
 
+import java.util.List;
+
 import nl.buildforce.olingo.server.api.uri.queryoption.ApplyItem;
 
 /**
@@ -10,12 +12,10 @@ import nl.buildforce.olingo.server.api.uri.queryoption.ApplyItem;
  */
 public interface Aggregate extends ApplyItem {
 
-// --Commented out by Inspection START (''21-03-06 17:15):
-//  /**
-//   * Gets the aggregate expressions.
-//   * @return a non-empty list of aggregate expressions (and never <code>null</code>)
-//   */
-//  List<AggregateExpression> getExpressions();
-// --Commented out by Inspection STOP (''21-03-06 17:15)
+  /**
+   * Gets the aggregate expressions.
+   * @return a non-empty list of aggregate expressions (and never <code>null</code>)
+   */
+  List<AggregateExpression> getExpressions();
 
 }
\ No newline at end of file
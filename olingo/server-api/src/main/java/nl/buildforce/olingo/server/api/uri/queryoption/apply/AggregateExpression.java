@@ -36,30 +36,30 @@ public interface AggregateExpression {
    * Gets the path prefix and the path segment.
    * @return a (potentially empty) list of path segments (and never <code>null</code>)
    */
-  //List<UriResource> getPath();
+  List<UriResource> getPath();
 
   /**
    * Gets the common expression to be aggregated.
    * @return an {@link Expression} that could be <code>null</code>
    */
-  // Expression getExpression();
+  Expression getExpression();
   /**
    * Gets the name of the aggregate if an alias name has been set.
    * @return an identifier String or <code>null</code>
    */
-  // String getAlias();
+  String getAlias();
 
   /**
    * Gets the inline aggregation expression to be applied to the target of the path if used.
    * @return an aggregation expression or <code>null</code>
    * @see #getPath()
    */
-  // AggregateExpression getInlineAggregateExpression();
+  AggregateExpression getInlineAggregateExpression();
 
   /**
    * Gets the aggregate expressions for <code>from</code>.
    * @return a (potentially empty) list of aggregate expressions (but never <code>null</code>)
    */
-  //List<AggregateExpression> getFrom();
+  List<AggregateExpression> getFrom();
 
 }
\ No newline at end of file
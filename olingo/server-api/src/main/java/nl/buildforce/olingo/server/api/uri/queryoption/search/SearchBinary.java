@@ -5,12 +5,10 @@ package nl.buildforce.olingo.server.api.uri.queryoption.search;
 
 public interface SearchBinary extends SearchExpression {
 
-// --Commented out by Inspection START (''21-03-09 23:43):
-//  // --Commented out by Inspection (''21-03-09 23:43):SearchBinaryOperatorKind getOperator();
-//
-//  SearchExpression getLeftOperand();
-//
-//  SearchExpression getRightOperand();
-// --Commented out by Inspection STOP (''21-03-09 23:43)
+  SearchBinaryOperatorKind getOperator();
+
+  SearchExpression getLeftOperand();
+
+  SearchExpression getRightOperand();
 
 }
\ No newline at end of file
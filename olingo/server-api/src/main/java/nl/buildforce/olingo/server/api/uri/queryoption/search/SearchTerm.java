@@ -5,6 +5,6 @@ package nl.buildforce.olingo.server.api.uri.queryoption.search;
 
 public interface SearchTerm extends SearchExpression {
 
-  // String getSearchTerm();
+  String getSearchTerm();
 
 }
\ No newline at end of file
@@ -29,6 +29,7 @@ import nl.buildforce.olingo.server.api.serializer.CustomContentTypeSupport;
 import nl.buildforce.olingo.server.api.serializer.RepresentationType;
 import nl.buildforce.olingo.server.api.serializer.SerializerException;
 import nl.buildforce.olingo.server.api.uri.UriInfo;
+import nl.buildforce.olingo.server.api.uri.UriParseListener;
 import nl.buildforce.olingo.server.api.uri.queryoption.FormatOption;
 import nl.buildforce.olingo.server.api.uri.queryoption.SystemQueryOptionKind;
 import nl.buildforce.olingo.server.core.uri.parser.Parser;
@@ -50,6 +51,7 @@ public class ODataHandlerImpl implements ODataHandler {
 
   private CustomContentTypeSupport customContentTypeSupport;
   private CustomETagSupport customETagSupport;
+  private UriParseListener uriParseListener;
 
   private UriInfo uriInfo;
 
@@ -116,15 +118,15 @@ public class ODataHandlerImpl implements ODataHandler {
 
     validateODataVersion(request);
 
-    // int measurementUriParser = debugger.startRuntimeMeasurement("Parser", "parseUri");
+    final long parseStart = System.nanoTime();
     uriInfo = new Parser(serviceMetadata.getEdm(), odata)
         .parseUri(request.getRawODataPath(), request.getRawQueryPath(), request.getRawBaseUri());
-    // debugger.stopRuntimeMeasurement(measurementUriParser);
 
-    // int measurementUriValidator = debugger.startRuntimeMeasurement("UriValidator", "validate");
     HttpMethod method = request.getMethod();
     new UriValidator().validate(uriInfo, method);
-    // debugger.stopRuntimeMeasurement(measurementUriValidator);
+    if (uriParseListener != null) {
+      uriParseListener.uriParsed(uriInfo, System.nanoTime() - parseStart);
+    }
 
     // int measurementDispatcher = debugger.startRuntimeMeasurement("ODataDispatcher", "dispatch");
     new ODataDispatcher(uriInfo, this).dispatch(request, response);
@@ -219,6 +221,8 @@ public class ODataHandlerImpl implements ODataHandler {
       customContentTypeSupport = (CustomContentTypeSupport) extension;
     } else if(extension instanceof CustomETagSupport) {
       customETagSupport = (CustomETagSupport) extension;
+    } else if(extension instanceof UriParseListener) {
+      uriParseListener = (UriParseListener) extension;
     } else {
       throw new ODataRuntimeException("Got not supported exception with class name " +
           extension.getClass().getSimpleName());
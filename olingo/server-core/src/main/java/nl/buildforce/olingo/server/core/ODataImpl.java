@@ -17,6 +17,7 @@ import nl.buildforce.olingo.commons.api.edmx.EdmxReference;
 import nl.buildforce.olingo.commons.api.format.ContentType;
 import nl.buildforce.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
 import nl.buildforce.olingo.server.api.OData;
+import nl.buildforce.olingo.server.api.ODataHandler;
 import nl.buildforce.olingo.server.api.ODataHttpHandler;
 import nl.buildforce.olingo.server.api.ServiceMetadata;
 import nl.buildforce.olingo.server.api.deserializer.DeserializerException;
@@ -32,7 +33,7 @@ import nl.buildforce.olingo.server.api.serializer.ODataSerializer;
 import nl.buildforce.olingo.server.api.serializer.SerializerException;
 import nl.buildforce.olingo.server.api.uri.UriHelper;
 import nl.buildforce.olingo.server.core.deserializer.FixedFormatDeserializerImpl;
-import nl.buildforce.olingo.server.core.deserializer.json.ODataJsonDeserializer;
+import nl.buildforce.olingo.server.core.deserializer.json.ODataJsonStreamDeserializer;
 import nl.buildforce.olingo.server.core.deserializer.xml.ODataXmlDeserializer;
 import nl.buildforce.olingo.server.core.etag.ETagHelperImpl;
 import nl.buildforce.olingo.server.core.prefer.PreferencesImpl;
@@ -153,12 +154,10 @@ public class ODataImpl extends OData {
     return new ODataHttpHandlerImpl(this, serviceMetadata);
   }
 
-/*
   @Override
   public ODataHandler createRawHandler(ServiceMetadata serviceMetadata) {
     return new ODataHandlerImpl(this, serviceMetadata);
   }
-*/
 
   @Override
   public ServiceMetadata createServiceMetadata(CsdlEdmProvider edmProvider, List<EdmxReference> references) {
@@ -184,7 +183,7 @@ public class ODataImpl extends OData {
   @Override
   public ODataDeserializer createDeserializer(ContentType contentType) throws DeserializerException {
     if (contentType != null && contentType.isCompatible(ContentType.CT_JSON)) {
-      return new ODataJsonDeserializer(contentType);
+      return new ODataJsonStreamDeserializer(contentType);
     } else if (contentType != null && (contentType.isCompatible(ContentType.APPLICATION_XML)
         || contentType.isCompatible(ContentType.APPLICATION_ATOM_XML))) {
       return new ODataXmlDeserializer();
@@ -200,7 +199,7 @@ public class ODataImpl extends OData {
   public ODataDeserializer createDeserializer(ContentType contentType,
                                               ServiceMetadata metadata) throws DeserializerException {
     if (contentType != null && contentType.isCompatible(ContentType.CT_JSON)) {
-      return new ODataJsonDeserializer(contentType, metadata);
+      return new ODataJsonStreamDeserializer(contentType, metadata);
     } else if (contentType != null && (contentType.isCompatible(ContentType.APPLICATION_XML)
         || contentType.isCompatible(ContentType.APPLICATION_ATOM_XML))) {
       return new ODataXmlDeserializer(metadata);
@@ -243,7 +242,7 @@ public class ODataImpl extends OData {
       constants = new Constantsv01() ;
     }
     if (contentType != null && contentType.isCompatible(ContentType.CT_JSON)) {
-      return new ODataJsonDeserializer(contentType, constants);
+      return new ODataJsonStreamDeserializer(contentType, constants);
     } else if (contentType != null && (contentType.isCompatible(ContentType.APPLICATION_XML)
         || contentType.isCompatible(ContentType.APPLICATION_ATOM_XML))) {
       return new ODataXmlDeserializer();
@@ -264,7 +263,7 @@ public class ODataImpl extends OData {
       constants = new Constantsv01() ;
     }
     if (contentType != null && contentType.isCompatible(ContentType.CT_JSON)) {
-      return new ODataJsonDeserializer(contentType, metadata, constants);
+      return new ODataJsonStreamDeserializer(contentType, metadata, constants);
     } else if (contentType != null && (contentType.isCompatible(ContentType.APPLICATION_XML)
         || contentType.isCompatible(ContentType.APPLICATION_ATOM_XML))) {
       return new ODataXmlDeserializer(metadata);
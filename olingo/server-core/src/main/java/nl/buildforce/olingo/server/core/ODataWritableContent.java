@@ -74,6 +74,10 @@ public class ODataWritableContent implements ODataContent {
           WriteErrorContext errorContext = new WriteErrorContext(e);
           errorCallback.handleError(errorContext, Channels.newChannel(out));
         }
+      } finally {
+        // Also if writing has been aborted, e.g. as the client went away
+        if (iterator != null)
+          iterator.close();
       }
     }
   }
@@ -25,6 +25,7 @@ import nl.buildforce.olingo.server.api.deserializer.DeserializerException;
 import nl.buildforce.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import nl.buildforce.olingo.server.api.deserializer.batch.BatchOptions;
 import nl.buildforce.olingo.server.api.deserializer.batch.BatchRequestPart;
+import nl.buildforce.olingo.server.api.deserializer.batch.BatchRequestPartReader;
 import nl.buildforce.olingo.server.core.deserializer.batch.BatchParser;
 import nl.buildforce.olingo.server.core.deserializer.json.ODataJsonDeserializer;
 
@@ -120,4 +121,9 @@ public class FixedFormatDeserializerImpl implements FixedFormatDeserializer {
     return parser.parseBatchRequest(content, boundary, options);
   }
 
+  @Override
+  public BatchRequestPartReader readBatchRequest(InputStream content, String boundary, BatchOptions options) {
+    return new BatchParser().readBatchRequest(content, boundary, options);
+  }
+
 }
\ No newline at end of file
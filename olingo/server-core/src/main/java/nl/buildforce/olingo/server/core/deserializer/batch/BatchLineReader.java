@@ -31,6 +31,8 @@ public class BatchLineReader {
   private final byte[] buffer;
   private int offset;
   private int limit;
+  private int lineNumber;
+  private ByteBuffer innerBuffer = ByteBuffer.allocate(BUFFER_SIZE);
 
   public BatchLineReader(InputStream reader) {
     this(reader, BUFFER_SIZE);
@@ -65,20 +67,29 @@ public class BatchLineReader {
 
   public List<Line> toLineList() throws IOException {
     List<Line> result = new ArrayList<>();
-    String currentLine = readLine();
-    if (currentLine != null) {
-      currentBoundary = currentLine.trim();
-      int counter = 1;
-      result.add(new Line(currentLine, counter++));
-
-      while ((currentLine = readLine()) != null) {
-        result.add(new Line(currentLine, counter++));
-      }
+    Line currentLine;
+    while ((currentLine = nextLine()) != null) {
+      result.add(currentLine);
     }
 
     return result;
   }
 
+  /**
+   * Reads the next line together with its line number, so a message can be processed without keeping all lines.
+   * @return the line or <code>null</code> if the end of the content has been reached
+   */
+  public Line nextLine() throws IOException {
+    String currentLine = readLine();
+    if (currentLine == null) {
+      return null;
+    }
+    if (lineNumber == 0) {
+      currentBoundary = currentLine.trim();
+    }
+    return new Line(currentLine, ++lineNumber);
+  }
+
   private void updateCurrentCharset(String currentLine) {
     if (currentLine != null) {
       if (currentLine.startsWith(CONTENT_TYPE)) {
@@ -115,7 +126,7 @@ public class BatchLineReader {
       return null;
     }
 
-    ByteBuffer innerBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+    innerBuffer.clear();
     // EOF will be considered as line ending
     boolean foundLineEnd = false;
 
@@ -138,7 +138,7 @@ public class BatchParserCommon {
     return messageParts;
   }
 
-  private static void removeEndingCRLFFromList(List<Line> list) {
+  static void removeEndingCRLFFromList(List<Line> list) {
     if (!list.isEmpty()) {
       Line lastLine = list.remove(list.size() - 1);
       list.add(removeEndingCRLF(lastLine));
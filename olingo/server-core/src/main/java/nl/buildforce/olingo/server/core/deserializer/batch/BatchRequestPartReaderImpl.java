@@ -0,0 +1,96 @@
+/* Copyright Buildƒorce Digital i.o. 2021
+ * Licensed under the EUPL-1.2-or-later
+*/
+package nl.buildforce.olingo.server.core.deserializer.batch;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import nl.buildforce.olingo.commons.api.ex.ODataRuntimeException;
+import nl.buildforce.olingo.server.api.deserializer.batch.BatchDeserializerException;
+import nl.buildforce.olingo.server.api.deserializer.batch.BatchRequestPart;
+import nl.buildforce.olingo.server.api.deserializer.batch.BatchRequestPartReader;
+
+/**
+ * Splits a batch request at its boundaries while the body is read. Only the lines of the current body part are kept;
+ * the split follows {@link BatchParserCommon#splitMessageByBoundary(List, String)}.
+ */
+public class BatchRequestPartReaderImpl implements BatchRequestPartReader {
+  private final BatchLineReader reader;
+  private final String boundary;
+  private final boolean isStrict;
+  private final BatchRequestTransformator transformator;
+  private final Pattern boundaryDelimiterPattern;
+  private final Pattern boundaryPattern;
+  private final Deque<BatchRequestPart> transformedParts = new ArrayDeque<>();
+  private boolean isStarted;
+  private boolean isEndReached;
+  private int firstLineNumber;
+
+  public BatchRequestPartReaderImpl(BatchLineReader reader, String boundary, boolean isStrict,
+                                    BatchRequestTransformator transformator) {
+    this.reader = reader;
+    this.boundary = boundary;
+    this.isStrict = isStrict;
+    this.transformator = transformator;
+
+    String quotedBoundary = Pattern.quote(boundary);
+    boundaryDelimiterPattern = Pattern.compile("--" + quotedBoundary + "--\\s*");
+    boundaryPattern = Pattern.compile("--" + quotedBoundary + "\\s*");
+  }
+
+  @Override
+  public BatchRequestPart next() throws BatchDeserializerException {
+    try {
+      while (transformedParts.isEmpty() && !isEndReached) {
+        if (!isStarted) {
+          // The preamble is dropped
+          readBodyPart();
+          isStarted = true;
+        } else {
+          List<Line> bodyPartLines = readBodyPart();
+          BatchBodyPart bodyPart = new BatchBodyPart(bodyPartLines, boundary, isStrict).parse();
+          transformedParts.addAll(transformator.transform(bodyPart));
+        }
+      }
+    } catch (IOException e) {
+      throw new ODataRuntimeException(e);
+    }
+    return transformedParts.poll();
+  }
+
+  /**
+   * Reads the lines up to the next boundary. The boundary itself is consumed.
+   */
+  private List<Line> readBodyPart() throws IOException, BatchDeserializerException {
+    List<Line> currentPart = new ArrayList<>();
+    Line currentLine;
+
+    while ((currentLine = reader.nextLine()) != null) {
+      if (firstLineNumber == 0) {
+        firstLineNumber = currentLine.getLineNumber();
+      }
+      if (boundaryDelimiterPattern.matcher(currentLine.toString()).matches()) {
+        isEndReached = true;
+        reader.close();
+        break;
+      } else if (boundaryPattern.matcher(currentLine.toString()).matches()) {
+        break;
+      } else {
+        currentPart.add(currentLine);
+      }
+    }
+
+    if (currentLine == null) {
+      reader.close();
+      throw new BatchDeserializerException("Missing close boundary delimiter",
+          BatchDeserializerException.MessageKeys.MISSING_CLOSE_DELIMITER, Integer.toString(firstLineNumber));
+    }
+    BatchParserCommon.removeEndingCRLFFromList(currentPart);
+    return currentPart;
+  }
+}
@@ -68,13 +68,13 @@ import java.util.Map;
 
 public class ODataJsonDeserializer implements ODataDeserializer {
 
-  private static final String ODATA_ANNOTATION_MARKER = "@";
-  private static final String ODATA_CONTROL_INFORMATION_PREFIX = "@odata.";
+  static final String ODATA_ANNOTATION_MARKER = "@";
+  static final String ODATA_CONTROL_INFORMATION_PREFIX = "@odata.";
   private static final String REASON = "reason";
 
   private final boolean isIEEE754Compatible;
   private ServiceMetadata serviceMetadata;
-  private final IConstants constants;
+  final IConstants constants;
 
   public ODataJsonDeserializer(ContentType contentType) {
     this(contentType, null, new Constantsv00());
@@ -207,44 +207,8 @@ public ODataJsonDeserializer(ContentType contentType, ServiceMetadata serviceMet
         JsonNode jsonNode = node.get(delta);
         EdmNavigationProperty edmNavigationProperty = edmEntityType.getNavigationProperty(navigationPropertyName);
         if (jsonNode != null && jsonNode.isArray() && edmNavigationProperty.isCollection()) {
-          checkNotNullOrValidNull(jsonNode, edmNavigationProperty);
-          Link link = new Link();
-          link.setType(Constants.ENTITY_SET_NAVIGATION_LINK_TYPE);
-          link.setTitle(navigationPropertyName);
-          Delta deltaValue = new Delta();
-          for (JsonNode arrayElement : jsonNode) {
-            String removed = Constants.AT + Constants.REMOVED;
-            if (arrayElement.get(removed) != null) {
-              //if @removed is present create a DeletedEntity Object
-              JsonNode reasonNode = arrayElement.get(removed);
-              DeletedEntity deletedEntity = new DeletedEntity();
-              Reason reason = null;
-              if (reasonNode.get(REASON) != null) {
-                if(reasonNode.get(REASON).asText().equals(Reason.changed.name())){
-                  reason = Reason.changed;
-                }else if(reasonNode.get(REASON).asText().equals(Reason.deleted.name())){
-                  reason = Reason.deleted;
-                }
-              }else{
-                throw new DeserializerException("DeletedEntity reason is null.",
-                    SerializerException.MessageKeys.MISSING_DELTA_PROPERTY, Constants.REASON);
-              }
-              deletedEntity.setReason(reason);
-              try {
-                deletedEntity.setId(new URI(arrayElement.get(constants.getId()).asText()));
-              } catch (URISyntaxException e) {
-                throw new DeserializerException("Could not set Id for deleted Entity", e,
-                    DeserializerException.MessageKeys.UNKNOWN_CONTENT);
-              }
-              deltaValue.getDeletedEntities().add(deletedEntity);
-            } else {
-              //For @id and properties create normal entity
-              Entity inlineEntity = consumeEntityNode(edmEntityType, (ObjectNode) arrayElement, expandBuilder);
-              deltaValue.getEntities().add(inlineEntity);
-            }
-          }
-          link.setInlineEntitySet(deltaValue);
-          entity.getNavigationLinks().add(link);
+          entity.getNavigationLinks().add(createDeltaLink(edmEntityType, navigationPropertyName, jsonNode,
+              edmNavigationProperty, expandBuilder));
           node.remove(navigationPropertyName);
         }
       }
@@ -252,16 +216,65 @@ public ODataJsonDeserializer(ContentType contentType, ServiceMetadata serviceMet
 
   }
 
+  /**
+   * Creates the link of a v4.01 delta payload of a collection valued navigation property.
+   */
+  Link createDeltaLink(EdmEntityType edmEntityType, String navigationPropertyName, JsonNode jsonNode,
+      EdmNavigationProperty edmNavigationProperty, ExpandTreeBuilder expandBuilder) throws DeserializerException {
+    checkNotNullOrValidNull(jsonNode, edmNavigationProperty);
+    Link link = new Link();
+    link.setType(Constants.ENTITY_SET_NAVIGATION_LINK_TYPE);
+    link.setTitle(navigationPropertyName);
+    Delta deltaValue = new Delta();
+    for (JsonNode arrayElement : jsonNode) {
+      String removed = Constants.AT + Constants.REMOVED;
+      if (arrayElement.get(removed) != null) {
+        //if @removed is present create a DeletedEntity Object
+        JsonNode reasonNode = arrayElement.get(removed);
+        DeletedEntity deletedEntity = new DeletedEntity();
+        Reason reason = null;
+        if (reasonNode.get(REASON) != null) {
+          if(reasonNode.get(REASON).asText().equals(Reason.changed.name())){
+            reason = Reason.changed;
+          }else if(reasonNode.get(REASON).asText().equals(Reason.deleted.name())){
+            reason = Reason.deleted;
+          }
+        }else{
+          throw new DeserializerException("DeletedEntity reason is null.",
+              SerializerException.MessageKeys.MISSING_DELTA_PROPERTY, Constants.REASON);
+        }
+        deletedEntity.setReason(reason);
+        try {
+          deletedEntity.setId(new URI(arrayElement.get(constants.getId()).asText()));
+        } catch (URISyntaxException e) {
+          throw new DeserializerException("Could not set Id for deleted Entity", e,
+              DeserializerException.MessageKeys.UNKNOWN_CONTENT);
+        }
+        deltaValue.getDeletedEntities().add(deletedEntity);
+      } else {
+        //For @id and properties create normal entity
+        Entity inlineEntity = consumeEntityNode(edmEntityType, (ObjectNode) arrayElement, expandBuilder);
+        deltaValue.getEntities().add(inlineEntity);
+      }
+    }
+    link.setInlineEntitySet(deltaValue);
+    return link;
+  }
+
   private void consumeId(ObjectNode node, Entity entity) 
       throws DeserializerException {
     if (node.get(constants.getId()) != null && constants instanceof Constantsv01) {
-      try {
-        entity.setId(new URI(node.get(constants.getId()).textValue()));
-        node.remove(constants.getId());
-      } catch (URISyntaxException e) {
-        throw new DeserializerException("Could not form Id", e,
-            DeserializerException.MessageKeys.UNKNOWN_CONTENT);
-      }
+      setId(entity, node.get(constants.getId()));
+      node.remove(constants.getId());
+    }
+  }
+
+  void setId(Entity entity, JsonNode idNode) throws DeserializerException {
+    try {
+      entity.setId(new URI(idNode.textValue()));
+    } catch (URISyntaxException e) {
+      throw new DeserializerException("Could not form Id", e,
+          DeserializerException.MessageKeys.UNKNOWN_CONTENT);
     }
   }
 
@@ -459,7 +472,7 @@ public ODataJsonDeserializer(ContentType contentType, ServiceMetadata serviceMet
    * @param edmNavigationProperty related navigation property
    * @throws DeserializerException if jsonNode is not null or if null but nullable or collection navigationProperty
    */
-  private void checkNotNullOrValidNull(JsonNode jsonNode,
+  void checkNotNullOrValidNull(JsonNode jsonNode,
                                        EdmNavigationProperty edmNavigationProperty) throws DeserializerException {
     boolean isNullable = edmNavigationProperty.isNullable();
     if ((jsonNode.isNull() && !isNullable) || (jsonNode.isNull() && edmNavigationProperty.isCollection())) {
@@ -468,7 +481,7 @@ public ODataJsonDeserializer(ContentType contentType, ServiceMetadata serviceMet
     }
   }
 
-  private Link createLink(ExpandTreeBuilder expandBuilder, String navigationPropertyName,
+  Link createLink(ExpandTreeBuilder expandBuilder, String navigationPropertyName,
                           JsonNode jsonNode,
                           EdmNavigationProperty edmNavigationProperty) throws DeserializerException {
     Link link = new Link();
@@ -498,7 +511,7 @@ public ODataJsonDeserializer(ContentType contentType, ServiceMetadata serviceMet
     return link;
   }
   
-  private Link consumeBindingLink(String key, JsonNode jsonNode, EdmEntityType edmEntityType)
+  Link consumeBindingLink(String key, JsonNode jsonNode, EdmEntityType edmEntityType)
       throws DeserializerException {
     String[] splitKey = key.split(ODATA_ANNOTATION_MARKER);
     String navigationPropertyName = splitKey[0];
@@ -550,7 +563,7 @@ public ODataJsonDeserializer(ContentType contentType, ServiceMetadata serviceMet
     }
   }
 
-  private Property consumePropertyNode(String name, EdmType type, boolean isCollection,
+  Property consumePropertyNode(String name, EdmType type, boolean isCollection,
                                        boolean isNullable, Integer maxLength, Integer precision, Integer scale,
                                        boolean isUnicode, EdmMapping mapping, JsonNode jsonNode) throws DeserializerException {
     Property property = new Property();
@@ -682,7 +695,7 @@ public ODataJsonDeserializer(ContentType contentType, ServiceMetadata serviceMet
     return complexValue;
   }
 
-  private Object readPrimitiveValue(String name, EdmPrimitiveType type,
+  Object readPrimitiveValue(String name, EdmPrimitiveType type,
                                     boolean isNullable, Integer maxLength, Integer precision, Integer scale,
                                     boolean isUnicode, EdmMapping mapping, JsonNode jsonNode) throws DeserializerException {
     if (isValidNull(name, isNullable, jsonNode)) {
@@ -900,7 +913,7 @@ public ODataJsonDeserializer(ContentType contentType, ServiceMetadata serviceMet
     }
   }
 
-  private DeserializerException wrapParseException(IOException e) {
+  DeserializerException wrapParseException(IOException e) {
     if (e instanceof JsonParseException) {
       return new DeserializerException("A JsonParseException occurred.", e,
           DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION);
@@ -915,7 +928,18 @@ public ODataJsonDeserializer(ContentType contentType, ServiceMetadata serviceMet
 
   private EdmType getDerivedType(EdmStructuredType edmType, JsonNode jsonNode)
       throws DeserializerException {
-    JsonNode odataTypeNode = jsonNode.get(constants.getType());
+    return getDerivedTypeOf(edmType, jsonNode.get(constants.getType()));
+  }
+
+  /**
+   * Resolves the type given by the value of an <code>@odata.type</code> control information.
+   * @param edmType declared type
+   * @param odataTypeNode value of the control information or null
+   * @return the declared type or a type derived from it
+   * @throws DeserializerException if the type is unknown or not derived from the declared type
+   */
+  EdmType getDerivedTypeOf(EdmStructuredType edmType, JsonNode odataTypeNode)
+      throws DeserializerException {
     if (odataTypeNode != null) {
       String odataType = odataTypeNode.asText();
       if (!odataType.isEmpty()) {
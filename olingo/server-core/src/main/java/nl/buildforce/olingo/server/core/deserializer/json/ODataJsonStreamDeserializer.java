@@ -0,0 +1,423 @@
+/* Copyright Buildƒorce Digital i.o. 2021
+ * Licensed under the EUPL-1.2-or-later
+*/
+package nl.buildforce.olingo.server.core.deserializer.json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.NullNode;
+import nl.buildforce.olingo.commons.api.Constants;
+import nl.buildforce.olingo.commons.api.IConstants;
+import nl.buildforce.olingo.commons.api.constants.Constantsv00;
+import nl.buildforce.olingo.commons.api.constants.Constantsv01;
+import nl.buildforce.olingo.commons.api.data.ComplexValue;
+import nl.buildforce.olingo.commons.api.data.Entity;
+import nl.buildforce.olingo.commons.api.data.EntityCollection;
+import nl.buildforce.olingo.commons.api.data.Link;
+import nl.buildforce.olingo.commons.api.data.Property;
+import nl.buildforce.olingo.commons.api.data.ValueType;
+import nl.buildforce.olingo.commons.api.edm.EdmComplexType;
+import nl.buildforce.olingo.commons.api.edm.EdmElement;
+import nl.buildforce.olingo.commons.api.edm.EdmEntityType;
+import nl.buildforce.olingo.commons.api.edm.EdmNavigationProperty;
+import nl.buildforce.olingo.commons.api.edm.EdmPrimitiveType;
+import nl.buildforce.olingo.commons.api.edm.EdmProperty;
+import nl.buildforce.olingo.commons.api.edm.EdmStructuredType;
+import nl.buildforce.olingo.commons.api.edm.EdmType;
+import nl.buildforce.olingo.commons.api.edm.constants.EdmTypeKind;
+import nl.buildforce.olingo.commons.api.format.ContentType;
+import nl.buildforce.olingo.server.api.ServiceMetadata;
+import nl.buildforce.olingo.server.api.deserializer.DeserializerException;
+import nl.buildforce.olingo.server.api.deserializer.DeserializerException.MessageKeys;
+import nl.buildforce.olingo.server.api.deserializer.DeserializerResult;
+import nl.buildforce.olingo.server.core.deserializer.DeserializerResultImpl;
+import nl.buildforce.olingo.server.core.deserializer.helper.ExpandTreeBuilder;
+import nl.buildforce.olingo.server.core.deserializer.helper.ExpandTreeBuilderImpl;
+
+/**
+ * JSON deserializer that reads entities directly from the tokens of a {@link JsonParser}, instead of parsing the whole
+ * request body into a tree first. Entities, navigation links, complex values and collections are created while the
+ * body is read and validated against the entity type, so memory is needed for the resulting entity graph only.
+ * <p>Only single values, binding annotations, v4.01 delta arrays and fields that can first be mapped after a later
+ * <code>@odata.type</code> are materialized as small trees and handed over to the tree based implementation of
+ * {@link ODataJsonDeserializer}. The result equals the one of the tree based implementation, including the order of the
+ * properties and navigation links.</p>
+ */
+public class ODataJsonStreamDeserializer extends ODataJsonDeserializer {
+
+  private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+      .configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true);
+  private static final String DELTA_SUFFIX = Constants.AT + Constants.DELTAVALUE;
+
+  public ODataJsonStreamDeserializer(ContentType contentType) {
+    this(contentType, null, new Constantsv00());
+  }
+
+  public ODataJsonStreamDeserializer(ContentType contentType, ServiceMetadata serviceMetadata) {
+    this(contentType, serviceMetadata, new Constantsv00());
+  }
+
+  public ODataJsonStreamDeserializer(ContentType contentType, ServiceMetadata serviceMetadata,
+      IConstants constants) {
+    super(contentType, serviceMetadata, constants);
+  }
+
+  public ODataJsonStreamDeserializer(ContentType contentType, IConstants constants) {
+    this(contentType, null, constants);
+  }
+
+  @Override
+  public DeserializerResult entity(InputStream stream, EdmEntityType edmEntityType)
+      throws DeserializerException {
+    try (JsonParser parser = OBJECT_MAPPER.getFactory().createParser(stream)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new DeserializerException("Invalid JSON syntax.",
+            DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION);
+      }
+      ExpandTreeBuilder expandBuilder = ExpandTreeBuilderImpl.create();
+      Entity entity = readEntity(parser, edmEntityType, expandBuilder);
+      return DeserializerResultImpl.with().entity(entity)
+          .expandOption(expandBuilder.build())
+          .build();
+    } catch (IOException e) {
+      throw wrapParseException(e);
+    }
+  }
+
+  /**
+   * Reads an entity. The parser has to be positioned at the start of the JSON object and is positioned at its end
+   * afterwards.
+   */
+  private Entity readEntity(JsonParser parser, EdmEntityType declaredType, ExpandTreeBuilder expandBuilder)
+      throws IOException, DeserializerException {
+    EdmEntityType edmEntityType = declaredType;
+    Entity entity = new Entity();
+    List<Property> properties = new ArrayList<>();
+    List<Link> navigationLinks = new ArrayList<>();
+    List<Link> deltaLinks = new ArrayList<>();
+    Map<String, JsonNode> pending = null;
+    Set<String> fieldNames = new HashSet<>();
+
+    while (nextField(parser, fieldNames)) {
+      String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      EdmProperty edmProperty = structuralProperty(edmEntityType, fieldName);
+      EdmNavigationProperty edmNavigationProperty = edmEntityType.getNavigationProperty(fieldName);
+
+      if (edmProperty != null) {
+        properties.add(readProperty(parser, edmProperty));
+      } else if (edmNavigationProperty != null) {
+        checkNotNullOrValidNull(parser, edmNavigationProperty);
+        navigationLinks.add(readLink(parser, fieldName, edmNavigationProperty, expandBuilder));
+      } else if (fieldName.equals(constants.getType())) {
+        edmEntityType = (EdmEntityType) getDerivedTypeOf(declaredType, readTree(parser));
+      } else if (constants instanceof Constantsv01 && fieldName.equals(constants.getId())) {
+        setId(entity, readTree(parser));
+      } else if (fieldName.contains(constants.getBind())) {
+        if (edmEntityType.getNavigationProperty(fieldName.split(ODATA_ANNOTATION_MARKER)[0]) != null) {
+          entity.getNavigationBindings().add(consumeBindingLink(fieldName, readTree(parser), edmEntityType));
+        } else {
+          pending = addPending(pending, fieldName, parser);
+        }
+      } else if (isDelta(edmEntityType, fieldName, parser)) {
+        String navigationPropertyName = fieldName.substring(0, fieldName.length() - DELTA_SUFFIX.length());
+        deltaLinks.add(createDeltaLink(edmEntityType, navigationPropertyName, readTree(parser),
+            edmEntityType.getNavigationProperty(navigationPropertyName), expandBuilder));
+      } else if (fieldName.contains(ODATA_ANNOTATION_MARKER)) {
+        skipAnnotation(parser, fieldName);
+      } else {
+        pending = addPending(pending, fieldName, parser);
+      }
+    }
+
+    if (pending != null) {
+      for (Map.Entry<String, JsonNode> field : pending.entrySet()) {
+        String fieldName = field.getKey();
+        JsonNode jsonNode = field.getValue();
+        EdmProperty edmProperty = structuralProperty(edmEntityType, fieldName);
+        EdmNavigationProperty edmNavigationProperty = edmEntityType.getNavigationProperty(fieldName);
+        if (edmProperty != null) {
+          properties.add(consumePropertyNode(edmProperty, jsonNode));
+        } else if (edmNavigationProperty != null) {
+          checkNotNullOrValidNull(jsonNode, edmNavigationProperty);
+          navigationLinks.add(createLink(expandBuilder, fieldName, jsonNode, edmNavigationProperty));
+        } else if (fieldName.contains(constants.getBind())) {
+          entity.getNavigationBindings().add(consumeBindingLink(fieldName, jsonNode, edmEntityType));
+        } else {
+          throw unknownContent(fieldName);
+        }
+      }
+    }
+
+    entity.setType(edmEntityType.getFullQualifiedName().getFullQualifiedNameAsString());
+    entity.getProperties().addAll(sort(properties, edmEntityType.getPropertyNames(), Property::getName));
+    entity.getNavigationLinks().addAll(sort(navigationLinks, edmEntityType.getNavigationPropertyNames(),
+        Link::getTitle));
+    entity.getNavigationLinks().addAll(deltaLinks);
+    return entity;
+  }
+
+  private Link readLink(JsonParser parser, String navigationPropertyName,
+      EdmNavigationProperty edmNavigationProperty, ExpandTreeBuilder expandBuilder)
+      throws IOException, DeserializerException {
+    Link link = new Link();
+    link.setTitle(navigationPropertyName);
+    ExpandTreeBuilder childExpandBuilder = (expandBuilder != null) ? expandBuilder.expand(edmNavigationProperty)
+        : null;
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.START_ARRAY && edmNavigationProperty.isCollection()) {
+      link.setType(Constants.ENTITY_SET_NAVIGATION_LINK_TYPE);
+      EntityCollection inlineEntitySet = new EntityCollection();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+          throw new DeserializerException("Nested Arrays and primitive values are not allowed for an entity value.",
+              DeserializerException.MessageKeys.INVALID_ENTITY);
+        }
+        inlineEntitySet.getEntities().add(readEntity(parser, edmNavigationProperty.getType(), childExpandBuilder));
+      }
+      link.setInlineEntitySet(inlineEntitySet);
+    } else if ((token == JsonToken.START_OBJECT || token == JsonToken.VALUE_NULL)
+        && !edmNavigationProperty.isCollection()) {
+      link.setType(Constants.ENTITY_NAVIGATION_LINK_TYPE);
+      if (token == JsonToken.START_OBJECT) {
+        link.setInlineEntity(readEntity(parser, edmNavigationProperty.getType(), childExpandBuilder));
+      }
+    } else {
+      throw new DeserializerException("Invalid value: " + readTree(parser).getNodeType()
+          + " for expanded navigation property: " + navigationPropertyName,
+          MessageKeys.INVALID_VALUE_FOR_NAVIGATION_PROPERTY, navigationPropertyName);
+    }
+    return link;
+  }
+
+  private Property readProperty(JsonParser parser, EdmProperty edmProperty)
+      throws IOException, DeserializerException {
+    if (parser.currentToken() == JsonToken.VALUE_NULL && !edmProperty.isNullable()) {
+      throw new DeserializerException("Property: " + edmProperty.getName() + " must not be null.",
+          DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, edmProperty.getName());
+    }
+    String name = edmProperty.getName();
+    EdmType type = edmProperty.getType();
+    Property property = new Property();
+    property.setName(name);
+    property.setType(type.getFullQualifiedName().getFullQualifiedNameAsString());
+    if (edmProperty.isCollection()) {
+      readPropertyCollection(parser, edmProperty, property);
+    } else {
+      switch (type.getKind()) {
+      case PRIMITIVE:
+      case DEFINITION:
+      case ENUM:
+        property.setValue(type.getKind() == EdmTypeKind.ENUM ? ValueType.ENUM : ValueType.PRIMITIVE,
+            readPrimitive(parser, edmProperty));
+        break;
+      case COMPLEX:
+        ComplexValue value = readComplexValue(parser, name, (EdmComplexType) type, edmProperty.isNullable());
+        if (value != null) {
+          property.setType(value.getTypeName());
+        }
+        property.setValue(ValueType.COMPLEX, value);
+        break;
+      default:
+        throw new DeserializerException("Invalid Type Kind for a property found: " + type.getKind(),
+            DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
+      }
+    }
+    return property;
+  }
+
+  private void readPropertyCollection(JsonParser parser, EdmProperty edmProperty, Property property)
+      throws IOException, DeserializerException {
+    String name = edmProperty.getName();
+    EdmType type = edmProperty.getType();
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      throw new DeserializerException("Value for property: " + name + " must be an array but is not.",
+          DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
+    }
+    List<Object> valueArray = new ArrayList<>();
+    switch (type.getKind()) {
+      case PRIMITIVE, DEFINITION, ENUM -> {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          valueArray.add(readPrimitive(parser, edmProperty));
+        }
+        property.setValue(type.getKind() == EdmTypeKind.ENUM ? ValueType.COLLECTION_ENUM
+            : ValueType.COLLECTION_PRIMITIVE, valueArray);
+      }
+      case COMPLEX -> {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+          valueArray.add(readComplexValue(parser, name, (EdmComplexType) type, edmProperty.isNullable()));
+        }
+        property.setValue(ValueType.COLLECTION_COMPLEX, valueArray);
+      }
+      default -> throw new DeserializerException("Invalid Type Kind for a property found: " + type.getKind(),
+          MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
+    }
+  }
+
+  private Object readPrimitive(JsonParser parser, EdmProperty edmProperty)
+      throws IOException, DeserializerException {
+    return readPrimitiveValue(edmProperty.getName(), (EdmPrimitiveType) edmProperty.getType(),
+        edmProperty.isNullable(), edmProperty.getMaxLength(), edmProperty.getPrecision(), edmProperty.getScale(),
+        edmProperty.isUnicode(), edmProperty.getMapping(), readTree(parser));
+  }
+
+  private ComplexValue readComplexValue(JsonParser parser, String name, EdmComplexType declaredType,
+      boolean isNullable) throws IOException, DeserializerException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      if (isNullable) {
+        return null;
+      }
+      throw new DeserializerException("Property: " + name + " must not be null.",
+          DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, name);
+    }
+    if (token != JsonToken.START_OBJECT) {
+      throw new DeserializerException(
+          "Invalid value for property: " + name + " must not be an array or primitive value.",
+          DeserializerException.MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY, name);
+    }
+    EdmComplexType edmType = declaredType;
+    List<Property> properties = new ArrayList<>();
+    Map<String, JsonNode> pending = null;
+    Set<String> fieldNames = new HashSet<>();
+
+    while (nextField(parser, fieldNames)) {
+      String fieldName = parser.getCurrentName();
+      parser.nextToken();
+      EdmProperty edmProperty = structuralProperty(edmType, fieldName);
+      if (edmProperty != null) {
+        properties.add(readProperty(parser, edmProperty));
+      } else if (fieldName.equals(constants.getType())) {
+        edmType = (EdmComplexType) getDerivedTypeOf(declaredType, readTree(parser));
+      } else if (fieldName.contains(ODATA_ANNOTATION_MARKER)) {
+        skipAnnotation(parser, fieldName);
+      } else {
+        pending = addPending(pending, fieldName, parser);
+      }
+    }
+
+    if (pending != null) {
+      for (Map.Entry<String, JsonNode> field : pending.entrySet()) {
+        EdmProperty edmProperty = structuralProperty(edmType, field.getKey());
+        if (edmProperty == null) {
+          throw unknownContent(field.getKey());
+        }
+        properties.add(consumePropertyNode(edmProperty, field.getValue()));
+      }
+    }
+
+    // Even if there are no properties defined we have to give back an empty list
+    ComplexValue complexValue = new ComplexValue();
+    complexValue.getValue().addAll(sort(properties, edmType.getPropertyNames(), Property::getName));
+    complexValue.setTypeName(edmType.getFullQualifiedName().getFullQualifiedNameAsString());
+    return complexValue;
+  }
+
+  /**
+   * Tree based fallback for a property, that could first be mapped after the type of its object was known.
+   */
+  private Property consumePropertyNode(EdmProperty edmProperty, JsonNode jsonNode) throws DeserializerException {
+    if (jsonNode.isNull() && !edmProperty.isNullable()) {
+      throw new DeserializerException("Property: " + edmProperty.getName() + " must not be null.",
+          DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, edmProperty.getName());
+    }
+    return consumePropertyNode(edmProperty.getName(), edmProperty.getType(), edmProperty.isCollection(),
+        edmProperty.isNullable(), edmProperty.getMaxLength(), edmProperty.getPrecision(), edmProperty.getScale(),
+        edmProperty.isUnicode(), edmProperty.getMapping(), jsonNode);
+  }
+
+  private void checkNotNullOrValidNull(JsonParser parser, EdmNavigationProperty edmNavigationProperty)
+      throws DeserializerException {
+    if (parser.currentToken() == JsonToken.VALUE_NULL
+        && (!edmNavigationProperty.isNullable() || edmNavigationProperty.isCollection())) {
+      throw new DeserializerException("Property: " + edmNavigationProperty.getName() + " must not be null.",
+          MessageKeys.INVALID_NULL_PROPERTY, edmNavigationProperty.getName());
+    }
+  }
+
+  private boolean isDelta(EdmEntityType edmEntityType, String fieldName, JsonParser parser) {
+    if (constants instanceof Constantsv01 && fieldName.endsWith(DELTA_SUFFIX)
+        && parser.currentToken() == JsonToken.START_ARRAY) {
+      EdmNavigationProperty edmNavigationProperty = edmEntityType.getNavigationProperty(
+          fieldName.substring(0, fieldName.length() - DELTA_SUFFIX.length()));
+      return edmNavigationProperty != null && edmNavigationProperty.isCollection();
+    }
+    return false;
+  }
+
+  /**
+   * Control information is ignored for requests as per specification chapter "4.5 Control Information". Custom
+   * annotations are only accepted from version 4.01 on.
+   */
+  private void skipAnnotation(JsonParser parser, String fieldName) throws IOException, DeserializerException {
+    if (!fieldName.contains(ODATA_CONTROL_INFORMATION_PREFIX) && !(constants instanceof Constantsv01)) {
+      throw new DeserializerException("Custom annotation with field name: " + fieldName + " not supported",
+          DeserializerException.MessageKeys.NOT_IMPLEMENTED);
+    }
+    parser.skipChildren();
+  }
+
+  /**
+   * Moves the parser to the next field of the current object.
+   * @return false if the end of the object has been reached
+   */
+  private boolean nextField(JsonParser parser, Set<String> fieldNames) throws IOException, DeserializerException {
+    if (parser.nextToken() != JsonToken.FIELD_NAME) {
+      return false;
+    }
+    if (!fieldNames.add(parser.getCurrentName())) {
+      throw new DeserializerException("Duplicate json property detected.",
+          DeserializerException.MessageKeys.DUPLICATE_PROPERTY);
+    }
+    return true;
+  }
+
+  private Map<String, JsonNode> addPending(Map<String, JsonNode> pending, String fieldName, JsonParser parser)
+      throws IOException {
+    Map<String, JsonNode> result = pending == null ? new LinkedHashMap<>() : pending;
+    result.put(fieldName, readTree(parser));
+    return result;
+  }
+
+  private JsonNode readTree(JsonParser parser) throws IOException {
+    return parser.currentToken() == JsonToken.VALUE_NULL ? NullNode.getInstance() : parser.readValueAsTree();
+  }
+
+  private DeserializerException unknownContent(String fieldName) {
+    return new DeserializerException("Tree should be empty but still has content left: " + fieldName,
+        DeserializerException.MessageKeys.UNKNOWN_CONTENT, fieldName);
+  }
+
+  /**
+   * Looks the property up the same way the tree based implementation does, via {@link EdmStructuredType#getProperty}.
+   */
+  private EdmProperty structuralProperty(EdmStructuredType edmType, String name) {
+    EdmElement element = edmType.getProperty(name);
+    return element instanceof EdmProperty ? (EdmProperty) element : null;
+  }
+
+  /**
+   * Brings the elements into the order of the type definition, which is the order the tree based implementation
+   * creates.
+   */
+  private <T> List<T> sort(List<T> elements, List<String> names, Function<T, String> nameOf) {
+    if (elements.size() > 1) {
+      elements.sort(Comparator.comparingInt(element -> names.indexOf(nameOf.apply(element))));
+    }
+    return elements;
+  }
+}
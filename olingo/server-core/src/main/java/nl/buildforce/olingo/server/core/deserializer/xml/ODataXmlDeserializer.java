@@ -51,8 +51,14 @@ import nl.buildforce.olingo.server.api.deserializer.DeserializerException.Messag
 
 public class ODataXmlDeserializer implements ODataDeserializer {
 
+  /** Configured once; changing the properties of a factory shared by concurrent requests is not thread safe. */
   private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
 
+  static {
+    FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+  }
+
   private static final QName propertiesQName = new QName(Constants.NS_METADATA, Constants.PROPERTIES);
   private static final QName propertyValueQName = new QName(Constants.NS_METADATA, Constants.VALUE);
   private static final QName contextQName = new QName(Constants.NS_METADATA, Constants.CONTEXT);
@@ -79,8 +85,6 @@ public class ODataXmlDeserializer implements ODataDeserializer {
 */
 
   protected XMLEventReader getReader(InputStream input) throws XMLStreamException {
-    FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
-    FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
     return FACTORY.createXMLEventReader(input);
   }
 
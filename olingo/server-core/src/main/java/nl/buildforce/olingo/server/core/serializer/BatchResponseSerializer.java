@@ -7,6 +7,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.Channels;
 import java.nio.channels.ReadableByteChannel;
@@ -24,7 +25,9 @@ import nl.buildforce.olingo.server.api.ODataContent;
 import nl.buildforce.olingo.server.api.ODataResponse;
 import nl.buildforce.olingo.server.api.deserializer.batch.ODataResponsePart;
 import nl.buildforce.olingo.server.api.serializer.BatchSerializerException.MessageKeys;
+import nl.buildforce.olingo.server.api.serializer.BatchResponseWriter;
 import nl.buildforce.olingo.server.api.serializer.BatchSerializerException;
+import nl.buildforce.olingo.server.api.serializer.SerializerException;
 import nl.buildforce.olingo.server.core.deserializer.batch.BatchParserCommon;
 
 import static com.google.common.net.HttpHeaders.CONTENT_LENGTH;
@@ -40,31 +43,42 @@ public class BatchResponseSerializer {
 
   public InputStream serialize(List<ODataResponsePart> responses, String boundary)
       throws BatchSerializerException {
-    BodyBuilder builder = createBody(responses, boundary);
+    ByteArrayOutputStream output = new ByteArrayOutputStream(BUFFER_SIZE);
+    BodyBuilder builder = new BodyBuilder(output);
 
-    return new ByteArrayInputStream(builder.getContent());
+    try {
+      for (ODataResponsePart part : responses) {
+        appendResponsePart(part, boundary, builder);
+      }
+      builder.append(getCloseDelimiter(boundary));
+    } catch (IOException e) {
+      throw new ODataRuntimeException(e);
+    }
+
+    return new ByteArrayInputStream(output.toByteArray());
   }
 
-  private BodyBuilder createBody(List<ODataResponsePart> batchResponses, String boundary)
-      throws BatchSerializerException {
-    BodyBuilder builder = new BodyBuilder();
+  /**
+   * Creates a writer, which writes each response part into <code>output</code> as soon as it is handed over. Only the
+   * body of the current response is buffered, as its length has to be written in front of it.
+   */
+  public BatchResponseWriter writer(OutputStream output, String boundary) {
+    return new PartWriter(output, boundary);
+  }
 
-    for (ODataResponsePart part : batchResponses) {
-      builder.append(getDashBoundary(boundary));
+  private void appendResponsePart(ODataResponsePart part, String boundary, BodyBuilder builder)
+      throws BatchSerializerException, IOException {
+    builder.append(getDashBoundary(boundary));
 
-      if (part.isChangeSet()) {
-        appendChangeSet(part, builder);
-      } else {
-        appendBodyPart(part.getResponses().get(0), builder, false);
-      }
+    if (part.isChangeSet()) {
+      appendChangeSet(part, builder);
+    } else {
+      appendBodyPart(part.getResponses().get(0), builder, false);
     }
-    builder.append(getCloseDelimiter(boundary));
-
-    return builder;
   }
 
   private void appendChangeSet(ODataResponsePart part, BodyBuilder builder)
-      throws BatchSerializerException {
+      throws BatchSerializerException, IOException {
     String changeSetBoundary = generateBoundary("changeset");
 
     appendChangeSetHeader(builder, changeSetBoundary);
@@ -79,7 +93,7 @@ public class BatchResponseSerializer {
   }
 
   private void appendBodyPart(ODataResponse response, BodyBuilder builder, boolean isChangeSet)
-      throws BatchSerializerException {
+      throws BatchSerializerException, IOException {
 
     appendBodyPartHeader(response, builder, isChangeSet);
     builder.append(CRLF);
@@ -93,12 +107,12 @@ public class BatchResponseSerializer {
     builder.append(CRLF);
   }
 
-  private void appendChangeSetHeader(BodyBuilder builder, String changeSetBoundary) {
+  private void appendChangeSetHeader(BodyBuilder builder, String changeSetBoundary) throws IOException {
     appendHeader(CONTENT_TYPE, ContentType.MULTIPART_MIXED
         + "; boundary=" + changeSetBoundary, builder);
   }
 
-  private void appendHeader(String name, String value, BodyBuilder builder) {
+  private void appendHeader(String name, String value, BodyBuilder builder) throws IOException {
     builder.append(name)
         .append(COLON)
         .append(SP)
@@ -106,7 +120,7 @@ public class BatchResponseSerializer {
         .append(CRLF);
   }
 
-  private void appendStatusLine(ODataResponse response, BodyBuilder builder) {
+  private void appendStatusLine(ODataResponse response, BodyBuilder builder) throws IOException {
     builder.append("HTTP/1.1")
         .append(SP)
         .append(response.getStatusCode())
@@ -124,7 +138,7 @@ public class BatchResponseSerializer {
   }
 
   private void appendResponseHeader(ODataResponse response, int contentLength,
-                                    BodyBuilder builder) {
+                                    BodyBuilder builder) throws IOException {
     Map<String, List<String>> header = response.getAllHeaders();
 
     for (Map.Entry<String, List<String>> entry : header.entrySet()) {
@@ -138,7 +152,7 @@ public class BatchResponseSerializer {
   }
 
   private void appendBodyPartHeader(ODataResponse response, BodyBuilder builder,
-                                    boolean isChangeSet) throws BatchSerializerException {
+                                    boolean isChangeSet) throws BatchSerializerException, IOException {
     appendHeader(CONTENT_TYPE, ContentType.APPLICATION_HTTP.toString(), builder);
     appendHeader(BatchParserCommon.CONTENT_TRANSFER_ENCODING, BatchParserCommon.BINARY_ENCODING, builder);
 
@@ -164,52 +178,72 @@ public class BatchResponseSerializer {
   }
 
   /**
-   * Builder class to create the body and the header.
+   * Writer of the parts of one batch response.
    */
-  private static class BodyBuilder {
-    private static final Charset CHARSET_ISO_8859_1 = StandardCharsets.ISO_8859_1;
-    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private class PartWriter implements BatchResponseWriter {
+    private final OutputStream output;
+    private final BodyBuilder builder;
+    private final String boundary;
     private boolean isClosed;
 
-    public byte[] getContent() {
-      isClosed = true;
-      byte[] tmp = new byte[buffer.position()];
-      buffer.flip();
-      buffer.get(tmp, 0, buffer.limit());
-      return tmp;
+    PartWriter(OutputStream output, String boundary) {
+      this.output = output;
+      this.boundary = boundary;
+      builder = new BodyBuilder(output);
     }
 
-    public BodyBuilder append(String string) {
-      byte[] b = string.getBytes(CHARSET_ISO_8859_1);
-      put(b);
-      return this;
+    @Override
+    public void write(ODataResponsePart part) throws SerializerException {
+      checkNotClosed();
+      try {
+        appendResponsePart(part, boundary, builder);
+        output.flush();
+      } catch (IOException e) {
+        throw new SerializerException("An I/O exception occurred.", e, SerializerException.MessageKeys.IO_EXCEPTION);
+      }
     }
 
-    private void put(byte[] b) {
-      if (isClosed) {
-        throw new ODataRuntimeException("BodyBuilder is closed.");
+    @Override
+    public void close() throws SerializerException {
+      checkNotClosed();
+      isClosed = true;
+      try {
+        builder.append(getCloseDelimiter(boundary));
+        output.flush();
+      } catch (IOException e) {
+        throw new SerializerException("An I/O exception occurred.", e, SerializerException.MessageKeys.IO_EXCEPTION);
       }
-      if (buffer.remaining() < b.length) {
-        buffer.flip();
-        int newSize = (buffer.limit() * 2) + b.length;
-        ByteBuffer tmp = ByteBuffer.allocate(newSize);
-        tmp.put(buffer);
-        buffer = tmp;
+    }
+
+    private void checkNotClosed() {
+      if (isClosed) {
+        throw new ODataRuntimeException("BatchResponseWriter is closed.");
       }
-      buffer.put(b);
     }
+  }
 
-    public BodyBuilder append(int statusCode) {
-      return append(String.valueOf(statusCode));
+  /**
+   * Builder class to write the body and the header.
+   */
+  private static class BodyBuilder {
+    private static final Charset CHARSET_ISO_8859_1 = StandardCharsets.ISO_8859_1;
+    private final OutputStream output;
+
+    BodyBuilder(OutputStream output) {
+      this.output = output;
     }
 
-    public void append(Body body) {
-      put(body.getContent());
+    public BodyBuilder append(String string) throws IOException {
+      output.write(string.getBytes(CHARSET_ISO_8859_1));
+      return this;
     }
 
-    @Override
-    public String toString() {
-      return new String(buffer.array(), 0, buffer.position(), CHARSET_ISO_8859_1);
+    public BodyBuilder append(int statusCode) throws IOException {
+      return append(String.valueOf(statusCode));
+    }
+
+    public void append(Body body) throws IOException {
+      output.write(body.getContent());
     }
   }
 
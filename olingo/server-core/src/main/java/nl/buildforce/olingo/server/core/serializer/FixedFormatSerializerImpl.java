@@ -18,6 +18,7 @@ import nl.buildforce.olingo.server.api.serializer.FixedFormatSerializer;
 import nl.buildforce.olingo.server.api.serializer.PrimitiveValueSerializerOptions;
 import nl.buildforce.olingo.server.core.ODataWritableContent;
 import nl.buildforce.olingo.server.api.deserializer.batch.ODataResponsePart;
+import nl.buildforce.olingo.server.api.serializer.BatchResponseWriter;
 import nl.buildforce.olingo.server.api.serializer.BatchSerializerException;
 import nl.buildforce.olingo.server.api.serializer.SerializerException;
 import nl.buildforce.olingo.server.api.serializer.SerializerStreamResult;
@@ -85,4 +86,9 @@ public class FixedFormatSerializerImpl implements FixedFormatSerializer {
     return serializer.serialize(batchResponses, boundary);
   }
 
+  @Override
+  public BatchResponseWriter batchResponse(OutputStream output, String boundary) {
+    return new BatchResponseSerializer().writer(output, boundary);
+  }
+
 }
\ No newline at end of file
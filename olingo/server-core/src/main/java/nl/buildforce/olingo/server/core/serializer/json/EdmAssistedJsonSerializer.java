@@ -41,7 +41,6 @@ import nl.buildforce.olingo.server.core.serializer.utils.CircleStreamBuffer;
 import nl.buildforce.olingo.server.core.serializer.utils.ContentTypeHelper;
 import nl.buildforce.olingo.server.core.serializer.utils.ContextURLBuilder;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 
 public class EdmAssistedJsonSerializer implements EdmAssistedSerializer {
@@ -81,7 +80,7 @@ public class EdmAssistedJsonSerializer implements EdmAssistedSerializer {
     
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     OutputStream outputStream = buffer.getOutputStream();
-    try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+    try (JsonGenerator json = SharedJsonFactory.createGenerator(outputStream)) {
       if (obj instanceof AbstractEntityCollection) {
         doSerialize(entityType, (AbstractEntityCollection) obj, contextURLString, metadataETag, json);
       } else if (obj instanceof Entity) {
@@ -48,7 +48,6 @@ import nl.buildforce.olingo.server.core.serializer.utils.ContentTypeHelper;
 import nl.buildforce.olingo.server.core.serializer.utils.ContextURLBuilder;
 import nl.buildforce.olingo.server.core.serializer.utils.ExpandSelectHelper;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 
 public class JsonDeltaSerializer implements EdmDeltaSerializer {
@@ -72,7 +71,7 @@ public class JsonDeltaSerializer implements EdmDeltaSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      JsonGenerator json = new JsonFactory().createGenerator(outputStream);
+      JsonGenerator json = SharedJsonFactory.createGenerator(outputStream);
       boolean pagination = false;
       json.writeStartObject();
 
@@ -55,7 +55,6 @@ import nl.buildforce.olingo.server.core.serializer.utils.ContentTypeHelper;
 import nl.buildforce.olingo.server.core.serializer.utils.ContextURLBuilder;
 import nl.buildforce.olingo.server.core.serializer.utils.ExpandSelectHelper;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 
 public class JsonDeltaSerializerWithNavigations implements EdmDeltaSerializer {
@@ -79,7 +78,7 @@ public class JsonDeltaSerializerWithNavigations implements EdmDeltaSerializer {
     
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      try (JsonGenerator json = new JsonFactory().createGenerator(outputStream)) {
+      try (JsonGenerator json = SharedJsonFactory.createGenerator(outputStream)) {
         json.writeStartObject();
 
         ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
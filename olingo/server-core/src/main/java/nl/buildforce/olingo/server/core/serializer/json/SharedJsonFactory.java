@@ -0,0 +1,28 @@
+/* Copyright Buildƒorce Digital i.o. 2021
+ * Licensed under the EUPL-1.2-or-later
+*/
+package nl.buildforce.olingo.server.core.serializer.json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Provides the {@link JsonFactory} used by all JSON serializers. A factory is thread safe once configured; creating
+ * one per response would also create its symbol tables per response. The generator buffers are recycled per thread
+ * by Jackson.
+ */
+final class SharedJsonFactory {
+
+  private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+      .enable(JsonFactory.Feature.USE_THREAD_LOCAL_FOR_BUFFER_RECYCLING)
+      .build();
+
+  private SharedJsonFactory() {}
+
+  static JsonGenerator createGenerator(OutputStream outputStream) throws IOException {
+    return JSON_FACTORY.createGenerator(outputStream);
+  }
+}
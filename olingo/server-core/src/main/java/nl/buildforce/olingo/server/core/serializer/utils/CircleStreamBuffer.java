@@ -8,6 +8,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 
 /**
@@ -22,6 +23,14 @@ public class CircleStreamBuffer {
   private static final int READ_EOF = -1;
   private static final int DEFAULT_CAPACITY = 8192;
   private static final int MAX_CAPACITY = DEFAULT_CAPACITY * 32;
+  private static final int POOL_SIZE_PER_CAPACITY = 8;
+  private static final int POOLED_CAPACITIES = Integer.numberOfTrailingZeros(MAX_CAPACITY / DEFAULT_CAPACITY) + 1;
+
+  /**
+   * Buffers of the capacities DEFAULT_CAPACITY * 2^n, which are allocated for nearly each response, are handed back
+   * when the read part is closed and taken by the next buffer. The number of retained buffers is bounded.
+   */
+  private static final Queue<ByteBuffer>[] BUFFER_POOL = createBufferPool();
 
   private int currentAllocateCapacity;
 
@@ -92,10 +101,12 @@ public class CircleStreamBuffer {
    */
   public void closeRead() {
     readClosed = true;
+    // a buffer handed back to the pool must not be written anymore
+    currentWriteBuffer = null;
     // clear references to byte buffers
     ByteBuffer buffer = bufferQueue.poll();
     while (buffer != null) {
-      buffer.clear();
+      releaseBuffer(buffer);
       buffer = bufferQueue.poll();
     }
   }
@@ -141,7 +152,8 @@ public class CircleStreamBuffer {
     } else {
       tmp = bufferQueue.peek();
       if (tmp != null && !tmp.hasRemaining()) {
-        tmp = bufferQueue.poll();
+        // a buffer that has been read is not written again, see getWriteBuffer
+        releaseBuffer(bufferQueue.poll());
         next = true;
       }
     }
@@ -217,7 +229,7 @@ public class CircleStreamBuffer {
       throw new IOException("Tried to write into closed stream.");
     }
 
-    if (writeMode) {
+    if (writeMode && currentWriteBuffer != null) {
       if (remaining() < size) {
         createNewWriteBuffer(size);
       }
@@ -272,7 +284,37 @@ public class CircleStreamBuffer {
       currentAllocateCapacity = requestedCapacity;
     }
 
-    return ByteBuffer.allocate(currentAllocateCapacity);
+    final Queue<ByteBuffer> pool = getPool(currentAllocateCapacity);
+    final ByteBuffer pooled = pool == null ? null : pool.poll();
+    return pooled == null ? ByteBuffer.allocate(currentAllocateCapacity) : pooled;
+  }
+
+  private static void releaseBuffer(final ByteBuffer buffer) {
+    final Queue<ByteBuffer> pool = getPool(buffer.capacity());
+    buffer.clear();
+    if (pool != null) {
+      pool.offer(buffer);
+    }
+  }
+
+  /**
+   * Returns the pool for buffers of the given capacity or null if buffers of that capacity are not pooled
+   */
+  private static Queue<ByteBuffer> getPool(final int capacity) {
+    if (capacity < DEFAULT_CAPACITY || capacity > MAX_CAPACITY || capacity % DEFAULT_CAPACITY != 0
+        || Integer.bitCount(capacity / DEFAULT_CAPACITY) != 1) {
+      return null;
+    }
+    return BUFFER_POOL[Integer.numberOfTrailingZeros(capacity / DEFAULT_CAPACITY)];
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Queue<ByteBuffer>[] createBufferPool() {
+    final Queue<ByteBuffer>[] pool = new Queue[POOLED_CAPACITIES];
+    for (int i = 0; i < pool.length; i++) {
+      pool[i] = new ArrayBlockingQueue<>(POOL_SIZE_PER_CAPACITY);
+    }
+    return pool;
   }
 
   // #############################################
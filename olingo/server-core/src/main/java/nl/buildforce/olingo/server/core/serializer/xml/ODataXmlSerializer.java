@@ -12,7 +12,6 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
-import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
@@ -86,7 +85,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = SharedXmlFactory.createStreamWriter(outputStream, DEFAULT_CHARSET);
       ServiceDocumentXmlSerializer serializer = new ServiceDocumentXmlSerializer(metadata, serviceRoot);
       serializer.writeServiceDocument(writer);
 
@@ -111,7 +110,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = SharedXmlFactory.createStreamWriter(outputStream, DEFAULT_CHARSET);
       MetadataDocumentXmlSerializer serializer = new MetadataDocumentXmlSerializer(serviceMetadata);
       serializer.writeMetadataDocument(writer);
 
@@ -141,7 +140,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = SharedXmlFactory.createStreamWriter(outputStream, DEFAULT_CHARSET);
       writer.writeStartDocument(DEFAULT_CHARSET, "1.0");
 
       writer.writeStartElement("error");
@@ -209,7 +208,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = SharedXmlFactory.createStreamWriter(outputStream, DEFAULT_CHARSET);
       writer.writeStartDocument(DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(ATOM, Constants.ATOM_ELEM_FEED, NS_ATOM);
       writer.writeNamespace(ATOM, NS_ATOM);
@@ -255,6 +254,11 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     }
   }
 
+  /**
+   * Writes the feed while the entities are taken from the iterator, so the memory needed does not depend on the
+   * number of entities. The next link is only known after the last entity got read and is therefore written at the
+   * end of the feed.
+   */
   public void entityCollectionIntoStream(ServiceMetadata metadata, EdmEntityType entityType, EntityIterator entitySet,
       EntityCollectionSerializerOptions options, OutputStream outputStream) throws SerializerException {
 
@@ -262,7 +266,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     String name = contextURL == null ? null : contextURL.getEntitySetOrSingletonOrType();
     SerializerException cachedException;
     try {
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = SharedXmlFactory.createStreamWriter(outputStream, DEFAULT_CHARSET);
       writer.writeStartDocument(DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(ATOM, Constants.ATOM_ELEM_FEED, NS_ATOM);
       writer.writeNamespace(ATOM, NS_ATOM);
@@ -273,27 +277,33 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
           ContextURLBuilder.create(contextURL).toASCIIString());
       writeMetadataETag(metadata, writer);
 
-      if (options.getId() != null) {
+      if (options != null && options.getId() != null) {
         writer.writeStartElement(ATOM, Constants.ATOM_ELEM_ID, NS_ATOM);
         writer.writeCharacters(options.getId());
         writer.writeEndElement();
       }
 
-      if (options.getCount() != null && options.getCount().getValue() && entitySet.getCount() != null) {
+      if (options != null && options.getCount() != null && options.getCount().getValue()
+          && entitySet.getCount() != null) {
         writeCount(entitySet, writer);
       }
-      if (entitySet!=null && entitySet.getNext() != null) {
+      if (options == null) {
+        writeEntitySet(metadata, entityType, entitySet, null, null, null, null, writer, false, name, null);
+      } else {
+        writeEntitySet(metadata, entityType, entitySet,
+            options.getExpand(), null,
+            options.getSelect(), options.xml10InvalidCharReplacement(), writer, options.getWriteOnlyReferences(),
+            name, null);
+      }
+      if (entitySet.getNext() != null) {
         writeNextLink(entitySet, writer);
       }
-      boolean writeOnlyRef = options.getWriteOnlyReferences();
-      writeEntitySet(metadata, entityType, entitySet,
-          options.getExpand(), null,
-          options.getSelect(), options.xml10InvalidCharReplacement(), writer, writeOnlyRef, name, null);
 
       writer.writeEndElement();
       writer.writeEndDocument();
 
       writer.flush();
+      writer.close();
     } catch (XMLStreamException e) {
       cachedException =
           new SerializerException(IO_EXCEPTION_TEXT, e, SerializerException.MessageKeys.IO_EXCEPTION);
@@ -301,14 +311,11 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     }
   }
 
-/*
   @Override
   public SerializerStreamResult entityCollectionStreamed(ServiceMetadata metadata, EdmEntityType entityType,
       EntityIterator entities, EntityCollectionSerializerOptions options) {
       return ODataWritableContent.with(entities, entityType, this, metadata, options).build();
   }
-*/
-
   @Override
   public SerializerResult entity(ServiceMetadata metadata, EdmEntityType entityType,
                                  Entity entity, EntitySerializerOptions options) throws SerializerException {
@@ -324,7 +331,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = SharedXmlFactory.createStreamWriter(outputStream, DEFAULT_CHARSET);
       writer.writeStartDocument(DEFAULT_CHARSET, "1.0");
       writeEntity(metadata, entityType, entity, contextURL,
               options.getExpand(),
@@ -988,7 +995,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = SharedXmlFactory.createStreamWriter(outputStream, DEFAULT_CHARSET);
 
       writer.writeStartDocument(DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(METADATA, Constants.VALUE, NS_METADATA);
@@ -1055,7 +1062,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
       }
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = SharedXmlFactory.createStreamWriter(outputStream, DEFAULT_CHARSET);
       writer.writeStartDocument(DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(METADATA, Constants.VALUE, NS_METADATA);
       writer.writeNamespace(METADATA, NS_METADATA);
@@ -1100,7 +1107,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = SharedXmlFactory.createStreamWriter(outputStream, DEFAULT_CHARSET);
 
       writer.writeStartDocument(DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(METADATA, Constants.VALUE, NS_METADATA);
@@ -1150,7 +1157,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = SharedXmlFactory.createStreamWriter(outputStream, DEFAULT_CHARSET);
       writer.writeStartDocument(DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(METADATA, Constants.VALUE, NS_METADATA);
       writer.writeNamespace(METADATA, NS_METADATA);
@@ -1211,7 +1218,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = SharedXmlFactory.createStreamWriter(outputStream, DEFAULT_CHARSET);
       writer.writeStartDocument(DEFAULT_CHARSET, "1.0");
       writeReference(entity, options == null ? null : options.getContextURL(), writer, true);
       writer.writeEndDocument();
@@ -1251,7 +1258,7 @@ public class ODataXmlSerializer extends AbstractODataSerializer {
     try {
       CircleStreamBuffer buffer = new CircleStreamBuffer();
       outputStream = buffer.getOutputStream();
-      XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(outputStream, DEFAULT_CHARSET);
+      XMLStreamWriter writer = SharedXmlFactory.createStreamWriter(outputStream, DEFAULT_CHARSET);
       writer.writeStartDocument(DEFAULT_CHARSET, "1.0");
       writer.writeStartElement(ATOM, Constants.ATOM_ELEM_FEED, NS_ATOM);
       writer.writeNamespace(ATOM, NS_ATOM);
@@ -0,0 +1,26 @@
+/* Copyright Buildƒorce Digital i.o. 2021
+ * Licensed under the EUPL-1.2-or-later
+*/
+package nl.buildforce.olingo.server.core.serializer.xml;
+
+import java.io.OutputStream;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Provides the {@link XMLOutputFactory} used by the XML serializer. Looking up the StAX implementation is costly, as
+ * it searches the class path; once created the factory is thread safe as long as it is not reconfigured. Stream
+ * writers are cheap and bound to their output stream, so a new one is created per response.
+ */
+final class SharedXmlFactory {
+
+  private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+  private SharedXmlFactory() {}
+
+  static XMLStreamWriter createStreamWriter(OutputStream outputStream, String encoding) throws XMLStreamException {
+    return XML_OUTPUT_FACTORY.createXMLStreamWriter(outputStream, encoding);
+  }
+}
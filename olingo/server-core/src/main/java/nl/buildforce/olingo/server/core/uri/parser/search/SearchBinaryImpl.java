@@ -20,7 +20,6 @@ public class SearchBinaryImpl extends SearchExpressionImpl implements SearchBina
     this.right = right;
   }
 
-/*
   @Override
   public SearchBinaryOperatorKind getOperator() {
     return operator;
@@ -35,7 +34,6 @@ public class SearchBinaryImpl extends SearchExpressionImpl implements SearchBina
   public SearchExpression getRightOperand() {
     return right;
   }
-*/
 
   @Override
   public String toString() {
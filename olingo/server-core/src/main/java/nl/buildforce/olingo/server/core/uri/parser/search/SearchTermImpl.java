@@ -12,12 +12,10 @@ public class SearchTermImpl extends SearchExpressionImpl implements SearchTerm {
     this.term = term;
   }
 
-/*
   @Override
   public String getSearchTerm() {
     return term;
   }
-*/
 
   @Override
   public String toString() {
@@ -4,10 +4,12 @@
 package nl.buildforce.olingo.server.core.uri.queryoption.apply;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import nl.buildforce.olingo.commons.api.edm.FullQualifiedName;
 import nl.buildforce.olingo.server.api.uri.UriInfo;
+import nl.buildforce.olingo.server.api.uri.UriResource;
 import nl.buildforce.olingo.server.api.uri.queryoption.apply.AggregateExpression;
 import nl.buildforce.olingo.server.api.uri.queryoption.expression.Expression;
 
@@ -69,7 +71,6 @@ public class AggregateExpressionImpl implements AggregateExpression {
     return this;
   }
 
-/*
   @Override
   public List<UriResource> getPath() {
     return path == null ? Collections.emptyList() : path.getUriResourceParts();
@@ -94,6 +95,5 @@ public class AggregateExpressionImpl implements AggregateExpression {
   public String getAlias() {
     return alias;
   }
-*/
 
 }
\ No newline at end of file
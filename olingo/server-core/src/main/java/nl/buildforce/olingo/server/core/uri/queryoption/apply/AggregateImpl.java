@@ -19,12 +19,10 @@ public class AggregateImpl implements Aggregate {
   @Override
   public Kind getKind() { return Kind.AGGREGATE; }
 
-/*
   @Override
   public List<AggregateExpression> getExpressions() {
     return expressions;
   }
-*/
 
   public AggregateImpl addExpression(AggregateExpression expression) {
     expressions.add(expression);
@@ -0,0 +1,78 @@
+/* Copyright Buildƒorce Digital i.o. 2021
+ * Licensed under the EUPL-1.2-or-later
+*/
+package nl.buildforce.olingo.server.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import nl.buildforce.olingo.commons.api.data.ContextURL;
+import nl.buildforce.olingo.commons.api.data.Entity;
+import nl.buildforce.olingo.commons.api.data.EntityIterator;
+import nl.buildforce.olingo.commons.api.edm.EdmEntityType;
+import nl.buildforce.olingo.commons.api.ex.ODataRuntimeException;
+import nl.buildforce.olingo.commons.api.format.ContentType;
+import nl.buildforce.olingo.server.api.OData;
+import nl.buildforce.olingo.server.api.ODataContent;
+import nl.buildforce.olingo.server.api.ServiceMetadata;
+import nl.buildforce.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+import nl.buildforce.olingo.server.api.serializer.SerializerException;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class ODataWritableContentTest {
+
+  @Test
+  public void iteratorClosedAfterWrite() throws SerializerException {
+    final ClosableIterator iterator = new ClosableIterator(false);
+    createContent(iterator).write(Channels.newChannel(new ByteArrayOutputStream()));
+
+    assertEquals(1, iterator.closed.get());
+  }
+
+  @Test
+  public void iteratorClosedIfWriteAborted() throws SerializerException {
+    final ClosableIterator iterator = new ClosableIterator(true);
+    final ODataContent content = createContent(iterator);
+
+    assertThrows(ODataRuntimeException.class, () -> content.write(Channels.newChannel(new ByteArrayOutputStream())));
+    assertEquals(1, iterator.closed.get());
+  }
+
+  private ODataContent createContent(final EntityIterator iterator) throws SerializerException {
+    return OData.newInstance().createSerializer(ContentType.APPLICATION_JSON).entityCollectionStreamed(
+        Mockito.mock(ServiceMetadata.class), Mockito.mock(EdmEntityType.class), iterator,
+        EntityCollectionSerializerOptions.with().contextURL(ContextURL.with().oDataPath("http://host/svc").build())
+            .build()).getODataContent();
+  }
+
+  private static class ClosableIterator extends EntityIterator {
+    private final boolean fail;
+    private final AtomicInteger closed = new AtomicInteger();
+
+    private ClosableIterator(final boolean fail) {
+      this.fail = fail;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (fail)
+        throw new ODataRuntimeException("Connection lost");
+      return false;
+    }
+
+    @Override
+    public Entity next() {
+      return null;
+    }
+
+    @Override
+    public void close() {
+      closed.incrementAndGet();
+    }
+  }
+}
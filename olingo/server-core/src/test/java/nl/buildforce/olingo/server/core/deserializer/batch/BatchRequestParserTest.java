@@ -2,6 +2,7 @@ package nl.buildforce.olingo.server.core.deserializer.batch;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
@@ -14,6 +15,7 @@ import nl.buildforce.olingo.server.api.deserializer.batch.BatchDeserializerExcep
 import nl.buildforce.olingo.server.api.deserializer.batch.BatchDeserializerException;
 import nl.buildforce.olingo.server.api.deserializer.batch.BatchOptions;
 import nl.buildforce.olingo.server.api.deserializer.batch.BatchRequestPart;
+import nl.buildforce.olingo.server.api.deserializer.batch.BatchRequestPartReader;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Assert;
@@ -1001,6 +1003,54 @@ public class BatchRequestParserTest {
         parseBatchWithForbiddenHeader(HttpHeader.TE + ": deflate");
     }
 
+    @Test
+    public void readPartByPart() throws Exception {
+        StringBuilder batch = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            batch.append("--").append(BOUNDARY).append(CRLF).append(GET_REQUEST);
+        }
+        batch.append("--").append(BOUNDARY).append("--");
+        byte[] content = batch.toString().getBytes(StandardCharsets.UTF_8);
+        int[] bytesRead = new int[1];
+        InputStream in = new FilterInputStream(new ByteArrayInputStream(content)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int result = super.read(b, off, len);
+                bytesRead[0] += Math.max(result, 0);
+                return result;
+            }
+        };
+        BatchRequestPartReader reader = new BatchParser().readBatchRequest(in, BOUNDARY,
+                BatchOptions.with().isStrict(true).rawBaseUri(SERVICE_ROOT).build());
+
+        BatchRequestPart part = reader.next();
+        Assert.assertEquals(PROPERTY_URI, part.getRequests().get(0).getRawODataPath().substring(1));
+        Assert.assertTrue(bytesRead[0] < content.length / 10);
+        int count = 1;
+        while (reader.next() != null) {
+            count++;
+        }
+        Assert.assertEquals(2000, count);
+        Assert.assertEquals(content.length, bytesRead[0]);
+        Assert.assertNull(reader.next());
+    }
+
+    @Test
+    public void readPartsBeforeMissingCloseDelimiter() throws Exception {
+        String batch = "--" + BOUNDARY + CRLF + GET_REQUEST + "--" + BOUNDARY + CRLF + GET_REQUEST;
+        BatchRequestPartReader reader = new BatchParser().readBatchRequest(
+                IOUtils.toInputStream(batch, StandardCharsets.UTF_8), BOUNDARY,
+                BatchOptions.with().isStrict(true).rawBaseUri(SERVICE_ROOT).build());
+
+        Assert.assertNotNull(reader.next());
+        try {
+            reader.next();
+            Assert.fail("No exception thrown. Expected: " + MessageKeys.MISSING_CLOSE_DELIMITER);
+        } catch (BatchDeserializerException e) {
+            Assert.assertEquals(MessageKeys.MISSING_CLOSE_DELIMITER, e.getMessageKey());
+        }
+    }
+
     private void parseBatchWithForbiddenHeader(String header) {
         parseInvalidBatchBody(createBatchWithGetRequest(PROPERTY_URI, header), MessageKeys.FORBIDDEN_HEADER);
     }
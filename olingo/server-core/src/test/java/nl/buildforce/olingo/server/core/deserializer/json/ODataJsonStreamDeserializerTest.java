@@ -0,0 +1,233 @@
+/* Copyright Buildƒorce Digital i.o. 2021
+ * Licensed under the EUPL-1.2-or-later
+*/
+package nl.buildforce.olingo.server.core.deserializer.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import nl.buildforce.olingo.commons.api.constants.Constantsv01;
+import nl.buildforce.olingo.commons.api.data.ComplexValue;
+import nl.buildforce.olingo.commons.api.data.Entity;
+import nl.buildforce.olingo.commons.api.edm.EdmEntityType;
+import nl.buildforce.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import nl.buildforce.olingo.commons.api.edm.FullQualifiedName;
+import nl.buildforce.olingo.commons.api.edm.provider.CsdlAbstractEdmProvider;
+import nl.buildforce.olingo.commons.api.edm.provider.CsdlComplexType;
+import nl.buildforce.olingo.commons.api.edm.provider.CsdlEntityType;
+import nl.buildforce.olingo.commons.api.edm.provider.CsdlNavigationProperty;
+import nl.buildforce.olingo.commons.api.edm.provider.CsdlProperty;
+import nl.buildforce.olingo.commons.api.edm.provider.CsdlPropertyRef;
+import nl.buildforce.olingo.commons.api.format.ContentType;
+import nl.buildforce.olingo.server.api.OData;
+import nl.buildforce.olingo.server.api.ServiceMetadata;
+import nl.buildforce.olingo.server.api.deserializer.DeserializerException;
+import nl.buildforce.olingo.server.api.deserializer.DeserializerException.MessageKeys;
+import nl.buildforce.olingo.server.api.deserializer.DeserializerResult;
+import nl.buildforce.olingo.server.api.deserializer.ODataDeserializer;
+import org.junit.Test;
+
+public class ODataJsonStreamDeserializerTest {
+
+  private static final String NAMESPACE = "Test";
+  private static final FullQualifiedName PERSON = new FullQualifiedName(NAMESPACE, "Person");
+  private static final FullQualifiedName EMPLOYEE = new FullQualifiedName(NAMESPACE, "Employee");
+  private static final FullQualifiedName ADDRESS = new FullQualifiedName(NAMESPACE, "Address");
+  private static final FullQualifiedName POSTAL_ADDRESS = new FullQualifiedName(NAMESPACE, "PostalAddress");
+
+  private final ServiceMetadata metadata = OData.newInstance().createServiceMetadata(new LocalProvider(),
+      Collections.emptyList());
+  private final EdmEntityType person = metadata.getEdm().getEntityType(PERSON);
+
+  @Test
+  public void sameResultAsTree() throws Exception {
+    for (String payload : Arrays.asList(
+        "{\"ID\":1,\"Name\":\"Mia\"}",
+        "{\"Name\":\"Mia\",\"@odata.context\":\"$metadata#Persons/$entity\",\"ID\":1,\"Age\":null}",
+        "{\"ID\":1,\"Weight\":72.50,\"Tags\":[\"a\",\"b\",null]}",
+        "{\"ID\":1,\"Address\":{\"City\":\"Delft\",\"Street\":\"Main\"}}",
+        "{\"ID\":1,\"Address\":null,\"Addresses\":[{\"Street\":\"A\"},{\"City\":\"B\"}]}",
+        "{\"ID\":1,\"Address\":{\"@odata.type\":\"#Test.PostalAddress\",\"Zip\":\"2611\",\"City\":\"Delft\"}}",
+        "{\"ID\":1,\"Address\":{\"Zip\":\"2611\",\"@odata.type\":\"#Test.PostalAddress\"}}",
+        "{\"@odata.type\":\"#Test.Employee\",\"Salary\":1.5,\"ID\":2}",
+        "{\"Salary\":1.5,\"ID\":2,\"@odata.type\":\"#Test.Employee\"}",
+        "{\"ID\":1,\"Friends@odata.bind\":[\"Persons(2)\",\"Persons(3)\"],\"Boss@odata.bind\":\"Persons(4)\"}",
+        "{\"ID\":1,\"Boss\":null,\"Friends\":[]}",
+        "{\"ID\":1,\"Boss\":{\"ID\":4,\"Friends\":[{\"ID\":5}]},"
+            + "\"Friends\":[{\"ID\":2,\"Name\":\"Ann\"},{\"@odata.type\":\"#Test.Employee\",\"ID\":3,\"Salary\":2}]}",
+        "{\"Friends\":[{\"ID\":2,\"Boss\":{\"ID\":7}}],\"ID\":1,\"Name\":\"Mia\",\"Age\":42}")) {
+      assertSameResult(payload);
+    }
+  }
+
+  @Test
+  public void sameResultAsTreeForV401() throws Exception {
+    for (String payload : Arrays.asList(
+        "{\"@id\":\"Persons(1)\",\"ID\":1,\"@Core.Description\":\"custom\"}",
+        "{\"ID\":1,\"Friends@bind\":[\"Persons(2)\"]}",
+        "{\"ID\":1,\"Friends@delta\":[{\"@removed\":{\"reason\":\"deleted\"},\"@id\":\"Persons(2)\"},{\"ID\":3}]}")) {
+      ODataDeserializer tree = new ODataJsonDeserializer(ContentType.CT_JSON, metadata, new Constantsv01());
+      ODataDeserializer stream = new ODataJsonStreamDeserializer(ContentType.CT_JSON, metadata, new Constantsv01());
+      assertEquals(payload, tree.entity(toStream(payload), person).getEntity(), stream.entity(toStream(payload),
+          person).getEntity());
+    }
+  }
+
+  @Test
+  public void keepsOrderOfTypeDefinition() throws Exception {
+    Entity entity = deserialize("{\"Name\":\"Mia\",\"Address\":{\"City\":\"Delft\",\"Street\":\"Main\"},\"ID\":1}");
+
+    assertEquals("ID", entity.getProperties().get(0).getName());
+    assertEquals("Name", entity.getProperties().get(1).getName());
+    assertEquals("Address", entity.getProperties().get(2).getName());
+    ComplexValue address = entity.getProperties().get(2).asComplex();
+    assertEquals("Street", address.getValue().get(0).getName());
+    assertEquals("City", address.getValue().get(1).getName());
+  }
+
+  @Test
+  public void readsDeepInsert() throws Exception {
+    StringBuilder payload = new StringBuilder("{\"ID\":0,\"Friends\":[");
+    for (int i = 1; i <= 1000; i++) {
+      payload.append(i > 1 ? "," : "").append("{\"ID\":").append(i).append(",\"Friends\":[{\"ID\":-")
+          .append(i).append("}]}");
+    }
+    payload.append("]}");
+    DeserializerResult result = new ODataJsonStreamDeserializer(ContentType.CT_JSON, metadata)
+        .entity(toStream(payload.toString()), person);
+
+    List<Entity> friends = result.getEntity().getNavigationLink("Friends").getInlineEntitySet().getEntities();
+    assertEquals(1000, friends.size());
+    assertEquals(-1000, friends.get(999).getNavigationLink("Friends").getInlineEntitySet().getEntities().get(0)
+        .getProperty("ID").getValue());
+    assertEquals("Friends", result.getExpandTree().getExpandItems().get(0).getResourcePath()
+        .getUriResourceParts().get(0).getSegmentValue());
+  }
+
+  @Test
+  public void readsDecimalAsTree() throws Exception {
+    Entity entity = deserialize("{\"ID\":1,\"Weight\":72.5}");
+    assertEquals(new BigDecimal("72.5"), entity.getProperty("Weight").getValue());
+    assertNull(deserialize("{\"ID\":1,\"Weight\":null}").getProperty("Weight").getValue());
+  }
+
+  @Test
+  public void sameErrorsAsTree() throws Exception {
+    assertError("[]", MessageKeys.JSON_SYNTAX_EXCEPTION);
+    assertError("", MessageKeys.JSON_SYNTAX_EXCEPTION);
+    assertError("{\"ID\":1,", MessageKeys.JSON_SYNTAX_EXCEPTION);
+    assertError("{\"ID\":1,\"ID\":2}", MessageKeys.DUPLICATE_PROPERTY);
+    assertError("{\"ID\":null}", MessageKeys.INVALID_NULL_PROPERTY);
+    assertError("{\"ID\":\"1\"}", MessageKeys.INVALID_VALUE_FOR_PROPERTY);
+    assertError("{\"ID\":1,\"Unknown\":1}", MessageKeys.UNKNOWN_CONTENT);
+    assertError("{\"ID\":1,\"Salary\":1}", MessageKeys.UNKNOWN_CONTENT);
+    assertError("{\"ID\":1,\"@Core.Description\":\"x\"}", MessageKeys.NOT_IMPLEMENTED);
+    assertError("{\"ID\":1,\"Tags\":\"a\"}", MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY);
+    assertError("{\"ID\":1,\"Address\":[]}", MessageKeys.INVALID_JSON_TYPE_FOR_PROPERTY);
+    assertError("{\"ID\":1,\"Address\":{\"Zip\":\"1\"}}", MessageKeys.UNKNOWN_CONTENT);
+    assertError("{\"ID\":1,\"Friends\":null}", MessageKeys.INVALID_NULL_PROPERTY);
+    assertError("{\"ID\":1,\"Friends\":{}}", MessageKeys.INVALID_VALUE_FOR_NAVIGATION_PROPERTY);
+    assertError("{\"ID\":1,\"Friends\":[1]}", MessageKeys.INVALID_ENTITY);
+    assertError("{\"ID\":1,\"Boss\":[]}", MessageKeys.INVALID_VALUE_FOR_NAVIGATION_PROPERTY);
+    assertError("{\"ID\":1,\"Unknown@odata.bind\":\"Persons(2)\"}", MessageKeys.NAVIGATION_PROPERTY_NOT_FOUND);
+    assertError("{\"ID\":1,\"Friends@odata.bind\":\"Persons(2)\"}", MessageKeys.INVALID_ANNOTATION_TYPE);
+    assertError("{\"@odata.type\":\"#Test.Address\",\"ID\":1}", MessageKeys.UNKNOWN_CONTENT);
+  }
+
+  private void assertSameResult(String payload) throws DeserializerException {
+    DeserializerResult expected = new ODataJsonDeserializer(ContentType.CT_JSON, metadata)
+        .entity(toStream(payload), person);
+    DeserializerResult actual = new ODataJsonStreamDeserializer(ContentType.CT_JSON, metadata)
+        .entity(toStream(payload), person);
+    assertEquals(payload, expected.getEntity(), actual.getEntity());
+    assertEquals(payload, expected.getExpandTree() == null, actual.getExpandTree() == null);
+    if (expected.getExpandTree() != null) {
+      assertEquals(payload, expected.getExpandTree().getExpandItems().size(),
+          actual.getExpandTree().getExpandItems().size());
+    }
+  }
+
+  private void assertError(String payload, MessageKeys expected) {
+    MessageKeys treeKey = null;
+    try {
+      new ODataJsonDeserializer(ContentType.CT_JSON, metadata).entity(toStream(payload), person);
+    } catch (DeserializerException e) {
+      treeKey = (MessageKeys) e.getMessageKey();
+    }
+    assertEquals(payload, expected, treeKey);
+    try {
+      new ODataJsonStreamDeserializer(ContentType.CT_JSON, metadata).entity(toStream(payload), person);
+      fail("Exception expected for " + payload);
+    } catch (DeserializerException e) {
+      assertEquals(payload, expected, e.getMessageKey());
+    }
+  }
+
+  private Entity deserialize(String payload) throws DeserializerException {
+    return new ODataJsonStreamDeserializer(ContentType.CT_JSON, metadata).entity(toStream(payload), person)
+        .getEntity();
+  }
+
+  private static ByteArrayInputStream toStream(String payload) {
+    return new ByteArrayInputStream(payload.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static class LocalProvider extends CsdlAbstractEdmProvider {
+
+    @Override
+    public CsdlEntityType getEntityType(FullQualifiedName entityTypeName) {
+      if (PERSON.equals(entityTypeName)) {
+        return new CsdlEntityType()
+            .setName(PERSON.getName())
+            .setKey(Collections.singletonList(new CsdlPropertyRef().setName("ID")))
+            .setProperties(Arrays.asList(
+                new CsdlProperty().setName("ID").setType(EdmPrimitiveTypeKind.Int32.getFullQualifiedName())
+                    .setNullable(false),
+                new CsdlProperty().setName("Name").setType(EdmPrimitiveTypeKind.String.getFullQualifiedName()),
+                new CsdlProperty().setName("Age").setType(EdmPrimitiveTypeKind.Int16.getFullQualifiedName()),
+                new CsdlProperty().setName("Weight").setType(EdmPrimitiveTypeKind.Decimal.getFullQualifiedName())
+                    .setPrecision(5).setScale(2),
+                new CsdlProperty().setName("Address").setType(ADDRESS),
+                new CsdlProperty().setName("Tags").setType(EdmPrimitiveTypeKind.String.getFullQualifiedName())
+                    .setCollection(true),
+                new CsdlProperty().setName("Addresses").setType(ADDRESS).setCollection(true)))
+            .setNavigationProperties(Arrays.asList(
+                new CsdlNavigationProperty().setName("Boss").setType(PERSON),
+                new CsdlNavigationProperty().setName("Friends").setType(PERSON).setCollection(true)));
+      } else if (EMPLOYEE.equals(entityTypeName)) {
+        return new CsdlEntityType()
+            .setName(EMPLOYEE.getName())
+            .setBaseType(PERSON)
+            .setProperties(Collections.singletonList(
+                new CsdlProperty().setName("Salary").setType(EdmPrimitiveTypeKind.Double.getFullQualifiedName())));
+      }
+      return null;
+    }
+
+    @Override
+    public CsdlComplexType getComplexType(FullQualifiedName complexTypeName) {
+      if (ADDRESS.equals(complexTypeName)) {
+        return new CsdlComplexType()
+            .setName(ADDRESS.getName())
+            .setProperties(Arrays.asList(
+                new CsdlProperty().setName("Street").setType(EdmPrimitiveTypeKind.String.getFullQualifiedName()),
+                new CsdlProperty().setName("City").setType(EdmPrimitiveTypeKind.String.getFullQualifiedName())));
+      } else if (POSTAL_ADDRESS.equals(complexTypeName)) {
+        return new CsdlComplexType()
+            .setName(POSTAL_ADDRESS.getName())
+            .setBaseType(ADDRESS)
+            .setProperties(Collections.singletonList(
+                new CsdlProperty().setName("Zip").setType(EdmPrimitiveTypeKind.String.getFullQualifiedName())));
+      }
+      return null;
+    }
+  }
+}
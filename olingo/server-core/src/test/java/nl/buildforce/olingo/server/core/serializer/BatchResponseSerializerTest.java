@@ -8,6 +8,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
@@ -17,12 +18,14 @@ import nl.buildforce.olingo.commons.api.data.ContextURL;
 import nl.buildforce.olingo.commons.api.data.Entity;
 import nl.buildforce.olingo.commons.api.data.EntityIterator;
 import nl.buildforce.olingo.commons.api.edm.EdmEntityType;
+import nl.buildforce.olingo.commons.api.ex.ODataRuntimeException;
 import nl.buildforce.olingo.commons.api.format.ContentType;
 import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
 import nl.buildforce.olingo.server.api.OData;
 import nl.buildforce.olingo.server.api.ODataResponse;
 import nl.buildforce.olingo.server.api.ServiceMetadata;
 import nl.buildforce.olingo.server.api.deserializer.batch.ODataResponsePart;
+import nl.buildforce.olingo.server.api.serializer.BatchResponseWriter;
 import nl.buildforce.olingo.server.api.serializer.EntityCollectionSerializerOptions;
 import nl.buildforce.olingo.server.api.serializer.SerializerStreamResult;
 import nl.buildforce.olingo.server.core.deserializer.batch.BatchLineReader;
@@ -92,6 +95,38 @@ public class BatchResponseSerializerTest {
     assertEquals("--" + BOUNDARY + "--" + CRLF, body.get(line));
   }
 
+  @Test
+  public void batchResponseWriter() throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    BatchResponseWriter writer = new BatchResponseSerializer().writer(output, BOUNDARY);
+
+    writer.write(createTextResponsePart("Walter Winter"));
+    String firstPart = new String(output.toByteArray(), StandardCharsets.ISO_8859_1);
+    assertTrue(firstPart.startsWith("--" + BOUNDARY + CRLF));
+    assertTrue(firstPart.endsWith("Walter Winter" + CRLF + CRLF));
+
+    writer.write(createTextResponsePart("Anna Summer"));
+    writer.close();
+    InputStream expected = new BatchResponseSerializer().serialize(Arrays.asList(createTextResponsePart(
+        "Walter Winter"), createTextResponsePart("Anna Summer")), BOUNDARY);
+    assertArrayEquals(IOUtils.toByteArray(expected), output.toByteArray());
+  }
+
+  @Test(expected = ODataRuntimeException.class)
+  public void batchResponseWriterClosed() throws Exception {
+    BatchResponseWriter writer = new BatchResponseSerializer().writer(new ByteArrayOutputStream(), BOUNDARY);
+    writer.close();
+    writer.write(createTextResponsePart("Walter Winter"));
+  }
+
+  private ODataResponsePart createTextResponsePart(String text) {
+    ODataResponse response = new ODataResponse();
+    response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    response.setHeader(CONTENT_TYPE, ContentType.TEXT_PLAIN.toString());
+    response.setContent(IOUtils.toInputStream(text + CRLF, StandardCharsets.UTF_8));
+    return new ODataResponsePart(Collections.singletonList(response), false);
+  }
+
   @Test
   public void batchResponseUmlautsUtf8() throws Exception {
     List<ODataResponsePart> parts = new ArrayList<>();
@@ -254,6 +254,35 @@ public class CircleStreamBufferTest {
     write.write("Test".getBytes(DEFAULT_CHARSET), 0, 4);
   }
 
+  @Test
+  public void testReuseBufferAfterCloseInputStream() throws Exception {
+    CircleStreamBuffer first = new CircleStreamBuffer();
+    first.getOutputStream().write("Test_1".getBytes(DEFAULT_CHARSET));
+    first.getInputStream().close();
+
+    CircleStreamBuffer second = new CircleStreamBuffer();
+    second.getOutputStream().write("Test_2".getBytes(DEFAULT_CHARSET));
+    // a write after close must not go into a buffer taken over by another instance
+    first.getOutputStream().write("Test_3".getBytes(DEFAULT_CHARSET));
+
+    assertEquals("Test_2", readFrom(second.getInputStream()));
+  }
+
+  @Test
+  public void testReuseBufferAfterReadMoreThenDefaultBufferSize() throws Exception {
+    final int signs = 70110;
+    String firstData = createTestString(signs);
+    CircleStreamBuffer first = new CircleStreamBuffer();
+    first.getOutputStream().write(firstData.getBytes(DEFAULT_CHARSET));
+    assertEquals(firstData, readFrom(first.getInputStream()));
+    first.getInputStream().close();
+
+    String secondData = createTestString(signs);
+    CircleStreamBuffer second = new CircleStreamBuffer();
+    second.getOutputStream().write(secondData.getBytes(DEFAULT_CHARSET));
+    assertEquals(secondData, readFrom(second.getInputStream()));
+  }
+
   // ###################################################
   // #
   // # Below here are test helper methods
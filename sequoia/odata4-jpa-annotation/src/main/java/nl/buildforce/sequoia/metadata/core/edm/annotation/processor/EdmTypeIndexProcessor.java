@@ -0,0 +1,123 @@
+package nl.buildforce.sequoia.metadata.core.edm.annotation.processor;
+
+import nl.buildforce.sequoia.metadata.core.edm.annotation.EdmAction;
+import nl.buildforce.sequoia.metadata.core.edm.annotation.EdmEnumeration;
+import nl.buildforce.sequoia.metadata.core.edm.annotation.EdmFunction;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor that records at build time, which classes the metadata mapper would otherwise find by scanning
+ * the class path at start up: Java classes providing functions or actions and enumerations annotated with
+ * {@link EdmEnumeration}. The result is written into {@link #INDEX_RESOURCE} of the class output.<p>
+ * Besides the classes, the index contains all packages that have been compiled with the processor together with the
+ * number of top level classes compiled per package. The metadata mapper uses the index only if these numbers match the
+ * classes found on the class path, otherwise it falls back to the class path scan. This way an index written by an
+ * incremental compilation, which only knows the recompiled classes, is not trusted.<p>
+ * The processor is not registered as a service, as it has to see all classes of a compilation. It has to be enabled
+ * explicitly for the compilation of the persistence unit, e.g. via the compiler option
+ * <code>-processor nl.buildforce.sequoia.metadata.core.edm.annotation.processor.EdmTypeIndexProcessor</code> or the
+ * <code>annotationProcessors</code> configuration of the maven-compiler-plugin.
+ */
+@SupportedAnnotationTypes("*")
+public final class EdmTypeIndexProcessor extends AbstractProcessor {
+  public static final String INDEX_RESOURCE = "META-INF/sequoia/edm-types.index";
+  public static final String PACKAGE = "package";
+  public static final String OPERATION = "operation";
+  public static final String ENUMERATION = "enumeration";
+  private static final String OPERATION_INTERFACE =
+      "nl.buildforce.sequoia.metadata.core.edm.mapper.extension.ODataOperation";
+
+  private final Map<String, Integer> packages = new TreeMap<>();
+  private final Set<String> operations = new TreeSet<>();
+  private final Set<String> enumerations = new TreeSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeIndex();
+    } else {
+      final Elements elements = processingEnv.getElementUtils();
+      final TypeElement operationInterface = elements.getTypeElement(OPERATION_INTERFACE);
+      for (final Element root : roundEnv.getRootElements()) {
+        if (root.getKind().isClass() || root.getKind().isInterface())
+          packages.merge(elements.getPackageOf(root).getQualifiedName().toString(), 1, Integer::sum);
+        if (operationInterface != null)
+          collectOperations(root, operationInterface);
+      }
+      // Also without the metadata mapper on the class path, the classes declaring operations are known
+      for (final Element method : roundEnv.getElementsAnnotatedWith(EdmFunction.class))
+        addOperation(method);
+      for (final Element method : roundEnv.getElementsAnnotatedWith(EdmAction.class))
+        addOperation(method);
+      for (final Element enumeration : roundEnv.getElementsAnnotatedWith(EdmEnumeration.class)) {
+        if (enumeration.getKind() == ElementKind.ENUM)
+          enumerations.add(elements.getBinaryName((TypeElement) enumeration).toString());
+      }
+    }
+    return false;
+  }
+
+  private void collectOperations(final Element element, final TypeElement operationInterface) {
+    if (element.getKind().isClass() || element.getKind().isInterface()) {
+      final Types types = processingEnv.getTypeUtils();
+      if (!element.equals(operationInterface)
+          && types.isAssignable(types.erasure(element.asType()), types.erasure(operationInterface.asType())))
+        operations.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+      for (final Element enclosed : element.getEnclosedElements())
+        collectOperations(enclosed, operationInterface);
+    }
+  }
+
+  private void addOperation(final Element method) {
+    if (method.getKind() == ElementKind.METHOD)
+      operations.add(processingEnv.getElementUtils().getBinaryName((TypeElement) method.getEnclosingElement())
+          .toString());
+  }
+
+  private void writeIndex() {
+    if (packages.isEmpty())
+      return;
+    try {
+      final FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+          INDEX_RESOURCE);
+      try (Writer writer = index.openWriter()) {
+        for (final Map.Entry<String, Integer> entry : packages.entrySet())
+          writer.write(PACKAGE + " " + entry.getKey() + " " + entry.getValue() + "\n");
+        write(writer, OPERATION, operations);
+        write(writer, ENUMERATION, enumerations);
+      }
+    } catch (IOException | IllegalStateException e) {
+      // Without index the types are found by scanning the class path
+      processingEnv.getMessager().printMessage(Kind.WARNING, "Index " + INDEX_RESOURCE + " not written: "
+          + e.getMessage());
+    }
+  }
+
+  private static void write(final Writer writer, final String kind, final Set<String> names) throws IOException {
+    for (final String name : names)
+      writer.write(kind + " " + name + "\n");
+  }
+}
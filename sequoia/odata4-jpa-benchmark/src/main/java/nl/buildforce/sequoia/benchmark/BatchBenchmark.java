@@ -0,0 +1,68 @@
+package nl.buildforce.sequoia.benchmark;
+
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.olingo.commons.api.http.HttpMethod;
+import nl.buildforce.olingo.server.api.ODataRequest;
+import nl.buildforce.sequoia.processor.core.exception.JPAIllegalAccessException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+
+/**
+ * A complete $batch request, which contains one GET request for each {@link BenchmarkUri}. Comparing it with the sum
+ * of the {@link RoundTripBenchmark} results shows the overhead of the batch handling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBenchmark {
+  private static final String BOUNDARY = "abc123";
+
+  private ServiceState service;
+  private byte[] body;
+
+  @Setup
+  public void setup(final ServiceState service) {
+    this.service = service;
+    final StringBuilder requestBody = new StringBuilder();
+    for (final BenchmarkUri uri : BenchmarkUri.values()) {
+      requestBody.append("--").append(BOUNDARY).append("\r\n")
+          .append("Content-Type: application/http\r\n")
+          .append("Content-Transfer-Encoding: binary\r\n")
+          .append("\r\n")
+          // Blanks would end the URI of the request line
+          .append("GET ").append(uri.getRequestUri().replace(" ", "%20")).append(" HTTP/1.1\r\n")
+          .append("Content-Type: application/json\r\n")
+          .append("\r\n")
+          .append("\r\n");
+    }
+    requestBody.append("--").append(BOUNDARY).append("--");
+    body = requestBody.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public long batch() throws ODataException, JPAIllegalAccessException, IOException {
+    final ODataRequest request = RoundTripBenchmark.createRequest(HttpMethod.POST, "$batch", null);
+    request.addHeader(CONTENT_TYPE, Collections.singletonList("multipart/mixed;boundary=" + BOUNDARY));
+    request.setBody(new ByteArrayInputStream(body));
+    return RoundTripBenchmark.process(service, request);
+  }
+}
@@ -0,0 +1,24 @@
+package nl.buildforce.sequoia.benchmark;
+
+/**
+ * Request URIs of typical shapes, shared by the benchmarks of the different pipeline steps, so their results can be
+ * compared.
+ */
+public enum BenchmarkUri {
+  KEY("Organizations('3')", null),
+  FILTER("Organizations", "$filter=Address/Region eq 'US-CA' and contains(Name1,'Org')&$orderby=Name1 desc&$top=5"),
+  EXPAND("Organizations", "$select=ID,Name1&$expand=Roles($filter=RoleCategory eq 'A'),SupportEngineers"),
+  NAVIGATION("Organizations('3')/Roles", "$count=true");
+
+  final String path;
+  final String query;
+
+  BenchmarkUri(final String path, final String query) {
+    this.path = path;
+    this.query = query;
+  }
+
+  String getRequestUri() {
+    return query == null ? path : path + "?" + query;
+  }
+}
@@ -0,0 +1,66 @@
+package nl.buildforce.sequoia.benchmark;
+
+import nl.buildforce.olingo.commons.api.data.Entity;
+import nl.buildforce.olingo.commons.api.edm.EdmEntityType;
+import nl.buildforce.olingo.commons.api.format.ContentType;
+import nl.buildforce.olingo.server.api.deserializer.DeserializerException;
+import nl.buildforce.olingo.server.api.deserializer.ODataDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deserialization of the JSON payload of a create request by <code>ODataJsonDeserializer</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeserializerBenchmark {
+  private static final String ORGANIZATION = "{"
+      + "\"ID\": \"99\","
+      + "\"Name1\": \"Benchmark Org.\","
+      + "\"Name2\": \"Second Line\","
+      + "\"Country\": \"DEU\","
+      + "\"Address\": {"
+      + "\"StreetName\": \"Test Road\","
+      + "\"HouseNumber\": \"123\","
+      + "\"PostalCode\": \"94321\","
+      + "\"CityName\": \"Test City\","
+      + "\"Country\": \"USA\","
+      + "\"Region\": \"US-UT\"},"
+      + "\"AdministrativeInformation\": {"
+      + "\"Created\": {\"By\": \"Joe Doe\", \"At\": \"2016-01-22T12:25:23Z\"},"
+      + "\"Updated\": {\"By\": \"Joe Doe\", \"At\": \"2016-01-24T14:29:45Z\"}},"
+      + "\"Comment\": [\"First\", \"Second\"]"
+      + "}";
+
+  private ODataDeserializer deserializer;
+  private EdmEntityType edmEntityType;
+  private byte[] payload;
+
+  @Setup
+  public void setup(final ServiceState service) throws DeserializerException {
+    deserializer = service.odata.createDeserializer(ContentType.APPLICATION_JSON);
+    edmEntityType = service.getEdmEntitySet("Organizations").getEntityType();
+    payload = ORGANIZATION.getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public Entity deserialize() throws DeserializerException {
+    return deserializer.entity(new ByteArrayInputStream(payload), edmEntityType).getEntity();
+  }
+}
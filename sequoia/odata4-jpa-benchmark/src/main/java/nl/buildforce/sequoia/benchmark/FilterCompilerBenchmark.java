@@ -0,0 +1,82 @@
+package nl.buildforce.sequoia.benchmark;
+
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
+import nl.buildforce.sequoia.processor.core.exception.JPAIllegalAccessException;
+import nl.buildforce.sequoia.processor.core.filter.JPAFilterCrossCompiler;
+import nl.buildforce.sequoia.processor.core.filter.JPAOperationConverter;
+import nl.buildforce.sequoia.processor.core.processor.JPAODataRequestContextImpl;
+import nl.buildforce.sequoia.processor.core.query.JPAJoinQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compilation of a $filter into a criteria expression by <code>JPAFilterCrossCompiler</code>. The compiler is created
+ * once, so only the visit of the filter expression is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterCompilerBenchmark {
+
+  @Param({ "COMPARISON", "LOGICAL", "METHOD", "LAMBDA" })
+  public Filter filter;
+
+  private JPAODataRequestContextImpl requestContext;
+  private JPAFilterCrossCompiler compiler;
+
+  public enum Filter {
+    COMPARISON("ID eq '3'"),
+    LOGICAL("Address/Region eq 'US-CA' and (ID gt '2' or Name1 ne null)"),
+    METHOD("contains(Name1,'Org') and tolower(Address/CityName) eq 'test city'"),
+    LAMBDA("Roles/any(d:d/RoleCategory eq 'A')");
+
+    final String expression;
+
+    Filter(final String expression) {
+      this.expression = expression;
+    }
+  }
+
+  @Setup
+  public void setup(final ServiceState service) throws ODataException, JPAIllegalAccessException {
+    requestContext = service.createRequestContext(service.parse("Organizations", "$filter=" + filter.expression));
+    final JPAEntityType et = service.getEntityType("Organizations");
+    final JPAJoinQuery query = new JPAJoinQuery(service.odata, service.serviceContext, Collections.emptyMap(),
+        requestContext);
+    final From<?, ?> root = ((CriteriaQuery<?>) query.getQuery()).from(et.getTypeClass());
+    compiler = new JPAFilterCrossCompiler(service.odata, service.sd, et, new JPAOperationConverter(requestContext
+        .getEntityManager().getCriteriaBuilder(), service.serviceContext.getOperationConverter()), query, root, null,
+        requestContext);
+  }
+
+  @TearDown
+  public void tearDown() {
+    requestContext.getEntityManager().close();
+  }
+
+  @Benchmark
+  public Expression<Boolean> compile() throws ExpressionVisitException, ODataException {
+    return compiler.compile();
+  }
+}
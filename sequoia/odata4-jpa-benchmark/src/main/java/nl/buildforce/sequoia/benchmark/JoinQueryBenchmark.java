@@ -0,0 +1,60 @@
+package nl.buildforce.sequoia.benchmark;
+
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.sequoia.processor.core.exception.JPAIllegalAccessException;
+import nl.buildforce.sequoia.processor.core.processor.JPAODataRequestContextImpl;
+import nl.buildforce.sequoia.processor.core.query.JPAJoinQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of the criteria query of a request by <code>JPAJoinQuery</code>, from the parsed URI up to the typed query.
+ * The query is not executed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JoinQueryBenchmark {
+
+  @Param({ "KEY", "FILTER", "EXPAND", "NAVIGATION" })
+  public BenchmarkUri uri;
+
+  private ServiceState service;
+  private JPAODataRequestContextImpl requestContext;
+
+  @Setup
+  public void setup(final ServiceState service) throws ODataException, JPAIllegalAccessException {
+    this.service = service;
+    requestContext = service.createRequestContext(service.parse(uri.path, uri.query));
+  }
+
+  @TearDown
+  public void tearDown() {
+    requestContext.getEntityManager().close();
+  }
+
+  @Benchmark
+  public Optional<TypedQuery<Tuple>> buildQuery() throws ODataException {
+    return new JPAJoinQuery(service.odata, service.serviceContext, Collections.emptyMap(), requestContext)
+        .buildQuery();
+  }
+}
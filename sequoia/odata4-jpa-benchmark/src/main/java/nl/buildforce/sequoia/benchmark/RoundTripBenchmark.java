@@ -0,0 +1,81 @@
+package nl.buildforce.sequoia.benchmark;
+
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.olingo.commons.api.http.HttpMethod;
+import nl.buildforce.olingo.server.api.ODataRequest;
+import nl.buildforce.olingo.server.api.ODataResponse;
+import nl.buildforce.sequoia.processor.core.exception.JPAIllegalAccessException;
+import nl.buildforce.sequoia.processor.core.processor.JPAODataRequestContextImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static nl.buildforce.sequoia.benchmark.ServiceState.BASE_URI;
+
+/**
+ * Complete requests, from the raw request to the written response body, answered by the processors of the service
+ * against the database. Each request gets its own entity manager and Olingo handler, as with
+ * <code>JPAODataHandler</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoundTripBenchmark {
+  @Param({ "KEY", "FILTER", "EXPAND", "NAVIGATION" })
+  public BenchmarkUri uri;
+
+  private ServiceState service;
+
+  @Setup
+  public void setup(final ServiceState service) {
+    this.service = service;
+  }
+
+  @Benchmark
+  public long get() throws ODataException, JPAIllegalAccessException, IOException {
+    return process(service, createRequest(HttpMethod.GET, uri.path, uri.query));
+  }
+
+  /**
+   * Processes a request and writes its response.
+   * @return Number of bytes of the response body
+   */
+  static long process(final ServiceState service, final ODataRequest request) throws ODataException,
+      JPAIllegalAccessException, IOException {
+
+    final JPAODataRequestContextImpl requestContext = service.createRequestContext(null);
+    try {
+      final ODataResponse response = service.createHandler(requestContext).process(request);
+      if (response.getStatusCode() >= 400)
+        throw new IllegalStateException("Request " + request.getRawRequestUri() + " failed with status "
+            + response.getStatusCode());
+      return ServiceState.drain(response);
+    } finally {
+      requestContext.getEntityManager().close();
+    }
+  }
+
+  static ODataRequest createRequest(final HttpMethod method, final String path, final String query) {
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(method);
+    request.setRawBaseUri(BASE_URI);
+    request.setRawODataPath("/" + path);
+    request.setRawQueryPath(query);
+    request.setRawRequestUri(BASE_URI + "/" + path + (query == null ? "" : "?" + query));
+    return request;
+  }
+}
@@ -0,0 +1,98 @@
+package nl.buildforce.sequoia.benchmark;
+
+import nl.buildforce.olingo.commons.api.data.ContextURL;
+import nl.buildforce.olingo.commons.api.data.EntityCollection;
+import nl.buildforce.olingo.commons.api.edm.EdmEntitySet;
+import nl.buildforce.olingo.commons.api.edm.EdmEntityType;
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.olingo.commons.api.format.ContentType;
+import nl.buildforce.olingo.server.api.serializer.EntityCollectionSerializerOptions;
+import nl.buildforce.olingo.server.api.serializer.ODataSerializer;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
+import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
+import nl.buildforce.sequoia.processor.core.exception.JPAIllegalAccessException;
+import nl.buildforce.sequoia.processor.core.query.JPAExpandQueryResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jakarta.persistence.Tuple;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static nl.buildforce.sequoia.processor.core.converter.JPAExpandResult.ROOT_RESULT_KEY;
+
+/**
+ * Serialization of an entity collection by <code>ODataJsonSerializer</code> and <code>ODataXmlSerializer</code>,
+ * including reading the serialized content.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializerBenchmark {
+
+  @Param({ "Organizations", "AdministrativeDivisions" })
+  public String entitySet;
+
+  @Param({ "JSON", "XML" })
+  public Format format;
+
+  private ServiceState service;
+  private ODataSerializer serializer;
+  private EdmEntityType edmEntityType;
+  private EntityCollection entities;
+  private EntityCollectionSerializerOptions options;
+
+  public enum Format {
+    JSON(ContentType.CT_JSON),
+    XML(ContentType.APPLICATION_XML);
+
+    final ContentType contentType;
+
+    Format(final ContentType contentType) {
+      this.contentType = contentType;
+    }
+  }
+
+  @Setup
+  public void setup(final ServiceState service) throws ODataException, JPAIllegalAccessException {
+    this.service = service;
+    serializer = service.odata.createSerializer(format.contentType);
+    final EdmEntitySet edmEntitySet = service.getEdmEntitySet(entitySet);
+    edmEntityType = edmEntitySet.getEntityType();
+    options = EntityCollectionSerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+        .build();
+
+    final Map<JPAJoinKey, List<Tuple>> result = new HashMap<>(1);
+    result.put(ROOT_RESULT_KEY, TupleConverterBenchmark.readRows(service, entitySet));
+    entities = new JPAExpandQueryResult(result, Collections.emptyMap(), service.getEntityType(entitySet),
+        Collections.emptyList()).asEntityCollection(new JPATupleChildConverter(service.sd, service.odata
+            .createUriHelper(), service.serviceMetadata)).get(ROOT_RESULT_KEY);
+  }
+
+  @Benchmark
+  public long serialize() throws ODataException, IOException {
+    try (InputStream content = serializer.entityCollection(service.serviceMetadata, edmEntityType, entities, options)
+        .getContent()) {
+      return content.transferTo(OutputStream.nullOutputStream());
+    }
+  }
+}
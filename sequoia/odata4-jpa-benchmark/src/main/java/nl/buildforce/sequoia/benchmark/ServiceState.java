@@ -0,0 +1,136 @@
+package nl.buildforce.sequoia.benchmark;
+
+import nl.buildforce.olingo.commons.api.edm.EdmEntitySet;
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.olingo.server.api.OData;
+import nl.buildforce.olingo.server.api.ODataHandler;
+import nl.buildforce.olingo.server.api.ODataResponse;
+import nl.buildforce.olingo.server.api.ServiceMetadata;
+import nl.buildforce.olingo.server.api.uri.UriInfo;
+import nl.buildforce.olingo.server.core.uri.parser.Parser;
+import nl.buildforce.sequoia.metadata.api.JPAEdmProvider;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAServiceDocument;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAException;
+import nl.buildforce.sequoia.processor.core.api.JPAODataBatchProcessor;
+import nl.buildforce.sequoia.processor.core.api.JPAODataRequestProcessor;
+import nl.buildforce.sequoia.processor.core.api.JPAODataServiceContext;
+import nl.buildforce.sequoia.processor.core.exception.JPAIllegalAccessException;
+import nl.buildforce.sequoia.processor.core.processor.JPAODataRequestContextImpl;
+import nl.buildforce.sequoia.processor.core.testmodel.DataSourceHelper;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import javax.sql.DataSource;
+
+/**
+ * The service all benchmarks run against: the test model on an in-memory HSQLDB, filled with the test data by
+ * Flyway. Metadata, EDM and service document are created once per trial, as they are in a running service.
+ */
+@State(Scope.Benchmark)
+public class ServiceState {
+  public static final String PUNIT_NAME = "nl.buildforce.sequoia";
+  public static final String BASE_URI = "http://localhost:8080/Test/Olingo.svc";
+  private static final String[] ENUM_PACKAGES = { "nl.buildforce.sequoia.processor.core.testmodel" };
+
+  OData odata;
+  JPAODataServiceContext serviceContext;
+  ServiceMetadata serviceMetadata;
+  JPAServiceDocument sd;
+  EntityManagerFactory emf;
+
+  @Setup
+  public void setup() throws ODataException {
+    final DataSource ds = DataSourceHelper.createDataSource(DataSourceHelper.DB_HSQLDB);
+    odata = OData.newInstance();
+    serviceContext = new JPAODataServiceContext(PUNIT_NAME, ds, ENUM_PACKAGES);
+    final JPAEdmProvider edmProvider = serviceContext.getEdmProvider();
+    serviceMetadata = serviceContext.getServiceMetadata(odata, edmProvider);
+    sd = edmProvider.getServiceDocument();
+    emf = serviceContext.getEntityManagerFactory().orElseThrow();
+  }
+
+  @TearDown
+  public void tearDown() {
+    emf.close();
+  }
+
+  /**
+   * @param path Resource path, e.g. <code>Organizations('3')</code>
+   * @param query Query options without leading question mark, or null
+   */
+  UriInfo parse(final String path, final String query) throws ODataException {
+    return new Parser(serviceMetadata.getEdm(), odata).parseUri("/" + path, query, BASE_URI);
+  }
+
+  /**
+   * Creates the request context of a request on a new entity manager, which has to be closed by the caller.
+   */
+  JPAODataRequestContextImpl createRequestContext(final UriInfo uriInfo) throws JPAIllegalAccessException {
+    final EntityManager em = emf.createEntityManager();
+    final JPAODataRequestContextImpl requestContext = new JPAODataRequestContextImpl();
+    requestContext.setEntityManager(em);
+    if (uriInfo != null)
+      requestContext.setUriInfo(uriInfo);
+    return requestContext;
+  }
+
+  /**
+   * Creates an Olingo handler the way <code>JPAODataHandler</code> does for each request.
+   */
+  ODataHandler createHandler(final JPAODataRequestContextImpl requestContext) throws ODataJPAException {
+    final ODataHandler handler = odata.createRawHandler(serviceMetadata);
+    handler.register(new JPAODataRequestProcessor(serviceContext, requestContext));
+    handler.register(sd);
+    handler.register(new JPAODataBatchProcessor(serviceContext, requestContext));
+    return handler;
+  }
+
+  EdmEntitySet getEdmEntitySet(final String entitySet) {
+    return serviceMetadata.getEdm().getEntityContainer().getEntitySet(entitySet);
+  }
+
+  JPAEntityType getEntityType(final String entitySet) throws ODataJPAException {
+    return sd.getEntity(entitySet);
+  }
+
+  /**
+   * Reads the response body completely, as writing it to the client would.
+   * @return Number of bytes of the body
+   */
+  static long drain(final ODataResponse response) throws IOException {
+    if (response.getContent() != null) {
+      try (InputStream content = response.getContent()) {
+        return content.transferTo(OutputStream.nullOutputStream());
+      }
+    }
+    if (response.getODataContent() != null) {
+      final CountingOutputStream out = new CountingOutputStream();
+      response.getODataContent().write(Channels.newChannel(out));
+      return out.count;
+    }
+    return 0L;
+  }
+
+  private static final class CountingOutputStream extends OutputStream {
+    private long count;
+
+    @Override
+    public void write(final int b) {
+      count++;
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) {
+      count += len;
+    }
+  }
+}
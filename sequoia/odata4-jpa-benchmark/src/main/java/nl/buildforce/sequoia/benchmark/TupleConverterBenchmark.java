@@ -0,0 +1,85 @@
+package nl.buildforce.sequoia.benchmark;
+
+import nl.buildforce.olingo.commons.api.data.EntityCollection;
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
+import nl.buildforce.sequoia.processor.core.converter.JPAExpandResult;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
+import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
+import nl.buildforce.sequoia.processor.core.exception.JPAIllegalAccessException;
+import nl.buildforce.sequoia.processor.core.processor.JPAODataRequestContextImpl;
+import nl.buildforce.sequoia.processor.core.query.JPAExpandQueryResult;
+import nl.buildforce.sequoia.processor.core.query.JPAJoinQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jakarta.persistence.Tuple;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static nl.buildforce.sequoia.processor.core.converter.JPAExpandResult.ROOT_RESULT_KEY;
+
+/**
+ * Conversion of the rows read for an entity set into Olingo entities by <code>JPATupleChildConverter</code>. The rows
+ * are read once; as the converter releases each row it has converted, every invocation works on a copy of the list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TupleConverterBenchmark {
+
+  @Param({ "Organizations", "AdministrativeDivisions" })
+  public String entitySet;
+
+  private ServiceState service;
+  private JPAEntityType et;
+  private List<Tuple> rows;
+
+  @Setup
+  public void setup(final ServiceState service) throws ODataException, JPAIllegalAccessException {
+    this.service = service;
+    et = service.getEntityType(entitySet);
+    rows = readRows(service, entitySet);
+  }
+
+  @Benchmark
+  public EntityCollection convert() throws ODataException {
+    final Map<JPAJoinKey, List<Tuple>> result = new HashMap<>(1);
+    result.put(ROOT_RESULT_KEY, new ArrayList<>(rows));
+    return new JPAExpandQueryResult(result, Collections.emptyMap(), et, Collections.emptyList())
+        .asEntityCollection(new JPATupleChildConverter(service.sd, service.odata.createUriHelper(),
+            service.serviceMetadata)).get(ROOT_RESULT_KEY);
+  }
+
+  /**
+   * Reads all rows of an entity set, the way a request without query options does.
+   */
+  static List<Tuple> readRows(final ServiceState service, final String entitySet) throws ODataException,
+      JPAIllegalAccessException {
+
+    final JPAODataRequestContextImpl requestContext = service.createRequestContext(service.parse(entitySet, null));
+    try {
+      final JPAExpandResult result = (JPAExpandResult) new JPAJoinQuery(service.odata, service.serviceContext,
+          Collections.emptyMap(), requestContext).execute();
+      return new ArrayList<>(result.getResults().get(ROOT_RESULT_KEY));
+    } finally {
+      requestContext.getEntityManager().close();
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package nl.buildforce.sequoia.benchmark;
+
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.olingo.server.api.uri.UriInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * URI parsing by Olingo's <code>Parser</code>, which tokenizes resource path and query options with the
+ * <code>UriTokenizer</code> and resolves them against the EDM.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UriParserBenchmark {
+
+  @Param({ "KEY", "FILTER", "EXPAND", "NAVIGATION" })
+  public BenchmarkUri uri;
+
+  private ServiceState service;
+
+  @Setup
+  public void setup(final ServiceState service) {
+    this.service = service;
+  }
+
+  @Benchmark
+  public UriInfo parse() throws ODataException {
+    return service.parse(uri.path, uri.query);
+  }
+}
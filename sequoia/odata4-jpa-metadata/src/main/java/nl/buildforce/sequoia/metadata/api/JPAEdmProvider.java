@@ -200,6 +200,10 @@ public class JPAEdmProvider extends CsdlAbstractEdmProvider {
     ODataJPAException.setLocales(locales);
   }
 
+  public void clearRequestLocales() {
+    ODataJPAException.clearLocales();
+  }
+
   public List<EdmxReference> getReferences() {
     return serviceDocument.getReferences();
   }
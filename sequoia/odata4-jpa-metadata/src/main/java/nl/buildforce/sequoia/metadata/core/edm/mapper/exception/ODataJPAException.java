@@ -2,19 +2,48 @@ package nl.buildforce.sequoia.metadata.core.edm.mapper.exception;
 
 import nl.buildforce.olingo.commons.api.ex.ODataException;
 
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.List;
 import java.util.Locale;
 
 public abstract class ODataJPAException extends ODataException {
   private static final String UNKNOWN_MESSAGE = "No message text found";
-  private static Enumeration<Locale> locales;
+  // Locales are request specific. The service, and with it the exception classes, is shared between requests. They
+  // are kept as list, as an Enumeration can only be read once.
+  private static final ThreadLocal<List<Locale>> requestLocales = new ThreadLocal<>();
 
+  /**
+   * @return A new Enumeration of the locales of the current request or null outside of a request
+   */
   public static Enumeration<Locale> getLocales() {
-    return locales;
+    final List<Locale> locales = requestLocales.get();
+    return locales == null ? null : Collections.enumeration(locales);
+  }
+
+  /**
+   * @return The locales of the current request or null outside of a request
+   */
+  public static List<Locale> getLocaleList() {
+    return requestLocales.get();
   }
 
   public static void setLocales(final Enumeration<Locale> locales) {
-    ODataJPAException.locales = locales;
+    setLocaleList(locales == null ? null : Collections.list(locales));
+  }
+
+  public static void setLocaleList(final List<Locale> locales) {
+    if (locales == null)
+      requestLocales.remove();
+    else
+      requestLocales.set(List.copyOf(locales));
+  }
+
+  /**
+   * Removes the locales from the thread. Has to be called at the end of a request, as threads are pooled.
+   */
+  public static void clearLocales() {
+    requestLocales.remove();
   }
 
   protected String id;
@@ -24,27 +53,27 @@ public abstract class ODataJPAException extends ODataException {
   public ODataJPAException(final String id) {
     super("");
     this.id = id;
-    messageBuffer = new ODataJPAMessageTextBuffer(getBundleName(), locales);
+    messageBuffer = new ODataJPAMessageTextBuffer(getBundleName(), getLocales());
   }
 
   public ODataJPAException(final String id, final String... params) {
     super("");
     this.id = id;
     this.parameter = params;
-    messageBuffer = new ODataJPAMessageTextBuffer(getBundleName(), locales);
+    messageBuffer = new ODataJPAMessageTextBuffer(getBundleName(), getLocales());
   }
 
   public ODataJPAException(final String id, final Throwable cause, final String... params) {
     super("", cause);
     this.id = id;
     this.parameter = params;
-    messageBuffer = new ODataJPAMessageTextBuffer(getBundleName(), locales);
+    messageBuffer = new ODataJPAMessageTextBuffer(getBundleName(), getLocales());
   }
 
   public ODataJPAException(final String id, final Throwable cause) {
     super("", cause);
     this.id = id;
-    this.messageBuffer = new ODataJPAMessageTextBuffer(getBundleName(), locales);
+    this.messageBuffer = new ODataJPAMessageTextBuffer(getBundleName(), getLocales());
   }
 
   public ODataJPAException(final Throwable cause) {
@@ -124,6 +124,15 @@ final class IntermediateEntityType extends IntermediateStructuredType implements
     return keyAttributes;
   }
 
+  /**
+   * Builds the key attributes as well, as they are looked up for every entity of a request.
+   */
+  @Override
+  void freeze() throws ODataJPAModelException {
+    getKey();
+    super.freeze();
+  }
+
   @Override
   public List<JPAPath> getKeyPath() throws ODataJPAModelException {
     lazyBuildEdmItem();
@@ -45,6 +45,8 @@ final class IntermediateSchema extends IntermediateModelElement {
   private IntermediateEntityContainer container;
   private final Reflections reflections;
   private CsdlSchema edmSchema;
+  private Map<String, IntermediateComplexType> complexTypeListExternalKey;
+  private Map<String, IntermediateEntityType> entityTypeListExternalKey;
 
   IntermediateSchema(final JPAEdmNameBuilder nameBuilder, final Metamodel jpaMetamodel, final Reflections reflections)
       throws ODataJPAModelException {
@@ -122,6 +124,8 @@ final class IntermediateSchema extends IntermediateModelElement {
   }
 
   JPAStructuredType getComplexType(final String externalName) {
+    if (complexTypeListExternalKey != null)
+      return complexTypeListExternalKey.get(externalName);
     for (final Map.Entry<String, IntermediateComplexType> complexType : complexTypeListInternalKey.entrySet()) {
       if (complexType.getValue().getExternalName().equals(externalName))
         return complexType.getValue();
@@ -140,7 +144,8 @@ final class IntermediateSchema extends IntermediateModelElement {
   }
 
   JPAEntityType getEntityType(final String externalName) {
-
+    if (entityTypeListExternalKey != null)
+      return entityTypeListExternalKey.get(externalName);
     for (final Entry<String, IntermediateEntityType> et : entityTypeListInternalKey.entrySet()) {
       if (et.getValue().getExternalName().equals(externalName))
         return et.getValue();
@@ -205,6 +210,27 @@ final class IntermediateSchema extends IntermediateModelElement {
     return type;
   }
 
+  /**
+   * Builds the schema and freezes all its structured types. Afterwards the types can also be found by their external
+   * name without iterating over all of them.
+   * @throws ODataJPAModelException
+   */
+  void freeze() throws ODataJPAModelException {
+    getEdmItem();
+    final Map<String, IntermediateComplexType> complexTypes = new HashMap<>();
+    for (final Entry<String, IntermediateComplexType> ct : complexTypeListInternalKey.entrySet()) {
+      ct.getValue().freeze();
+      complexTypes.putIfAbsent(ct.getValue().getExternalName(), ct.getValue());
+    }
+    final Map<String, IntermediateEntityType> entityTypes = new HashMap<>();
+    for (final Entry<String, IntermediateEntityType> et : entityTypeListInternalKey.entrySet()) {
+      et.getValue().freeze();
+      entityTypes.putIfAbsent(et.getValue().getExternalName(), et.getValue());
+    }
+    complexTypeListExternalKey = Map.copyOf(complexTypes);
+    entityTypeListExternalKey = Map.copyOf(entityTypes);
+  }
+
   void setContainer(final IntermediateEntityContainer container) {
     this.container = container;
   }
@@ -267,13 +267,30 @@ class IntermediateServiceDocument implements JPAServiceDocument {
     return false;
   }
 
+  /**
+   * Builds the complete model eagerly and replaces the lazily filled lookup structures by immutable ones. Has to be
+   * called before the service document is shared between requests, as the lazy build is not thread safe.
+   * @throws ODataJPAModelException
+   */
+  void freeze() throws ODataJPAModelException {
+    getEdmEntityContainer();
+    for (final Entry<String, IntermediateSchema> schema : schemaListInternalKey.entrySet())
+      schema.getValue().freeze();
+  }
+
   private void buildIntermediateSchemas() throws ODataJPAModelException {
     final IntermediateSchema schema = new IntermediateSchema(nameBuilder, jpaMetamodel, reflections);
     schemaListInternalKey.put(schema.internalName, schema);
   }
 
+  /**
+   * Prefers the index created at build time by the EdmTypeIndexProcessor over scanning the class path
+   */
   private Reflections createReflections(String... packageName) {
     if (packageName != null && packageName.length > 0) {
+      final Reflections index = JPAEdmTypeIndex.load(packageName);
+      if (index != null)
+        return index;
       ConfigurationBuilder configBuilder = new ConfigurationBuilder();
       configBuilder.setScanners(new SubTypesScanner(false), new TypeAnnotationsScanner());
       configBuilder.forPackages(packageName);
@@ -41,12 +41,16 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
 
   protected final Map<String, IntermediateProperty> declaredPropertiesList = new HashMap<>();
   protected final Map<String, IntermediateNavigationProperty> declaredNaviPropertiesList = new HashMap<>();
-  protected final Map<String, JPAPathImpl> resolvedPathMap = new HashMap<>();
-  protected final Map<String, JPAPath> intermediatePathMap = new HashMap<>();
-  protected final Map<String, JPAAssociationPathImpl> resolvedAssociationPathMap = new HashMap<>();
+  protected Map<String, JPAPathImpl> resolvedPathMap = new HashMap<>();
+  protected Map<String, JPAPath> intermediatePathMap = new HashMap<>();
+  protected Map<String, JPAAssociationPathImpl> resolvedAssociationPathMap = new HashMap<>();
   protected final ManagedType<?> jpaManagedType;
   protected final IntermediateSchema schema;
   protected List<nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAProtectionInfo> protectedAttributes;
+  private List<JPAPath> pathList;
+  private List<JPAAssociationPath> associationPathList;
+  private List<JPAPath> collectionAttributesPath;
+  private boolean frozen;
 
   IntermediateStructuredType(final JPAEdmNameBuilder nameBuilder,
                              final ManagedType<?> _jpaManagedType,
@@ -75,6 +79,8 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
 
   @Override
   public List<JPAAssociationPath> getAssociationPathList() throws ODataJPAModelException {
+    if (frozen)
+      return associationPathList;
     lazyBuildCompleteAssociationPathMap();
     final List<JPAAssociationPath> associationList = new ArrayList<>();
 
@@ -124,6 +130,8 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
 
   @Override
   public List<JPAPath> getCollectionAttributesPath() throws ODataJPAModelException {
+    if (frozen)
+      return collectionAttributesPath;
     lazyBuildCompletePathMap();
     final List<JPAPath> pathList = new ArrayList<>();
     for (final Entry<String, JPAPathImpl> path : resolvedPathMap.entrySet()) {
@@ -211,6 +219,8 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
 
   @Override
   public List<JPAPath> getPathList() throws ODataJPAModelException {
+    if (frozen)
+      return pathList;
     lazyBuildCompletePathMap();
     final List<JPAPath> pathList = new ArrayList<>();
     for (final Entry<String, JPAPathImpl> path : resolvedPathMap.entrySet()) {
@@ -357,6 +367,32 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
     return result;
   }
 
+  /**
+   * Resolves the path, association path and protection information of the type eagerly and replaces them by
+   * immutable copies. Afterwards the lookups neither build anything nor allocate new lists, so the type can be read by
+   * concurrent requests without locking. The freeze has to happen before the type gets published to other threads,
+   * like {@link JPAServiceDocumentFactory} does.
+   * @throws ODataJPAModelException
+   */
+  void freeze() throws ODataJPAModelException {
+    if (!frozen) {
+      lazyBuildCompleteAssociationPathMap();
+      lazyBuildCompleteProtectionList();
+      // getPathList() and co. check the frozen flag, so the lists have to be built first
+      final List<JPAPath> paths = getPathList();
+      final List<JPAAssociationPath> associationPaths = getAssociationPathList();
+      final List<JPAPath> collectionPaths = getCollectionAttributesPath();
+      pathList = List.copyOf(paths);
+      associationPathList = List.copyOf(associationPaths);
+      collectionAttributesPath = List.copyOf(collectionPaths);
+      protectedAttributes = List.copyOf(protectedAttributes);
+      resolvedPathMap = Map.copyOf(resolvedPathMap);
+      intermediatePathMap = Map.copyOf(intermediatePathMap);
+      resolvedAssociationPathMap = Map.copyOf(resolvedAssociationPathMap);
+      frozen = true;
+    }
+  }
+
   List<JPAAttribute> getAssociations() throws ODataJPAModelException {
     lazyBuildEdmItem();
     final List<JPAAttribute> jpaAttributes = new ArrayList<>();
@@ -559,6 +595,8 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
 
   private void lazyBuildCompleteAssociationPathMap() throws ODataJPAModelException {
     JPAAssociationPathImpl associationPath;
+    if (frozen)
+      return;
     lazyBuildCompletePathMap();
     // TODO check if ignore has to be handled
     if (resolvedAssociationPathMap.size() == 0) {
@@ -587,6 +625,8 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
   private void lazyBuildCompletePathMap() throws ODataJPAModelException {
     ArrayList<JPAElement> pathList;
 
+    if (frozen)
+      return;
     lazyBuildEdmItem();
     if (resolvedPathMap.size() == 0) {
       for (final Entry<String, IntermediateProperty> propertyEntity : declaredPropertiesList.entrySet()) {
@@ -648,7 +688,7 @@ abstract class IntermediateStructuredType extends IntermediateModelElement imple
   }
 
   private void lazyBuildCompleteProtectionList() throws ODataJPAModelException {
-    if (protectedAttributes == null) {
+    if (protectedAttributes == null && !frozen) {
       lazyBuildEdmItem();
       this.protectedAttributes = new ArrayList<>();
       for (JPAAttribute attribute : getDeclaredAttributes()) {
@@ -0,0 +1,230 @@
+package nl.buildforce.sequoia.metadata.core.edm.mapper.impl;
+
+import nl.buildforce.sequoia.metadata.core.edm.annotation.processor.EdmTypeIndexProcessor;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.extension.ODataOperation;
+import org.reflections8.Reflections;
+import org.reflections8.util.ConfigurationBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.annotation.Annotation;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.stream.Stream;
+
+/**
+ * Provides the operation and enumeration classes recorded by {@link EdmTypeIndexProcessor} at build time, so that
+ * the class path does not have to be scanned when the service document gets created.<p>
+ * The index is only used if it can be trusted: for each package within the searched ones, the number of top level
+ * classes recorded by the processor has to match the number of class files found on the class path, and all recorded
+ * classes can be loaded and are of the expected kind. So an index that has been written by an incremental compilation
+ * or that belongs to an older build is not used. Counting the class files only lists the content of the packages,
+ * whereas the scan reads each class file. If the index can not be trusted, {@link #load(String...)} returns null and
+ * the class path is scanned as before.
+ */
+final class JPAEdmTypeIndex extends Reflections {
+  private final Set<Class<?>> types;
+
+  private JPAEdmTypeIndex(final Set<Class<?>> types) {
+    // No URLs and scanners, so nothing is scanned
+    super(new ConfigurationBuilder().setScanners());
+    this.types = types;
+  }
+
+  static JPAEdmTypeIndex load(final String... packageName) {
+    return load(determineClassLoader(), packageName);
+  }
+
+  static JPAEdmTypeIndex load(final ClassLoader classLoader, final String... packageName) {
+    final Map<String, Integer> packages = new HashMap<>();
+    final List<String> operations = new ArrayList<>();
+    final List<String> enumerations = new ArrayList<>();
+    try {
+      final Enumeration<URL> indexes = classLoader.getResources(EdmTypeIndexProcessor.INDEX_RESOURCE);
+      while (indexes.hasMoreElements())
+        read(indexes.nextElement(), packages, operations, enumerations);
+      if (!isComplete(packages, classLoader, packageName))
+        return null;
+    } catch (IOException | URISyntaxException e) {
+      return null;
+    }
+
+    final Set<Class<?>> types = new HashSet<>();
+    try {
+      for (final String operation : operations) {
+        if (isInPackage(operation, packageName)) {
+          final Class<?> type = Class.forName(operation, false, classLoader);
+          if (!ODataOperation.class.isAssignableFrom(type))
+            return null;
+          types.add(type);
+        }
+      }
+      for (final String enumeration : enumerations) {
+        if (isInPackage(enumeration, packageName)) {
+          final Class<?> type = Class.forName(enumeration, false, classLoader);
+          if (!type.isEnum())
+            return null;
+          types.add(type);
+        }
+      }
+    } catch (ClassNotFoundException | LinkageError e) {
+      return null;
+    }
+    return new JPAEdmTypeIndex(types);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public <T> Set<Class<? extends T>> getSubTypesOf(final Class<T> type) {
+    final Set<Class<? extends T>> result = new HashSet<>();
+    for (final Class<?> candidate : types) {
+      if (candidate != type && type.isAssignableFrom(candidate))
+        result.add((Class<? extends T>) candidate);
+    }
+    return result;
+  }
+
+  @Override
+  public Set<Class<?>> getTypesAnnotatedWith(final Class<? extends Annotation> annotation) {
+    final Set<Class<?>> result = new HashSet<>();
+    for (final Class<?> candidate : types) {
+      if (candidate.isAnnotationPresent(annotation))
+        result.add(candidate);
+    }
+    return result;
+  }
+
+  private static ClassLoader determineClassLoader() {
+    final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    return contextClassLoader != null ? contextClassLoader : JPAEdmTypeIndex.class.getClassLoader();
+  }
+
+  private static void read(final URL index, final Map<String, Integer> packages, final List<String> operations,
+      final List<String> enumerations) throws IOException {
+
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(),
+        StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final int separator = line.indexOf(' ');
+        if (separator > 0) {
+          final String kind = line.substring(0, separator);
+          final String name = line.substring(separator + 1).trim();
+          if (EdmTypeIndexProcessor.PACKAGE.equals(kind))
+            readPackage(name, packages);
+          else if (EdmTypeIndexProcessor.OPERATION.equals(kind))
+            operations.add(name);
+          else if (EdmTypeIndexProcessor.ENUMERATION.equals(kind))
+            enumerations.add(name);
+        }
+      }
+    }
+  }
+
+  private static void readPackage(final String entry, final Map<String, Integer> packages) throws IOException {
+    final int separator = entry.indexOf(' ');
+    try {
+      if (separator <= 0)
+        throw new IOException("Index entry without class count: " + entry);
+      packages.merge(entry.substring(0, separator), Integer.parseInt(entry.substring(separator + 1).trim()),
+          Integer::sum);
+    } catch (NumberFormatException e) {
+      throw new IOException("Corrupt index entry: " + entry, e);
+    }
+  }
+
+  /**
+   * Each package within the searched ones has to contain as many top level classes as recorded in the index, and each
+   * searched package has to be known by the index.
+   */
+  private static boolean isComplete(final Map<String, Integer> packages, final ClassLoader classLoader,
+      final String... packageName) throws IOException, URISyntaxException {
+
+    final Map<String, Integer> indexed = new HashMap<>();
+    for (final Map.Entry<String, Integer> entry : packages.entrySet()) {
+      if (isInPackage(entry.getKey() + ".", packageName))
+        indexed.put(entry.getKey(), entry.getValue());
+    }
+    for (final String searched : packageName) {
+      if (indexed.keySet().stream().noneMatch(p -> isInPackage(p + ".", searched)))
+        return false;
+    }
+    final Map<String, Integer> compiled = new HashMap<>();
+    for (final String searched : new HashSet<>(Arrays.asList(packageName))) {
+      if (isInPackage(searched, packageName))
+        // Sub package of another searched package, so already counted
+        continue;
+      final Enumeration<URL> locations = classLoader.getResources(searched.replace('.', '/'));
+      while (locations.hasMoreElements())
+        if (!countClasses(locations.nextElement(), searched, compiled))
+          return false;
+    }
+    return indexed.equals(compiled);
+  }
+
+  /**
+   * Counts the top level classes per package of one class path location
+   * @return false if the content of the location can not be listed
+   */
+  private static boolean countClasses(final URL location, final String packageName,
+      final Map<String, Integer> compiled) throws IOException, URISyntaxException {
+
+    if ("file".equals(location.getProtocol())) {
+      final Path root = Paths.get(location.toURI());
+      try (Stream<Path> files = Files.walk(root)) {
+        files.filter(Files::isRegularFile).forEach(file -> {
+          final StringBuilder filePackage = new StringBuilder(packageName);
+          for (final Path directory : root.relativize(file.getParent()))
+            if (!directory.toString().isEmpty())
+              filePackage.append('.').append(directory);
+          countClass(filePackage.toString(), file.getFileName().toString(), compiled);
+        });
+      }
+      return true;
+    }
+    if ("jar".equals(location.getProtocol())) {
+      final String directory = packageName.replace('.', '/') + "/";
+      final Enumeration<JarEntry> entries = ((JarURLConnection) location.openConnection()).getJarFile().entries();
+      while (entries.hasMoreElements()) {
+        final JarEntry entry = entries.nextElement();
+        final String name = entry.getName();
+        if (!entry.isDirectory() && name.startsWith(directory)) {
+          final int separator = name.lastIndexOf('/');
+          countClass(name.substring(0, separator).replace('/', '.'), name.substring(separator + 1), compiled);
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+  private static void countClass(final String packageName, final String fileName,
+      final Map<String, Integer> compiled) {
+    if (fileName.endsWith(".class") && fileName.indexOf('$') < 0 && !"package-info.class".equals(fileName)
+        && !"module-info.class".equals(fileName))
+      compiled.merge(packageName, 1, Integer::sum);
+  }
+
+  private static boolean isInPackage(final String className, final String... packageName) {
+    for (final String searched : packageName) {
+      if (className.startsWith(searched + "."))
+        return true;
+    }
+    return false;
+  }
+}
@@ -21,8 +21,16 @@ public final class JPAServiceDocumentFactory {
     this.packageName = packageName;
   }
 
+  /**
+   * Creates a service document whose model is completely built and frozen, so it can be used by concurrent requests.
+   * @throws ODataJPAModelException in case the model can not be built completely, e.g. because the package of an
+   * enumeration is missing
+   */
   public JPAServiceDocument getServiceDocument() throws ODataJPAModelException {
-    return new IntermediateServiceDocument(namespace, jpaMetamodel, /*postProcessor,*/ packageName);
+    final IntermediateServiceDocument serviceDocument = new IntermediateServiceDocument(namespace, jpaMetamodel,
+        /*postProcessor,*/ packageName);
+    serviceDocument.freeze();
+    return serviceDocument;
   }
 
 }
\ No newline at end of file
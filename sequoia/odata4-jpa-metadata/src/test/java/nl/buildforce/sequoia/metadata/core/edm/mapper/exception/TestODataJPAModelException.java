@@ -1,6 +1,7 @@
 package nl.buildforce.sequoia.metadata.core.edm.mapper.exception;
 
 import nl.buildforce.sequoia.processor.core.testmodel.LocaleEnumeration;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -8,11 +9,17 @@ import java.util.Enumeration;
 import java.util.Locale;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.fail;
 
 public class TestODataJPAModelException {
   private static final String BUNDLE_NAME = "test-i18n";
 
+  @AfterEach
+  public void teardown() {
+    ODataJPAException.clearLocales();
+  }
+
   @Test
   public void checkTextInDefaultLocale() {
     try {
@@ -39,6 +46,37 @@ public class TestODataJPAModelException {
     fail();
   }
 
+  @Test
+  public void checkTextInGermanForEachException() {
+    ArrayList<Locale> localesList = new ArrayList<>();
+    localesList.add(Locale.GERMAN);
+    TestException.setLocales(new LocaleEnumeration(localesList));
+    for (int i = 0; i < 2; i++) {
+      try {
+        RaiseException();
+        fail();
+      } catch (ODataJPAException e) {
+        assertEquals("Ein deutscher Text", e.getMessage());
+      }
+    }
+  }
+
+  @Test
+  public void checkTextInDefaultLocaleAfterClear() {
+    ArrayList<Locale> localesList = new ArrayList<>();
+    localesList.add(Locale.GERMAN);
+    TestException.setLocales(new LocaleEnumeration(localesList));
+    ODataJPAException.clearLocales();
+    assertNull(ODataJPAException.getLocales());
+    try {
+      RaiseException();
+    } catch (ODataJPAException e) {
+      assertEquals("An English message", e.getMessage());
+      return;
+    }
+    fail();
+  }
+
   @Test
   public void checkTextInDefaultLocaleWithParameter() {
     try {
@@ -1,5 +1,7 @@
 package nl.buildforce.sequoia.metadata.core.edm.mapper.impl;
 
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAServiceDocument;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.olingo.commons.api.edm.EdmAction;
@@ -17,13 +19,17 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.params.provider.Arguments.arguments;
 import static org.mockito.Mockito.mock;
@@ -305,6 +311,47 @@ public class TestIntermediateServiceDocument extends TestMappingRoot {
     assertNotNull(cut.getFunction(function));
   }
 
+  @Test
+  public void checkFrozenServiceDocumentProvidesSamePathsAsLazyBuild() throws ODataJPAModelException {
+    final JPAServiceDocument frozen = new JPAServiceDocumentFactory(PUNIT_NAME, emf.getMetamodel(),
+        new String[] { "nl.buildforce.sequoia.processor.core.testmodel" }).getServiceDocument();
+    for (final String esName : new String[] { "BusinessPartners", "Organizations", "AdministrativeDivisions" }) {
+      final JPAEntityType lazyEt = cut.getEntity(esName);
+      final JPAEntityType frozenEt = frozen.getEntity(esName);
+      assertEquals(aliases(lazyEt.getPathList()), aliases(frozenEt.getPathList()));
+      assertEquals(lazyEt.getAssociationPathList().size(), frozenEt.getAssociationPathList().size());
+      assertEquals(aliases(lazyEt.getCollectionAttributesPath()), aliases(frozenEt.getCollectionAttributesPath()));
+      assertEquals(lazyEt.getProtections().size(), frozenEt.getProtections().size());
+    }
+  }
+
+  @Test
+  public void checkFrozenServiceDocumentReturnsSameImmutableLists() throws ODataJPAModelException {
+    final JPAServiceDocument frozen = new JPAServiceDocumentFactory(PUNIT_NAME, emf.getMetamodel(),
+        new String[] { "nl.buildforce.sequoia.processor.core.testmodel" }).getServiceDocument();
+    final JPAEntityType et = frozen.getEntity("Organizations");
+    assertSame(et.getPathList(), et.getPathList());
+    assertSame(et.getAssociationPathList(), et.getAssociationPathList());
+    assertThrows(UnsupportedOperationException.class, () -> et.getPathList().clear());
+    assertNotNull(et.getPath("Address/StreetName"));
+    assertNotNull(et.getAssociationPath("Roles"));
+    assertSame(et, frozen.getEntity(new FullQualifiedName(PUNIT_NAME, "Organization")));
+    assertSame(et.getKey(), et.getKey());
+  }
+
+  @Test
+  public void checkFreezeReportsIncompleteModel() {
+    final JPAServiceDocumentFactory factory = new JPAServiceDocumentFactory(PUNIT_NAME, emf.getMetamodel(), null);
+    assertThrows(ODataJPAModelException.class, factory::getServiceDocument);
+  }
+
+  private static Set<String> aliases(final List<JPAPath> paths) {
+    final Set<String> aliases = new HashSet<>();
+    for (final JPAPath path : paths)
+      aliases.add(path.getAlias());
+    return aliases;
+  }
+
   private IntermediateServiceDocument createCutWithCustomNameBuilder() throws ODataJPAModelException {
     return new IntermediateServiceDocument(new CustomJPANameBuilder(), emf.getMetamodel(), /*null,*/
         new String[] { "nl.buildforce.sequoia.processor.core.testmodel",
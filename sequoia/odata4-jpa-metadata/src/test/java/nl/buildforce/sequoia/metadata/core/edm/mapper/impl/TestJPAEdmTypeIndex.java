@@ -0,0 +1,127 @@
+package nl.buildforce.sequoia.metadata.core.edm.mapper.impl;
+
+import nl.buildforce.sequoia.metadata.core.edm.annotation.EdmEnumeration;
+import nl.buildforce.sequoia.metadata.core.edm.annotation.processor.EdmTypeIndexProcessor;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.extension.ODataAction;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.extension.ODataFunction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.reflections8.Reflections;
+import org.reflections8.scanners.SubTypesScanner;
+import org.reflections8.scanners.TypeAnnotationsScanner;
+import org.reflections8.util.ConfigurationBuilder;
+import org.reflections8.util.FilterBuilder;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TestJPAEdmTypeIndex {
+  private static final String TEST_OBJECTS = "nl.buildforce.sequoia.metadata.core.edm.mapper.testobjects";
+  private static final String TEST_MODEL = "nl.buildforce.sequoia.processor.core.testmodel";
+
+  @TempDir
+  Path classPath;
+
+  @Test
+  public void checkIndexProvidesSameOperationsAsScan() {
+    final Reflections cut = JPAEdmTypeIndex.load(TEST_OBJECTS);
+    final Reflections scan = scan(TEST_OBJECTS);
+
+    assertNotNull(cut);
+    assertFalse(cut.getSubTypesOf(ODataFunction.class).isEmpty());
+    assertEquals(scan.getSubTypesOf(ODataFunction.class), cut.getSubTypesOf(ODataFunction.class));
+    assertEquals(scan.getSubTypesOf(ODataAction.class), cut.getSubTypesOf(ODataAction.class));
+  }
+
+  @Test
+  public void checkIndexProvidesSameEnumerationsAsScan() {
+    final Reflections cut = JPAEdmTypeIndex.load(TEST_MODEL);
+    final Reflections scan = scan(TEST_MODEL);
+
+    assertNotNull(cut);
+    assertFalse(cut.getTypesAnnotatedWith(EdmEnumeration.class).isEmpty());
+    assertEquals(scan.getTypesAnnotatedWith(EdmEnumeration.class), cut.getTypesAnnotatedWith(EdmEnumeration.class));
+  }
+
+  @Test
+  public void checkIndexNotUsedForUnknownPackage() {
+    assertNull(JPAEdmTypeIndex.load(TEST_MODEL, "org.example.unknown"));
+  }
+
+  @Test
+  public void checkIndexNotUsedForPackageNotCompiledWithProcessor() {
+    assertNull(JPAEdmTypeIndex.load("nl.buildforce"));
+  }
+
+  @Test
+  public void checkIndexUsedIfClassCountsMatch() throws IOException {
+    writeIndex("package org.example 2", "package org.example.sub 1");
+    writeClasses("org/example/A.class", "org/example/A$1.class", "org/example/B.class", "org/example/package-info.class",
+        "org/example/sub/C.class", "org/example/sub/C.java");
+
+    assertNotNull(load("org.example"));
+    assertNotNull(load("org.example", "org.example.sub"));
+  }
+
+  @Test
+  public void checkIndexNotUsedAfterIncrementalCompile() throws IOException {
+    // Only A has been recompiled
+    writeIndex("package org.example 1");
+    writeClasses("org/example/A.class", "org/example/B.class");
+
+    assertNull(load("org.example"));
+  }
+
+  @Test
+  public void checkIndexNotUsedIfSubPackageMissing() throws IOException {
+    writeIndex("package org.example 1");
+    writeClasses("org/example/A.class", "org/example/sub/C.class");
+
+    assertNull(load("org.example"));
+  }
+
+  @Test
+  public void checkIndexNotUsedWithoutClassCount() throws IOException {
+    writeIndex("package org.example");
+    writeClasses("org/example/A.class");
+
+    assertNull(load("org.example"));
+  }
+
+  private JPAEdmTypeIndex load(final String... packageName) throws IOException {
+    try (URLClassLoader classLoader = new URLClassLoader(new URL[] { classPath.toUri().toURL() }, null)) {
+      return JPAEdmTypeIndex.load(classLoader, packageName);
+    }
+  }
+
+  private void writeIndex(final String... lines) throws IOException {
+    final Path index = classPath.resolve(EdmTypeIndexProcessor.INDEX_RESOURCE);
+    Files.createDirectories(index.getParent());
+    Files.write(index, String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void writeClasses(final String... names) throws IOException {
+    for (final String name : names) {
+      final Path file = classPath.resolve(name);
+      Files.createDirectories(file.getParent());
+      Files.createFile(file);
+    }
+  }
+
+  private static Reflections scan(final String packageName) {
+    final ConfigurationBuilder configBuilder = new ConfigurationBuilder();
+    configBuilder.setScanners(new SubTypesScanner(false), new TypeAnnotationsScanner());
+    configBuilder.forPackages(packageName);
+    configBuilder.filterInputsBy(new FilterBuilder().includePackage(packageName));
+    return new Reflections(configBuilder);
+  }
+}
@@ -1,29 +1,60 @@
 package nl.buildforce.sequoia.processor.core.api;
 
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAServiceDocument;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAException;
+import nl.buildforce.sequoia.processor.core.database.JPAODataSearchIndex;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPATransactionException;
+import nl.buildforce.sequoia.processor.core.processor.JPAODataRequestContextImpl;
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.olingo.commons.api.ex.ODataRuntimeException;
 import nl.buildforce.olingo.commons.api.format.ContentType;
-
+import nl.buildforce.olingo.commons.api.http.HttpHeader;
+import nl.buildforce.olingo.commons.api.http.HttpMethod;
 import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
 import nl.buildforce.olingo.server.api.OData;
+import nl.buildforce.olingo.server.api.ODataContent;
 import nl.buildforce.olingo.server.api.ODataApplicationException;
+import nl.buildforce.olingo.server.api.ODataHandler;
 import nl.buildforce.olingo.server.api.ODataLibraryException;
 import nl.buildforce.olingo.server.api.ODataRequest;
 import nl.buildforce.olingo.server.api.ODataResponse;
+import nl.buildforce.olingo.server.api.ODataServerError;
 import nl.buildforce.olingo.server.api.ServiceMetadata;
 import nl.buildforce.olingo.server.api.batch.BatchFacade;
+import nl.buildforce.olingo.server.api.deserializer.DeserializerException;
 import nl.buildforce.olingo.server.api.deserializer.batch.BatchOptions;
 import nl.buildforce.olingo.server.api.deserializer.batch.BatchRequestPart;
+import nl.buildforce.olingo.server.api.deserializer.batch.BatchRequestPartReader;
 import nl.buildforce.olingo.server.api.deserializer.batch.ODataResponsePart;
 import nl.buildforce.olingo.server.api.processor.BatchProcessor;
+import nl.buildforce.olingo.server.api.processor.DefaultProcessor;
+import nl.buildforce.olingo.server.api.processor.ErrorProcessor;
+import nl.buildforce.olingo.server.api.serializer.BatchResponseWriter;
+import nl.buildforce.olingo.server.api.serializer.SerializerException;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.FlushModeType;
 import jakarta.persistence.OptimisticLockException;
 import jakarta.persistence.RollbackException;
 
-import java.io.InputStream;
+import java.io.BufferedOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 
 import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
 
@@ -36,43 +67,48 @@ import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
  */
 public final class JPAODataBatchProcessor implements BatchProcessor {
 
+  private final JPAODataCRUDContextAccess serviceContext;
   private final JPAODataRequestContextAccess requestContext;
   private OData odata;
+  private ServiceMetadata serviceMetadata;
 
-  public JPAODataBatchProcessor(final JPAODataRequestContextAccess requestContext) {
+  public JPAODataBatchProcessor(final JPAODataCRUDContextAccess serviceContext,
+      final JPAODataRequestContextAccess requestContext) {
+    this.serviceContext = serviceContext;
     this.requestContext = requestContext;
   }
 
   @Override
   public void init(final OData odata, final ServiceMetadata serviceMetadata) {
     this.odata = odata;
+    this.serviceMetadata = serviceMetadata;
   }
 
   @Override
   public void processBatch(final BatchFacade facade, final ODataRequest request, final ODataResponse response)
       throws ODataApplicationException, ODataLibraryException {
 
-    // final int handle = requestContext.getDebugger().startRuntimeMeasurement(this, "processBatch");
     final String boundary = facade.extractBoundaryFromContentType(request.getHeader(CONTENT_TYPE));
     final BatchOptions options = BatchOptions.with()
         .rawBaseUri(request.getRawBaseUri())
         .rawServiceResolutionUri(request.getRawServiceResolutionUri())
         .build();
-    final List<BatchRequestPart> requestParts = odata.createFixedFormatDeserializer()
-        .parseBatchRequest(request.getBody(), boundary, options);
-
-    final List<ODataResponsePart> responseParts = new ArrayList<>();
-    for (final BatchRequestPart part : requestParts) {
-      responseParts.add(facade.handleBatchRequest(part));
-    }
     final String responseBoundary = "batch_" + UUID.randomUUID();
-    final InputStream responseContent =
-            odata.createFixedFormatSerializer().batchResponse(responseParts, responseBoundary);
 
+    if (serviceContext.useStreamingBatch()) {
+      final BatchRequestPartReader requestParts = odata.createFixedFormatDeserializer()
+          .readBatchRequest(request.getBody(), boundary, options);
+      response.setODataContent(new JPAODataBatchContent(facade, request, requestParts, responseBoundary));
+    } else {
+      final Iterator<BatchRequestPart> requestParts = odata.createFixedFormatDeserializer()
+          .parseBatchRequest(request.getBody(), boundary, options).iterator();
+
+      final List<ODataResponsePart> responseParts = new ArrayList<>();
+      handleParts(facade, () -> requestParts.hasNext() ? requestParts.next() : null, responseParts::add);
+      response.setContent(odata.createFixedFormatSerializer().batchResponse(responseParts, responseBoundary));
+    }
     response.setHeader(CONTENT_TYPE, ContentType.MULTIPART_MIXED + ";boundary=" + responseBoundary);
-    response.setContent(responseContent);
     response.setStatusCode(HttpStatusCode.ACCEPTED.getStatusCode());
-    // requestContext.getDebugger().stopRuntimeMeasurement(handle);
   }
 
   /**
@@ -94,7 +130,8 @@ public final class JPAODataBatchProcessor implements BatchProcessor {
    * <p>
    * This requires that the batch processor can create transactions. To do so it takes an instance of
    * {@link JPAODataTransactionFactory } from the request context and requests a new transaction. In case this is not
-   * possible a exception with http status code 501 <i>Not Implemented</i> will be raised.
+   * possible a exception with http status code 501 <i>Not Implemented</i> will be raised.<p>
+   * Changes of the search index are collected while the change set is processed and only taken over after the commit.
    */
   @Override
   public ODataResponsePart processChangeSet(final BatchFacade facade, final List<ODataRequest> requests)
@@ -103,10 +140,13 @@ public final class JPAODataBatchProcessor implements BatchProcessor {
      * To keep things simple, we dispatch the requests within the Change Set
      * to the other processor interfaces.
      */
-    // final int handle = requestContext.getDebugger().startRuntimeMeasurement(this, "processChangeSet");
     final List<ODataResponse> responses = new ArrayList<>();
+    final Optional<JPAODataSearchIndex> searchIndex = serviceContext.getSearchIndex();
+    final EntityManager em = requestContext.getEntityManager();
+    boolean committed = false;
     try {
       final JPAODataTransactionFactory.JPAODataTransaction t = requestContext.getTransactionFactory().createTransaction();
+      searchIndex.ifPresent(index -> index.begin(em));
       try {
         for (final ODataRequest request : requests) {
           // Actual request dispatching to the other processor interfaces.
@@ -142,32 +182,223 @@ public final class JPAODataBatchProcessor implements BatchProcessor {
              * ODataResponsePart and setting the second parameter
              * "isChangeSet" to false.
              */
-            // requestContext.getDebugger().stopRuntimeMeasurement(handle);
             // TODO odata.continue-on-error header
             return new ODataResponsePart(response, false);
           }
         }
         requestContext.getCUDRequestHandler().validateChanges(requestContext.getEntityManager());
         t.commit();
-        // requestContext.getDebugger().stopRuntimeMeasurement(handle);
+        committed = true;
         return new ODataResponsePart(responses, true);
       } catch (ODataLibraryException e) {
         // The batch request is malformed or the processor implementation is not correct.
         // Throwing an exception will stop the whole batch request not only the Change Set!
         t.rollback();
-        // requestContext.getDebugger().stopRuntimeMeasurement(handle);
         throw e;
       } catch (RollbackException e) {
         if (e.getCause() instanceof OptimisticLockException) {
-          // requestContext.getDebugger().stopRuntimeMeasurement(handle);
           throw new ODataJPAProcessorException(e.getCause().getCause(), HttpStatusCode.PRECONDITION_FAILED);
         }
-        // requestContext.getDebugger().stopRuntimeMeasurement(handle);
         throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
       }
     } catch (ODataJPATransactionException e) {
       throw new ODataJPAProcessorException(e, HttpStatusCode.NOT_IMPLEMENTED);
+    } finally {
+      if (searchIndex.isPresent()) {
+        if (committed)
+          searchIndex.get().commit(em);
+        else
+          searchIndex.get().rollback(em);
+      }
+    }
+  }
+
+  /**
+   * Processes the parts in the order they are read and hands over the responses in the same order. In case a batch
+   * executor is provided, GET requests outside of change sets are processed concurrently, each with an own
+   * EntityManager. Before a change set is processed all preceding parts have to be finished, so a change set and the
+   * requests following it see the same data as with a sequential processing. At most as many queries as the executor
+   * runs in parallel are pending; before a further one is submitted, the response of the oldest one is handed over.
+   * So the responses kept in memory are bounded, independent of the number of parts.
+   */
+  private void handleParts(final BatchFacade facade, final BatchRequestPartReader requestParts,
+      final JPAResponsePartConsumer responseParts) throws ODataApplicationException, ODataLibraryException {
+
+    final Optional<ExecutorService> executor = serviceContext.getBatchExecutor();
+    final Optional<EntityManagerFactory> emf = serviceContext.getEntityManagerFactory();
+    BatchRequestPart part;
+    if (executor.isEmpty() || emf.isEmpty()) {
+      while ((part = requestParts.next()) != null)
+        responseParts.accept(facade.handleBatchRequest(part));
+      return;
+    }
+    completeMetadata();
+    // The locales are bound to the thread, so they are handed over to the queries
+    final List<Locale> locales = ODataJPAException.getLocaleList();
+    final int maxPending = determineParallelism(executor.get());
+
+    final Deque<Future<ODataResponsePart>> pending = new ArrayDeque<>();
+    try {
+      while ((part = requestParts.next()) != null) {
+        if (isQuery(part)) {
+          final ODataRequest query = part.getRequests().get(0);
+          if (pending.size() >= maxPending)
+            responseParts.accept(pending.poll().get());
+          pending.add(executor.get().submit(() -> handleQuery(query, emf.get(), locales)));
+          // Hand over finished responses early, so they do not need to be kept until the end
+          while (!pending.isEmpty() && pending.peek().isDone())
+            responseParts.accept(pending.poll().get());
+        } else {
+          while (!pending.isEmpty())
+            responseParts.accept(pending.poll().get());
+          responseParts.accept(facade.handleBatchRequest(part));
+        }
+      }
+      while (!pending.isEmpty())
+        responseParts.accept(pending.poll().get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof ODataApplicationException)
+        throw (ODataApplicationException) cause;
+      if (cause instanceof ODataLibraryException)
+        throw (ODataLibraryException) cause;
+      if (cause instanceof RuntimeException)
+        throw (RuntimeException) cause;
+      throw new ODataJPAProcessorException(cause, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    } finally {
+      for (final Future<ODataResponsePart> query : pending)
+        query.cancel(true);
+    }
+  }
+
+  /**
+   * Number of tasks the executor runs in parallel. For executors of unknown type or without a limit of threads, like a
+   * cached thread pool, the number of processors is taken.
+   */
+  private static int determineParallelism(final ExecutorService executor) {
+    if (executor instanceof ThreadPoolExecutor) {
+      final int maxPoolSize = ((ThreadPoolExecutor) executor).getMaximumPoolSize();
+      if (maxPoolSize < Integer.MAX_VALUE)
+        return maxPoolSize;
+    }
+    if (executor instanceof ForkJoinPool)
+      return ((ForkJoinPool) executor).getParallelism();
+    return Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * The metadata are built lazily on first access, which is not thread safe. So they are completed before requests are
+   * processed concurrently.
+   */
+  private void completeMetadata() throws ODataJPAProcessorException {
+    try {
+      final JPAServiceDocument serviceDocument = serviceContext.getEdmProvider().getServiceDocument();
+      serviceDocument.getEdmSchemas();
+      serviceDocument.getEdmEntityContainer();
+    } catch (ODataJPAException e) {
+      throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
     }
   }
 
-}
\ No newline at end of file
+  private boolean isQuery(final BatchRequestPart part) {
+    return !part.isChangeSet() && part.getRequests().get(0).getMethod() == HttpMethod.GET;
+  }
+
+  /**
+   * Processes a GET request of a batch like a single request. The request context of the batch request can not be
+   * shared, as the request processor puts request specific information into it and an EntityManager is not thread
+   * safe.
+   */
+  private ODataResponsePart handleQuery(final ODataRequest query, final EntityManagerFactory emf,
+      final List<Locale> locales) throws ODataJPAException {
+
+    final EntityManager queryEm = emf.createEntityManager();
+    ODataJPAException.setLocaleList(locales);
+    try {
+      // Queries only read, nothing has to be flushed
+      queryEm.setFlushMode(FlushModeType.COMMIT);
+      final JPAODataRequestContextImpl queryContext = new JPAODataRequestContextImpl(queryEm,
+          requestContext.getCUDRequestHandler());
+      queryContext.setClaimsProvider(requestContext.getClaimsProvider().orElse(null));
+      queryContext.setGroupsProvider(requestContext.getGroupsProvider().orElse(null));
+
+      final ODataHandler handler = odata.createRawHandler(serviceMetadata);
+      JPAODataHandler.registerProcessors(handler, serviceContext, queryContext);
+      final ODataResponse response = handler.process(query);
+      final String contentId = query.getHeader(HttpHeader.CONTENT_ID);
+      if (contentId != null)
+        response.setHeader(HttpHeader.CONTENT_ID, contentId);
+      return new ODataResponsePart(response, false);
+    } finally {
+      ODataJPAException.clearLocales();
+      queryEm.close();
+    }
+  }
+
+  /**
+   * Creates the response part for a batch part, which could not be processed, the same way the handler creates the
+   * response of a failed request.
+   */
+  private ODataResponse createErrorResponse(final ODataRequest request, final ODataException exception) {
+    final ODataServerError serverError = new ODataServerError().setException(exception);
+    if (exception instanceof ODataApplicationException) {
+      serverError.setStatusCode(((ODataApplicationException) exception).getStatusCode())
+          .setCode(((ODataApplicationException) exception).getODataErrorCode())
+          .setMessage(exception.getLocalizedMessage());
+    } else {
+      serverError.setStatusCode(exception instanceof DeserializerException || exception instanceof SerializerException
+          ? HttpStatusCode.BAD_REQUEST.getStatusCode() : HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode())
+          .setMessage(((ODataLibraryException) exception).getTranslatedMessage(null).getMessage());
+    }
+    final ErrorProcessor errorProcessor = serviceContext.getErrorProcessor() == null ? new DefaultProcessor()
+        : serviceContext.getErrorProcessor();
+    errorProcessor.init(odata, serviceMetadata);
+    final ODataResponse errorResponse = new ODataResponse();
+    errorProcessor.processError(request, errorResponse, serverError, ContentType.APPLICATION_JSON);
+    return errorResponse;
+  }
+
+  /**
+   * Reads, processes and writes the parts of a batch request one after the other, so that only the part currently
+   * processed is held in memory. As the response status is already sent, a part that can not be processed ends the
+   * batch response with its error.
+   */
+  private class JPAODataBatchContent implements ODataContent {
+    private final BatchFacade facade;
+    private final ODataRequest request;
+    private final BatchRequestPartReader requestParts;
+    private final String boundary;
+
+    private JPAODataBatchContent(final BatchFacade facade, final ODataRequest request,
+        final BatchRequestPartReader requestParts, final String boundary) {
+      this.facade = facade;
+      this.request = request;
+      this.requestParts = requestParts;
+      this.boundary = boundary;
+    }
+
+    @Override
+    public void write(final WritableByteChannel channel) {
+      final BatchResponseWriter writer = odata.createFixedFormatSerializer().batchResponse(
+          new BufferedOutputStream(Channels.newOutputStream(channel)), boundary);
+      try {
+        try {
+          handleParts(facade, requestParts, writer::write);
+        } catch (ODataApplicationException | ODataLibraryException e) {
+          writer.write(new ODataResponsePart(createErrorResponse(request, e), false));
+        }
+        writer.close();
+      } catch (SerializerException e) {
+        throw new ODataRuntimeException(e);
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface JPAResponsePartConsumer {
+    void accept(final ODataResponsePart responsePart) throws SerializerException;
+  }
+}
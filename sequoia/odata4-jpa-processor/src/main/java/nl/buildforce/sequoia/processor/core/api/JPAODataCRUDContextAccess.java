@@ -3,6 +3,7 @@ package nl.buildforce.sequoia.processor.core.api;
 import nl.buildforce.sequoia.metadata.api.JPAEdmProvider;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAException;
 import nl.buildforce.sequoia.processor.core.database.JPAODataDatabaseOperations;
+import nl.buildforce.sequoia.processor.core.database.JPAODataSearchIndex;
 import nl.buildforce.olingo.commons.api.edmx.EdmxReference;
 import nl.buildforce.olingo.server.api.processor.ErrorProcessor;
 
@@ -10,6 +11,7 @@ import jakarta.persistence.EntityManagerFactory;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 /**
  *
@@ -50,6 +52,84 @@ public interface JPAODataCRUDContextAccess {
     return Optional.empty();
   }
 
+  /**
+   * If the $expand branches of a request shall be read concurrently, <code>getExpandExecutor</code> returns the
+   * executor to be used. This requires an EntityManagerFactory, as each branch needs its own EntityManager.
+   * @return
+   */
+  default Optional<ExecutorService> getExpandExecutor() {
+    return Optional.empty();
+  }
+
+  /**
+   * If <code>getExpandKeyListLimit</code> returns a number greater than zero, $expand and collection property queries
+   * are restricted by the keys of the entities read before, as <code>IN</code> conditions, instead of repeating the
+   * key predicates and the filter of the request. This is done as long as not more entities were read than the limit.
+   * @return
+   */
+  default int getExpandKeyListLimit() {
+    return 0;
+  }
+
+  /**
+   * If <code>useStreamingResponse</code> returns true, entity collections without $expand are converted and written
+   * row by row while the query result is read, instead of being converted and serialized as a whole. Whether the
+   * database result is also read incrementally depends on the JPA provider's implementation of
+   * <code>TypedQuery.getResultStream()</code>.
+   * @return
+   */
+  default boolean useStreamingResponse() {
+    return false;
+  }
+
+  /**
+   * If <code>useStreamingBatch</code> returns true, the parts of a $batch request are read, processed and written one
+   * after the other while the response is written. Processing stops at the first part that can not be processed; its
+   * error is returned as last part of the batch response, as the response status has already been sent.
+   * @return
+   */
+  default boolean useStreamingBatch() {
+    return false;
+  }
+
+  /**
+   * If the query parts of a $batch request shall be processed concurrently, <code>getBatchExecutor</code> returns the
+   * executor to be used. Only GET requests outside of change sets are processed concurrently, each with its own
+   * EntityManager created from the EntityManagerFactory. Change sets are processed after all preceding parts are
+   * finished and before any following part is started.
+   * @return
+   */
+  default Optional<ExecutorService> getBatchExecutor() {
+    return Optional.empty();
+  }
+
+  /**
+   * If <code>getSearchIndex</code> returns an index, $search requests are answered from it instead of being translated
+   * into <code>LIKE</code> conditions by the database processor. The index has to be built at start up of the service.
+   * @return
+   */
+  default Optional<JPAODataSearchIndex> getSearchIndex() {
+    return Optional.empty();
+  }
+
+  /**
+   * If <code>getMetadataCache</code> returns a cache, the metadata document and the service document are rendered only
+   * once and validated by an ETag.
+   * @return
+   */
+  default Optional<JPAODataMetadataCache> getMetadataCache() {
+    return Optional.empty();
+  }
+
+  /**
+   * If <code>getMetrics</code> returns metrics, the duration of the phases of a read request, the number of rows read
+   * and the fan-out of $expand are recorded per entity set.
+   * @return
+   */
+  default Optional<JPAODataMetrics> getMetrics() {
+    return Optional.empty();
+  }
+
   default ErrorProcessor getErrorProcessor() {
     return null;
   }
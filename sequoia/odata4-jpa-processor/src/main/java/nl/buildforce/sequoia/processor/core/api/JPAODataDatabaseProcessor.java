@@ -1,11 +1,13 @@
 package nl.buildforce.sequoia.processor.core.api;
 
+import nl.buildforce.sequoia.processor.core.database.JPAODataDatabaseExpandLimit;
 import nl.buildforce.sequoia.processor.core.database.JPAODataDatabaseSearch;
 import nl.buildforce.sequoia.processor.core.database.JPAODataDatabaseTableFunction;
 
 /**
  * Interface is in a beta state
  */
-public interface JPAODataDatabaseProcessor extends JPAODataDatabaseSearch, JPAODataDatabaseTableFunction {
+public interface JPAODataDatabaseProcessor extends JPAODataDatabaseSearch, JPAODataDatabaseTableFunction,
+    JPAODataDatabaseExpandLimit {
 
 }
\ No newline at end of file
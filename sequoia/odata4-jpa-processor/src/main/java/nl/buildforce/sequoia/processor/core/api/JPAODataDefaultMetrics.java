@@ -0,0 +1,225 @@
+package nl.buildforce.sequoia.processor.core.api;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps one histogram per entity set for each phase, for the number of rows read by a query and for the fan-out of
+ * $expand. Histograms have logarithmic buckets, so percentiles are exact up to a factor of two. Recording a value
+ * neither locks nor creates objects, except for the first value of an entity set.<p>
+ * If created with an MBeanServer, each histogram is registered as MXBean once its entity set is used, named e.g.
+ * <code>nl.buildforce.sequoia:type=Metrics,service=Trippin,entitySet=People,name=SQL_EXECUTION</code>. Durations are
+ * given in nanoseconds.
+ */
+public final class JPAODataDefaultMetrics implements JPAODataMetrics {
+  public static final String DOMAIN = "nl.buildforce.sequoia";
+  public static final String ROWS = "ROWS";
+  public static final String EXPAND_FAN_OUT = "EXPAND_FAN_OUT";
+  private static final int PHASES = Phase.values().length;
+  private static final int ROWS_INDEX = PHASES;
+  private static final int EXPAND_FAN_OUT_INDEX = PHASES + 1;
+
+  private final Map<String, Histogram[]> entitySets = new ConcurrentHashMap<>();
+  private final MBeanServer server;
+  private final String serviceName;
+  private final CopyOnWriteArrayList<ObjectName> registered = new CopyOnWriteArrayList<>();
+
+  /**
+   * Creates metrics, which are only available via {@link #getHistogram(String, String)}.
+   */
+  public JPAODataDefaultMetrics() {
+    this(null, null);
+  }
+
+  /**
+   * @param server MBeanServer the histograms are registered at, e.g.
+   * <code>ManagementFactory.getPlatformMBeanServer()</code>
+   * @param serviceName Name of the service, which distinguishes the MXBeans of different services
+   */
+  public JPAODataDefaultMetrics(final MBeanServer server, final String serviceName) {
+    this.server = server;
+    this.serviceName = serviceName;
+  }
+
+  @Override
+  public void recordDuration(final String entitySet, final Phase phase, final long nanos) {
+    getHistograms(entitySet)[phase.ordinal()].record(nanos);
+  }
+
+  @Override
+  public void recordRows(final String entitySet, final long rows) {
+    getHistograms(entitySet)[ROWS_INDEX].record(rows);
+  }
+
+  @Override
+  public void recordExpandFanOut(final String entitySet, final long entities) {
+    getHistograms(entitySet)[EXPAND_FAN_OUT_INDEX].record(entities);
+  }
+
+  /**
+   * @param entitySet Name of the entity set
+   * @param name Name of a {@link JPAODataMetrics.Phase}, {@link #ROWS} or {@link #EXPAND_FAN_OUT}
+   * @return Empty if nothing has been recorded for the entity set yet
+   */
+  public Optional<Histogram> getHistogram(final String entitySet, final String name) {
+    final Histogram[] histograms = entitySets.get(entitySet);
+    if (histograms == null)
+      return Optional.empty();
+    return Optional.of(histograms[determineIndex(name)]);
+  }
+
+  /**
+   * Removes the MXBeans registered so far, e.g. when the service is stopped.
+   */
+  public void unregisterMBeans() {
+    for (final ObjectName name : registered) {
+      try {
+        server.unregisterMBean(name);
+      } catch (JMException e) {
+        // Already unregistered
+      }
+    }
+    registered.clear();
+  }
+
+  private Histogram[] getHistograms(final String entitySet) {
+    final Histogram[] histograms = entitySets.get(entitySet);
+    return histograms != null ? histograms : entitySets.computeIfAbsent(entitySet, this::createHistograms);
+  }
+
+  private Histogram[] createHistograms(final String entitySet) {
+    final Histogram[] histograms = new Histogram[EXPAND_FAN_OUT_INDEX + 1];
+    for (int i = 0; i < histograms.length; i++) {
+      histograms[i] = new Histogram();
+      if (server != null)
+        register(entitySet, determineName(i), histograms[i]);
+    }
+    return histograms;
+  }
+
+  private void register(final String entitySet, final String name, final Histogram histogram) {
+    try {
+      final ObjectName objectName = new ObjectName(DOMAIN + ":type=Metrics,service=" + serviceName + ",entitySet="
+          + entitySet + ",name=" + name);
+      server.registerMBean(histogram, objectName);
+      registered.add(objectName);
+    } catch (JMException e) {
+      // Measuring must not fail a request. The histogram stays available via getHistogram
+    }
+  }
+
+  private static String determineName(final int index) {
+    if (index == ROWS_INDEX)
+      return ROWS;
+    if (index == EXPAND_FAN_OUT_INDEX)
+      return EXPAND_FAN_OUT;
+    return Phase.values()[index].name();
+  }
+
+  private static int determineIndex(final String name) {
+    if (ROWS.equals(name))
+      return ROWS_INDEX;
+    if (EXPAND_FAN_OUT.equals(name))
+      return EXPAND_FAN_OUT_INDEX;
+    return Phase.valueOf(name).ordinal();
+  }
+
+  public interface HistogramMXBean {
+    long getCount();
+
+    long getSum();
+
+    long getMax();
+
+    double getMean();
+
+    long getPercentile50();
+
+    long getPercentile95();
+
+    long getPercentile99();
+  }
+
+  /**
+   * Histogram with one bucket per power of two. Bucket <i>i</i> counts the values with <i>i</i> significant bits.
+   */
+  public static final class Histogram implements HistogramMXBean {
+    private static final int BUCKETS = Long.SIZE;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(final long value) {
+      final long v = Math.max(value, 0L);
+      buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(v));
+      count.increment();
+      sum.add(v);
+      long current = max.get();
+      while (v > current && !max.compareAndSet(current, v))
+        current = max.get();
+    }
+
+    @Override
+    public long getCount() {
+      return count.sum();
+    }
+
+    @Override
+    public long getSum() {
+      return sum.sum();
+    }
+
+    @Override
+    public long getMax() {
+      return max.get();
+    }
+
+    @Override
+    public double getMean() {
+      final long n = count.sum();
+      return n == 0 ? 0.0 : (double) sum.sum() / n;
+    }
+
+    @Override
+    public long getPercentile50() {
+      return getPercentile(0.5);
+    }
+
+    @Override
+    public long getPercentile95() {
+      return getPercentile(0.95);
+    }
+
+    @Override
+    public long getPercentile99() {
+      return getPercentile(0.99);
+    }
+
+    /**
+     * @param quantile Between 0 and 1
+     * @return Upper bound of the bucket containing the quantile, at most the maximum recorded
+     */
+    public long getPercentile(final double quantile) {
+      long total = 0;
+      for (int i = 0; i < BUCKETS; i++)
+        total += buckets.get(i);
+      final long rank = (long) Math.ceil(quantile * total);
+      long seen = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        seen += buckets.get(i);
+        if (seen >= rank && seen > 0)
+          return Math.min((1L << i) - 1, max.get());
+      }
+      return 0L;
+    }
+  }
+}
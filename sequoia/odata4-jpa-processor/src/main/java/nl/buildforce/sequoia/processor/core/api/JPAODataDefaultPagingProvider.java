@@ -0,0 +1,668 @@
+package nl.buildforce.sequoia.processor.core.api;
+
+import nl.buildforce.sequoia.processor.core.query.JPACountQuery;
+import nl.buildforce.olingo.server.api.ODataApplicationException;
+import nl.buildforce.olingo.server.api.uri.UriInfo;
+import nl.buildforce.olingo.server.api.uri.UriResource;
+import nl.buildforce.olingo.server.api.uri.UriResourceEntitySet;
+import nl.buildforce.olingo.server.api.uri.queryoption.QueryOption;
+import nl.buildforce.olingo.server.api.uri.queryoption.SystemQueryOption;
+import nl.buildforce.olingo.server.api.uri.queryoption.SystemQueryOptionKind;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Paging provider that can be used by concurrent requests. It works in one of two modes:
+ * <ul>
+ * <li>Cached: the pages are kept in a bounded cache. Pages expire after a time to live, and the oldest pages are
+ * evicted if the cache is full. A follow-up request for an unknown or expired skiptoken is answered with 410 Gone.
+ * If a follow-up request finds its page expired, the page and all older expired pages are removed.</li>
+ * <li>Stateless: if a signing key is given, nothing is kept. The skiptoken contains skip, top, the end of the result
+ * and, for keyset paging, the keyset of the last entity. It is signed with HMAC-SHA256 and bound to the query options
+ * of the request, which the next link repeats. This way paging also works behind a load balancer without sticky
+ * sessions, provided all instances use the same key. Only requests of a whole entity set are paged.</li>
+ * </ul>
+ * Instances are created via {@link #with()}.
+ */
+public final class JPAODataDefaultPagingProvider implements JPAODataPagingProvider {
+  private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+  private static final int SIGNATURE_LENGTH = 16;
+  private static final byte TOKEN_VERSION = 3;
+  // Fraction of the cache size after which expired pages are removed again, once the cache is full
+  private static final int SWEEP_DIVISOR = 8;
+
+  private final Map<String, Integer> maxPageSizes;
+  private final int cacheSize;
+  private final Duration timeToLive;
+  private final boolean keysetPaging;
+  private final ThreadLocal<Mac> signer;
+  private final Clock clock;
+  private final Map<String, CacheEntry> pageCache;
+  private final Queue<String> index;
+  private final int sweepInterval;
+  private final AtomicInteger insertsSinceSweep = new AtomicInteger();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  public static Builder with() {
+    return new Builder();
+  }
+
+  private JPAODataDefaultPagingProvider(final Builder builder) {
+    this.maxPageSizes = Collections.unmodifiableMap(new HashMap<>(builder.maxPageSizes));
+    this.cacheSize = builder.cacheSize;
+    this.timeToLive = builder.timeToLive;
+    this.keysetPaging = builder.keysetPaging;
+    this.signer = builder.signingKey != null ? createSigner(builder.signingKey) : null;
+    this.clock = builder.clock;
+    this.pageCache = new ConcurrentHashMap<>();
+    this.index = new ConcurrentLinkedQueue<>();
+    this.sweepInterval = Math.max(1, cacheSize / SWEEP_DIVISOR);
+  }
+
+  @Override
+  public JPAODataPage getFirstPage(final UriInfo uriInfo, final Integer preferredPageSize,
+      final JPACountQuery countQuery) throws ODataApplicationException {
+
+    final UriResource root = uriInfo.getUriResourceParts().get(0);
+    // Paging will only be done for Entity Sets. The next link contains only the entity set, so in stateless mode
+    // requests with a key or navigation are not paged.
+    if (root instanceof UriResourceEntitySet && (!isStateless() || uriInfo.getUriResourceParts().size() == 1)) {
+      final Integer maxSize = maxPageSizes.get(((UriResourceEntitySet) root).getEntitySet().getName());
+      if (maxSize != null) {
+        final int skipValue = uriInfo.getSkipOption() != null ? uriInfo.getSkipOption().getValue() : 0;
+        final Integer topValue = uriInfo.getTopOption() != null ? uriInfo.getTopOption().getValue() : null;
+        // Determine end of list
+        final long end = topValue != null ? (long) topValue + skipValue : countQuery.countResults();
+        final int size = preferredPageSize != null && preferredPageSize < maxSize ? preferredPageSize : maxSize;
+        final int top = topValue != null && topValue < size ? topValue : size;
+        return createPage(uriInfo, skipValue, top, end, keysetPaging ? Collections.emptyMap() : null);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * In stateless mode the request is needed, so this method returns null.
+   */
+  @Override
+  public JPAODataPage getNextPage(final String skiptoken) {
+    if (isStateless())
+      return null;
+    final CacheEntry previousPage = readFromCache(skiptoken.replace("'", ""));
+    if (previousPage != null)
+      return createNextPage(previousPage.getPage().getUriInfo(), previousPage.getPage(), previousPage.getEnd(),
+          previousPage.getKeyset());
+    return null;
+  }
+
+  @Override
+  public JPAODataPage getNextPage(final String skiptoken, final UriInfo uriInfo) {
+    if (!isStateless())
+      return getNextPage(skiptoken);
+    final SignedSkipToken previousToken = SignedSkipToken.decode(skiptoken.replace("'", ""), signer,
+        canonicalQuery(uriInfo));
+    if (previousToken == null || previousToken.expiresAt < clock.millis()) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    final JPAODataPage previousPage = new JPAODataPage(uriInfo, previousToken.skip, previousToken.top, previousToken,
+        previousToken.keysetPaging ? Collections.emptyMap() : null);
+    return createNextPage(uriInfo, previousPage, previousToken.end, previousToken.keyset);
+  }
+
+  @Override
+  public void lastEntityRead(final JPAODataPage page, final Map<String, Object> keyset) {
+    if (page.getSkipToken() instanceof SignedSkipToken) {
+      ((SignedSkipToken) page.getSkipToken()).keyset = keyset;
+    } else if (page.getSkipToken() instanceof String) {
+      final CacheEntry entry = pageCache.get(page.getSkipToken());
+      if (entry != null && entry.getPage() == page)
+        entry.setKeyset(keyset);
+    }
+  }
+
+  @Override
+  public boolean isStateless() {
+    return signer != null;
+  }
+
+  /**
+   * @return Number of follow-up requests whose page was found
+   */
+  public long getHitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return Number of follow-up requests whose page was not found, had expired or whose skiptoken was not valid
+   */
+  public long getMissCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return Number of pages removed from the cache, because they had expired or the cache was full
+   */
+  public long getEvictionCount() {
+    return evictions.sum();
+  }
+
+  /**
+   * @return Number of cached pages. Always 0 in stateless mode.
+   */
+  public int getCacheSize() {
+    return pageCache.size();
+  }
+
+  private JPAODataPage createNextPage(final UriInfo uriInfo, final JPAODataPage previousPage, final long end,
+      final Map<String, Object> previousKeyset) {
+
+    final int skip = previousPage.getSkip() + previousPage.getTop();
+    final int top = (int) Math.min(previousPage.getTop(), end - skip);
+    Map<String, Object> keyset = null;
+    if (previousPage.isKeysetPaging())
+      // Without the last entity of the previous page, $skip is used
+      keyset = previousKeyset != null ? previousKeyset : Collections.emptyMap();
+    return createPage(uriInfo, skip, top, end, keyset);
+  }
+
+  private JPAODataPage createPage(final UriInfo uriInfo, final int skip, final int top, final long end,
+      final Map<String, Object> keyset) {
+
+    // A skiptoken is only needed if the page is not the last one
+    if (skip + top >= end)
+      return new JPAODataPage(uriInfo, skip, top, null, keyset);
+    if (isStateless()) {
+      final SignedSkipToken token = new SignedSkipToken(signer, canonicalQuery(uriInfo),
+          clock.millis() + timeToLive.toMillis(), skip, top, end, keyset != null);
+      return new JPAODataPage(uriInfo, skip, top, token, keyset);
+    }
+    final String skiptoken = UUID.randomUUID().toString();
+    final JPAODataPage page = new JPAODataPage(uriInfo, skip, top, skiptoken, keyset);
+    addToCache(skiptoken, new CacheEntry(page, end, clock.millis() + timeToLive.toMillis()));
+    return page;
+  }
+
+  private CacheEntry readFromCache(final String skiptoken) {
+    final CacheEntry entry = pageCache.get(skiptoken);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    final long now = clock.millis();
+    if (entry.getExpiresAt() < now) {
+      if (pageCache.remove(skiptoken, entry))
+        evictions.increment();
+      removeExpiredOldest(now);
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry;
+  }
+
+  private void addToCache(final String skiptoken, final CacheEntry entry) {
+    pageCache.put(skiptoken, entry);
+    index.add(skiptoken);
+    if (pageCache.size() > cacheSize) {
+      // Scanning for expired pages is linear in the cache size, so it is only done every sweep interval inserts
+      if (insertsSinceSweep.incrementAndGet() >= sweepInterval) {
+        insertsSinceSweep.set(0);
+        removeExpired();
+      }
+      // Remove the oldest pages
+      String oldest;
+      while (pageCache.size() > cacheSize && (oldest = index.poll()) != null) {
+        if (pageCache.remove(oldest) != null)
+          evictions.increment();
+      }
+    }
+  }
+
+  private void removeExpired() {
+    final long now = clock.millis();
+    pageCache.forEach((skiptoken, entry) -> {
+      if (entry.getExpiresAt() < now && pageCache.remove(skiptoken, entry))
+        evictions.increment();
+    });
+    index.removeIf(skiptoken -> !pageCache.containsKey(skiptoken));
+  }
+
+  /**
+   * All pages have the same time to live, so the index is also ordered by expiry. Pages are removed from the head of
+   * the index until a page is found that has not expired yet.
+   */
+  private void removeExpiredOldest(final long now) {
+    String oldest;
+    while ((oldest = index.peek()) != null) {
+      final CacheEntry entry = pageCache.get(oldest);
+      if (entry != null && entry.getExpiresAt() >= now)
+        return;
+      if (index.remove(oldest) && entry != null && pageCache.remove(oldest, entry))
+        evictions.increment();
+    }
+  }
+
+  /**
+   * @return Number of skiptokens in the eviction order. Always 0 in stateless mode.
+   */
+  int getIndexSize() {
+    return index.size();
+  }
+
+  /**
+   * Writes a string as length and UTF-8 bytes. Other than <code>writeUTF</code> this is not limited to 64KB.
+   */
+  private static void writeString(final DataOutputStream out, final String value) throws IOException {
+    final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static String readString(final DataInputStream in) throws IOException {
+    final int length = in.readInt();
+    if (length < 0 || length > in.available())
+      throw new IOException("Invalid string length " + length);
+    final byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static ThreadLocal<Mac> createSigner(final byte[] key) {
+    return ThreadLocal.withInitial(() -> {
+      try {
+        final Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+        mac.init(new SecretKeySpec(key, SIGNATURE_ALGORITHM));
+        return mac;
+      } catch (GeneralSecurityException e) {
+        throw new IllegalStateException(e);
+      }
+    });
+  }
+
+  /**
+   * Binds a stateless skiptoken to the request: entity set and all query options except $skip, $top and $skiptoken, as
+   * those are part of the skiptoken. The result is part of the signed data, but not of the skiptoken itself. Each part
+   * is prefixed by its length, so different requests can not result in the same byte sequence.
+   */
+  private static byte[] canonicalQuery(final UriInfo uriInfo) {
+    final List<String> shape = new ArrayList<>();
+    for (final UriResource part : uriInfo.getUriResourceParts())
+      shape.add(part.toString());
+    final List<QueryOption> options = new ArrayList<>(uriInfo.getSystemQueryOptions());
+    options.addAll(uriInfo.getAliases());
+    options.addAll(uriInfo.getCustomQueryOptions());
+    for (final QueryOption option : options) {
+      if (option instanceof SystemQueryOption
+          && (((SystemQueryOption) option).getKind() == SystemQueryOptionKind.SKIPTOKEN
+              || ((SystemQueryOption) option).getKind() == SystemQueryOptionKind.SKIP
+              || ((SystemQueryOption) option).getKind() == SystemQueryOptionKind.TOP))
+        continue;
+      shape.add(option.getName());
+      shape.add(option.getText());
+    }
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream(128);
+    try (DataOutputStream out = new DataOutputStream(buffer)) {
+      for (final String part : shape) {
+        final byte[] bytes = String.valueOf(part).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return buffer.toByteArray();
+  }
+
+  private static class CacheEntry {
+    private final JPAODataPage page;
+    private final long end;
+    private final long expiresAt;
+    private volatile Map<String, Object> keyset;
+
+    CacheEntry(final JPAODataPage page, final long end, final long expiresAt) {
+      this.page = page;
+      this.end = end;
+      this.expiresAt = expiresAt;
+    }
+
+    JPAODataPage getPage() {
+      return page;
+    }
+
+    long getEnd() {
+      return end;
+    }
+
+    long getExpiresAt() {
+      return expiresAt;
+    }
+
+    Map<String, Object> getKeyset() {
+      return keyset;
+    }
+
+    void setKeyset(final Map<String, Object> keyset) {
+      this.keyset = keyset;
+    }
+  }
+
+  /**
+   * Skiptoken of the stateless mode. The keyset of the last entity is only known after the page has been read, so the
+   * encoding is created first when the next link is written, via <code>toString</code>. Format:
+   * base64url(payload).base64url(signature), the signature covers the payload and the canonical query.
+   */
+  static final class SignedSkipToken {
+    private final ThreadLocal<Mac> signer;
+    private final byte[] query;
+    private final long expiresAt;
+    private final int skip;
+    private final int top;
+    private final long end;
+    private final boolean keysetPaging;
+    private volatile Map<String, Object> keyset;
+
+    SignedSkipToken(final ThreadLocal<Mac> signer, final byte[] query, final long expiresAt, final int skip,
+        final int top, final long end, final boolean keysetPaging) {
+      this.signer = signer;
+      this.query = query;
+      this.expiresAt = expiresAt;
+      this.skip = skip;
+      this.top = top;
+      this.end = end;
+      this.keysetPaging = keysetPaging;
+    }
+
+    @Override
+    public String toString() {
+      final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+      try (DataOutputStream out = new DataOutputStream(buffer)) {
+        out.writeByte(TOKEN_VERSION);
+        out.writeLong(expiresAt);
+        out.writeInt(skip);
+        out.writeInt(top);
+        out.writeLong(end);
+        out.writeBoolean(keysetPaging);
+        writeKeyset(out, keysetPaging ? keyset : null);
+      } catch (IOException e) {
+        throw new IllegalStateException(e);
+      }
+      final byte[] payload = buffer.toByteArray();
+      final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+      return encoder.encodeToString(payload) + "." + encoder.encodeToString(sign(signer, payload, query));
+    }
+
+    static SignedSkipToken decode(final String skiptoken, final ThreadLocal<Mac> signer, final byte[] query) {
+      final int separator = skiptoken.indexOf('.');
+      if (separator < 0)
+        return null;
+      try {
+        final Base64.Decoder decoder = Base64.getUrlDecoder();
+        final byte[] payload = decoder.decode(skiptoken.substring(0, separator));
+        if (!MessageDigest.isEqual(sign(signer, payload, query), decoder.decode(skiptoken.substring(separator + 1))))
+          return null;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+          if (in.readByte() != TOKEN_VERSION)
+            return null;
+          final SignedSkipToken token = new SignedSkipToken(signer, query, in.readLong(), in.readInt(),
+              in.readInt(), in.readLong(), in.readBoolean());
+          token.keyset = readKeyset(in);
+          return token;
+        }
+      } catch (IllegalArgumentException | IOException e) {
+        return null;
+      }
+    }
+
+    private static byte[] sign(final ThreadLocal<Mac> signer, final byte[] payload, final byte[] query) {
+      // doFinal resets the Mac, so it can be reused by the next signature of the thread
+      final Mac mac = signer.get();
+      mac.update(payload);
+      return Arrays.copyOf(mac.doFinal(query), SIGNATURE_LENGTH);
+    }
+
+    /**
+     * A keyset with a value of an unsupported type is not written, so the next page is read using $skip.
+     */
+    private static void writeKeyset(final DataOutputStream out, final Map<String, Object> keyset) throws IOException {
+      if (keyset == null || !keyset.values().stream().allMatch(KeysetValue::isSupported)) {
+        out.writeShort(-1);
+        return;
+      }
+      out.writeShort(keyset.size());
+      for (final Map.Entry<String, Object> entry : keyset.entrySet()) {
+        writeString(out, entry.getKey());
+        KeysetValue.write(out, entry.getValue());
+      }
+    }
+
+    private static Map<String, Object> readKeyset(final DataInputStream in) throws IOException {
+      final int size = in.readShort();
+      if (size < 0)
+        return null;
+      final Map<String, Object> keyset = new HashMap<>(size);
+      for (int i = 0; i < size; i++)
+        keyset.put(readString(in), KeysetValue.read(in));
+      return keyset;
+    }
+  }
+
+  /**
+   * Type tags of the keyset values that can be put into a skiptoken.
+   */
+  private enum KeysetValue {
+    STRING(String.class),
+    INTEGER(Integer.class),
+    LONG(Long.class),
+    SHORT(Short.class),
+    BYTE(Byte.class),
+    BOOLEAN(Boolean.class),
+    CHARACTER(Character.class),
+    DOUBLE(Double.class),
+    FLOAT(Float.class),
+    DECIMAL(BigDecimal.class),
+    BIG_INTEGER(BigInteger.class),
+    UUID_VALUE(UUID.class),
+    LOCAL_DATE(LocalDate.class),
+    LOCAL_DATE_TIME(LocalDateTime.class),
+    LOCAL_TIME(LocalTime.class),
+    INSTANT(Instant.class),
+    SQL_DATE(java.sql.Date.class),
+    TIMESTAMP(Timestamp.class),
+    DATE(java.util.Date.class);
+
+    private final Class<?> type;
+
+    KeysetValue(final Class<?> type) {
+      this.type = type;
+    }
+
+    static boolean isSupported(final Object value) {
+      return of(value) != null;
+    }
+
+    private static KeysetValue of(final Object value) {
+      for (final KeysetValue tag : values()) {
+        if (tag.type == value.getClass())
+          return tag;
+      }
+      return null;
+    }
+
+    static void write(final DataOutputStream out, final Object value) throws IOException {
+      final KeysetValue tag = Objects.requireNonNull(of(value));
+      out.writeByte(tag.ordinal());
+      switch (tag) {
+        case INTEGER -> out.writeInt((Integer) value);
+        case LONG -> out.writeLong((Long) value);
+        case SHORT -> out.writeShort((Short) value);
+        case BYTE -> out.writeByte((Byte) value);
+        case BOOLEAN -> out.writeBoolean((Boolean) value);
+        case CHARACTER -> out.writeChar((Character) value);
+        case DOUBLE -> out.writeDouble((Double) value);
+        case FLOAT -> out.writeFloat((Float) value);
+        case SQL_DATE, DATE -> out.writeLong(((java.util.Date) value).getTime());
+        case TIMESTAMP -> {
+          out.writeLong(((Timestamp) value).getTime());
+          out.writeInt(((Timestamp) value).getNanos());
+        }
+        default -> writeString(out, value.toString());
+      }
+    }
+
+    static Object read(final DataInputStream in) throws IOException {
+      final int ordinal = in.readByte();
+      if (ordinal < 0 || ordinal >= values().length)
+        throw new IOException("Unknown keyset value type " + ordinal);
+      return switch (values()[ordinal]) {
+        case STRING -> readString(in);
+        case INTEGER -> in.readInt();
+        case LONG -> in.readLong();
+        case SHORT -> in.readShort();
+        case BYTE -> in.readByte();
+        case BOOLEAN -> in.readBoolean();
+        case CHARACTER -> in.readChar();
+        case DOUBLE -> in.readDouble();
+        case FLOAT -> in.readFloat();
+        case DECIMAL -> new BigDecimal(readString(in));
+        case BIG_INTEGER -> new BigInteger(readString(in));
+        case UUID_VALUE -> UUID.fromString(readString(in));
+        case LOCAL_DATE -> LocalDate.parse(readString(in));
+        case LOCAL_DATE_TIME -> LocalDateTime.parse(readString(in));
+        case LOCAL_TIME -> LocalTime.parse(readString(in));
+        case INSTANT -> Instant.parse(readString(in));
+        case SQL_DATE -> new java.sql.Date(in.readLong());
+        case TIMESTAMP -> {
+          final Timestamp timestamp = new Timestamp(in.readLong());
+          timestamp.setNanos(in.readInt());
+          yield timestamp;
+        }
+        case DATE -> new java.util.Date(in.readLong());
+      };
+    }
+  }
+
+  public static class Builder {
+    private static final int DEFAULT_CACHE_SIZE = 1000;
+    private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+    private final Map<String, Integer> maxPageSizes = new HashMap<>();
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+    private Duration timeToLive = DEFAULT_TIME_TO_LIVE;
+    private boolean keysetPaging;
+    private byte[] signingKey;
+    private Clock clock = Clock.systemUTC();
+
+    private Builder() {}
+
+    public JPAODataDefaultPagingProvider build() {
+      return new JPAODataDefaultPagingProvider(this);
+    }
+
+    /**
+     * Maximum number of cached pages. Not used in stateless mode. Default is 1000.
+     * @param cacheSize
+     * @return
+     */
+    public Builder setCacheSize(final int cacheSize) {
+      if (cacheSize < 1)
+        throw new IllegalArgumentException("Cache size must be positive");
+      this.cacheSize = cacheSize;
+      return this;
+    }
+
+    /**
+     * Clock used to determine if a page has expired.
+     * @param clock
+     * @return
+     */
+    public Builder setClock(final Clock clock) {
+      this.clock = Objects.requireNonNull(clock);
+      return this;
+    }
+
+    /**
+     * If true, a follow-up page is read behind the last entity of the previous page instead of skipping the entities
+     * of the previous pages.
+     * @param keysetPaging
+     * @return
+     */
+    public Builder setKeysetPaging(final boolean keysetPaging) {
+      this.keysetPaging = keysetPaging;
+      return this;
+    }
+
+    /**
+     * Page size of an entity set. Requests for entity sets without a page size are not paged.
+     * @param entitySetName
+     * @param maxPageSize
+     * @return
+     */
+    public Builder setMaxPageSize(final String entitySetName, final int maxPageSize) {
+      if (maxPageSize < 1)
+        throw new IllegalArgumentException("Page size must be positive");
+      this.maxPageSizes.put(Objects.requireNonNull(entitySetName), maxPageSize);
+      return this;
+    }
+
+    /**
+     * Switches to the stateless mode. The key is used to sign the skiptokens, so all instances of a service have to
+     * use the same key.
+     * @param key at least 32 bytes
+     * @return
+     */
+    public Builder setSigningKey(final byte[] key) {
+      if (key == null || key.length < 32)
+        throw new IllegalArgumentException("Signing key must have at least 32 bytes");
+      this.signingKey = key.clone();
+      return this;
+    }
+
+    /**
+     * Time after which a page expires. In stateless mode the time is part of the skiptoken. Default is 10 minutes.
+     * @param timeToLive
+     * @return
+     */
+    public Builder setTimeToLive(final Duration timeToLive) {
+      if (timeToLive == null || timeToLive.isNegative() || timeToLive.isZero())
+        throw new IllegalArgumentException("Time to live must be positive");
+      this.timeToLive = timeToLive;
+      return this;
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package nl.buildforce.sequoia.processor.core.api;
 
 import nl.buildforce.olingo.server.api.OData;
+import nl.buildforce.olingo.server.api.ODataHandler;
 import nl.buildforce.olingo.server.api.ODataHttpHandler;
 import nl.buildforce.sequoia.metadata.api.JPAEdmProvider;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAException;
@@ -147,18 +148,33 @@ public class JPAODataHandler {
             ? serviceContext.getEdmProvider(requestContext.getEntityManager())
             : serviceContext.getEdmProvider();
 
-    final ODataHttpHandler handler = odata.createHandler(odata.createServiceMetadata(jpaEdm, jpaEdm.getReferences()));
-    serviceContext.getEdmProvider().setRequestLocales(request.getLocales());
-    // requestContext.setDebugFormat(request.getParameter(DebugSupport.ODATA_DEBUG_QUERY_PARAMETER));
-    setCUDHandler();
-    final HttpServletRequest mappedRequest = prepareRequestMapping(request, serviceContext.getMappingPath());
-    // handler.register(requestContext.getDebugSupport());
+    final ODataHttpHandler handler = odata.createHandler(serviceContext.getServiceMetadata(odata, jpaEdm));
+    jpaEdm.setRequestLocales(request.getLocales());
+    try {
+      setCUDHandler();
+      final HttpServletRequest mappedRequest = prepareRequestMapping(request, serviceContext.getMappingPath());
+      registerProcessors(handler, serviceContext, requestContext);
+      handler.register(new JPAODataBatchProcessor(serviceContext, requestContext));
+      handler.process(mappedRequest, response);
+    } finally {
+      // Servlet threads are pooled, so the next request must not see the locales of this one
+      jpaEdm.clearRequestLocales();
+    }
+  }
+
+  /**
+   * Registers the processors and extensions needed to answer a single, non batch, request.
+   */
+  static void registerProcessors(final ODataHandler handler, final JPAODataCRUDContextAccess serviceContext,
+      final JPAODataRequestContextAccess requestContext) throws ODataJPAException {
+
     handler.register(new JPAODataRequestProcessor(serviceContext, requestContext));
-    handler.register(new JPAODataBatchProcessor(requestContext));
     handler.register(serviceContext.getEdmProvider().getServiceDocument());
-    handler.register(serviceContext.getErrorProcessor());
+    if (serviceContext.getErrorProcessor() != null)
+      handler.register(serviceContext.getErrorProcessor());
     handler.register(new JPAODataServiceDocumentProcessor(serviceContext));
-    handler.process(mappedRequest, response);
+    serviceContext.getMetadataCache().ifPresent(cache -> handler.register(new JPAODataMetadataProcessor(cache)));
+    serviceContext.getMetrics().ifPresent(metrics -> handler.register(new JPAODataUriParseMetrics(metrics)));
   }
 
   private void setCUDHandler() {
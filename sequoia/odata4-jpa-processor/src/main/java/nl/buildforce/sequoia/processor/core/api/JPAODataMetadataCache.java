@@ -0,0 +1,182 @@
+package nl.buildforce.sequoia.processor.core.api;
+
+import com.google.common.io.BaseEncoding;
+import nl.buildforce.olingo.commons.api.edm.provider.CsdlEdmProvider;
+import nl.buildforce.olingo.commons.api.edmx.EdmxReference;
+import nl.buildforce.olingo.commons.api.ex.ODataRuntimeException;
+import nl.buildforce.olingo.commons.api.format.ContentType;
+import nl.buildforce.olingo.server.api.OData;
+import nl.buildforce.olingo.server.api.ServiceMetadata;
+import nl.buildforce.olingo.server.api.etag.ServiceMetadataETagSupport;
+import nl.buildforce.olingo.server.api.serializer.SerializerException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Holds the metadata document and the service document of a service. Each document is rendered only once per requested
+ * format and kept as immutable byte array, if requested also gzip compressed. Each representation, that is format and
+ * content coding, has its own strong ETag, so clients and caches can re-validate it with <code>If-None-Match</code>.<p>
+ * Service documents with absolute URLs depend on the service root of the request, which is derived from client
+ * controlled headers. Therefore only the service document with relative URLs is kept, absolute ones are rendered per
+ * request.
+ */
+public final class JPAODataMetadataCache implements ServiceMetadataETagSupport {
+  private final OData odata;
+  private final ServiceMetadata serviceMetadata;
+  private final boolean compress;
+  private final Map<String, JPAODataDocument> metadataDocuments = new ConcurrentHashMap<>();
+  private final Map<String, JPAODataDocument> serviceDocuments = new ConcurrentHashMap<>();
+  private volatile String metadataETag;
+
+  /**
+   * Creates the service metadata of the service with the cache as its ETag support.
+   * @param odata
+   * @param edmProvider
+   * @param references
+   * @param compress Also keep a gzip compressed copy of each document
+   */
+  public JPAODataMetadataCache(final OData odata, final CsdlEdmProvider edmProvider,
+      final List<EdmxReference> references, final boolean compress) {
+    this.odata = odata;
+    this.compress = compress;
+    this.serviceMetadata = odata.createServiceMetadata(edmProvider, references, this);
+  }
+
+  public ServiceMetadata getServiceMetadata() {
+    return serviceMetadata;
+  }
+
+  public boolean isCompressed() {
+    return compress;
+  }
+
+  /**
+   * Identifies the version of the metadata, e.g. for <code>@odata.metadataEtag</code>. It is the same for all
+   * representations, so it is a weak ETag. Responses of the cache use the ETag of the representation instead.
+   */
+  @Override
+  public String getMetadataETag() {
+    String result = metadataETag;
+    if (result == null) {
+      try {
+        result = "W/" + getMetadataDocument(ContentType.APPLICATION_XML).getETag();
+        metadataETag = result;
+      } catch (SerializerException e) {
+        throw new ODataRuntimeException(e);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * The service document is derived completely from the metadata, so it shares the weak ETag of the metadata.
+   */
+  @Override
+  public String getServiceDocumentETag() {
+    return getMetadataETag();
+  }
+
+  JPAODataDocument getMetadataDocument(final ContentType contentType) throws SerializerException {
+    final String key = contentType.toString();
+    JPAODataDocument document = metadataDocuments.get(key);
+    if (document == null) {
+      document = createDocument(odata.createSerializer(contentType).metadataDocument(serviceMetadata).getContent());
+      final JPAODataDocument present = metadataDocuments.putIfAbsent(key, document);
+      if (present != null)
+        document = present;
+    }
+    return document;
+  }
+
+  /**
+   * @param serviceRoot Null for a service document with relative URLs, which is cached. Otherwise the document is
+   * rendered on each call.
+   */
+  JPAODataDocument getServiceDocument(final ContentType contentType, final String serviceRoot)
+      throws SerializerException {
+    if (serviceRoot != null)
+      return createDocument(odata.createSerializer(contentType).serviceDocument(serviceMetadata, serviceRoot)
+          .getContent());
+    final String key = contentType.toString();
+    JPAODataDocument document = serviceDocuments.get(key);
+    if (document == null) {
+      document = createDocument(odata.createSerializer(contentType).serviceDocument(serviceMetadata, null)
+          .getContent());
+      final JPAODataDocument present = serviceDocuments.putIfAbsent(key, document);
+      if (present != null)
+        document = present;
+    }
+    return document;
+  }
+
+  private JPAODataDocument createDocument(final InputStream content) throws SerializerException {
+    try (InputStream in = content) {
+      final byte[] plain = in.readAllBytes();
+      final byte[] compressed = compress ? gzip(plain) : null;
+      return new JPAODataDocument(plain, createETag(plain), compressed, compressed != null ? createETag(compressed)
+          : null);
+    } catch (IOException e) {
+      throw new SerializerException("An I/O exception occurred.", e, SerializerException.MessageKeys.IO_EXCEPTION);
+    }
+  }
+
+  private static byte[] gzip(final byte[] plain) throws IOException {
+    final ByteArrayOutputStream buffer = new ByteArrayOutputStream(plain.length / 4 + 64);
+    try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+      out.write(plain);
+    }
+    return buffer.toByteArray();
+  }
+
+  private static String createETag(final byte[] content) {
+    try {
+      final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+      return "\"" + BaseEncoding.base16().lowerCase().encode(digest) + "\"";
+    } catch (NoSuchAlgorithmException e) {
+      throw new ODataRuntimeException(e);
+    }
+  }
+
+  /**
+   * A rendered document. The arrays are never modified after creation and are handed out without copying. The
+   * compressed content is a different representation, so it has its own ETag.
+   */
+  static final class JPAODataDocument {
+    private final byte[] content;
+    private final String eTag;
+    private final byte[] compressedContent;
+    private final String compressedETag;
+
+    private JPAODataDocument(final byte[] content, final String eTag, final byte[] compressedContent,
+        final String compressedETag) {
+      this.content = content;
+      this.eTag = eTag;
+      this.compressedContent = compressedContent;
+      this.compressedETag = compressedETag;
+    }
+
+    byte[] getContent() {
+      return content;
+    }
+
+    String getETag() {
+      return eTag;
+    }
+
+    byte[] getCompressedContent() {
+      return compressedContent;
+    }
+
+    String getCompressedETag() {
+      return compressedETag;
+    }
+  }
+}
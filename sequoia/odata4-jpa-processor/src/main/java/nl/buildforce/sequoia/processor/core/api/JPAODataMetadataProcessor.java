@@ -0,0 +1,111 @@
+package nl.buildforce.sequoia.processor.core.api;
+
+import nl.buildforce.olingo.commons.api.format.ContentType;
+import nl.buildforce.olingo.commons.api.http.HttpMethod;
+import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
+import nl.buildforce.olingo.server.api.OData;
+import nl.buildforce.olingo.server.api.ODataLibraryException;
+import nl.buildforce.olingo.server.api.ODataRequest;
+import nl.buildforce.olingo.server.api.ODataResponse;
+import nl.buildforce.olingo.server.api.ServiceMetadata;
+import nl.buildforce.olingo.server.api.processor.DefaultProcessor;
+import nl.buildforce.olingo.server.api.processor.MetadataProcessor;
+import nl.buildforce.sequoia.processor.core.api.JPAODataMetadataCache.JPAODataDocument;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+
+import static com.google.common.net.HttpHeaders.ACCEPT_ENCODING;
+import static com.google.common.net.HttpHeaders.CONTENT_ENCODING;
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static com.google.common.net.HttpHeaders.ETAG;
+import static com.google.common.net.HttpHeaders.IF_MATCH;
+import static com.google.common.net.HttpHeaders.IF_NONE_MATCH;
+import static com.google.common.net.HttpHeaders.VARY;
+
+/**
+ * Answers metadata requests from the documents pre-rendered by a {@link JPAODataMetadataCache}. Behaves like
+ * {@link DefaultProcessor#readMetadata(ODataRequest, ODataResponse, ContentType)}, but does not serialize the metadata
+ * per request.
+ */
+public class JPAODataMetadataProcessor implements MetadataProcessor {
+  private static final String GZIP = "gzip";
+
+  private final JPAODataMetadataCache cache;
+  private OData odata;
+
+  public JPAODataMetadataProcessor(final JPAODataMetadataCache cache) {
+    this.cache = cache;
+  }
+
+  @Override
+  public void init(final OData odata, final ServiceMetadata serviceMetadata) {
+    this.odata = odata;
+  }
+
+  @Override
+  public void readMetadata(final ODataRequest request, final ODataResponse response,
+      final ContentType requestedContentType) throws ODataLibraryException {
+
+    writeDocument(odata, request, response, requestedContentType, cache.getMetadataDocument(requestedContentType));
+  }
+
+  /**
+   * Writes a pre-rendered document. The compressed variant is used if it exists and the client accepts gzip. The
+   * ETag of the chosen variant is set and the read preconditions of the request are checked against it.
+   */
+  static void writeDocument(final OData odata, final ODataRequest request, final ODataResponse response,
+      final ContentType requestedContentType, final JPAODataDocument document) throws ODataLibraryException {
+
+    final boolean compressed = document.getCompressedContent() != null
+        && acceptsGzip(request.getHeaders(ACCEPT_ENCODING));
+    final String eTag = compressed ? document.getCompressedETag() : document.getETag();
+    if (document.getCompressedContent() != null)
+      response.setHeader(VARY, ACCEPT_ENCODING);
+    response.setHeader(ETAG, eTag);
+    if (odata.createETagHelper().checkReadPreconditions(eTag, request.getHeaders(IF_MATCH),
+        request.getHeaders(IF_NONE_MATCH))) {
+      response.setStatusCode(HttpStatusCode.NOT_MODIFIED.getStatusCode());
+      return;
+    }
+    response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    // HTTP HEAD requires no payload but a 200 OK response
+    if (HttpMethod.HEAD == request.getMethod())
+      return;
+    if (compressed) {
+      response.setHeader(CONTENT_ENCODING, GZIP);
+      response.setContent(new ByteArrayInputStream(document.getCompressedContent()));
+    } else {
+      response.setContent(new ByteArrayInputStream(document.getContent()));
+    }
+    response.setHeader(CONTENT_TYPE, requestedContentType.toString());
+  }
+
+  static boolean acceptsGzip(final List<String> acceptEncodings) {
+    if (acceptEncodings == null)
+      return false;
+    for (final String header : acceptEncodings) {
+      for (final String coding : header.split(",")) {
+        final String[] parameters = coding.split(";");
+        final String name = parameters[0].trim();
+        if ((GZIP.equalsIgnoreCase(name) || "*".equals(name)) && hasPositiveQuality(parameters))
+          return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean hasPositiveQuality(final String[] parameters) {
+    for (int i = 1; i < parameters.length; i++) {
+      final String parameter = parameters[i].trim();
+      if (parameter.startsWith("q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2)) > 0.0;
+        } catch (NumberFormatException e) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+}
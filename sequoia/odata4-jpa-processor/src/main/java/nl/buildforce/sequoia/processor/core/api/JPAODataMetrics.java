@@ -0,0 +1,45 @@
+package nl.buildforce.sequoia.processor.core.api;
+
+/**
+ * Receives the measurements taken while a request is processed. Measurements are grouped by the entity set a request
+ * or an expand reads from. Durations are given in nanoseconds as measured by <code>System.nanoTime()</code>, so taking a
+ * measurement does not create objects.<p>
+ * An implementation is shared by all requests of a service. It has to be thread safe and should neither block nor
+ * throw exceptions. A default implementation, which keeps histograms and can expose them via JMX, is
+ * {@link JPAODataDefaultMetrics}.
+ */
+public interface JPAODataMetrics {
+
+  enum Phase {
+    /** Olingo parses and validates the request URI */
+    URI_PARSE,
+    /** The criteria query is created from the URI */
+    CRITERIA_BUILD,
+    /** The query is executed and its result is read */
+    SQL_EXECUTION,
+    /** The rows read, including the expanded ones, are converted into entities */
+    TUPLE_CONVERSION,
+    /** The entities are serialized */
+    SERIALIZATION
+  }
+
+  /**
+   * @param entitySet Name of the entity set
+   * @param phase
+   * @param nanos Duration of the phase
+   */
+  void recordDuration(final String entitySet, final Phase phase, final long nanos);
+
+  /**
+   * @param entitySet Name of the entity set
+   * @param rows Number of rows read by one query
+   */
+  void recordRows(final String entitySet, final long rows);
+
+  /**
+   * Called once per parent entity of an $expand, which has at least one expanded entity.
+   * @param entitySet Name of the entity set the expanded entities belong to
+   * @param entities Number of entities expanded for one parent entity
+   */
+  void recordExpandFanOut(final String entitySet, final long entities);
+}
@@ -2,17 +2,38 @@ package nl.buildforce.sequoia.processor.core.api;
 
 import nl.buildforce.olingo.server.api.uri.UriInfo;
 
+import java.util.Collections;
+import java.util.Map;
+
 public class JPAODataPage {
   private final int skip;
   private final int top;
   private final Object skipToken;
   private final UriInfo uriInfo;
+  private final Map<String, Object> keyset;
 
   public JPAODataPage(final UriInfo uriInfo, final int skip, final int top, final Object skiptoken) {
+    this(uriInfo, skip, top, skiptoken, null);
+  }
+
+  /**
+   * Creates a page of keyset paging. Instead of skipping the entities of the previous pages, the page starts after the
+   * last entity of the previous page. The JPA processor orders the result additionally by the key, and reports the
+   * keyset of the last entity of a page via {@link JPAODataPagingProvider#lastEntityRead(JPAODataPage, Map)}.
+   * @param uriInfo
+   * @param skip Number of entities of the previous pages. Used if the keyset is empty.
+   * @param top
+   * @param skiptoken
+   * @param keyset Values of the $orderby and key properties of the last entity of the previous page, with the
+   * property path as key. An empty keyset is used for the first page or if the previous page could not provide one.
+   */
+  public JPAODataPage(final UriInfo uriInfo, final int skip, final int top, final Object skiptoken,
+      final Map<String, Object> keyset) {
     this.skip = skip;
     this.top = top;
     this.skipToken = skiptoken;
     this.uriInfo = uriInfo;
+    this.keyset = keyset == null ? null : Collections.unmodifiableMap(keyset);
   }
 
   public int getSkip() {
@@ -31,4 +52,18 @@ public class JPAODataPage {
     return uriInfo;
   }
 
-}
\ No newline at end of file
+  /**
+   * @return True if the page belongs to keyset paging
+   */
+  public boolean isKeysetPaging() {
+    return keyset != null;
+  }
+
+  /**
+   * @return Keyset of the last entity of the previous page or an empty map. Null in case of offset paging.
+   */
+  public Map<String, Object> getKeyset() {
+    return keyset;
+  }
+
+}
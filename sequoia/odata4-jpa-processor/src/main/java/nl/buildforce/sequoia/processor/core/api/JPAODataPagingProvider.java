@@ -5,6 +5,7 @@ import nl.buildforce.olingo.server.api.ODataApplicationException;
 import nl.buildforce.olingo.server.api.uri.UriInfo;
 
 import jakarta.persistence.EntityManager;
+import java.util.Map;
 
 /**
  *
@@ -18,6 +19,17 @@ public interface JPAODataPagingProvider {
    */
   JPAODataPage getNextPage(final String skiptoken);
 
+  /**
+   * Used instead of {@link #getNextPage(String)} for a stateless provider, see {@link #isStateless()}. In addition to
+   * the skiptoken the request of the follow-up page is provided.
+   * @param skiptoken
+   * @param uriInfo
+   * @return
+   */
+  default JPAODataPage getNextPage(final String skiptoken, final UriInfo uriInfo) {
+    return getNextPage(skiptoken);
+  }
+
   /**
    * Based on the query the provider decides if a paging is required and return the first page.
    * @param uriInfo
@@ -26,4 +38,26 @@ public interface JPAODataPagingProvider {
    */
   JPAODataPage getFirstPage(final UriInfo uriInfo, final Integer preferredPageSize, final JPACountQuery countQuery/*, final EntityManager em*/) throws ODataApplicationException;
 
+  /**
+   * Keyset paging: Called after a page of keyset paging with a skiptoken has been read. The keyset contains the values
+   * of the $orderby and key properties of the last entity of the page, with the property path as key. It shall be
+   * provided with the next page. The method is not called if no keyset could be determined, e.g. because the page was
+   * empty or the result is ordered by a navigation property or a property that can be null.
+   * @param page
+   * @param keyset
+   */
+  default void lastEntityRead(final JPAODataPage page, final Map<String, Object> keyset) {
+    // Only needed for keyset paging
+  }
+
+  /**
+   * A stateless provider does not keep the request of the first page, so paging works across server instances. The
+   * next link therefore repeats the query options of the request, except $skip, $top and $skiptoken, and the page of
+   * a follow-up request is determined by {@link #getNextPage(String, UriInfo)} from the skiptoken and the request.
+   * @return
+   */
+  default boolean isStateless() {
+    return false;
+  }
+
 }
\ No newline at end of file
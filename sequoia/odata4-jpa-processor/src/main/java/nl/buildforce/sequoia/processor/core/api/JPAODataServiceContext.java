@@ -9,9 +9,12 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.impl.JPADefaultEdmNameBuil
 import nl.buildforce.sequoia.processor.core.database.JPADefaultDatabaseProcessor;
 import nl.buildforce.sequoia.processor.core.database.JPAODataDatabaseOperations;
 import nl.buildforce.sequoia.processor.core.database.JPAODataDatabaseProcessorFactory;
+import nl.buildforce.sequoia.processor.core.database.JPAODataSearchIndex;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAFilterException;
 import nl.buildforce.olingo.commons.api.edmx.EdmxReference;
 import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
+import nl.buildforce.olingo.server.api.OData;
+import nl.buildforce.olingo.server.api.ServiceMetadata;
 import nl.buildforce.olingo.server.api.processor.ErrorProcessor;
 
 import jakarta.persistence.EntityManager;
@@ -23,6 +26,7 @@ import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 /**
  *
@@ -39,13 +43,24 @@ public final class JPAODataServiceContext implements /*JPAODataGetContext,*/ JPA
 */
 
   private final  JPAODataDatabaseProcessor databaseProcessor;
-  private   Optional<EntityManagerFactory> emf;
+  private   Optional<EntityManagerFactory> emf = Optional.empty();
+  private                  ExecutorService expandExecutor;
+  private                              int expandKeyListLimit;
+  private                          boolean streamingResponse;
+  private                          boolean streamingBatch;
+  private                  ExecutorService batchExecutor;
+  private              JPAODataSearchIndex searchIndex;
+  private                          boolean prerenderedMetadata;
+  private                          boolean compressedMetadata;
+  private volatile   JPAODataMetadataCache metadataCache;
+  private        Optional<JPAODataMetrics> metrics = Optional.empty();
   private                   JPAEdmProvider jpaEdm;
   // private                           String mappingPath;
   private final                     String namespace_pUnit;
   private final JPAODataDatabaseOperations operationConverter;
   private                         String[] packageName;
   private final        List<EdmxReference> references = new ArrayList<>();
+  private volatile           ServiceMetadata serviceMetadata;
   //@formatter:on
 
   //public static Builder with() { return new Builder(); }
@@ -137,11 +152,154 @@ public final class JPAODataServiceContext implements /*JPAODataGetContext,*/ JPA
     return jpaEdm;
   }
 
+  /**
+   * Returns the Olingo service metadata of the service. The metadata, and with it the EDM and its caches, is created
+   * with the first request and shared by all following requests of this service.
+   * @param odata
+   * @param jpaEdm
+   * @return
+   */
+  public ServiceMetadata getServiceMetadata(final OData odata, final JPAEdmProvider jpaEdm) {
+    ServiceMetadata result = serviceMetadata;
+    if (result == null) {
+      synchronized (this) {
+        if (serviceMetadata == null) {
+          if (prerenderedMetadata) {
+            metadataCache = new JPAODataMetadataCache(odata, jpaEdm, jpaEdm.getReferences(), compressedMetadata);
+            serviceMetadata = metadataCache.getServiceMetadata();
+          } else {
+            serviceMetadata = odata.createServiceMetadata(jpaEdm, jpaEdm.getReferences());
+          }
+        }
+        result = serviceMetadata;
+      }
+    }
+    return result;
+  }
+
   @Override
   public Optional<EntityManagerFactory> getEntityManagerFactory() {
     return emf;
   }
 
+  @Override
+  public Optional<ExecutorService> getExpandExecutor() {
+    return Optional.ofNullable(expandExecutor);
+  }
+
+  /**
+   * Enables the concurrent execution of the $expand branches of a request, e.g. a bounded pool created with
+   * <code>Executors.newFixedThreadPool(n)</code>. Each branch reads with its own EntityManager. The executor is shared by
+   * all requests of the service and not shut down by the service context.
+   * @param expandExecutor
+   */
+  public void setExpandExecutor(final ExecutorService expandExecutor) {
+    this.expandExecutor = expandExecutor;
+  }
+
+  @Override
+  public int getExpandKeyListLimit() {
+    return expandKeyListLimit;
+  }
+
+  /**
+   * Restricts $expand and collection property queries by the keys of up to <code>expandKeyListLimit</code> entities
+   * read before, so the filter of the request is not evaluated a second time and only the children of the entities of
+   * the current page are read. Zero, the default, switches this off.
+   * @param expandKeyListLimit
+   */
+  public void setExpandKeyListLimit(final int expandKeyListLimit) {
+    this.expandKeyListLimit = expandKeyListLimit;
+  }
+
+  @Override
+  public boolean useStreamingResponse() {
+    return streamingResponse;
+  }
+
+  /**
+   * Enables writing entity collections row by row while the query result is read. Requests with $expand or with
+   * collection properties are still answered from a completely converted result.
+   * @param streamingResponse
+   */
+  public void setStreamingResponse(final boolean streamingResponse) {
+    this.streamingResponse = streamingResponse;
+  }
+
+  @Override
+  public boolean useStreamingBatch() {
+    return streamingBatch;
+  }
+
+  /**
+   * Enables processing $batch requests part by part while the response is written, so the memory needed does not
+   * depend on the size of the batch.
+   * @param streamingBatch
+   */
+  public void setStreamingBatch(final boolean streamingBatch) {
+    this.streamingBatch = streamingBatch;
+  }
+
+  @Override
+  public Optional<ExecutorService> getBatchExecutor() {
+    return Optional.ofNullable(batchExecutor);
+  }
+
+  /**
+   * Enables the concurrent processing of the GET requests of a $batch request, which are not part of a change set.
+   * Requires an EntityManagerFactory. The executor is shared by all requests of the service and not shut down by the
+   * service context.
+   * @param batchExecutor
+   */
+  public void setBatchExecutor(final ExecutorService batchExecutor) {
+    this.batchExecutor = batchExecutor;
+  }
+
+  @Override
+  public Optional<JPAODataSearchIndex> getSearchIndex() {
+    return Optional.ofNullable(searchIndex);
+  }
+
+  /**
+   * Answers $search requests from the given index. The index has to be built before, see
+   * {@link JPAODataSearchIndex#build(EntityManager)}.
+   * @param searchIndex
+   */
+  public void setSearchIndex(final JPAODataSearchIndex searchIndex) {
+    this.searchIndex = searchIndex;
+  }
+
+  @Override
+  public Optional<JPAODataMetrics> getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Enables recording the duration of the phases of read requests, e.g. with <code>new
+   * JPAODataDefaultMetrics(ManagementFactory.getPlatformMBeanServer(), "MyService")</code>.
+   * @param metrics
+   */
+  public void setMetrics(final JPAODataMetrics metrics) {
+    this.metrics = Optional.ofNullable(metrics);
+  }
+
+  @Override
+  public Optional<JPAODataMetadataCache> getMetadataCache() {
+    return Optional.ofNullable(metadataCache);
+  }
+
+  /**
+   * Enables rendering the metadata document and the service document only once per format. Each format and content
+   * coding gets its own strong ETag, so clients receive <i>304 Not Modified</i> on re-validation. Service documents with
+   * absolute URLs are still rendered per request. Has to be set before the first request.
+   * @param prerenderedMetadata
+   * @param compressed Also keep a gzip compressed copy, which is sent to clients accepting gzip
+   */
+  public void setPrerenderedMetadata(final boolean prerenderedMetadata, final boolean compressed) {
+    this.prerenderedMetadata = prerenderedMetadata;
+    this.compressedMetadata = compressed;
+  }
+
   @Override
   public ErrorProcessor getErrorProcessor() {
     return /*errorProcessor == null ?*/ new JPADefaultErrorProcessor(); //: errorProcessor;
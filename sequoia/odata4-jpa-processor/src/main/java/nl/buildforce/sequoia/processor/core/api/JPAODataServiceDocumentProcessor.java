@@ -14,6 +14,8 @@ import nl.buildforce.olingo.server.api.processor.DefaultProcessor;
 import nl.buildforce.olingo.server.api.processor.ServiceDocumentProcessor;
 import nl.buildforce.olingo.server.api.serializer.ODataSerializer;
 
+import java.util.Optional;
+
 import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
 import static com.google.common.net.HttpHeaders.ETAG;
 import static com.google.common.net.HttpHeaders.IF_MATCH;
@@ -44,6 +46,12 @@ public class JPAODataServiceDocumentProcessor implements ServiceDocumentProcesso
   public void readServiceDocument(final ODataRequest request, final ODataResponse response, /*final UriInfo uriInfo,*/
       final ContentType requestedContentType) throws ODataLibraryException {
     String uri = serviceContext.useAbsoluteContextURL() ? request.getRawBaseUri() : null;
+    final Optional<JPAODataMetadataCache> cache = serviceContext.getMetadataCache();
+    if (cache.isPresent()) {
+      JPAODataMetadataProcessor.writeDocument(odata, request, response, requestedContentType, cache.get()
+          .getServiceDocument(requestedContentType, uri));
+      return;
+    }
     boolean isNotModified = false;
     ServiceMetadataETagSupport eTagSupport = serviceMetadata.getServiceMetadataETagSupport();
     if (eTagSupport != null && eTagSupport.getServiceDocumentETag() != null) {
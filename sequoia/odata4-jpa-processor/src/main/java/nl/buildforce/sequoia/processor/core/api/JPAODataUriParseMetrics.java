@@ -0,0 +1,32 @@
+package nl.buildforce.sequoia.processor.core.api;
+
+import nl.buildforce.sequoia.processor.core.query.Util;
+import nl.buildforce.olingo.commons.api.edm.EdmEntitySet;
+import nl.buildforce.olingo.server.api.uri.UriInfo;
+import nl.buildforce.olingo.server.api.uri.UriInfoKind;
+import nl.buildforce.olingo.server.api.uri.UriParseListener;
+
+import static nl.buildforce.sequoia.processor.core.api.JPAODataMetrics.Phase.URI_PARSE;
+
+/**
+ * Records the time Olingo needs to parse the URI of a request, which targets an entity set. Other requests, like
+ * $metadata or $batch, are not recorded.<p>
+ * {@link JPAODataHandler} registers it, if the service context provides metrics. Services creating the Olingo handler
+ * on their own have to register it themselves.
+ */
+public final class JPAODataUriParseMetrics implements UriParseListener {
+  private final JPAODataMetrics metrics;
+
+  public JPAODataUriParseMetrics(final JPAODataMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  @Override
+  public void uriParsed(final UriInfo uriInfo, final long nanos) {
+    if (uriInfo.getKind() == UriInfoKind.resource) {
+      final EdmEntitySet entitySet = Util.determineTargetEntitySet(uriInfo.getUriResourceParts());
+      if (entitySet != null)
+        metrics.recordDuration(entitySet.getName(), URI_PARSE, nanos);
+    }
+  }
+}
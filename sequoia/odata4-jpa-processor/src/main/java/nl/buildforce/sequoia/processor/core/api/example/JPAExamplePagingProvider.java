@@ -9,6 +9,7 @@ import nl.buildforce.olingo.server.api.uri.UriResource;
 import nl.buildforce.olingo.server.api.uri.UriResourceEntitySet;
 
 import jakarta.persistence.EntityManager;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Map;
@@ -22,16 +23,28 @@ public class JPAExamplePagingProvider implements JPAODataPagingProvider {
   private final Map<String, CacheEntry> pageCache;
   private final int cacheSize;
   private final Queue<String> index;
+  private final boolean keysetPaging;
 
   public JPAExamplePagingProvider(Map<String, Integer> pageSizes) {
     this(pageSizes, DEFAULT_BUFFER_SIZE);
   }
 
   public JPAExamplePagingProvider(Map<String, Integer> pageSizes, final int bufferSize) {
+    this(pageSizes, bufferSize, false);
+  }
+
+  /**
+   * @param pageSizes
+   * @param bufferSize
+   * @param keysetPaging if true, a follow-up page is read behind the last entity of the previous page instead of
+   * skipping the entities of the previous pages
+   */
+  public JPAExamplePagingProvider(Map<String, Integer> pageSizes, final int bufferSize, final boolean keysetPaging) {
     maxPageSizes = pageSizes;
     pageCache = new HashMap<>(bufferSize);
     cacheSize = bufferSize;
     index = new LinkedList<>();
+    this.keysetPaging = keysetPaging;
   }
 
   @Override
@@ -47,7 +60,7 @@ public class JPAExamplePagingProvider implements JPAODataPagingProvider {
       final int top = (int) ((skip + previousPage.getPage().getTop()) < previousPage.getMaxTop() ? previousPage
           .getPage().getTop() : previousPage.getMaxTop() - skip);
       final JPAODataPage page = new JPAODataPage(previousPage.getPage().getUriInfo(),
-          skip, top, nextToken);
+          skip, top, nextToken, determineKeyset(previousPage));
       if (nextToken != null)
         addToChach(page, previousPage.getMaxTop());
       return page;
@@ -79,7 +92,7 @@ public class JPAExamplePagingProvider implements JPAODataPagingProvider {
           skiptoken = UUID.randomUUID().toString();
         // Create page information
         final JPAODataPage page = new JPAODataPage(uriInfo, skipValue, topValue != null && topValue < size ? topValue
-            : size, skiptoken);
+            : size, skiptoken, keysetPaging ? Collections.emptyMap() : null);
         // Cache page to be able to fulfill next link based request
         if (skiptoken != null)
           addToChach(page, count);
@@ -89,6 +102,20 @@ public class JPAExamplePagingProvider implements JPAODataPagingProvider {
     return null;
   }
 
+  @Override
+  public void lastEntityRead(final JPAODataPage page, final Map<String, Object> keyset) {
+    final CacheEntry entry = pageCache.get((String) page.getSkipToken());
+    if (entry != null && entry.getPage() == page)
+      entry.setKeyset(keyset);
+  }
+
+  private Map<String, Object> determineKeyset(final CacheEntry previousPage) {
+    if (!previousPage.getPage().isKeysetPaging())
+      return null;
+    // Without the last entity of the previous page, $skip is used
+    return previousPage.getKeyset() != null ? previousPage.getKeyset() : Collections.emptyMap();
+  }
+
   private void addToChach(final JPAODataPage page, final Long count) {
     if (pageCache.size() == cacheSize)
       pageCache.remove(index.poll());
@@ -100,6 +127,7 @@ public class JPAExamplePagingProvider implements JPAODataPagingProvider {
   private static class CacheEntry {
     private final Long maxTop;
     private final JPAODataPage page;
+    private Map<String, Object> keyset;
 
     CacheEntry(Long count, JPAODataPage page) {
       this.maxTop = count;
@@ -113,6 +141,14 @@ public class JPAExamplePagingProvider implements JPAODataPagingProvider {
     public JPAODataPage getPage() {
       return page;
     }
+
+    public Map<String, Object> getKeyset() {
+      return keyset;
+    }
+
+    public void setKeyset(final Map<String, Object> keyset) {
+      this.keyset = keyset;
+    }
   }
 
 }
\ No newline at end of file
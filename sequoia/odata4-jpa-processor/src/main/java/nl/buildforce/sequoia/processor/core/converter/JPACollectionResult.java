@@ -12,7 +12,7 @@ public interface JPACollectionResult extends JPAExpandResult {
    * @param key
    * @return
    */
-  Collection<Object> getPropertyCollection(final String key);
+  Collection<Object> getPropertyCollection(final JPAJoinKey key);
 
   JPAAssociationPath getAssociation();
 
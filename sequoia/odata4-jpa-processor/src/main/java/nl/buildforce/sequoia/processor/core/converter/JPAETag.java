@@ -0,0 +1,19 @@
+package nl.buildforce.sequoia.processor.core.converter;
+
+/**
+ * Creates the ETag of an entity from the value of its version attribute. The same value is written as
+ * <code>@odata.etag</code> into the payload, as <code>ETag</code> header and is compared with the values of
+ * <code>If-Match</code> and <code>If-None-Match</code>, so a client can send back what it has read.
+ */
+public final class JPAETag {
+
+  private JPAETag() {}
+
+  /**
+   * @param version Value of the version attribute of an entity
+   * @return The version as quoted entity-tag, e.g. <code>"2"</code>
+   */
+  public static String of(final Object version) {
+    return "\"" + version + "\"";
+  }
+}
@@ -0,0 +1,266 @@
+package nl.buildforce.sequoia.processor.core.converter;
+
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
+
+import jakarta.persistence.Tuple;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Key that connects the rows of an $expand or collection property result with their parent row. It holds the values
+ * of the join columns. A single integral value is held as primitive <code>int</code> or <code>long</code>, other single
+ * values as they are and compound keys as an array of values.
+ * <p>
+ * Results of $expand and collection property queries are hash joined with their parent: a query groups its rows by the
+ * key of the child side using a {@link Builder}, the converters look up the rows of a parent row using
+ * {@link #build(Tuple, List)}. Both sides create keys the same way, so integral values match independent of their
+ * Java type, e.g. an Integer on the parent side and a Long on the child side.
+ */
+public abstract class JPAJoinKey {
+
+  /**
+   * Key of the result of the root query, which has no parent.
+   */
+  public static final JPAJoinKey ROOT = new RootKey();
+
+  private JPAJoinKey() {}
+
+  /**
+   * Key of a single join column value.
+   */
+  public static JPAJoinKey of(final Object value) {
+    if (value instanceof Integer || value instanceof Short || value instanceof Byte)
+      return new IntKey(((Number) value).intValue());
+    if (value instanceof Long) {
+      final long longValue = (Long) value;
+      return longValue == (int) longValue ? new IntKey((int) longValue) : new LongKey(longValue);
+    }
+    return new ObjectKey(value);
+  }
+
+  /**
+   * Key of the values of several join columns, in the order of the columns in the association path.
+   */
+  public static JPAJoinKey of(final Object... values) {
+    return ofValues(values.clone());
+  }
+
+  /**
+   * Builds the key of a single row, e.g. the key a parent row uses to find its children.
+   */
+  public static JPAJoinKey build(final Tuple row, final List<JPAPath> joinColumns) {
+    if (joinColumns.size() == 1)
+      return of(row.get(joinColumns.get(0).getAlias()));
+    final Object[] values = new Object[joinColumns.size()];
+    for (int i = 0; i < values.length; i++)
+      // TODO Tuple returns the converted value in case a @Convert(converter = annotation is given
+      values[i] = normalize(row.get(joinColumns.get(i).getAlias()));
+    return new CompositeKey(values);
+  }
+
+  /**
+   * Builder for the keys of rows that contain the columns under their own alias.
+   */
+  public static Builder builder(final List<JPAPath> joinColumns) {
+    return builder("", joinColumns);
+  }
+
+  /**
+   * Builder for the keys of rows that contain the columns under their alias preceded by a prefix, as done for the
+   * columns of a join table.
+   */
+  public static Builder builder(final String prefix, final List<JPAPath> joinColumns) {
+    final String[] aliases = new String[joinColumns.size()];
+    for (int i = 0; i < aliases.length; i++)
+      aliases[i] = prefix + joinColumns.get(i).getAlias();
+    return new Builder(aliases);
+  }
+
+  private static JPAJoinKey ofValues(final Object[] values) {
+    if (values.length == 1)
+      return of(values[0]);
+    for (int i = 0; i < values.length; i++)
+      values[i] = normalize(values[i]);
+    return new CompositeKey(values);
+  }
+
+  private static Object normalize(final Object value) {
+    if (value instanceof Integer || value instanceof Short || value instanceof Byte)
+      return ((Number) value).longValue();
+    return value;
+  }
+
+  /**
+   * Creates the keys of consecutive rows. The rows of a child result are sorted by the join columns, so consecutive
+   * rows mostly belong to the same parent. A builder remembers the join values of the last row and returns the last
+   * key as long as they do not change. This way a key is created once per parent and not once per row. Instances are
+   * not thread safe.
+   */
+  public static final class Builder {
+    private final String[] aliases;
+    private final Object[] values;
+    private JPAJoinKey key;
+
+    private Builder(final String[] aliases) {
+      this.aliases = aliases;
+      this.values = new Object[aliases.length];
+    }
+
+    /**
+     * Returns the key of the row. In case the join values are the same as the one of the previous row, the key of
+     * the previous row is returned.
+     */
+    public JPAJoinKey get(final Tuple row) {
+      boolean changed = key == null;
+      for (int i = 0; i < aliases.length; i++) {
+        final Object value = row.get(aliases[i]);
+        if (!changed && !Objects.equals(value, values[i]))
+          changed = true;
+        values[i] = value;
+      }
+      if (changed)
+        key = values.length == 1 ? of(values[0]) : ofValues(values.clone());
+      return key;
+    }
+
+    /**
+     * Groups rows sorted by their join columns by their key. Per key the first <code>skip</code> rows are omitted and
+     * at most <code>top</code> rows are taken.
+     * @return The build side of the hash join with the parent rows
+     */
+    public Map<JPAJoinKey, List<Tuple>> group(final List<Tuple> rows, final long skip, final long top) {
+      final Map<JPAJoinKey, List<Tuple>> groups = new HashMap<>();
+      JPAJoinKey joinKey = null;
+      List<Tuple> group = null;
+      long skipped = 0;
+      long taken = 0;
+      for (final Tuple row : rows) {
+        final JPAJoinKey actualKey = get(row);
+        if (actualKey != joinKey) {
+          group = groups.computeIfAbsent(actualKey, k -> new ArrayList<>());
+          joinKey = actualKey;
+          skipped = taken = 0;
+        }
+        if (skipped >= skip && taken < top) {
+          taken += 1;
+          group.add(row);
+        } else {
+          skipped += 1;
+        }
+      }
+      return groups;
+    }
+  }
+
+  private static final class RootKey extends JPAJoinKey {
+    @Override
+    public String toString() {
+      return "root";
+    }
+  }
+
+  private static final class IntKey extends JPAJoinKey {
+    private final int value;
+
+    private IntKey(final int value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      return other instanceof IntKey && ((IntKey) other).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return value;
+    }
+
+    @Override
+    public String toString() {
+      return Integer.toString(value);
+    }
+  }
+
+  private static final class LongKey extends JPAJoinKey {
+    private final long value;
+
+    private LongKey(final long value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      return other instanceof LongKey && ((LongKey) other).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+      return Long.toString(value);
+    }
+  }
+
+  private static final class ObjectKey extends JPAJoinKey {
+    private final Object value;
+
+    private ObjectKey(final Object value) {
+      this.value = value;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      return other instanceof ObjectKey && Objects.equals(((ObjectKey) other).value, value);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(value);
+    }
+
+    @Override
+    public String toString() {
+      return String.valueOf(value);
+    }
+  }
+
+  private static final class CompositeKey extends JPAJoinKey {
+    private final Object[] values;
+    private final int hash;
+
+    private CompositeKey(final Object[] values) {
+      this.values = values;
+      this.hash = Arrays.hashCode(values);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      return other instanceof CompositeKey && ((CompositeKey) other).hash == hash
+          && Arrays.equals(((CompositeKey) other).values, values);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public String toString() {
+      final StringBuilder buffer = new StringBuilder();
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0)
+          buffer.append(JPAPath.PATH_SEPARATOR);
+        buffer.append(values[i]);
+      }
+      return buffer.toString();
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package nl.buildforce.sequoia.processor.core.converter;
+
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import nl.buildforce.sequoia.processor.core.exception.ODataJPAQueryException;
+import nl.buildforce.olingo.commons.api.data.ComplexValue;
+import nl.buildforce.olingo.commons.api.data.Entity;
+import nl.buildforce.olingo.commons.api.data.EntityCollection;
+import nl.buildforce.olingo.commons.api.data.Property;
+import nl.buildforce.olingo.commons.api.data.ValueType;
+import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
+import nl.buildforce.olingo.server.api.ODataApplicationException;
+
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Converts the result of an $apply request. A row contains the grouping properties and the aggregated values. The
+ * grouping properties are converted like selected properties, the aggregated values become dynamic properties named
+ * after their alias. As aggregated rows have no key, neither an id nor an ETag is created.
+ */
+public class JPATupleAggregationConverter extends JPATupleChildConverter {
+
+  public JPATupleAggregationConverter(final JPATupleChildConverter converter) {
+    super(converter);
+  }
+
+  @Override
+  public Map<JPAJoinKey, EntityCollection> getResult(final JPAExpandResult jpaResult,
+      final Collection<JPAPath> requestedSelection) throws ODataApplicationException {
+
+    jpaQueryResult = jpaResult;
+    this.setName = determineSetName(jpaQueryResult, sd);
+    this.jpaConversionTargetEntity = jpaQueryResult.getEntityType();
+    this.edmType = determineEdmType();
+    final Set<String> groupingAliases = new HashSet<>();
+    for (final JPAPath path : requestedSelection)
+      groupingAliases.add(path.getAlias());
+
+    final Map<JPAJoinKey, List<Tuple>> aggregationResult = jpaResult.getResults();
+    final Map<JPAJoinKey, EntityCollection> result = new HashMap<>(aggregationResult.size());
+    for (final Entry<JPAJoinKey, List<Tuple>> tuple : aggregationResult.entrySet()) {
+      final EntityCollection entityCollection = new EntityCollection();
+      final List<Tuple> rows = tuple.getValue();
+      for (int i = 0; i < rows.size(); i++)
+        entityCollection.getEntities().add(convertAggregatedRow(rows.set(i, null), requestedSelection,
+            groupingAliases));
+      result.put(tuple.getKey(), entityCollection);
+    }
+    aggregationResult.replaceAll((k, v) -> null);
+    return result;
+  }
+
+  private Entity convertAggregatedRow(final Tuple row, final Collection<JPAPath> requestedSelection,
+      final Set<String> groupingAliases) throws ODataApplicationException {
+
+    final Map<String, ComplexValue> complexValueBuffer = new HashMap<>();
+    final Entity odataEntity = new Entity();
+    odataEntity.setType(edmType.getFullQualifiedName().getFullQualifiedNameAsString());
+    final List<Property> properties = odataEntity.getProperties();
+    try {
+      for (final JPAPath path : requestedSelection)
+        convertAttribute(row.get(path.getAlias()), path, complexValueBuffer, properties, row, EMPTY_PREFIX, null);
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_RESULT_CONV_ERROR,
+          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    }
+    for (final TupleElement<?> element : row.getElements()) {
+      if (!groupingAliases.contains(element.getAlias()))
+        properties.add(new Property(null, element.getAlias(), ValueType.PRIMITIVE, row.get(element.getAlias())));
+    }
+    return odataEntity;
+  }
+}
@@ -13,6 +13,7 @@ import nl.buildforce.sequoia.processor.core.exception.ODataJPAQueryException;
 import nl.buildforce.olingo.commons.api.data.ComplexValue;
 import nl.buildforce.olingo.commons.api.data.Entity;
 import nl.buildforce.olingo.commons.api.data.EntityCollection;
+import nl.buildforce.olingo.commons.api.data.EntityIterator;
 import nl.buildforce.olingo.commons.api.data.Property;
 import nl.buildforce.olingo.commons.api.data.ValueType;
 import nl.buildforce.olingo.commons.api.edm.EdmEntityType;
@@ -30,9 +31,11 @@ import java.net.URISyntaxException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.Stream;
 
 /**
  * Converts the query result based on Tuples from JPA format into Olingo format.<p>
@@ -53,24 +56,24 @@ public class JPATupleChildConverter extends JPATupleResultConverter {
     this(converter.sd, converter.uriHelper, converter.serviceMetadata);
   }
 
-  public Map<String, List<Object>> getCollectionResult(final JPACollectionResult jpaResult,
+  public Map<JPAJoinKey, List<Object>> getCollectionResult(final JPACollectionResult jpaResult,
                                                        final Collection<JPAPath> requestedSelection) throws ODataApplicationException {
 
     return new JPATupleCollectionConverter(sd, uriHelper, serviceMetadata).getResult(jpaResult, requestedSelection);
   }
 
   @Override
-  public Map<String, EntityCollection> getResult(final JPAExpandResult jpaResult,
+  public Map<JPAJoinKey, EntityCollection> getResult(final JPAExpandResult jpaResult,
                                                  final Collection<JPAPath> requestedSelection) throws ODataApplicationException {
 
     jpaQueryResult = jpaResult;
     this.setName = determineSetName(jpaQueryResult, sd);
     this.jpaConversionTargetEntity = jpaQueryResult.getEntityType();
     this.edmType = determineEdmType();
-    final Map<String, List<Tuple>> childResult = jpaResult.getResults();
+    final Map<JPAJoinKey, List<Tuple>> childResult = jpaResult.getResults();
 
-    final Map<String, EntityCollection> result = new HashMap<>(childResult.size());
-    for (Entry<String, List<Tuple>> tuple : childResult.entrySet()) {
+    final Map<JPAJoinKey, EntityCollection> result = new HashMap<>(childResult.size());
+    for (Entry<JPAJoinKey, List<Tuple>> tuple : childResult.entrySet()) {
       final EntityCollection entityCollection = new EntityCollection();
       final List<Entity> entities = entityCollection.getEntities();
       final List<Tuple> rows = tuple.getValue();
@@ -87,6 +90,26 @@ public class JPATupleChildConverter extends JPATupleResultConverter {
     return result;
   }
 
+  /**
+   * Converts the rows of a streamed result. A row is converted first when the iterator is asked for the next entity,
+   * so only the row being written has to be kept in memory. The stream is closed, when the last row has been read, a
+   * row could not be converted or the iterator is closed.
+   * @param jpaResult provides the entity type of the rows; children are not taken into account
+   * @param rows
+   * @param requestedSelection
+   * @return
+   * @throws ODataApplicationException
+   */
+  public EntityIterator getResultIterator(final JPAExpandResult jpaResult, final Stream<Tuple> rows,
+      final Collection<JPAPath> requestedSelection) throws ODataApplicationException {
+
+    jpaQueryResult = jpaResult;
+    this.setName = determineSetName(jpaQueryResult, sd);
+    this.jpaConversionTargetEntity = jpaQueryResult.getEntityType();
+    this.edmType = determineEdmType();
+    return new JPATupleEntityIterator(rows, requestedSelection);
+  }
+
   protected Entity convertRow(final JPAEntityType rowEntity, final Tuple row,
       final Collection<JPAPath> requestedSelection) throws ODataApplicationException {
 
@@ -179,7 +202,7 @@ public class JPATupleChildConverter extends JPATupleResultConverter {
   private void addCollection(final Tuple row, List<Property> result, final JPACollectionAttribute collection,
       final JPAExpandResult child) throws ODataJPAModelException {
     final Collection<Object> collectionResult = ((JPACollectionResult) child)
-            .getPropertyCollection(buildConcatenatedKey(row, collection.asAssociation().getLeftColumnsList()));
+            .getPropertyCollection(buildJoinKey(row, collection.asAssociation().getLeftColumnsList()));
 
     result.add(new Property(
         null,
@@ -257,7 +280,7 @@ public class JPATupleChildConverter extends JPATupleResultConverter {
         final String etagAlias = rowEntity.getEtagPath().getAlias();
         final Object etag = row.get(etagAlias);
         if (etag != null) {
-          odataEntity.setETag(etag.toString());
+          odataEntity.setETag(JPAETag.of(etag));
         }
       }
 
@@ -307,4 +330,46 @@ public class JPATupleChildConverter extends JPATupleResultConverter {
     }
   }
 
-}
\ No newline at end of file
+  /**
+   * Iterator over the converted rows of a stream. The stream is closed when the last row has been read, a row could
+   * not be converted or the iterator is closed, which the serializer does after writing, also if writing was aborted.
+   */
+  private class JPATupleEntityIterator extends EntityIterator {
+    private final Stream<Tuple> rows;
+    private final Iterator<Tuple> rowIterator;
+    private final Collection<JPAPath> requestedSelection;
+
+    private JPATupleEntityIterator(final Stream<Tuple> rows, final Collection<JPAPath> requestedSelection) {
+      this.rows = rows;
+      this.rowIterator = rows.iterator();
+      this.requestedSelection = requestedSelection;
+    }
+
+    @Override
+    public boolean hasNext() {
+      final boolean hasNext = rowIterator.hasNext();
+      if (!hasNext)
+        close();
+      return hasNext;
+    }
+
+    @Override
+    public Entity next() {
+      final Tuple row = rowIterator.next();
+      try {
+        final Entity odataEntity = convertRow(jpaConversionTargetEntity, row, requestedSelection);
+        odataEntity.setMediaContentType(determineContentType(jpaConversionTargetEntity, row));
+        return odataEntity;
+      } catch (ODataApplicationException e) {
+        close();
+        throw new ODataRuntimeException(e);
+      }
+    }
+
+    @Override
+    public void close() {
+      // Closing a stream a second time has no effect
+      rows.close();
+    }
+  }
+}
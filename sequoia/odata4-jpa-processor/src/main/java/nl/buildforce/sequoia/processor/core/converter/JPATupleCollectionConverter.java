@@ -31,7 +31,7 @@ public class JPATupleCollectionConverter extends JPATupleResultConverter {
   }
 
   @Override
-  public Map<String, List<Object>> getResult(final JPAExpandResult dbResult,
+  public Map<JPAJoinKey, List<Object>> getResult(final JPAExpandResult dbResult,
                                              final Collection<JPAPath> requestedSelection) throws ODataApplicationException {
 
     jpaQueryResult = dbResult;
@@ -39,14 +39,14 @@ public class JPATupleCollectionConverter extends JPATupleResultConverter {
     final JPAAssociationAttribute attribute = jpaResult.getAssociation().getLeaf();
     final boolean isComplex = attribute.isComplex();
 
-    final Map<String, List<Tuple>> childResult = jpaResult.getResults();
-    final Map<String, List<Object>> result = new HashMap<>(childResult.size());
+    final Map<JPAJoinKey, List<Tuple>> childResult = jpaResult.getResults();
+    final Map<JPAJoinKey, List<Object>> result = new HashMap<>(childResult.size());
     try {
       final JPAStructuredType st = determineCollectionRoot(jpaResult.getEntityType(), jpaResult.getAssociation()
           .getPath());
       final String prefix = determinePrefix(jpaResult.getAssociation().getAlias());
 
-      for (Entry<String, List<Tuple>> tuple : childResult.entrySet()) {
+      for (Entry<JPAJoinKey, List<Tuple>> tuple : childResult.entrySet()) {
         final List<Object> collection = new ArrayList<>();
         final List<Tuple> rows = tuple.getValue();
         for (int i = 0; i < rows.size(); i++) {
@@ -53,15 +53,8 @@ abstract class JPATupleResultConverter implements JPAResultConverter {
     this.serviceMetadata = serviceMetadata;
   }
 
-  protected String buildConcatenatedKey(final Tuple row, final List<JPAPath> leftColumns) {
-    final StringBuilder buffer = new StringBuilder();
-    for (final JPAPath item : leftColumns) {
-      buffer.append(JPAPath.PATH_SEPARATOR);
-      // TODO Tuple returns the converted value in case a @Convert(converter = annotation is given
-      buffer.append(row.get(item.getAlias()));
-    }
-    buffer.deleteCharAt(0);
-    return buffer.toString();
+  protected JPAJoinKey buildJoinKey(final Tuple row, final List<JPAPath> leftColumns) {
+    return JPAJoinKey.build(row, leftColumns);
   }
 
   protected String buildPath(final String prefix, final JPAAssociationAttribute association) {
@@ -202,15 +195,9 @@ abstract class JPATupleResultConverter implements JPAResultConverter {
     }
   }
 
-  Integer determineCount(final JPAAssociationPath association, final Tuple parentRow, final JPAExpandResult child)
-      throws ODataJPAQueryException {
-    try {
-      Long count = child.getCount(buildConcatenatedKey(parentRow, association.getLeftColumnsList()));
-      return count != null ? count.intValue() : null;
-    } catch (ODataJPAModelException e) {
-      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_RESULT_CONV_ERROR,
-          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
-    }
+  private Integer determineCount(final JPAJoinKey joinKey, final JPAExpandResult child) {
+    final Long count = child.getCount(joinKey);
+    return count != null ? count.intValue() : null;
   }
 
   private Link getLink(final JPAAssociationPath association, final Tuple parentRow, final JPAExpandResult child,
@@ -220,10 +207,10 @@ abstract class JPATupleResultConverter implements JPAResultConverter {
     link.setRel(Constants.NS_NAVIGATION_LINK_REL + link.getTitle());
     link.setType(Constants.ENTITY_NAVIGATION_LINK_TYPE);
     try {
-      final EntityCollection expandCollection = ((JPAConvertibleResult) child).getEntityCollection(
-          buildConcatenatedKey(parentRow, association.getLeftColumnsList()));
+      final JPAJoinKey joinKey = buildJoinKey(parentRow, association.getLeftColumnsList());
+      final EntityCollection expandCollection = ((JPAConvertibleResult) child).getEntityCollection(joinKey);
 
-      expandCollection.setCount(determineCount(association, parentRow, child));
+      expandCollection.setCount(determineCount(joinKey, child));
       if (association.getLeaf().isCollection()) {
         link.setInlineEntitySet(expandCollection);
         link.setHref(linkURI);
@@ -20,11 +20,13 @@ import nl.buildforce.olingo.server.api.uri.UriResourceKind;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.Query;
+import java.util.ArrayList;
 import java.util.List;
 
 public abstract class JPAAbstractDatabaseProcessor implements JPAODataDatabaseProcessor {
   static final String FUNC_NAME_PLACEHOLDER = "$FUNCTIONNAME$";
   static final String PARAMETER_PLACEHOLDER = "$PARAMETER$";
+  static final String ROW_NUMBER_ALIAS = "\"$ROW_NO\"";
 
   protected UriResourceEntitySet determineTargetEntitySet(final List<UriResource> uriParts) {
     for (int i = uriParts.size() - 1; i >= 0; i--) {
@@ -150,4 +152,79 @@ public abstract class JPAAbstractDatabaseProcessor implements JPAODataDatabasePr
     }
   }
 
-}
\ No newline at end of file
+  /**
+   * Restricts the rows per partition using the window function ROW_NUMBER:<p>
+   * <code>SELECT Q.a, Q.b FROM (SELECT a, b, ROW_NUMBER() OVER (PARTITION BY a ORDER BY b) AS "$ROW_NO" FROM t WHERE
+   * ...) Q WHERE Q."$ROW_NO" > skip AND Q."$ROW_NO" <= skip + top ORDER BY Q.a, Q."$ROW_NO"</code>
+   */
+  protected String createRowNumberExpandQuery(final String tableName, final List<String> columns,
+      final List<String> partition, final List<String> orderBy, final String where, final long skip, final long top) {
+
+    final StringBuilder sql = new StringBuilder("SELECT ");
+    appendColumns(sql, "Q.", columns);
+    sql.append(" FROM (SELECT ");
+    appendColumns(sql, "", columns);
+    sql.append(", ROW_NUMBER() OVER (PARTITION BY ");
+    appendColumns(sql, "", partition);
+    if (!orderBy.isEmpty()) {
+      sql.append(" ORDER BY ");
+      appendColumns(sql, "", orderBy);
+    }
+    sql.append(") AS ").append(ROW_NUMBER_ALIAS).append(" FROM ").append(tableName);
+    if (!where.isEmpty())
+      sql.append(" WHERE ").append(where);
+    sql.append(") Q WHERE Q.").append(ROW_NUMBER_ALIAS).append(" > ").append(skip);
+    if (top != Long.MAX_VALUE)
+      sql.append(" AND Q.").append(ROW_NUMBER_ALIAS).append(" <= ").append(skip + top);
+    sql.append(" ORDER BY ");
+    appendColumns(sql, "Q.", partition);
+    sql.append(", Q.").append(ROW_NUMBER_ALIAS);
+    return sql.toString();
+  }
+
+  /**
+   * Restricts the rows per partition using a lateral join:<p>
+   * <code>SELECT C.a, C.b FROM (SELECT DISTINCT a FROM t WHERE ...) G, LATERAL (SELECT T.a, T.b FROM t T WHERE T.a = G.a
+   * ORDER BY T.b OFFSET skip ROWS FETCH NEXT top ROWS ONLY) C ORDER BY C.a, C.b</code>
+   */
+  protected String createLateralExpandQuery(final String tableName, final List<String> columns,
+      final List<String> partition, final List<String> orderBy, final String where, final long skip, final long top) {
+
+    final StringBuilder sql = new StringBuilder("SELECT ");
+    appendColumns(sql, "C.", columns);
+    sql.append(" FROM (SELECT DISTINCT ");
+    appendColumns(sql, "", partition);
+    sql.append(" FROM ").append(tableName);
+    if (!where.isEmpty())
+      sql.append(" WHERE ").append(where);
+    sql.append(") G, LATERAL (SELECT ");
+    appendColumns(sql, "T.", columns);
+    sql.append(" FROM ").append(tableName).append(" T WHERE ");
+    for (int i = 0; i < partition.size(); i++) {
+      if (i > 0)
+        sql.append(" AND ");
+      sql.append("T.").append(partition.get(i)).append(" = G.").append(partition.get(i));
+    }
+    if (!orderBy.isEmpty()) {
+      sql.append(" ORDER BY ");
+      appendColumns(sql, "T.", orderBy);
+    }
+    sql.append(" OFFSET ").append(skip).append(" ROWS");
+    if (top != Long.MAX_VALUE)
+      sql.append(" FETCH NEXT ").append(top).append(" ROWS ONLY");
+    sql.append(") C ORDER BY ");
+    final List<String> outerOrder = new ArrayList<>(partition);
+    outerOrder.addAll(orderBy);
+    appendColumns(sql, "C.", outerOrder);
+    return sql.toString();
+  }
+
+  private void appendColumns(final StringBuilder sql, final String prefix, final List<String> columns) {
+    for (int i = 0; i < columns.size(); i++) {
+      if (i > 0)
+        sql.append(", ");
+      sql.append(prefix).append(columns.get(i));
+    }
+  }
+
+}
@@ -0,0 +1,32 @@
+package nl.buildforce.sequoia.processor.core.database;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * $skip and $top of an $expand have to be applied per parent entity. This can not be expressed by JPA, but many
+ * databases offer a way to do so, like <code>ROW_NUMBER() OVER (PARTITION BY ... ORDER BY ...)</code> or a
+ * <code>LATERAL</code> join with <code>OFFSET ... FETCH NEXT ...</code>. A database processor may provide a native
+ * query that does this, otherwise all expanded entities are read and the not requested ones are thrown away.
+ */
+public interface JPAODataDatabaseExpandLimit {
+
+  /**
+   * Creates a native query that returns per partition only the rows requested by $skip and $top.<p>
+   * The result has to contain the columns in the order they are given, followed by nothing else, and has to be sorted
+   * by the partition columns and within a partition by <code>orderBy</code>.
+   * @param tableName Qualified name of the table of the expanded entity
+   * @param columns Columns to be selected. Contains the partition and order by columns.
+   * @param partition Columns that link an expanded entity to its parent
+   * @param orderBy Order within a partition, each item consisting of the column name and the direction
+   * @param where Restriction on the partition columns or an empty string. Parameter are numbered starting with ?1
+   * @param skip Number of rows to be skipped per partition
+   * @param top Number of rows to be returned per partition, Long.MAX_VALUE if not restricted
+   * @return The query or an empty optional in case the database does not support restricting the rows per partition
+   */
+  default Optional<String> createExpandLimitQuery(final String tableName, final List<String> columns,
+      final List<String> partition, final List<String> orderBy, final String where, final long skip, final long top) {
+    return Optional.empty();
+  }
+
+}
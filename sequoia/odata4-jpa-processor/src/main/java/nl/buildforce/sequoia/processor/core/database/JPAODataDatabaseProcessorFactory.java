@@ -16,7 +16,8 @@ public class JPAODataDatabaseProcessorFactory {
       try (Connection connection = ds.getConnection()) {
         final DatabaseMetaData dbMetadata = connection.getMetaData();
           return switch (dbMetadata.getDatabaseProductName()) {
-              case PRODUCT_NAME_HSQLDB, PRODUCT_NAME_H2 -> new JPA_HSQLDB_DatabaseProcessor();
+              case PRODUCT_NAME_HSQLDB -> new JPA_HSQLDB_DatabaseProcessor();
+              case PRODUCT_NAME_H2 -> new JPA_H2_DatabaseProcessor();
               default -> new JPADefaultDatabaseProcessor();
           };
       }
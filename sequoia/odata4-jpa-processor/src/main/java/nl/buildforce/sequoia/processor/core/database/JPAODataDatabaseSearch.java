@@ -19,10 +19,16 @@ public interface JPAODataDatabaseSearch {
    * <a href=
    * "http://docs.oasis-open.org/odata/odata/v4.0/os/part2-url-conventions/odata-v4.0-os-part2-url-conventions.html#_Toc372793865">
    * OData Version 4.0 Part 2 - 5.1.7 System Query Option $search</a>
+   * @param cb
+   * @param cq
+   * @param root
+   * @param entityType
+   * @param searchOption
    * @return
    * @throws ODataApplicationException
    */
-  Expression<Boolean> createSearchWhereClause()
+  Expression<Boolean> createSearchWhereClause(final CriteriaBuilder cb, final CriteriaQuery<?> cq,
+      final From<?, ?> root, final JPAEntityType entityType, final SearchOption searchOption)
       throws ODataApplicationException;
 
 }
\ No newline at end of file
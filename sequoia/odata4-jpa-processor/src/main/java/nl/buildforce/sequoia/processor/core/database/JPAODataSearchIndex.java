@@ -0,0 +1,451 @@
+package nl.buildforce.sequoia.processor.core.database;
+
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAAttribute;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAElement;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAServiceDocument;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
+import nl.buildforce.sequoia.processor.core.modify.JPAInstanceAccessor;
+import nl.buildforce.sequoia.processor.core.query.ExpressionUtil;
+import nl.buildforce.olingo.commons.api.edm.provider.CsdlEntitySet;
+import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
+import nl.buildforce.olingo.server.api.ODataApplicationException;
+import nl.buildforce.olingo.server.api.uri.queryoption.SearchOption;
+import nl.buildforce.olingo.server.api.uri.queryoption.search.SearchBinary;
+import nl.buildforce.olingo.server.api.uri.queryoption.search.SearchBinaryOperatorKind;
+import nl.buildforce.olingo.server.api.uri.queryoption.search.SearchExpression;
+import nl.buildforce.olingo.server.api.uri.queryoption.search.SearchTerm;
+import nl.buildforce.olingo.server.api.uri.queryoption.search.SearchUnary;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-process full text index used to answer $search requests. The index contains the words of all properties
+ * annotated with <code>EdmSearchable</code> and maps them to the keys of the entities containing them. A $search
+ * request is answered by looking up the keys of the matching entities, which are then added to the where clause of
+ * the query. So no <code>LIKE '%...%'</code> condition is needed, which would require a scan of the table.
+ * <p>
+ * The properties are split into words at each character, which is neither a letter nor a digit. Words are compared
+ * case insensitive and a search term matches all words starting with it. A search term containing more than one word,
+ * e.g. a phrase, matches an entity that contains all of them. <code>AND</code>, <code>OR</code> and <code>NOT</code>
+ * are supported.
+ * <p>
+ * The index is filled by {@link #build(EntityManager)}, which shall be called at start up of the service. Afterwards
+ * it is kept up to date by the create, update and delete requests of the service. A request that commits its own
+ * transaction changes the index after the commit. Changes of a change set are collected between
+ * {@link #begin(EntityManager)} and {@link #commit(EntityManager)} and only taken over, if the change set has been
+ * committed. Changes made outside of the service are only taken over with the next call of
+ * {@link #build(EntityManager)}. Only searchable properties of the entity itself or of its embedded complex types are
+ * indexed, collection properties and properties of related entities are ignored.
+ * <p>
+ * Each key of a matching entity becomes a bind parameter of the query, so the result does not depend on the number of
+ * matching entities. The key values are put into <code>IN</code> lists of a given maximum size. For a compound key the
+ * matching keys are grouped by all but the last key attribute, which is compared via <code>IN</code>.
+ */
+public final class JPAODataSearchIndex implements JPAODataDatabaseSearch {
+  private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+  // Some databases, like Oracle, restrict the number of elements of an IN list
+  private static final int DEFAULT_MAX_IN_LIST_SIZE = 1000;
+
+  private final JPAServiceDocument sd;
+  private final int maxInListSize;
+  private final Map<String, JPAEntityIndex> entityIndexes = new ConcurrentHashMap<>();
+  private final Map<EntityManager, List<JPAIndexChange>> pendingChanges = new ConcurrentHashMap<>();
+
+  public JPAODataSearchIndex(final JPAServiceDocument sd) {
+    this(sd, DEFAULT_MAX_IN_LIST_SIZE);
+  }
+
+  /**
+   * @param sd
+   * @param maxInListSize Maximum number of key values put into one <code>IN</code> list. Default is 1000.
+   */
+  public JPAODataSearchIndex(final JPAServiceDocument sd, final int maxInListSize) {
+    if (maxInListSize < 1)
+      throw new IllegalArgumentException("Maximum size of an IN list must be positive");
+    this.sd = sd;
+    this.maxInListSize = maxInListSize;
+  }
+
+  /**
+   * Reads the searchable properties of all entity sets and (re-)creates the index.
+   * @param em
+   * @throws ODataJPAProcessorException
+   */
+  public void build(final EntityManager em) throws ODataJPAProcessorException {
+    try {
+      for (final CsdlEntitySet es : sd.getEdmEntityContainer().getEntitySets()) {
+        final JPAEntityType et = sd.getEntity(es.getName());
+        if (et != null)
+          build(em, et);
+      }
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * Puts the current state of an entity into the index. Entities of a type without searchable properties are ignored.
+   * @param et
+   * @param instance JPA entity
+   * @throws ODataJPAProcessorException
+   */
+  public void put(final JPAEntityType et, final Object instance) throws ODataJPAProcessorException {
+    final JPAIndexChange change = createPut(et, instance);
+    if (change != null)
+      change.apply();
+  }
+
+  /**
+   * Same as {@link #put(JPAEntityType, Object)}, but if changes are collected for the entity manager, the entity is
+   * only put into the index on {@link #commit(EntityManager)}. The current state of the entity is taken over.
+   */
+  public void put(final EntityManager em, final JPAEntityType et, final Object instance)
+      throws ODataJPAProcessorException {
+    final JPAIndexChange change = createPut(et, instance);
+    if (change != null)
+      applyOrCollect(em, change);
+  }
+
+  /**
+   * Removes an entity from the index.
+   * @param et
+   * @param jpaKeys Key values by internal name of the key attributes
+   */
+  public void remove(final JPAEntityType et, final Map<String, Object> jpaKeys) {
+    final JPAIndexChange change = createRemove(et, jpaKeys);
+    if (change != null)
+      change.apply();
+  }
+
+  /**
+   * Same as {@link #remove(JPAEntityType, Map)}, but if changes are collected for the entity manager, the entity is
+   * only removed on {@link #commit(EntityManager)}.
+   */
+  public void remove(final EntityManager em, final JPAEntityType et, final Map<String, Object> jpaKeys) {
+    final JPAIndexChange change = createRemove(et, jpaKeys);
+    if (change != null)
+      applyOrCollect(em, change);
+  }
+
+  /**
+   * Starts to collect the changes made via the entity manager, e.g. at the begin of a change set.
+   * @param em
+   */
+  public void begin(final EntityManager em) {
+    pendingChanges.put(em, new ArrayList<>());
+  }
+
+  /**
+   * Takes over the changes collected for the entity manager, after its transaction has been committed.
+   * @param em
+   */
+  public void commit(final EntityManager em) {
+    final List<JPAIndexChange> changes = pendingChanges.remove(em);
+    if (changes != null)
+      changes.forEach(JPAIndexChange::apply);
+  }
+
+  /**
+   * Discards the changes collected for the entity manager, after its transaction has been rolled back.
+   * @param em
+   */
+  public void rollback(final EntityManager em) {
+    pendingChanges.remove(em);
+  }
+
+  /**
+   * Creates a condition that restricts the query to the keys of the entities matching the search expression. An entity
+   * type without searchable properties has no matching entities.
+   */
+  @Override
+  public Expression<Boolean> createSearchWhereClause(final CriteriaBuilder cb, final CriteriaQuery<?> cq,
+      final From<?, ?> root, final JPAEntityType entityType, final SearchOption searchOption)
+      throws ODataApplicationException {
+
+    final JPAEntityIndex index = entityIndexes.get(entityType.getExternalFQN().getFullQualifiedNameAsString());
+    if (index == null)
+      return cb.disjunction();
+    final Set<List<Object>> keys = index.find(searchOption.getSearchExpression());
+    if (keys.isEmpty())
+      return cb.disjunction();
+
+    final List<Path<Object>> keyPath = new ArrayList<>(index.keyPath.size());
+    for (final JPAPath path : index.keyPath)
+      keyPath.add(criteriaPath(root, path));
+    final int last = keyPath.size() - 1;
+    final Map<List<Object>, List<Object>> lastValuesByLeading = new HashMap<>();
+    for (final List<Object> key : keys)
+      lastValuesByLeading.computeIfAbsent(key.subList(0, last), leading -> new ArrayList<>()).add(key.get(last));
+
+    Expression<Boolean> condition = null;
+    for (final Map.Entry<List<Object>, List<Object>> group : lastValuesByLeading.entrySet()) {
+      Expression<Boolean> groupCondition = createInCondition(cb, keyPath.get(last), group.getValue());
+      for (int i = 0; i < last; i++)
+        groupCondition = cb.and(cb.equal(keyPath.get(i), group.getKey().get(i)), groupCondition);
+      condition = condition == null ? groupCondition : cb.or(condition, groupCondition);
+    }
+    return condition;
+  }
+
+  private JPAIndexChange createPut(final JPAEntityType et, final Object instance) throws ODataJPAProcessorException {
+    final JPAEntityIndex index = entityIndexes.get(et.getExternalFQN().getFullQualifiedNameAsString());
+    if (index == null || instance == null)
+      return null;
+    final List<Object> key = new ArrayList<>(index.keyPath.size());
+    for (final JPAPath path : index.keyPath)
+      key.add(readValue(instance, path));
+    final List<Object> texts = new ArrayList<>(index.searchablePath.size());
+    for (final JPAPath path : index.searchablePath)
+      texts.add(readValue(instance, path));
+    final Set<String> words = tokenize(texts);
+    return () -> index.put(key, words);
+  }
+
+  private JPAIndexChange createRemove(final JPAEntityType et, final Map<String, Object> jpaKeys) {
+    final JPAEntityIndex index = entityIndexes.get(et.getExternalFQN().getFullQualifiedNameAsString());
+    if (index == null)
+      return null;
+    final List<Object> key = index.keyPath.stream()
+        .map(path -> jpaKeys.get(path.getLeaf().getInternalName()))
+        .collect(Collectors.toList());
+    return () -> index.remove(key);
+  }
+
+  private void applyOrCollect(final EntityManager em, final JPAIndexChange change) {
+    final List<JPAIndexChange> changes = pendingChanges.get(em);
+    if (changes != null)
+      changes.add(change);
+    else
+      change.apply();
+  }
+
+  private void build(final EntityManager em, final JPAEntityType et) throws ODataJPAModelException {
+    final List<JPAPath> searchablePath = determineSearchablePath(et);
+    if (searchablePath.isEmpty())
+      return;
+    final List<JPAPath> keyPath = new ArrayList<>();
+    for (final JPAAttribute key : et.getKey())
+      keyPath.add(et.getPath(key.getExternalName()));
+
+    final CriteriaBuilder cb = em.getCriteriaBuilder();
+    final CriteriaQuery<Tuple> cq = cb.createTupleQuery();
+    final Root<?> root = cq.from(et.getTypeClass());
+    final List<Selection<?>> selections = new ArrayList<>();
+    for (final JPAPath path : keyPath)
+      selections.add(criteriaPath(root, path));
+    for (final JPAPath path : searchablePath)
+      selections.add(criteriaPath(root, path));
+    cq.multiselect(selections);
+
+    final JPAEntityIndex index = new JPAEntityIndex(keyPath, searchablePath);
+    try (Stream<Tuple> rows = em.createQuery(cq).getResultStream()) {
+      rows.forEach(row -> {
+        final List<Object> key = new ArrayList<>(keyPath.size());
+        for (int i = 0; i < keyPath.size(); i++)
+          key.add(row.get(i));
+        final List<Object> texts = new ArrayList<>(searchablePath.size());
+        for (int i = keyPath.size(); i < selections.size(); i++)
+          texts.add(row.get(i));
+        index.put(key, tokenize(texts));
+      });
+    }
+    entityIndexes.put(et.getExternalFQN().getFullQualifiedNameAsString(), index);
+  }
+
+  private List<JPAPath> determineSearchablePath(final JPAEntityType et) throws ODataJPAModelException {
+    final List<JPAPath> searchablePath = new ArrayList<>();
+    for (final JPAPath path : et.getSearchablePath()) {
+      if (path.getPath().stream().noneMatch(element -> element instanceof JPAAttribute
+          && (((JPAAttribute) element).isCollection() || ((JPAAttribute) element).isAssociation())))
+        searchablePath.add(path);
+    }
+    return searchablePath;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Path<Object> criteriaPath(final From<?, ?> root, final JPAPath path) {
+    return (Path<Object>) ExpressionUtil.convertToCriteriaPath(root, path.getPath());
+  }
+
+  private Expression<Boolean> createInCondition(final CriteriaBuilder cb, final Path<Object> keyPath,
+      final List<Object> values) {
+
+    Expression<Boolean> condition = null;
+    for (int i = 0; i < values.size(); i += maxInListSize) {
+      final Expression<Boolean> in = keyPath.in(values.subList(i, Math.min(i + maxInListSize, values.size())));
+      condition = condition == null ? in : cb.or(condition, in);
+    }
+    return condition;
+  }
+
+  private Object readValue(final Object instance, final JPAPath path) throws ODataJPAProcessorException {
+    Object value = instance;
+    for (final JPAElement element : path.getPath()) {
+      if (value == null)
+        return null;
+      final String attributeName = element.getInternalName();
+      try {
+        value = JPAInstanceAccessor.of(value.getClass()).getGetter(attributeName.substring(0, 1).toUpperCase()
+            + attributeName.substring(1)).get(value);
+      } catch (NoSuchMethodException e) {
+        throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.GETTER_NOT_FOUND,
+            HttpStatusCode.INTERNAL_SERVER_ERROR, e, attributeName);
+      } catch (IllegalAccessException | InvocationTargetException e) {
+        throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.ATTRIBUTE_RETRIEVAL_FAILED,
+            HttpStatusCode.INTERNAL_SERVER_ERROR, e, attributeName);
+      }
+    }
+    return value;
+  }
+
+  static Set<String> tokenize(final List<Object> texts) {
+    final Set<String> words = new HashSet<>();
+    for (final Object text : texts) {
+      if (text != null)
+        words.addAll(tokenize(text.toString()));
+    }
+    return words;
+  }
+
+  static List<String> tokenize(final String text) {
+    final List<String> words = new ArrayList<>();
+    for (final String word : WORD_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+      if (!word.isEmpty())
+        words.add(word);
+    }
+    return words;
+  }
+
+  /**
+   * A change of the index that has been prepared, but maybe not yet been applied.
+   */
+  @FunctionalInterface
+  private interface JPAIndexChange {
+    void apply();
+  }
+
+  /**
+   * Index of one entity type. The keys of an entity are represented by the list of its key attribute values.
+   */
+  private static final class JPAEntityIndex {
+    private final List<JPAPath> keyPath;
+    private final List<JPAPath> searchablePath;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Set<List<Object>>> keysByWord = new TreeMap<>();
+    private final Map<List<Object>, Set<String>> wordsByKey = new HashMap<>();
+
+    private JPAEntityIndex(final List<JPAPath> keyPath, final List<JPAPath> searchablePath) {
+      this.keyPath = keyPath;
+      this.searchablePath = searchablePath;
+    }
+
+    private void put(final List<Object> key, final Set<String> words) {
+      lock.writeLock().lock();
+      try {
+        removeKey(key);
+        wordsByKey.put(key, words);
+        for (final String word : words)
+          keysByWord.computeIfAbsent(word, w -> new HashSet<>()).add(key);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    private void remove(final List<Object> key) {
+      lock.writeLock().lock();
+      try {
+        removeKey(key);
+      } finally {
+        lock.writeLock().unlock();
+      }
+    }
+
+    private Set<List<Object>> find(final SearchExpression expression) throws ODataJPAProcessorException {
+      lock.readLock().lock();
+      try {
+        return evaluate(expression);
+      } finally {
+        lock.readLock().unlock();
+      }
+    }
+
+    private void removeKey(final List<Object> key) {
+      final Set<String> words = wordsByKey.remove(key);
+      if (words != null) {
+        for (final String word : words) {
+          final Set<List<Object>> keys = keysByWord.get(word);
+          keys.remove(key);
+          if (keys.isEmpty())
+            keysByWord.remove(word);
+        }
+      }
+    }
+
+    private Set<List<Object>> evaluate(final SearchExpression expression) throws ODataJPAProcessorException {
+      if (expression instanceof SearchTerm)
+        return match(((SearchTerm) expression).getSearchTerm());
+      if (expression instanceof SearchUnary) {
+        final Set<List<Object>> result = new HashSet<>(wordsByKey.keySet());
+        result.removeAll(match(((SearchUnary) expression).getOperand().getSearchTerm()));
+        return result;
+      }
+      if (expression instanceof SearchBinary) {
+        final SearchBinary binary = (SearchBinary) expression;
+        final Set<List<Object>> result = evaluate(binary.getLeftOperand());
+        if (binary.getOperator() == SearchBinaryOperatorKind.AND)
+          result.retainAll(evaluate(binary.getRightOperand()));
+        else
+          result.addAll(evaluate(binary.getRightOperand()));
+        return result;
+      }
+      throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_PREPARATION_ERROR,
+          HttpStatusCode.BAD_REQUEST);
+    }
+
+    /**
+     * Returns the keys of the entities having, for each word of the term, a word starting with it.
+     */
+    private Set<List<Object>> match(final String term) {
+      Set<List<Object>> result = null;
+      for (final String prefix : tokenize(term)) {
+        final Set<List<Object>> prefixKeys = new HashSet<>();
+        for (final Set<List<Object>> keys : keysByWord.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+            .values())
+          prefixKeys.addAll(keys);
+        if (result == null)
+          result = prefixKeys;
+        else
+          result.retainAll(prefixKeys);
+      }
+      return result == null ? new HashSet<>(wordsByKey.keySet()) : result;
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package nl.buildforce.sequoia.processor.core.database;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * H2 shares the table function syntax with HSQLDB, but does not support lateral joins
+ */
+public class JPA_H2_DatabaseProcessor extends JPA_HSQLDB_DatabaseProcessor { // NOSONAR
+
+  @Override
+  public Optional<String> createExpandLimitQuery(final String tableName, final List<String> columns,
+      final List<String> partition, final List<String> orderBy, final String where, final long skip, final long top) {
+    return Optional.of(createRowNumberExpandQuery(tableName, columns, partition, orderBy, where, skip, top));
+  }
+
+}
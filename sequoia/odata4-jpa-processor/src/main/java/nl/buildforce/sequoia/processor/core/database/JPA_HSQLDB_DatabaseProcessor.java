@@ -1,18 +1,24 @@
 package nl.buildforce.sequoia.processor.core.database;
 
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPADataBaseFunction;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPADBAdaptorException;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
 import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
 import nl.buildforce.olingo.server.api.ODataApplicationException;
 import nl.buildforce.olingo.server.api.uri.UriResource;
 import nl.buildforce.olingo.server.api.uri.UriResourceKind;
+import nl.buildforce.olingo.server.api.uri.queryoption.SearchOption;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException.MessageKeys.NOT_SUPPORTED_FUNC_WITH_NAVI;
 
@@ -21,7 +27,9 @@ public class JPA_HSQLDB_DatabaseProcessor extends JPAAbstractDatabaseProcessor {
   private static final String SELECT_COUNT_PATTERN = "SELECT COUNT(*) FROM TABLE ($FUNCTIONNAME$($PARAMETER$))";
 
   @Override
-  public Expression<Boolean> createSearchWhereClause() throws ODataApplicationException {
+  public Expression<Boolean> createSearchWhereClause(final CriteriaBuilder cb, final CriteriaQuery<?> cq,
+      final From<?, ?> root, final JPAEntityType entityType, final SearchOption searchOption)
+      throws ODataApplicationException {
 
     throw new ODataJPADBAdaptorException(ODataJPADBAdaptorException.MessageKeys.NOT_SUPPORTED_SEARCH,
         HttpStatusCode.NOT_IMPLEMENTED);
@@ -43,4 +51,13 @@ public class JPA_HSQLDB_DatabaseProcessor extends JPAAbstractDatabaseProcessor {
     throw new ODataJPAProcessorException(NOT_SUPPORTED_FUNC_WITH_NAVI, HttpStatusCode.NOT_IMPLEMENTED);
   }
 
-}
\ No newline at end of file
+  /**
+   * HSQLDB does not support ROW_NUMBER() OVER (PARTITION BY ...), so a lateral join is used instead
+   */
+  @Override
+  public Optional<String> createExpandLimitQuery(final String tableName, final List<String> columns,
+      final List<String> partition, final List<String> orderBy, final String where, final long skip, final long top) {
+    return Optional.of(createLateralExpandQuery(tableName, columns, partition, orderBy, where, skip, top));
+  }
+
+}
@@ -31,6 +31,7 @@ public class ODataJPAQueryException extends ODataJPAProcessException { // NOSONA
     QUERY_PREPARATION_ERROR,
     QUERY_PREPARATION_JOIN_NOT_DEFINED,
     QUERY_PREPARATION_NOT_IMPLEMENTED,
+    QUERY_PREPARATION_APPLY_NOT_SUPPORTED,
     QUERY_PREPARATION_NOT_ALLOWED_MEMBER,
     NOT_SUPPORTED_RESOURCE_TYPE,
     MISSING_CLAIMS_PROVIDER,
@@ -13,6 +13,7 @@ import nl.buildforce.olingo.server.api.ODataApplicationException;
 import nl.buildforce.olingo.server.api.uri.UriResource;
 import nl.buildforce.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
 import nl.buildforce.olingo.server.api.uri.queryoption.expression.ExpressionVisitor;
+import nl.buildforce.olingo.server.api.uri.queryoption.expression.VisitableExpression;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.Expression;
@@ -63,11 +64,31 @@ public final class JPAFilterCrossCompiler extends JPAAbstractFilter {
     this.root = from;
   }
 
+  /**
+   * Compiles a filter expression that is not given by $filter, like the one of a filter transformation of $apply.
+   */
+  public JPAFilterCrossCompiler(final OData odata, final JPAServiceDocument sd,
+      final JPAEntityType jpaEntityType, final JPAOperationConverter converter, final JPAAbstractQuery parent,
+      final From<?, ?> from, final JPAODataRequestContextAccess requestContext, final VisitableExpression expression) {
+
+    this(odata, sd, jpaEntityType, converter, parent, (JPAAssociationPath) null, requestContext, expression);
+    this.root = from;
+  }
+
   public JPAFilterCrossCompiler(final OData odata, final JPAServiceDocument sd,
       final JPAEntityType jpaEntityType, final JPAOperationConverter converter, final JPAAbstractQuery parent,
       final JPAAssociationPath association, final JPAODataRequestContextAccess requestContext) {
 
-    super(jpaEntityType, requestContext.getUriInfo(), association);
+    this(odata, sd, jpaEntityType, converter, parent, association, requestContext, requestContext.getUriInfo()
+        .getFilterOption() != null ? requestContext.getUriInfo().getFilterOption().getExpression() : null);
+  }
+
+  private JPAFilterCrossCompiler(final OData odata, final JPAServiceDocument sd,
+      final JPAEntityType jpaEntityType, final JPAOperationConverter converter, final JPAAbstractQuery parent,
+      final JPAAssociationPath association, final JPAODataRequestContextAccess requestContext,
+      final VisitableExpression expression) {
+
+    super(jpaEntityType, expression, association);
     final Optional<JPAODataGroupProvider> groupsProvider = requestContext.getGroupsProvider();
     this.uriResourceParts = requestContext.getUriInfo().getUriResourceParts();
     this.converter = converter;
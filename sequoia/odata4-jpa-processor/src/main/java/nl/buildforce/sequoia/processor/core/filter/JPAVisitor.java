@@ -65,7 +65,6 @@ class JPAVisitor implements JPAExpressionVisitor {
   @Override
   public JPAOperator visitBinaryOperator(final BinaryOperatorKind operator, final JPAOperator left,
       final JPAOperator right) throws ODataApplicationException {
-    // int handle = debugger.startRuntimeMeasurement(this, "visitBinaryOperator"); // NOSONAR
 
     if (operator == BinaryOperatorKind.AND || operator == BinaryOperatorKind.OR) {
       // Connecting operations have to be handled first, as JPANavigationOperation do not need special treatment
@@ -92,7 +91,6 @@ class JPAVisitor implements JPAExpressionVisitor {
         || operator == BinaryOperatorKind.MOD) {
       return new JPAArithmeticOperatorImp(this.jpaCompiler.getConverter(), operator, left, right);
     }
-    // // debugger.stopRuntimeMeasurement(handle);
     throw new ODataJPAFilterException(ODataJPAFilterException.MessageKeys.NOT_SUPPORTED_OPERATOR,
         HttpStatusCode.NOT_IMPLEMENTED, operator.name());
   }
@@ -106,7 +104,6 @@ class JPAVisitor implements JPAExpressionVisitor {
 
   @Override
   public JPAEnumerationOperator visitEnum(final EdmEnumType type, final List<String> enumValues) throws ODataApplicationException {
-    // final int handle = debugger.startRuntimeMeasurement(this, "visitEnum");
     final JPAEnumerationAttribute jpaEnumerationAttribute = this.jpaCompiler.getSd().getEnumType(type);
     try {
       if (!jpaEnumerationAttribute.isFlags() && enumValues.size() > 1)
@@ -115,7 +112,6 @@ class JPAVisitor implements JPAExpressionVisitor {
     } catch (ODataJPAModelException e) {
       throw new ODataJPAFilterException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
     }
-    // // debugger.stopRuntimeMeasurement(handle);
     return new JPAEnumerationOperator(this.jpaCompiler.getSd().getEnumType(type), enumValues);
   }
 
@@ -138,15 +134,12 @@ class JPAVisitor implements JPAExpressionVisitor {
 
   @Override
   public JPAOperator visitLiteral(final Literal literal) {
-    // final int handle = debugger.startRuntimeMeasurement(this, "visitBinaryOperator");
-    // // debugger.stopRuntimeMeasurement(handle);
     return new JPALiteralOperator(this.jpaCompiler.getOdata(), literal);
   }
 
   @Override
   public JPAOperator visitMember(final Member member) throws ODataApplicationException {
 
-    // final int handle = debugger.startRuntimeMeasurement(this, "visitMember");
     if (getLambdaType(member.getResourcePath()) == UriResourceKind.lambdaAny) {
       return new JPALambdaAnyOperation(this.jpaCompiler, member);
     } else if (getLambdaType(member.getResourcePath()) == UriResourceKind.lambdaAll) {
@@ -160,7 +153,6 @@ class JPAVisitor implements JPAExpressionVisitor {
       final List<UriParameter> odataParams = ((UriResourceFunction) resource).getParameters();
       return new JPAFunctionOperator(this, odataParams, jpaFunction);
     }
-    // // debugger.stopRuntimeMeasurement(handle);
     return new JPAMemberOperator(this.jpaCompiler.getJpaEntityType(), this.jpaCompiler.getRoot(), member, jpaCompiler
         .getAssociation(), this.jpaCompiler.getGroups());
   }
@@ -169,7 +161,6 @@ class JPAVisitor implements JPAExpressionVisitor {
   public JPAOperator visitMethodCall(final MethodKind methodCall, final List<JPAOperator> parameters)
       throws ODataApplicationException {
 
-    // final int handle = debugger.startRuntimeMeasurement(this, "visitMethodCall");
     if (!parameters.isEmpty()) {
       if (parameters.get(0) instanceof JPANavigationOperation ||
           parameters.size() == 2 && parameters.get(1) instanceof JPANavigationOperation)
@@ -182,7 +173,6 @@ class JPAVisitor implements JPAExpressionVisitor {
     JPAMethodCall method = new JPAMethodCallImp(this.jpaCompiler.getConverter(), methodCall, parameters);
     if (method.get() instanceof Predicate)
       method = new JPAMethodBasedExpression(this.jpaCompiler.getConverter(), methodCall, parameters);
-    // // debugger.stopRuntimeMeasurement(handle);
     return method;
   }
 
@@ -195,7 +185,6 @@ class JPAVisitor implements JPAExpressionVisitor {
   @Override
   public JPAOperator visitUnaryOperator(final UnaryOperatorKind operator, final JPAOperator operand)
       throws ODataApplicationException {
-    // final int handle = debugger.startRuntimeMeasurement(this, "visitBinaryOperator");
     if (operator == UnaryOperatorKind.NOT) {
       return new JPAUnaryBooleanOperatorImp(this.jpaCompiler.getConverter(), operator, (JPAExpressionOperator) operand);
     } else {
@@ -3,7 +3,6 @@ package nl.buildforce.sequoia.processor.core.modify;
 import jakarta.persistence.AttributeConverter;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -267,19 +266,13 @@ public class JPAConversionHelper {
    */
   public Map<String, Object> determineGetter(final Object instance) throws ODataJPAProcessorException {
     Map<String, Object> getterMap = new HashMap<>();
-    Method[] methods = instance.getClass().getMethods();
 
-    for (Method meth : methods) {
-      String methodName = meth.getName();
-      if (methodName.startsWith("get") && methodName.length() > 3) {
-        String attributeName = methodName.substring(3, 4).toLowerCase() + methodName.substring(4);
-        try {
-          Object value = meth.invoke(instance);
-          getterMap.put(attributeName, value);
-        } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-          throw new ODataJPAProcessorException(MessageKeys.ATTRIBUTE_RETRIEVAL_FAILED,
-              HttpStatusCode.INTERNAL_SERVER_ERROR, e, attributeName);
-        }
+    for (final JPAInstanceAccessor.Getter getter : JPAInstanceAccessor.of(instance.getClass()).getGetters()) {
+      try {
+        getterMap.put(getter.getAttributeName(), getter.get(instance));
+      } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
+        throw new ODataJPAProcessorException(MessageKeys.ATTRIBUTE_RETRIEVAL_FAILED,
+            HttpStatusCode.INTERNAL_SERVER_ERROR, e, getter.getAttributeName());
       }
     }
     return getterMap;
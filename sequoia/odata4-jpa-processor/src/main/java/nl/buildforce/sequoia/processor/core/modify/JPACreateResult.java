@@ -8,6 +8,7 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.sequoia.processor.core.converter.JPAExpandResult;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import nl.buildforce.sequoia.processor.core.converter.JPATuple;
 import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
@@ -54,7 +55,7 @@ abstract class JPACreateResult implements JPAExpandResult {
   }
 
   @Override
-  public Long getCount(final String key) {
+  public Long getCount(final JPAJoinKey key) {
     return null;
   }
 
@@ -6,6 +6,7 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.sequoia.processor.core.converter.JPACollectionResult;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import nl.buildforce.sequoia.processor.core.converter.JPATuple;
 import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
@@ -20,7 +21,7 @@ import java.util.Map;
 
 final class JPAEntityCollectionResult extends JPAEntityBasedResult implements JPACollectionResult { // JPACollectionQueryResult
 
-  private Map<String, List<Object>> converted;
+  private Map<JPAJoinKey, List<Object>> converted;
   private final JPAAssociationPath path;
 
   JPAEntityCollectionResult(final JPAEntityType et, final Collection<?> values,
@@ -58,7 +59,7 @@ final class JPAEntityCollectionResult extends JPAEntityBasedResult implements JP
   }
 
   @Override
-  public List<Object> getPropertyCollection(String key) {
+  public List<Object> getPropertyCollection(JPAJoinKey key) {
     return converted.get(ROOT_RESULT_KEY);
   }
 
@@ -5,6 +5,7 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.sequoia.processor.core.converter.JPAExpandResult;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
 import nl.buildforce.sequoia.processor.core.query.JPAConvertibleResult;
@@ -22,7 +23,7 @@ import java.util.Map;
 
 final class JPAEntityNavigationLinkResult extends JPACreateResult implements JPAConvertibleResult {
   private final List<Tuple> result;
-  private Map<String, EntityCollection> odataResult;
+  private Map<JPAJoinKey, EntityCollection> odataResult;
   private final JPATupleChildConverter converter;
 
   JPAEntityNavigationLinkResult(final JPAEntityType et, final Collection<?> value,
@@ -37,7 +38,7 @@ final class JPAEntityNavigationLinkResult extends JPACreateResult implements JPA
   }
 
   @Override
-  public Map<String, EntityCollection> asEntityCollection(JPATupleChildConverter converter)
+  public Map<JPAJoinKey, EntityCollection> asEntityCollection(JPATupleChildConverter converter)
       throws ODataApplicationException {
     convert(new JPATupleChildConverter(converter));
     return odataResult;
@@ -49,19 +50,19 @@ final class JPAEntityNavigationLinkResult extends JPACreateResult implements JPA
   }
 
   @Override
-  public EntityCollection getEntityCollection(final String key) throws ODataApplicationException {
+  public EntityCollection getEntityCollection(final JPAJoinKey key) throws ODataApplicationException {
     if (odataResult == null) asEntityCollection(converter);
     return odataResult.containsKey(ROOT_RESULT_KEY) ? odataResult.get(ROOT_RESULT_KEY) : new EntityCollection();
   }
 
   @Override
-  public List<Tuple> getResult(String key) {
+  public List<Tuple> getResult(JPAJoinKey key) {
     return result;
   }
 
   @Override
-  public Map<String, List<Tuple>> getResults() {
-    final Map<String, List<Tuple>> results = new HashMap<>(1);
+  public Map<JPAJoinKey, List<Tuple>> getResults() {
+    final Map<JPAJoinKey, List<Tuple>> results = new HashMap<>(1);
     results.put(ROOT_RESULT_KEY, result);
     return results;
   }
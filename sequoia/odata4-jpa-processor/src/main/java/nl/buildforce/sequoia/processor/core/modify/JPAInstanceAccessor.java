@@ -0,0 +1,212 @@
+package nl.buildforce.sequoia.processor.core.modify;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Getter and setter of a JPA POJO class. The public methods of a class are searched only once, so that create, update
+ * and link requests do not have to look up the methods of an instance per attribute. The methods are invoked via
+ * method handles.
+ * <p>
+ * Based on the JAVA naming conventions a method <code>getXyz</code> or <code>setXyz</code> belongs to attribute
+ * <code>xyz</code>.
+ */
+public final class JPAInstanceAccessor {
+  public static final String GETTER_PREFIX = "get";
+  public static final String SETTER_PREFIX = "set";
+
+  private static final ClassValue<JPAInstanceAccessor> ACCESSORS = new ClassValue<>() {
+    @Override
+    protected JPAInstanceAccessor computeValue(final Class<?> type) {
+      return new JPAInstanceAccessor(type);
+    }
+  };
+
+  private final Class<?> type;
+  private final Map<String, Getter> getterByName;
+  private final Map<String, List<Setter>> setterByName;
+  private final Map<String, List<Setter>> setterByAttribute;
+
+  /**
+   * Returns the accessor of a class. The accessor is created at the first request.
+   * @param type
+   * @return
+   */
+  public static JPAInstanceAccessor of(final Class<?> type) {
+    return ACCESSORS.get(type);
+  }
+
+  private JPAInstanceAccessor(final Class<?> type) {
+    this.type = type;
+    this.getterByName = new HashMap<>();
+    this.setterByName = new HashMap<>();
+    this.setterByAttribute = new HashMap<>();
+
+    for (final Method meth : type.getMethods()) {
+      final String methodName = meth.getName();
+      if (meth.isBridge() || methodName.length() <= 3)
+        continue;
+      if (methodName.startsWith(GETTER_PREFIX) && meth.getParameterCount() == 0) {
+        getterByName.put(methodName, new Getter(attributeName(methodName), meth));
+      } else if (methodName.startsWith(SETTER_PREFIX) && meth.getParameterCount() == 1) {
+        final Setter setter = new Setter(attributeName(methodName), meth);
+        setterByName.computeIfAbsent(methodName, k -> new ArrayList<>(1)).add(setter);
+        setterByAttribute.computeIfAbsent(setter.getAttributeName(), k -> new ArrayList<>(1)).add(setter);
+      }
+    }
+  }
+
+  /**
+   * @return All getter of the class having no parameter
+   */
+  public Collection<Getter> getGetters() {
+    return Collections.unmodifiableCollection(getterByName.values());
+  }
+
+  /**
+   * Returns the getter <code>get + methodSuffix</code>.
+   * @param methodSuffix
+   * @return
+   * @throws NoSuchMethodException In case the class does not provide the getter
+   */
+  public Getter getGetter(final String methodSuffix) throws NoSuchMethodException {
+    final Getter getter = getterByName.get(GETTER_PREFIX + methodSuffix);
+    if (getter == null)
+      throw new NoSuchMethodException(type.getName() + "." + GETTER_PREFIX + methodSuffix + "()");
+    return getter;
+  }
+
+  /**
+   * Returns the setter <code>set + methodSuffix</code>, which has exactly the given parameter type.
+   * @param methodSuffix
+   * @param parameterType
+   * @return
+   * @throws NoSuchMethodException In case the class does not provide the setter
+   */
+  public Setter getSetter(final String methodSuffix, final Class<?> parameterType) throws NoSuchMethodException {
+    for (final Setter setter : setterByName.getOrDefault(SETTER_PREFIX + methodSuffix, Collections.emptyList())) {
+      if (setter.getParameterType() == parameterType)
+        return setter;
+    }
+    throw new NoSuchMethodException(type.getName() + "." + SETTER_PREFIX + methodSuffix + "(" + parameterType.getName()
+        + ")");
+  }
+
+  /**
+   * @param attributeName
+   * @return All setter of an attribute. If the attribute has no setter, an empty list is returned.
+   */
+  public List<Setter> getSetters(final String attributeName) {
+    return setterByAttribute.getOrDefault(attributeName, Collections.emptyList());
+  }
+
+  private static String attributeName(final String methodName) {
+    return methodName.substring(3, 4).toLowerCase() + methodName.substring(4);
+  }
+
+  private static MethodHandle unreflect(final Method meth, final MethodType type) {
+    try {
+      return MethodHandles.publicLookup().unreflect(meth).asType(type);
+    } catch (IllegalAccessException e) {
+      // Invoke via reflection, which reports the missing access
+      return null;
+    }
+  }
+
+  public static final class Getter {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private final String attributeName;
+    private final Method method;
+    private final MethodHandle handle;
+
+    private Getter(final String attributeName, final Method method) {
+      this.attributeName = attributeName;
+      this.method = method;
+      this.handle = unreflect(method, GETTER_TYPE);
+    }
+
+    public String getAttributeName() {
+      return attributeName;
+    }
+
+    /**
+     * Reads the value of the attribute. Like {@link Method#invoke}, an exception thrown by the getter is wrapped into
+     * an {@link InvocationTargetException}.
+     * @param instance
+     * @return
+     * @throws IllegalAccessException
+     * @throws InvocationTargetException
+     */
+    public Object get(final Object instance) throws IllegalAccessException, InvocationTargetException {
+      if (handle == null)
+        return method.invoke(instance);
+      if (!method.getDeclaringClass().isInstance(instance))
+        throw new IllegalArgumentException("object is not an instance of " + method.getDeclaringClass().getName());
+      try {
+        return (Object) handle.invokeExact(instance);
+      } catch (Throwable e) { // NOSONAR
+        throw new InvocationTargetException(e);
+      }
+    }
+  }
+
+  public static final class Setter {
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+    private final String attributeName;
+    private final Method method;
+    private final Class<?> parameterType;
+    // Type of values accepted by the setter, the wrapper type in case of a primitive parameter
+    private final Class<?> valueType;
+    private final MethodHandle handle;
+
+    private Setter(final String attributeName, final Method method) {
+      this.attributeName = attributeName;
+      this.method = method;
+      this.parameterType = method.getParameterTypes()[0];
+      this.valueType = MethodType.methodType(parameterType).wrap().returnType();
+      this.handle = unreflect(method, SETTER_TYPE);
+    }
+
+    public String getAttributeName() {
+      return attributeName;
+    }
+
+    public Class<?> getParameterType() {
+      return parameterType;
+    }
+
+    /**
+     * Sets the value of the attribute. Like {@link Method#invoke}, an exception thrown by the setter is wrapped into
+     * an {@link InvocationTargetException}.
+     * @param instance
+     * @param value
+     * @throws IllegalAccessException
+     * @throws InvocationTargetException
+     */
+    public void set(final Object instance, final Object value) throws IllegalAccessException,
+        InvocationTargetException {
+      if (handle == null) {
+        method.invoke(instance, value);
+        return;
+      }
+      if (!method.getDeclaringClass().isInstance(instance))
+        throw new IllegalArgumentException("object is not an instance of " + method.getDeclaringClass().getName());
+      if (value == null ? parameterType.isPrimitive() : !valueType.isInstance(value))
+        throw new IllegalArgumentException("argument type mismatch");
+      try {
+        handle.invokeExact(instance, value);
+      } catch (Throwable e) { // NOSONAR
+        throw new InvocationTargetException(e);
+      }
+    }
+  }
+}
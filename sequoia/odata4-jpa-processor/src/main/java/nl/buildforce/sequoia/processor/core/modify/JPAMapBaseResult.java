@@ -3,6 +3,7 @@ package nl.buildforce.sequoia.processor.core.modify;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 
 import jakarta.persistence.Tuple;
 import java.util.HashMap;
@@ -19,13 +20,13 @@ public abstract class JPAMapBaseResult extends JPACreateResult {
   }
 
   @Override
-  public List<Tuple> getResult(final String key) {
+  public List<Tuple> getResult(final JPAJoinKey key) {
     return result;
   }
 
   @Override
-  public Map<String, List<Tuple>> getResults() {
-    final Map<String, List<Tuple>> results = new HashMap<>(1);
+  public Map<JPAJoinKey, List<Tuple>> getResults() {
+    final Map<JPAJoinKey, List<Tuple>> results = new HashMap<>(1);
     results.put(ROOT_RESULT_KEY, result);
     return results;
   }
@@ -6,6 +6,7 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.sequoia.processor.core.converter.JPACollectionResult;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import nl.buildforce.sequoia.processor.core.converter.JPATuple;
 import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
@@ -19,7 +20,7 @@ import java.util.List;
 import java.util.Map;
 
 class JPAMapCollectionResult extends JPAMapBaseResult implements JPACollectionResult {
-  private Map<String, List<Object>> converted;
+  private Map<JPAJoinKey, List<Object>> converted;
   private final JPAAssociationPath path;
 
   public JPAMapCollectionResult(final JPAEntityType et, final Collection<?> values,
@@ -55,7 +56,7 @@ class JPAMapCollectionResult extends JPAMapBaseResult implements JPACollectionRe
   }
 
   @Override
-  public Collection<Object> getPropertyCollection(String key) {
+  public Collection<Object> getPropertyCollection(JPAJoinKey key) {
     return converted.get(ROOT_RESULT_KEY);
   }
 
@@ -3,6 +3,7 @@ package nl.buildforce.sequoia.processor.core.modify;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
 import nl.buildforce.sequoia.processor.core.processor.JPARequestEntity;
 import nl.buildforce.olingo.server.api.ODataApplicationException;
@@ -31,13 +32,13 @@ final class JPAMapNavigationLinkResult extends JPACreateResult {
   }
 
   @Override
-  public List<Tuple> getResult(String key) {
+  public List<Tuple> getResult(JPAJoinKey key) {
     return result;
   }
 
   @Override
-  public Map<String, List<Tuple>> getResults() {
-    final Map<String, List<Tuple>> results = new HashMap<>(1);
+  public Map<JPAJoinKey, List<Tuple>> getResults() {
+    final Map<JPAJoinKey, List<Tuple>> results = new HashMap<>(1);
     results.put(ROOT_RESULT_KEY, result);
     return results;
   }
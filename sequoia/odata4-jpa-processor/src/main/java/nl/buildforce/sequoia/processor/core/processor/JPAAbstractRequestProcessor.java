@@ -1,20 +1,31 @@
 package nl.buildforce.sequoia.processor.core.processor;
 
+import nl.buildforce.olingo.commons.api.ex.ODataException;
 import nl.buildforce.olingo.commons.api.format.ContentType;
 import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
 import nl.buildforce.olingo.server.api.OData;
+import nl.buildforce.olingo.server.api.ODataRequest;
 import nl.buildforce.olingo.server.api.ODataResponse;
 import nl.buildforce.olingo.server.api.serializer.SerializerResult;
+import nl.buildforce.olingo.server.api.serializer.SerializerStreamResult;
 import nl.buildforce.olingo.server.api.uri.UriInfoResource;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAServiceDocument;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAException;
 import nl.buildforce.sequoia.processor.core.api.JPAODataCRUDContextAccess;
 import nl.buildforce.sequoia.processor.core.api.JPAODataRequestContextAccess;
+import nl.buildforce.sequoia.processor.core.converter.JPAETag;
+import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessException;
+import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
+import nl.buildforce.sequoia.processor.core.query.JPAJoinQuery;
 import nl.buildforce.sequoia.processor.core.serializer.JPASerializer;
 
 import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static com.google.common.net.HttpHeaders.IF_MATCH;
+import static com.google.common.net.HttpHeaders.IF_NONE_MATCH;
 
 abstract class JPAAbstractRequestProcessor {
 
@@ -52,6 +63,33 @@ abstract class JPAAbstractRequestProcessor {
     this.successStatusCode = successStatusCode;
   }
 
+  /**
+   * Reads the current ETag of the requested entity. Only the ETag is selected, so preconditions given by
+   * <code>If-Match</code> or <code>If-None-Match</code> can be checked without reading and converting the entity.
+   * @return The ETag in the format of the ETag header. Empty if the entity type has no ETag or the entity does not
+   * exist.
+   */
+  protected final Optional<String> readEtag(final ODataRequest request) throws ODataJPAProcessException {
+    try {
+      return new JPAJoinQuery(odata, sessionContext, request.getAllHeaders(), requestContext).readEtag()
+          .map(JPAETag::of);
+    } catch (ODataJPAProcessException e) {
+      throw e;
+    } catch (ODataException e) {
+      throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_PREPARATION_ERROR,
+          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    }
+  }
+
+  protected static boolean hasPreconditions(final ODataRequest request) {
+    return hasHeader(request, IF_MATCH) || hasHeader(request, IF_NONE_MATCH);
+  }
+
+  protected static boolean hasHeader(final ODataRequest request, final String name) {
+    final List<String> values = request.getHeaders(name);
+    return values != null && !values.isEmpty();
+  }
+
   protected final void createSuccessResponse(final ODataResponse response,
                                              final ContentType responseFormat,
                                              final SerializerResult serializerResult) {
@@ -61,4 +99,13 @@ abstract class JPAAbstractRequestProcessor {
     response.setHeader(CONTENT_TYPE, responseFormat.toString());
   }
 
+  protected final void createSuccessResponse(final ODataResponse response,
+                                             final ContentType responseFormat,
+                                             final SerializerStreamResult serializerResult) {
+
+    response.setODataContent(serializerResult.getODataContent());
+    response.setStatusCode(successStatusCode);
+    response.setHeader(CONTENT_TYPE, responseFormat.toString());
+  }
+
 }
\ No newline at end of file
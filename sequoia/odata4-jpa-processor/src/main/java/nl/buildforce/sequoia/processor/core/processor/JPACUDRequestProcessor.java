@@ -15,6 +15,7 @@ import nl.buildforce.olingo.server.api.ODataLibraryException;
 import nl.buildforce.olingo.server.api.ODataRequest;
 import nl.buildforce.olingo.server.api.ODataResponse;
 import nl.buildforce.olingo.server.api.ServiceMetadata;
+import nl.buildforce.olingo.server.api.etag.PreconditionException;
 import nl.buildforce.olingo.server.api.prefer.Preferences.Return;
 import nl.buildforce.olingo.server.api.prefer.Preferences;
 import nl.buildforce.olingo.server.api.serializer.SerializerException;
@@ -38,6 +39,7 @@ import nl.buildforce.sequoia.processor.core.api.JPAODataCRUDContextAccess;
 import nl.buildforce.sequoia.processor.core.api.JPAODataRequestContextAccess;
 import nl.buildforce.sequoia.processor.core.api.JPAODataTransactionFactory.JPAODataTransaction;
 import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
+import nl.buildforce.sequoia.processor.core.database.JPAODataSearchIndex;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAInvocationTargetException;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessException;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
@@ -60,6 +62,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static com.google.common.net.HttpHeaders.IF_MATCH;
+import static com.google.common.net.HttpHeaders.IF_NONE_MATCH;
 import static com.google.common.net.HttpHeaders.LOCATION;
 import static nl.buildforce.olingo.commons.api.http.HttpHeader.ODATA_ENTITY_ID;
 import static nl.buildforce.olingo.commons.api.http.HttpHeader.PREFER;
@@ -68,8 +72,6 @@ import static nl.buildforce.olingo.server.core.ODataDispatcher.RETURN_MINIMAL;
 
 public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
 
-  private static final String DEBUG_CREATE_ENTITY = "createEntity";
-  private static final String DEBUG_UPDATE_ENTITY = "updateEntity";
   private final ServiceMetadata serviceMetadata;
   private final JPAConversionHelper helper;
 
@@ -84,21 +86,22 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
 
   public void clearFields(final ODataRequest request, ODataResponse response) throws ODataJPAProcessException {
 
-    //final int handle = debugger.startRuntimeMeasurement(this, "clearFields");
     final JPACUDRequestHandler handler = requestContext.getCUDRequestHandler();
     final EdmEntitySetInfo edmEntitySetInfo = Util.determineTargetEntitySetAndKeys(uriInfo.getUriResourceParts());
 
     final JPARequestEntity requestEntity = createRequestEntity(edmEntitySetInfo, uriInfo.getUriResourceParts(), request
         .getAllHeaders());
+    checkChangePreconditions(request, requestEntity.getEntityType());
 
+    JPAUpdateResult updateResult;
     JPAODataTransaction ownTransaction = null;
     final boolean foreignTransaction = requestContext.getTransactionFactory().hasActiveTransaction();
 
     if (!foreignTransaction)
       ownTransaction = requestContext.getTransactionFactory().createTransaction();
     try {
-      // final int updateHandle = debugger.startRuntimeMeasurement(handler, DEBUG_UPDATE_ENTITY);
-      handler.updateEntity(requestEntity, em, determineHttpVerb(request, uriInfo.getUriResourceParts()));
+      updateResult = handler.updateEntity(requestEntity, em, determineHttpVerb(request, uriInfo
+          .getUriResourceParts()));
       if (!foreignTransaction)
         handler.validateChanges(em);
     } catch (ODataJPAProcessException e) {
@@ -112,14 +115,14 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
     }
     if (!foreignTransaction)
       ownTransaction.commit();
-    // // debugger.stopRuntimeMeasurement(handle);
+    if (updateResult != null)
+      putIntoSearchIndex(requestEntity, updateResult.getModifiedEntity());
     response.setStatusCode(HttpStatusCode.NO_CONTENT.getStatusCode());
   }
 
   public void createEntity(final ODataRequest request, final ODataResponse response, final ContentType requestFormat,
       final ContentType responseFormat) throws ODataApplicationException, ODataLibraryException {
 
-    // final int handle = debugger.startRuntimeMeasurement(this, DEBUG_CREATE_ENTITY);
     final JPACUDRequestHandler handler = requestContext.getCUDRequestHandler();
 
     final EdmEntitySetInfo edmEntitySetInfo = Util.determineModifyEntitySetAndKeys(uriInfo.getUriResourceParts());
@@ -135,7 +138,6 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
     if (!foreignTransaction)
       ownTransaction = requestContext.getTransactionFactory().createTransaction();
     try {
-      // final int createHandle = debugger.startRuntimeMeasurement(handler, DEBUG_CREATE_ENTITY);
       result = handler.createEntity(requestEntity, em);
       if (!foreignTransaction)
         handler.validateChanges(em);
@@ -159,9 +161,9 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
 
     if (!foreignTransaction)
       ownTransaction.commit();
+    putIntoSearchIndex(requestEntity, result);
 
     createCreateResponse(request, response, responseFormat, requestEntity, edmEntitySetInfo, result);
-    // // debugger.stopRuntimeMeasurement(handle);
   }
 
   /*
@@ -170,7 +172,6 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
    * DELETE http://host/service/Products(0)/Category/$ref
    */
   public void deleteEntity(final ODataRequest request, final ODataResponse response) throws ODataJPAProcessException {
-    // final int handle = debugger.startRuntimeMeasurement(this, "deleteEntity");
     final JPACUDRequestHandler handler = requestContext.getCUDRequestHandler();
     final JPAEntityType et;
     final Map<String, Object> jpaKeyPredicates = new HashMap<>();
@@ -194,6 +195,7 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
       throw new ODataJPAProcessorException(e, HttpStatusCode.BAD_REQUEST);
     }
     final JPARequestEntity requestEntity = createRequestEntity(et, jpaKeyPredicates, request.getAllHeaders());
+    checkChangePreconditions(request, et);
 
     // 3. Perform Delete
     JPAODataTransaction ownTransaction = null;
@@ -201,7 +203,6 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
     if (!foreignTransaction)
       ownTransaction = requestContext.getTransactionFactory().createTransaction();
     try {
-      // final int deleteHandle = debugger.startRuntimeMeasurement(handler, "deleteEntity");
       handler.deleteEntity(requestEntity, em);
       if (!foreignTransaction)
         handler.validateChanges(em);
@@ -216,16 +217,15 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
     }
     if (!foreignTransaction)
       ownTransaction.commit();
+    sessionContext.getSearchIndex().ifPresent(index -> index.remove(em, et, jpaKeyPredicates));
 
     // 4. configure the response object
     response.setStatusCode(HttpStatusCode.NO_CONTENT.getStatusCode());
-    // // debugger.stopRuntimeMeasurement(handle);
   }
 
   public void updateEntity(final ODataRequest request, final ODataResponse response, final ContentType requestFormat,
       final ContentType responseFormat) throws ODataJPAProcessException, ODataLibraryException {
 
-    // final int handle = debugger.startRuntimeMeasurement(this, DEBUG_UPDATE_ENTITY);
     final JPACUDRequestHandler handler = requestContext.getCUDRequestHandler();
     final EdmEntitySetInfo edmEntitySetInfo = Util.determineModifyEntitySetAndKeys(uriInfo.getUriResourceParts());
     final Entity odataEntity = helper.convertInputStream(odata, request, requestFormat, uriInfo.getUriResourceParts());
@@ -238,6 +238,7 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
     // collection-valued navigation properties this adds to the relationship.
     // TODO navigation properties this replaces the relationship
     final JPARequestEntity requestEntity = createRequestEntity(edmEntitySetInfo, odataEntity, request.getAllHeaders());
+    checkChangePreconditions(request, requestEntity.getEntityType());
 
     // Update entity
     JPAUpdateResult updateResult;
@@ -257,7 +258,6 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
       // update request. The service MUST NOT treat an update request containing an If-Match header as an insert.
       // A PUT or PATCH request MUST NOT be treated as an update if an If-None-Match header is specified with a value of
       // "*".
-      // final int updateHandle = debugger.startRuntimeMeasurement(handler, DEBUG_UPDATE_ENTITY);
       updateResult = handler.updateEntity(requestEntity, em, determineHttpVerb(request, uriInfo.getUriResourceParts()));
       if (!foreignTransaction)
         handler.validateChanges(em);
@@ -286,13 +286,90 @@ public final class JPACUDRequestProcessor extends JPAAbstractRequestProcessor {
               .toString());
     }
     if (!foreignTransaction) ownTransaction.commit();
+    putIntoSearchIndex(requestEntity, updateResult.getModifiedEntity());
 
     if (updateResult.wasCreate()) {
       createCreateResponse(request, response, responseFormat, requestEntity.getEntityType(),
           edmEntitySetInfo.getEdmEntitySet(), updateResult.getModifiedEntity());
     } else
       createUpdateResponse(request, response, responseFormat, requestEntity, edmEntitySetInfo, updateResult);
-    // // debugger.stopRuntimeMeasurement(handle);
+  }
+
+  /**
+   * Checks <code>If-Match</code> and <code>If-None-Match</code> against the current ETag of the entity before anything
+   * is changed, so a request based on an outdated version fails before the request handler is called. Only
+   * the ETag is read. A change between this check and the commit is still detected by the optimistic lock.
+   */
+  private void checkChangePreconditions(final ODataRequest request, final JPAEntityType et)
+      throws ODataJPAProcessException {
+
+    try {
+      if (!hasPreconditions(request) || !et.hasEtag())
+        return;
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    }
+    final Optional<String> etag = readEtag(request);
+    try {
+      if (etag.isPresent())
+        odata.createETagHelper().checkChangePreconditions(etag.get(), request.getHeaders(IF_MATCH), request
+            .getHeaders(IF_NONE_MATCH));
+      else if (hasHeader(request, IF_MATCH))
+        // No current version to match, which also prevents an update with If-Match to be treated as an insert
+        throw new PreconditionException("The If-Match precondition is not fulfilled.",
+            PreconditionException.MessageKeys.FAILED);
+    } catch (PreconditionException e) {
+      throw new ODataJPAProcessorException(e, HttpStatusCode.PRECONDITION_FAILED);
+    }
+  }
+
+  /**
+   * Takes over the changes into the search index, if the service uses one. Within a change set the index only collects
+   * the change, which is taken over when the change set is committed. Entities created or changed together with the
+   * requested one, e.g. by a deep insert, are read from the corresponding navigation properties of the result.
+   */
+  private void putIntoSearchIndex(final JPARequestEntity requestEntity, final Object entity)
+      throws ODataJPAProcessorException {
+    final Optional<JPAODataSearchIndex> searchIndex = sessionContext.getSearchIndex();
+    if (searchIndex.isPresent())
+      putIntoSearchIndex(searchIndex.get(), requestEntity.getEntityType(), entity, requestEntity.getRelatedEntities());
+  }
+
+  private void putIntoSearchIndex(final JPAODataSearchIndex searchIndex, final JPAEntityType et, final Object entity,
+      final Map<JPAAssociationPath, List<JPARequestEntity>> relatedEntities) throws ODataJPAProcessorException {
+
+    if (entity == null || entity instanceof Map<?, ?>)
+      return;
+    searchIndex.put(em, et, entity);
+    if (relatedEntities == null)
+      return;
+    for (final Map.Entry<JPAAssociationPath, List<JPARequestEntity>> related : relatedEntities.entrySet()) {
+      if (related.getValue().isEmpty())
+        continue;
+      // The related instances can't be assigned to their request entity, so the next level is the union of all
+      final Map<JPAAssociationPath, List<JPARequestEntity>> nextLevel = new HashMap<>();
+      for (final JPARequestEntity relatedEntity : related.getValue()) {
+        if (relatedEntity.getRelatedEntities() != null)
+          relatedEntity.getRelatedEntities().forEach((path, entities) -> nextLevel.computeIfAbsent(path,
+              key -> new ArrayList<>()).addAll(entities));
+      }
+      final JPAEntityType relatedType = related.getValue().get(0).getEntityType();
+      for (final Object relatedInstance : readRelatedInstances(entity, related.getKey()))
+        putIntoSearchIndex(searchIndex, relatedType, relatedInstance, nextLevel);
+    }
+  }
+
+  private Collection<?> readRelatedInstances(final Object entity, final JPAAssociationPath path)
+      throws ODataJPAProcessorException {
+    Object value = entity;
+    for (final JPAElement pathItem : path.getPath()) {
+      if (value == null)
+        return Collections.emptyList();
+      value = helper.buildGetterMap(value).get(pathItem.getInternalName());
+    }
+    if (value == null)
+      return Collections.emptyList();
+    return value instanceof Collection<?> ? (Collection<?>) value : Collections.singletonList(value);
   }
 
   private HttpMethod determineHttpVerb(final ODataRequest request, List<UriResource> resourceParts) {
@@ -5,6 +5,8 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelExc
 import nl.buildforce.sequoia.processor.core.api.JPAODataCRUDContextAccess;
 import nl.buildforce.sequoia.processor.core.api.JPAODataRequestContextAccess;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
+import nl.buildforce.sequoia.processor.core.query.JPACachedCountQuery;
+import nl.buildforce.sequoia.processor.core.query.JPACountQuery;
 import nl.buildforce.sequoia.processor.core.query.JPAJoinQuery;
 import nl.buildforce.olingo.commons.api.data.EntityCollection;
 import nl.buildforce.olingo.commons.api.format.ContentType;
@@ -25,9 +27,21 @@ import nl.buildforce.olingo.server.api.uri.UriResourceEntitySet;
  */
 public final class JPACountRequestProcessor extends JPAAbstractGetRequestProcessor {
 
+  private final JPACachedCountQuery countQuery;
+
   public JPACountRequestProcessor(final OData odata, final JPAODataCRUDContextAccess context,
       final JPAODataRequestContextAccess requestContext) throws ODataJPAException {
+    this(odata, context, requestContext, null);
+  }
+
+  /**
+   * @param countQuery Count of the request, which may have been determined already by server driven paging
+   */
+  JPACountRequestProcessor(final OData odata, final JPAODataCRUDContextAccess context,
+      final JPAODataRequestContextAccess requestContext, final JPACachedCountQuery countQuery)
+      throws ODataJPAException {
     super(odata, context, requestContext);
+    this.countQuery = countQuery;
   }
 
   @Override
@@ -47,12 +61,16 @@ public final class JPACountRequestProcessor extends JPAAbstractGetRequestProcess
   protected final EntityCollection countEntities(final ODataRequest request, final UriInfoResource uriInfo)
           throws ODataJPAException, ODataApplicationException {
 
-    JPAJoinQuery query;
-    try {
-      query = new JPAJoinQuery(odata, sessionContext, request.getAllHeaders(), requestContext);
-    } catch (ODataJPAModelException e) {
-      throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_PREPARATION_ERROR,
-          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    final JPACountQuery query;
+    if (countQuery != null)
+      query = countQuery;
+    else {
+      try {
+        query = new JPAJoinQuery(odata, sessionContext, request.getAllHeaders(), requestContext);
+      } catch (ODataJPAModelException e) {
+        throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_PREPARATION_ERROR,
+            HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+      }
     }
 
     final EntityCollection entityCollection = new EntityCollection();
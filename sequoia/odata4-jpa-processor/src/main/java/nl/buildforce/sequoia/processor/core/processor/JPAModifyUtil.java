@@ -11,12 +11,13 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAStructuredType;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAInvocationTargetException;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
+import nl.buildforce.sequoia.processor.core.modify.JPAInstanceAccessor;
+import nl.buildforce.sequoia.processor.core.modify.JPAInstanceAccessor.Setter;
 import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
 import org.apache.commons.lang3.ArrayUtils;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -154,27 +155,24 @@ public final class JPAModifyUtil {
    */
   public void setAttributes(final Map<String, Object> jpaAttributes, final Object instance, final JPAStructuredType st)
       throws ODataJPAProcessorException, ODataJPAInvocationTargetException {
-    Method[] methods = instance.getClass().getMethods();
-    for (Method meth : methods) {
-      if (meth.getName().startsWith("set")) {
-        String attributeName = meth.getName().substring(3, 4).toLowerCase() + meth.getName().substring(4);
-        if (jpaAttributes.containsKey(attributeName)) {
-          Object value = jpaAttributes.get(attributeName);
-          if (!(value instanceof Map<?, ?>) && !(value instanceof JPARequestEntity)) {
+    final JPAInstanceAccessor accessor = JPAInstanceAccessor.of(instance.getClass());
+    for (final Map.Entry<String, Object> jpaAttribute : jpaAttributes.entrySet()) {
+      final String attributeName = jpaAttribute.getKey();
+      final Object value = jpaAttribute.getValue();
+      if (!(value instanceof Map<?, ?>) && !(value instanceof JPARequestEntity)) {
+        for (final Setter setter : accessor.getSetters(attributeName)) {
+          try {
+            if (value == null || value.getClass() == setter.getParameterType()) {
+              setter.set(instance, value);
+            }
+          } catch (IllegalAccessException | IllegalArgumentException e) {
+            throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+          } catch (InvocationTargetException e) {
             try {
-              Class<?>[] parameters = meth.getParameterTypes();
-              if (parameters.length == 1 && (value == null || value.getClass() == parameters[0])) {
-                meth.invoke(instance, value);
-              }
-            } catch (IllegalAccessException | IllegalArgumentException e) {
-              throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
-            } catch (InvocationTargetException e) {
-              try {
-                throw new ODataJPAInvocationTargetException(e.getCause(), st.getExternalName() + JPAPath.PATH_SEPARATOR
-                    + st.getAttribute(attributeName).getExternalName());
-              } catch (ODataJPAModelException e1) {
-                throw new ODataJPAProcessorException(e1, HttpStatusCode.INTERNAL_SERVER_ERROR);
-              }
+              throw new ODataJPAInvocationTargetException(e.getCause(), st.getExternalName() + JPAPath.PATH_SEPARATOR
+                  + st.getAttribute(attributeName).getExternalName());
+            } catch (ODataJPAModelException e1) {
+              throw new ODataJPAProcessorException(e1, HttpStatusCode.INTERNAL_SERVER_ERROR);
             }
           }
         }
@@ -200,44 +198,42 @@ public final class JPAModifyUtil {
   public void setAttributesDeep(final Map<String, Object> jpaAttributes, final Object instance,
       final JPAStructuredType st) throws ODataJPAProcessorException, ODataJPAInvocationTargetException {
 
-    final Method[] methods = instance.getClass().getMethods();
-    for (final Method meth : methods) {
-      if (meth.getName().startsWith("set")) {
-        final String attributeName = meth.getName().substring(3, 4).toLowerCase() + meth.getName().substring(4);
-        if (jpaAttributes.containsKey(attributeName)) {
-          final Object value = jpaAttributes.get(attributeName);
-          Class<?>[] parameterTypes = meth.getParameterTypes();
-          if (!(value instanceof JPARequestEntity) && parameterTypes.length == 1) {
-            try {
-              final JPAAttribute attribute = st.getAttribute(attributeName);
-              if (!attribute.isComplex() || value == null) {
-                if (value == null || parameterTypes[0].isAssignableFrom(value.getClass())) {
-                  meth.invoke(instance, value);
-                }
-                /* TODO jakarta.persistence.AttributeConverter.convertToEntityAttribute implementation
-                    or convertToEntityAttribute preventing.
-                 */
-                else if (parameterTypes[0].isAssignableFrom(UUID.class))
-                  if (parameterTypes[0].isAssignableFrom(UUID.class) && (value instanceof Byte[]) || value instanceof byte[]) {
-                    ByteBuffer bb = ByteBuffer.wrap((value instanceof Byte[]) ? ( // Bytes wrapped
-                      ArrayUtils.toPrimitive((Byte[]) value)
-                    ) : (  // Primitive bytes
-                      (byte[])value
-                    ));
-                    long high = bb.getLong();
-                    meth.invoke(instance, new UUID(high, bb.getLong()));
-                  }
-              } else if (attribute.isCollection()) {
-                setEmbeddedCollectionAttributeDeep(instance, st, meth, value, parameterTypes, attribute);
-              } else {
-                setEmbeddedAttributeDeep(instance, st, meth, value, parameterTypes, attribute);
+    final JPAInstanceAccessor accessor = JPAInstanceAccessor.of(instance.getClass());
+    for (final Map.Entry<String, Object> jpaAttribute : jpaAttributes.entrySet()) {
+      final String attributeName = jpaAttribute.getKey();
+      final Object value = jpaAttribute.getValue();
+      if (!(value instanceof JPARequestEntity)) {
+        for (final Setter setter : accessor.getSetters(attributeName)) {
+          final Class<?> parameterType = setter.getParameterType();
+          try {
+            final JPAAttribute attribute = st.getAttribute(attributeName);
+            if (!attribute.isComplex() || value == null) {
+              if (value == null || parameterType.isAssignableFrom(value.getClass())) {
+                setter.set(instance, value);
               }
-            } catch (IllegalAccessException | IllegalArgumentException | ODataJPAModelException
-                | NoSuchMethodException | SecurityException | InstantiationException e) {
-              throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
-            } catch (InvocationTargetException | ODataJPAInvocationTargetException e) {
-              handleInvocationTargetException(st, attributeName, e);
+              /* TODO jakarta.persistence.AttributeConverter.convertToEntityAttribute implementation
+                  or convertToEntityAttribute preventing.
+               */
+              else if (parameterType.isAssignableFrom(UUID.class))
+                if (parameterType.isAssignableFrom(UUID.class) && (value instanceof Byte[]) || value instanceof byte[]) {
+                  ByteBuffer bb = ByteBuffer.wrap((value instanceof Byte[]) ? ( // Bytes wrapped
+                    ArrayUtils.toPrimitive((Byte[]) value)
+                  ) : (  // Primitive bytes
+                    (byte[])value
+                  ));
+                  long high = bb.getLong();
+                  setter.set(instance, new UUID(high, bb.getLong()));
+                }
+            } else if (attribute.isCollection()) {
+              setEmbeddedCollectionAttributeDeep(instance, st, setter, value, attribute);
+            } else {
+              setEmbeddedAttributeDeep(instance, st, setter, value, attribute);
             }
+          } catch (IllegalAccessException | IllegalArgumentException | ODataJPAModelException
+              | NoSuchMethodException | SecurityException | InstantiationException e) {
+            throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+          } catch (InvocationTargetException | ODataJPAInvocationTargetException e) {
+            handleInvocationTargetException(st, attributeName, e);
           }
         }
       }
@@ -245,15 +241,15 @@ public final class JPAModifyUtil {
   }
 
   @SuppressWarnings("unchecked")
-  private void setEmbeddedAttributeDeep(final Object instance, final JPAStructuredType st, final Method meth,
-      final Object value, Class<?>[] parameters, final JPAAttribute attribute)
+  private void setEmbeddedAttributeDeep(final Object instance, final JPAStructuredType st, final Setter setter,
+      final Object value, final JPAAttribute attribute)
       throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException,
       ODataJPAModelException, ODataJPAProcessorException, ODataJPAInvocationTargetException {
 
     Object embedded = readCurrentState(instance, attribute);
     if (embedded == null) {
-      embedded = createInstance(parameters[0]);
-      meth.invoke(instance, embedded);
+      embedded = createInstance(setter.getParameterType());
+      setter.set(instance, embedded);
     }
     if (this.st == null)
       this.st = st;
@@ -264,20 +260,20 @@ public final class JPAModifyUtil {
   }
 
   @SuppressWarnings("unchecked")
-  private void setEmbeddedCollectionAttributeDeep(final Object instance, final JPAStructuredType st, final Method meth,
-      final Object value, Class<?>[] parameters, final JPAAttribute attribute)
+  private void setEmbeddedCollectionAttributeDeep(final Object instance, final JPAStructuredType st,
+      final Setter setter, final Object value, final JPAAttribute attribute)
       throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException,
       ODataJPAModelException, ODataJPAProcessorException, ODataJPAInvocationTargetException {
 
     Collection<Object> embedded = (Collection<Object>) readCurrentState(instance, attribute);
     if (embedded == null) {
       // List; Set; Queue
-      if (parameters[0].isAssignableFrom(List.class)) {
+      if (setter.getParameterType().isAssignableFrom(List.class)) {
         embedded = (Collection<Object>) createInstance(ArrayList.class);
       } else {
-        embedded = (Collection<Object>) createInstance(parameters[0]);
+        embedded = (Collection<Object>) createInstance(setter.getParameterType());
       }
-      meth.invoke(instance, embedded);
+      setter.set(instance, embedded);
     }
     if (this.st == null)
       this.st = st;
@@ -327,14 +323,13 @@ public final class JPAModifyUtil {
     for (JPAElement pathItem : pathInfo.getPath()) {
       if (pathItem != pathInfo.getLeaf()) {
         final String methodSuffix = buildMethodNameSuffix(pathItem);
-        final Method getter = source.getClass().getMethod("get" + methodSuffix);
-        Object next = getter.invoke(source);
+        final JPAInstanceAccessor accessor = JPAInstanceAccessor.of(source.getClass());
+        Object next = accessor.getGetter(methodSuffix).get(source);
         if (next == null) {
           try {
             final Constructor<?> c = ((JPAAttribute) pathItem).getStructuredType().getTypeClass().getConstructor();
             next = c.newInstance();
-            final Method setter = source.getClass().getMethod("set" + methodSuffix, next.getClass());
-            setter.invoke(source, next);
+            accessor.getSetter(methodSuffix, next.getClass()).set(source, next);
           } catch (ODataJPAModelException | InstantiationException e) {
             throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
           }
@@ -379,15 +374,15 @@ public final class JPAModifyUtil {
     final String methodSuffix = attribute.getInternalName().substring(0, 1).toUpperCase() + attribute.getInternalName()
         .substring(1);
 
+    final JPAInstanceAccessor accessor = JPAInstanceAccessor.of(sourceInstance.getClass());
     if (attribute.isCollection()) {
-      final Method getter = sourceInstance.getClass().getMethod("get" + methodSuffix);
-      ((Collection<T>) getter.invoke(sourceInstance)).add(targetInstance);
+      ((Collection<T>) accessor.getGetter(methodSuffix).get(sourceInstance)).add(targetInstance);
     } else {
-      Method setter = null;
+      Setter setter = null;
       Class<?> clazz = targetInstance.getClass();
       while (clazz != null && setter == null) {
         try {
-          setter = sourceInstance.getClass().getMethod("set" + methodSuffix, clazz);
+          setter = accessor.getSetter(methodSuffix, clazz);
         } catch (NoSuchMethodException e) {
           clazz = clazz.getSuperclass();
         }
@@ -395,18 +390,15 @@ public final class JPAModifyUtil {
       if (setter == null)
         throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.SETTER_NOT_FOUND, HttpStatusCode.INTERNAL_SERVER_ERROR, "set"
             + methodSuffix, sourceInstance.getClass().getName(), targetInstance.getClass().getName());
-      setter.invoke(sourceInstance, targetInstance);
+      setter.set(sourceInstance, targetInstance);
     }
   }
 
   private void setAttribute(final Object instance, final JPAElement attribute, final Object value)
       throws NoSuchMethodException, ODataJPAProcessorException, IllegalAccessException, InvocationTargetException {
 
-    final Method setter = instance.getClass().getMethod("set" + buildMethodNameSuffix(attribute), value.getClass());
-    if (setter == null)
-      throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.SETTER_NOT_FOUND, HttpStatusCode.INTERNAL_SERVER_ERROR,
-          buildMethodNameSuffix(attribute), instance.getClass().getName(), value.getClass().getName());
-    setter.invoke(instance, value);
+    JPAInstanceAccessor.of(instance.getClass()).getSetter(buildMethodNameSuffix(attribute), value.getClass())
+        .set(instance, value);
   }
 
   /**
@@ -422,11 +414,7 @@ public final class JPAModifyUtil {
   private Object getAttribute(final Object instance, final JPAElement attribute) throws NoSuchMethodException,
       ODataJPAProcessorException, IllegalAccessException, InvocationTargetException {
 
-    final Method getter = instance.getClass().getMethod("get" + buildMethodNameSuffix(attribute));
-    if (getter == null)
-      throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.GETTER_NOT_FOUND, HttpStatusCode.INTERNAL_SERVER_ERROR,
-          buildMethodNameSuffix(attribute), instance.getClass().getName());
-    return getter.invoke(instance);
+    return JPAInstanceAccessor.of(instance.getClass()).getGetter(buildMethodNameSuffix(attribute)).get(instance);
   }
 
   /**
@@ -441,10 +429,7 @@ public final class JPAModifyUtil {
   private Object readCurrentState(final Object instance, final JPAElement attribute) throws NoSuchMethodException,
       IllegalAccessException, InvocationTargetException {
 
-    final Method getter = instance.getClass().getMethod("get" + buildMethodNameSuffix(attribute));
-    if (getter == null)
-      return null;
-    return getter.invoke(instance);
+    return JPAInstanceAccessor.of(instance.getClass()).getGetter(buildMethodNameSuffix(attribute)).get(instance);
   }
 
 }
\ No newline at end of file
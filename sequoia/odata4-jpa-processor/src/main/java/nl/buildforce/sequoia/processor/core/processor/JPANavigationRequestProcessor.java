@@ -3,6 +3,7 @@ package nl.buildforce.sequoia.processor.core.processor;
 import nl.buildforce.olingo.commons.api.data.ComplexValue;
 import nl.buildforce.olingo.commons.api.data.Entity;
 import nl.buildforce.olingo.commons.api.data.EntityCollection;
+import nl.buildforce.olingo.commons.api.data.EntityIterator;
 import nl.buildforce.olingo.commons.api.data.Property;
 import nl.buildforce.olingo.commons.api.ex.ODataException;
 import nl.buildforce.olingo.commons.api.format.ContentType;
@@ -14,23 +15,35 @@ import nl.buildforce.olingo.server.api.ODataRequest;
 import nl.buildforce.olingo.server.api.ODataResponse;
 
 import nl.buildforce.olingo.server.api.ServiceMetadata;
+import nl.buildforce.olingo.server.api.etag.PreconditionException;
 import nl.buildforce.olingo.server.api.serializer.SerializerException;
 import nl.buildforce.olingo.server.api.serializer.SerializerResult;
+import nl.buildforce.olingo.server.api.uri.UriInfo;
 import nl.buildforce.olingo.server.api.uri.UriInfoResource;
 import nl.buildforce.olingo.server.api.uri.UriResource;
 import nl.buildforce.olingo.server.api.uri.UriResourceKind;
 import nl.buildforce.olingo.server.api.uri.UriResourcePartTyped;
 import nl.buildforce.olingo.server.api.uri.queryoption.CountOption;
+import nl.buildforce.olingo.server.api.uri.queryoption.QueryOption;
+import nl.buildforce.olingo.server.api.uri.queryoption.SystemQueryOption;
 import nl.buildforce.olingo.server.api.uri.queryoption.SystemQueryOptionKind;
 
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAAssociationPath;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAException;
+import nl.buildforce.sequoia.processor.core.api.JPACUDRequestHandler;
 import nl.buildforce.sequoia.processor.core.api.JPAODataCRUDContextAccess;
+import nl.buildforce.sequoia.processor.core.api.JPAODataClaimProvider;
+import nl.buildforce.sequoia.processor.core.api.JPAODataGroupProvider;
+import nl.buildforce.sequoia.processor.core.api.JPAODataMetrics;
+import nl.buildforce.sequoia.processor.core.api.JPAODataMetrics.Phase;
 import nl.buildforce.sequoia.processor.core.api.JPAODataPage;
 import nl.buildforce.sequoia.processor.core.api.JPAODataRequestContextAccess;
+import nl.buildforce.sequoia.processor.core.api.JPAODataTransactionFactory;
 import nl.buildforce.sequoia.processor.core.converter.JPAExpandResult;
 import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
+import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessException;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
+import nl.buildforce.sequoia.processor.core.query.JPACachedCountQuery;
 import nl.buildforce.sequoia.processor.core.query.JPACollectionItemInfo;
 import nl.buildforce.sequoia.processor.core.query.JPACollectionJoinQuery;
 import nl.buildforce.sequoia.processor.core.query.JPAConvertibleResult;
@@ -38,39 +51,73 @@ import nl.buildforce.sequoia.processor.core.query.JPAExpandItemInfo;
 import nl.buildforce.sequoia.processor.core.query.JPAExpandItemInfoFactory;
 import nl.buildforce.sequoia.processor.core.query.JPAExpandJoinQuery;
 import nl.buildforce.sequoia.processor.core.query.JPAExpandQueryResult;
+import nl.buildforce.sequoia.processor.core.query.JPAAggregationQueryResult;
 import nl.buildforce.sequoia.processor.core.query.JPAJoinQuery;
 import nl.buildforce.sequoia.processor.core.query.JPAKeyBoundary;
 import nl.buildforce.sequoia.processor.core.query.JPANavigationPropertyInfo;
+import nl.buildforce.sequoia.processor.core.query.JPAStreamQueryResult;
 import nl.buildforce.sequoia.processor.core.query.Util;
+import nl.buildforce.sequoia.processor.core.serializer.JPASerializer;
+import nl.buildforce.sequoia.processor.core.serializer.JPAStreamSerializer;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.FlushModeType;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import static com.google.common.net.HttpHeaders.ETAG;
+import static com.google.common.net.HttpHeaders.IF_MATCH;
+import static com.google.common.net.HttpHeaders.IF_NONE_MATCH;
+import static nl.buildforce.sequoia.processor.core.api.JPAODataMetrics.Phase.SERIALIZATION;
+import static nl.buildforce.sequoia.processor.core.api.JPAODataMetrics.Phase.TUPLE_CONVERSION;
 
 public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestProcessor {
   private final ServiceMetadata serviceMetadata;
   private final UriResource lastItem;
   private final JPAODataPage page;
+  private final JPACachedCountQuery countQuery;
 
   public JPANavigationRequestProcessor(final OData odata, final ServiceMetadata serviceMetadata,
                                        final JPAODataCRUDContextAccess context, final JPAODataRequestContextAccess requestContext)
       throws ODataJPAException {
 
+    this(odata, serviceMetadata, context, requestContext, null);
+  }
+
+  /**
+   * @param countQuery Count of the request, which may have been determined already by server driven paging
+   */
+  JPANavigationRequestProcessor(final OData odata, final ServiceMetadata serviceMetadata,
+      final JPAODataCRUDContextAccess context, final JPAODataRequestContextAccess requestContext,
+      final JPACachedCountQuery countQuery) throws ODataJPAException {
+
     super(odata, context, requestContext);
     this.serviceMetadata = serviceMetadata;
     final List<UriResource> resourceParts = uriInfo.getUriResourceParts();
     this.lastItem = resourceParts.get(resourceParts.size() - 1);
     this.page = requestContext.getPage();
+    this.countQuery = countQuery;
   }
 
   @Override
   public <K extends Comparable<K>> void retrieveData(final ODataRequest request, final ODataResponse response,
                                                      final ContentType responseFormat) throws ODataJPAException, ODataApplicationException, SerializerException {
 
-    // final int handle = debugger.startRuntimeMeasurement(this, "retrieveData");
     // Create a JPQL Query and execute it
     JPAJoinQuery query;
     try {
@@ -79,12 +126,27 @@ public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestPr
       throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_PREPARATION_ERROR, HttpStatusCode.INTERNAL_SERVER_ERROR, e);
     }
 
+    if (isSingleEntityRequest() && hasPreconditions(request) && isNotModified(request, response))
+      return;
+    if (uriInfo.getApplyOption() != null) {
+      retrieveAggregatedData(request, response, responseFormat, query);
+      return;
+    }
+    if (streamingSupported(query)) {
+      retrieveDataStreamed(request, response, responseFormat, query);
+      return;
+    }
     final JPAConvertibleResult result = query.execute();
+    // Keyset paging: the next page starts behind the last entity of this one
+    if (page != null && page.isKeysetPaging() && page.getSkipToken() != null)
+      query.getKeyset().ifPresent(keyset -> sessionContext.getPagingProvider().lastEntityRead(page, keyset));
     // Read Expand and Collection
-    final Optional<JPAKeyBoundary> keyBoundary = result.getKeyBoundary(requestContext, query.getNavigationInfo());
-    result.putChildren(readExpandEntities(request.getAllHeaders(), query.getNavigationInfo(), uriInfo, keyBoundary));
+    final Optional<JPAKeyBoundary> keyBoundary = result.getKeyBoundary(requestContext, query.getNavigationInfo(),
+        sessionContext.getExpandKeyListLimit());
+    result.putChildren(readExpandEntities(request.getAllHeaders(), query.getNavigationInfo(), uriInfo, keyBoundary,
+        requestContext, true));
     // Convert tuple result into an OData Result
-    // final int converterHandle = debugger.startRuntimeMeasurement(this, "convertResult");
+    final long conversionStart = System.nanoTime();
     EntityCollection entityCollection;
     try {
       entityCollection = result.asEntityCollection(new JPATupleChildConverter(sd, odata.createUriHelper(),
@@ -92,13 +154,17 @@ public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestPr
     } catch (ODataApplicationException e) {
       throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_RESULT_CONV_ERROR, HttpStatusCode.INTERNAL_SERVER_ERROR, e);
     }
+    recordDuration(query, TUPLE_CONVERSION, conversionStart);
     // Set Next Link
     entityCollection.setNext(buildNextLink(page));
     // Count results if requested
     final CountOption countOption = uriInfo.getCountOption();
-    if (countOption != null && countOption.getValue())
-      entityCollection.setCount(new JPAJoinQuery(odata, sessionContext, request.getAllHeaders(), requestContext)
-          .countResults().intValue());
+    if (countOption != null && countOption.getValue()) {
+      final Optional<Long> derivedCount = isEntityCollectionRequest()
+          ? query.deriveCount(entityCollection.getEntities().size()) : Optional.empty();
+      entityCollection.setCount(derivedCount.isPresent() ? derivedCount.get().intValue()
+          : countResults(request).intValue());
+    }
 
     /*
      * See part 1:
@@ -127,25 +193,152 @@ public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestPr
       response.setStatusCode(HttpStatusCode.NOT_FOUND.getStatusCode());
     // 200 OK indicates that either a result was found or that the a Entity Collection query had no result
     else if (entityCollection.getEntities() != null) {
-      // final int serializerHandle = debugger.startRuntimeMeasurement(serializer, "serialize");
+      final long serializationStart = System.nanoTime();
       final SerializerResult serializerResult = serializer.serialize(request, entityCollection);
+      recordDuration(query, SERIALIZATION, serializationStart);
       createSuccessResponse(response, responseFormat, serializerResult);
+      if (isSingleEntityRequest() && entityCollection.getEntities().size() == 1
+          && entityCollection.getEntities().get(0).getETag() != null)
+        response.setHeader(ETAG, entityCollection.getEntities().get(0).getETag());
     } else {
       // A request returns 204 No Content if the requested resource has the null value, or if the service applies a
       // return=minimal preference. In this case, the response body MUST be empty.
       response.setStatusCode(HttpStatusCode.NO_CONTENT.getStatusCode());
     }
-    // // debugger.stopRuntimeMeasurement(handle);
+  }
+
+  /**
+   * $apply is answered by the database via GROUP BY. The aggregated rows have neither a key nor navigation properties,
+   * so there is nothing to expand and no keyset to remember.
+   */
+  private void retrieveAggregatedData(final ODataRequest request, final ODataResponse response,
+      final ContentType responseFormat, final JPAJoinQuery query) throws ODataJPAException, ODataApplicationException,
+      SerializerException {
+
+    final JPAAggregationQueryResult result = query.executeAggregation();
+    final EntityCollection entityCollection;
+    try {
+      entityCollection = result.asEntityCollection(new JPATupleChildConverter(sd, odata.createUriHelper(),
+          serviceMetadata));
+    } catch (ODataApplicationException e) {
+      throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_RESULT_CONV_ERROR, HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    }
+    entityCollection.setNext(buildNextLink(page));
+    final CountOption countOption = uriInfo.getCountOption();
+    if (countOption != null && countOption.getValue()) {
+      final Optional<Long> derivedCount = query.deriveCount(entityCollection.getEntities().size());
+      entityCollection.setCount(derivedCount.isPresent() ? derivedCount.get().intValue()
+          : new JPAJoinQuery(odata, sessionContext, request.getAllHeaders(), requestContext).countAggregationResults()
+              .intValue());
+    }
+    createSuccessResponse(response, responseFormat, serializer.serialize(request, entityCollection));
+  }
+
+  /**
+   * Writes an entity collection while it is read from the database. Converted entities are handed over to the
+   * serializer one by one, so neither the converted result nor the serialized response is kept in memory.
+   */
+  private void retrieveDataStreamed(final ODataRequest request, final ODataResponse response,
+      final ContentType responseFormat, final JPAJoinQuery query) throws ODataJPAException, ODataApplicationException,
+      SerializerException {
+
+    // Count first, as the count has to be written before the entities
+    final CountOption countOption = uriInfo.getCountOption();
+    final Integer count = countOption != null && countOption.getValue() ? countResults(request).intValue() : null;
+
+    final JPAStreamQueryResult result = query.executeStreamed();
+    boolean handedOver = false;
+    try {
+      final EntityIterator entities = result.asEntityIterator(new JPATupleChildConverter(sd, odata.createUriHelper(),
+          serviceMetadata));
+      entities.setNext(buildNextLink(page));
+      entities.setCount(count);
+      createSuccessResponse(response, responseFormat, ((JPAStreamSerializer) serializer).serialize(request, entities));
+      // From now on the serializer closes the stream via the iterator
+      handedOver = true;
+    } catch (ODataApplicationException e) {
+      throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_RESULT_CONV_ERROR, HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    } finally {
+      if (!handedOver)
+        result.close();
+    }
+  }
+
+  /**
+   * Uses the count of the request, if it has already been determined by server driven paging.
+   */
+  private Long countResults(final ODataRequest request) throws ODataJPAException, ODataApplicationException {
+    if (countQuery != null)
+      return countQuery.countResults();
+    return new JPAJoinQuery(odata, sessionContext, request.getAllHeaders(), requestContext).countResults();
+  }
+
+  private void recordDuration(final JPAJoinQuery query, final Phase phase, final long start) {
+    final Optional<JPAODataMetrics> metrics = sessionContext.getMetrics();
+    if (metrics.isPresent())
+      metrics.get().recordDuration(query.getEntitySetName(), phase, System.nanoTime() - start);
+  }
+
+  private boolean isSingleEntityRequest() {
+    return (lastItem.getKind() == UriResourceKind.entitySet || lastItem.getKind() == UriResourceKind.navigationProperty)
+        && !((UriResourcePartTyped) lastItem).isCollection();
+  }
+
+  /**
+   * Checks the preconditions of a read request against the current ETag of the entity, before the entity is read.
+   * <code>If-None-Match</code> matching the ETag is answered with <i>304 Not Modified</i>, <code>If-Match</code> not
+   * matching it with <i>412 Precondition Failed</i>. If the entity does not exist, the request is processed as usual.
+   * @return true if the response has been completed with <i>304 Not Modified</i>
+   */
+  private boolean isNotModified(final ODataRequest request, final ODataResponse response)
+      throws ODataJPAProcessException {
+
+    final Optional<String> etag = readEtag(request);
+    if (etag.isPresent()) {
+      try {
+        if (odata.createETagHelper().checkReadPreconditions(etag.get(), request.getHeaders(IF_MATCH),
+            request.getHeaders(IF_NONE_MATCH))) {
+          response.setStatusCode(HttpStatusCode.NOT_MODIFIED.getStatusCode());
+          response.setHeader(ETAG, etag.get());
+          return true;
+        }
+      } catch (PreconditionException e) {
+        throw new ODataJPAProcessorException(e, HttpStatusCode.PRECONDITION_FAILED);
+      }
+    }
+    return false;
+  }
+
+  private boolean isEntityCollectionRequest() {
+    return (lastItem.getKind() == UriResourceKind.entitySet || lastItem.getKind() == UriResourceKind.navigationProperty)
+        && ((UriResourcePartTyped) lastItem).isCollection();
+  }
+
+  /**
+   * Streaming is only possible for collections without $expand and without collection properties, as those need the
+   * complete result of the parent to be read. In addition an empty collection always leads to 200 OK. Keyset paging
+   * needs the last entity of a page, so it is not streamed either.
+   */
+  private boolean streamingSupported(final JPAJoinQuery query) throws ODataJPAException, ODataApplicationException {
+    return sessionContext.useStreamingResponse()
+        && serializer instanceof JPAStreamSerializer
+        && isEntityCollectionRequest()
+        && (page == null || !page.isKeysetPaging())
+        && new JPAExpandItemInfoFactory().buildExpandItemInfo(sd, uriInfo, query.getNavigationInfo()).isEmpty()
+        && new JPAExpandItemInfoFactory().buildCollectionItemInfo(sd, uriInfo, query.getNavigationInfo(),
+            requestContext.getGroupsProvider()).isEmpty();
   }
 
   private URI buildNextLink(final JPAODataPage page) throws ODataJPAProcessorException {
     if (page != null && page.getSkipToken() != null) {
       try {
+        final String queryOptions = sessionContext.getPagingProvider() != null
+            && sessionContext.getPagingProvider().isStateless() ? repeatQueryOptions(page.getUriInfo()) : "";
         if (page.getSkipToken() instanceof String)
-          return new URI(Util.determineTargetEntitySet(uriInfo.getUriResourceParts()).getName() + "?"
+          return new URI(Util.determineTargetEntitySet(uriInfo.getUriResourceParts()).getName() + "?" + queryOptions
               + SystemQueryOptionKind.SKIPTOKEN + "='" + page.getSkipToken() + "'");
         else
-          return new URI(Util.determineTargetEntitySet(uriInfo.getUriResourceParts()).getName() + "?"
+          return new URI(Util.determineTargetEntitySet(uriInfo.getUriResourceParts()).getName() + "?" + queryOptions
               + SystemQueryOptionKind.SKIPTOKEN + "=" + page.getSkipToken().toString());
       } catch (URISyntaxException e) {
         throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.ODATA_MAXPAGESIZE_NOT_A_NUMBER, HttpStatusCode.INTERNAL_SERVER_ERROR, e);
@@ -154,6 +347,32 @@ public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestPr
     return null;
   }
 
+  /**
+   * A stateless paging provider does not know the request of the first page, so the next link has to repeat its query
+   * options. $skip and $top are part of the skiptoken.
+   */
+  private String repeatQueryOptions(final UriInfo pageUriInfo) {
+    final StringBuilder queryOptions = new StringBuilder();
+    final List<QueryOption> options = new ArrayList<>(pageUriInfo.getSystemQueryOptions());
+    options.addAll(pageUriInfo.getAliases());
+    options.addAll(pageUriInfo.getCustomQueryOptions());
+    for (final QueryOption option : options) {
+      if (option instanceof SystemQueryOption
+          && (((SystemQueryOption) option).getKind() == SystemQueryOptionKind.SKIPTOKEN
+              || ((SystemQueryOption) option).getKind() == SystemQueryOptionKind.SKIP
+              || ((SystemQueryOption) option).getKind() == SystemQueryOptionKind.TOP))
+        continue;
+      queryOptions.append(encodeQueryOption(option.getName())).append('=')
+          .append(option.getText() == null ? "null" : encodeQueryOption(option.getText())).append('&');
+    }
+    return queryOptions.toString();
+  }
+
+  private static String encodeQueryOption(final String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20").replace("%24", "$")
+        .replace("%27", "'");
+  }
+
   private boolean complexHasNoContent(final List<Entity> entities) {
     final String name;
     if (entities.isEmpty())
@@ -234,16 +453,20 @@ public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestPr
    * <a href=
    * "http://docs.oasis-open.org/odata/odata/v4.0/errata02/os/complete/part2-url-conventions/odata-v4.0-errata02-os-part2-url-conventions-complete.html#_Toc406398162"
    * >OData Version 4.0 Part 2 - 5.1.2 System Query Option $expand</a> boundary
+   * <p>If the service context provides an expand executor, the branches of one level are read concurrently, each with its
+   * own EntityManager. The levels below a branch are read by the same thread.
    * @param headers
    * @param uriResourceInfo
+   * @param context Request context providing the EntityManager to be used
+   * @param concurrent Branches may be read concurrently
    * @return
    * @throws ODataJPAException
    */
   private Map<JPAAssociationPath, JPAExpandResult> readExpandEntities(final Map<String, List<String>> headers,
                                                                       final List<JPANavigationPropertyInfo> parentHops, final UriInfoResource uriResourceInfo,
-                                                                      final Optional<JPAKeyBoundary> keyBoundary) throws ODataJPAException, ODataApplicationException {
+                                                                      final Optional<JPAKeyBoundary> keyBoundary, final JPAODataRequestContextAccess context,
+                                                                      final boolean concurrent) throws ODataJPAException, ODataApplicationException {
 
-    // final int handle = debugger.startRuntimeMeasurement(this, "readExpandEntities");
     final Map<JPAAssociationPath, JPAExpandResult> allExpResults =
         new HashMap<>();
     // x/a?$expand=b/c($expand=d,e/f)&$filter=...&$top=3&$orderBy=...
@@ -257,27 +480,148 @@ public final class JPANavigationRequestProcessor extends JPAAbstractGetRequestPr
 
     final List<JPAExpandItemInfo> itemInfoList = new JPAExpandItemInfoFactory()
         .buildExpandItemInfo(sd, uriResourceInfo, parentHops);
-    for (final JPAExpandItemInfo item : itemInfoList) {
-      final JPAExpandJoinQuery expandQuery =
-              new JPAExpandJoinQuery(odata, sessionContext, item, headers, requestContext, keyBoundary);
-      final JPAExpandQueryResult expandResult = expandQuery.execute();
-      if (expandResult.getNoResults() > 0)
-        // Only go the next hop if the current one has a result
-        expandResult.putChildren(readExpandEntities(headers, item.getHops(), item.getUriInfo(), keyBoundary));
-      allExpResults.put(item.getExpandAssociation(), expandResult);
-    }
-
     // process collection attributes
     final List<JPACollectionItemInfo> collectionInfoList = new JPAExpandItemInfoFactory()
-        .buildCollectionItemInfo(sd, uriResourceInfo, parentHops, requestContext.getGroupsProvider());
-    for (final JPACollectionItemInfo item : collectionInfoList) {
-      final JPACollectionJoinQuery collectionQuery = new JPACollectionJoinQuery(odata, sessionContext, em, item,
-          headers, new JPAODataRequestContextImpl(item.getUriInfo(), requestContext), keyBoundary);
-      final JPAExpandResult expandResult = collectionQuery.execute();
-      allExpResults.put(item.getExpandAssociation(), expandResult);
+        .buildCollectionItemInfo(sd, uriResourceInfo, parentHops, context.getGroupsProvider());
+
+    final Optional<ExecutorService> executor = sessionContext.getExpandExecutor();
+    final Optional<EntityManagerFactory> emf = sessionContext.getEntityManagerFactory();
+    if (concurrent && executor.isPresent() && emf.isPresent()
+        && itemInfoList.size() + collectionInfoList.size() > 1) {
+      allExpResults.putAll(readExpandEntitiesConcurrent(headers, itemInfoList, collectionInfoList, keyBoundary,
+          executor.get(), emf.get()));
+    } else {
+      for (final JPAExpandItemInfo item : itemInfoList)
+        allExpResults.put(item.getExpandAssociation(), readExpandItem(headers, item, keyBoundary, context, concurrent));
+      for (final JPACollectionItemInfo item : collectionInfoList)
+        allExpResults.put(item.getExpandAssociation(), readCollectionItem(headers, item, keyBoundary, context));
     }
-    // // debugger.stopRuntimeMeasurement(handle);
     return allExpResults;
   }
 
-}
\ No newline at end of file
+  private JPAExpandResult readExpandItem(final Map<String, List<String>> headers, final JPAExpandItemInfo item,
+      final Optional<JPAKeyBoundary> keyBoundary, final JPAODataRequestContextAccess context, final boolean concurrent)
+      throws ODataJPAException, ODataApplicationException {
+
+    final JPAExpandJoinQuery expandQuery =
+        new JPAExpandJoinQuery(odata, sessionContext, item, headers, context, keyBoundary);
+    final JPAExpandQueryResult expandResult = expandQuery.execute();
+    if (expandResult.getNoResults() > 0)
+      // Only go the next hop if the current one has a result
+      expandResult.putChildren(readExpandEntities(headers, item.getHops(), item.getUriInfo(), keyBoundary, context,
+          concurrent));
+    return expandResult;
+  }
+
+  private JPAExpandResult readCollectionItem(final Map<String, List<String>> headers, final JPACollectionItemInfo item,
+      final Optional<JPAKeyBoundary> keyBoundary, final JPAODataRequestContextAccess context)
+      throws ODataJPAException, ODataApplicationException {
+
+    final JPACollectionJoinQuery collectionQuery = new JPACollectionJoinQuery(odata, sessionContext,
+        context.getEntityManager(), item, headers, new JPAODataRequestContextImpl(item.getUriInfo(), context),
+        keyBoundary);
+    return collectionQuery.execute();
+  }
+
+  /**
+   * Reads each branch in a task of its own. An EntityManager is not thread safe, so each task creates one from the
+   * EntityManagerFactory. The results are put together in the order of the branches.
+   */
+  private Map<JPAAssociationPath, JPAExpandResult> readExpandEntitiesConcurrent(final Map<String, List<String>> headers,
+      final List<JPAExpandItemInfo> itemInfoList, final List<JPACollectionItemInfo> collectionInfoList,
+      final Optional<JPAKeyBoundary> keyBoundary, final ExecutorService executor, final EntityManagerFactory emf)
+      throws ODataJPAException, ODataApplicationException {
+
+    // The locales are bound to the thread, so they are handed over to the branches
+    final List<Locale> locales = ODataJPAException.getLocaleList();
+
+    final Map<JPAAssociationPath, Future<JPAExpandResult>> branches = new LinkedHashMap<>();
+    for (final JPAExpandItemInfo item : itemInfoList)
+      branches.put(item.getExpandAssociation(), executor.submit(() -> readBranch(emf, locales,
+          context -> readExpandItem(headers, item, keyBoundary, context, false))));
+    for (final JPACollectionItemInfo item : collectionInfoList)
+      branches.put(item.getExpandAssociation(), executor.submit(() -> readBranch(emf, locales,
+          context -> readCollectionItem(headers, item, keyBoundary, context))));
+
+    final Map<JPAAssociationPath, JPAExpandResult> allExpResults = new HashMap<>();
+    try {
+      for (final Map.Entry<JPAAssociationPath, Future<JPAExpandResult>> branch : branches.entrySet())
+        allExpResults.put(branch.getKey(), branch.getValue().get());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    } catch (ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof ODataApplicationException)
+        throw (ODataApplicationException) cause;
+      if (cause instanceof ODataJPAException)
+        throw (ODataJPAException) cause;
+      if (cause instanceof RuntimeException)
+        throw (RuntimeException) cause;
+      throw new ODataJPAProcessorException(cause, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    } finally {
+      for (final Future<JPAExpandResult> branch : branches.values())
+        branch.cancel(true);
+    }
+    return allExpResults;
+  }
+
+  private JPAExpandResult readBranch(final EntityManagerFactory emf, final List<Locale> locales,
+      final JPAExpandBranch branch) throws ODataJPAException, ODataApplicationException {
+
+    final EntityManager branchEm = emf.createEntityManager();
+    ODataJPAException.setLocaleList(locales);
+    try {
+      // Branches only read, nothing has to be flushed
+      branchEm.setFlushMode(FlushModeType.COMMIT);
+      return branch.read(new JPAExpandBranchContext(requestContext, branchEm));
+    } finally {
+      ODataJPAException.clearLocales();
+      branchEm.close();
+    }
+  }
+
+  @FunctionalInterface
+  private interface JPAExpandBranch {
+    JPAExpandResult read(final JPAODataRequestContextAccess context) throws ODataJPAException,
+        ODataApplicationException;
+  }
+
+  /**
+   * Request context of a concurrently read branch. Same as the one of the request, but with an own EntityManager.
+   */
+  private static final class JPAExpandBranchContext implements JPAODataRequestContextAccess {
+    private final JPAODataRequestContextAccess requestContext;
+    private final EntityManager em;
+
+    private JPAExpandBranchContext(final JPAODataRequestContextAccess requestContext, final EntityManager em) {
+      this.requestContext = requestContext;
+      this.em = em;
+    }
+
+    @Override
+    public EntityManager getEntityManager() { return em; }
+
+    @Override
+    public UriInfoResource getUriInfo() { return requestContext.getUriInfo(); }
+
+    @Override
+    public JPASerializer getSerializer() { return requestContext.getSerializer(); }
+
+    @Override
+    public JPAODataPage getPage() { return requestContext.getPage(); }
+
+    @Override
+    public Optional<JPAODataClaimProvider> getClaimsProvider() { return requestContext.getClaimsProvider(); }
+
+    @Override
+    public Optional<JPAODataGroupProvider> getGroupsProvider() { return requestContext.getGroupsProvider(); }
+
+    @Override
+    public JPACUDRequestHandler getCUDRequestHandler() { return requestContext.getCUDRequestHandler(); }
+
+    @Override
+    public JPAODataTransactionFactory getTransactionFactory() { return requestContext.getTransactionFactory(); }
+  }
+
+}
@@ -15,10 +15,12 @@ import nl.buildforce.olingo.server.api.uri.queryoption.SystemQueryOptionKind;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAException;
 import nl.buildforce.sequoia.processor.core.api.JPAODataCRUDContextAccess;
 import nl.buildforce.sequoia.processor.core.api.JPAODataPage;
+import nl.buildforce.sequoia.processor.core.api.JPAODataPagingProvider;
 import nl.buildforce.sequoia.processor.core.api.JPAODataRequestContextAccess;
 import nl.buildforce.sequoia.processor.core.exception.JPAIllegalAccessException;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
 import nl.buildforce.sequoia.processor.core.modify.JPAConversionHelper;
+import nl.buildforce.sequoia.processor.core.query.JPACachedCountQuery;
 import nl.buildforce.sequoia.processor.core.query.JPACountQuery;
 import nl.buildforce.sequoia.processor.core.query.JPAJoinQuery;
 import nl.buildforce.sequoia.processor.core.serializer.JPASerializerFactory;
@@ -81,8 +83,10 @@ public final class JPAProcessorFactory {
 
     final List<UriResource> resourceParts = uriInfo.getUriResourceParts();
     final UriResource lastItem = resourceParts.get(resourceParts.size() - 1);
-    final JPAODataPage page = getPage(header, uriInfo, context);
-    JPAODataRequestContextAccess requestContext;
+    final JPACachedCountQuery pageCount = new JPACachedCountQuery(() -> countResults(header,
+        new JPAODataRequestContextImpl(uriInfo, context)));
+    final JPAODataPage page = getPage(header, uriInfo, pageCount);
+    final JPAODataRequestContextAccess requestContext;
     try {
       requestContext = new JPAODataRequestContextImpl(page,
               serializerFactory.createSerializer(responseFormat,
@@ -92,10 +96,13 @@ public final class JPAProcessorFactory {
     } catch (SerializerException | JPAIllegalAccessException | ODataApplicationException e) {
       throw new ODataJPAProcessorException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
     }
+    // A page of a next link belongs to the request of the first page, so its count can't be taken over
+    final JPACachedCountQuery countQuery = page.getUriInfo() == uriInfo ? pageCount
+        : new JPACachedCountQuery(() -> countResults(header, requestContext));
 
     switch (lastItem.getKind()) {
       case count:
-        return new JPACountRequestProcessor(odata, sessionContext, requestContext);
+        return new JPACountRequestProcessor(odata, sessionContext, requestContext, countQuery);
       case function:
         checkFunctionPathSupported(resourceParts);
         return new JPAFunctionRequestProcessor(odata, sessionContext, requestContext);
@@ -105,7 +112,7 @@ public final class JPAProcessorFactory {
       case entitySet:
       case value:
         checkNavigationPathSupported(resourceParts);
-        return new JPANavigationRequestProcessor(odata, serviceMetadata, sessionContext, requestContext);
+        return new JPANavigationRequestProcessor(odata, serviceMetadata, sessionContext, requestContext, countQuery);
       default:
         throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.NOT_SUPPORTED_RESOURCE_TYPE,
             HttpStatusCode.NOT_IMPLEMENTED, lastItem.getKind().toString());
@@ -130,22 +137,31 @@ public final class JPAProcessorFactory {
     }
   }
 
+  private Long countResults(final Map<String, List<String>> headers, final JPAODataRequestContextAccess requestContext)
+      throws ODataApplicationException {
+    try {
+      return new JPAJoinQuery(odata, sessionContext, headers, requestContext).countResults();
+    } catch (ODataJPAException e) {
+      throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_PREPARATION_ERROR,
+          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    }
+  }
+
   private JPAODataPage getPage(final Map<String, List<String>> headers, final UriInfo uriInfo,
-      final JPAODataRequestContextAccess requestContext) throws ODataJPAException, ODataApplicationException {
+      final JPACountQuery countQuery) throws ODataJPAException, ODataApplicationException {
 
     JPAODataPage page = new JPAODataPage(uriInfo, 0, Integer.MAX_VALUE, null);
     // Server-Driven-Paging
     if (serverDrivenPaging(uriInfo)) {
       final String skiptoken = skipToken(uriInfo);
       if (StringUtils.isEmpty(skiptoken)) {
-        final JPACountQuery countQuery = new JPAJoinQuery(odata, sessionContext, headers,
-            new JPAODataRequestContextImpl(uriInfo, requestContext));
         final Integer preferredPagesize = getPreferredPageSize(headers);
         final JPAODataPage firstPage = sessionContext.getPagingProvider()
                 .getFirstPage(uriInfo, preferredPagesize, countQuery/*, requestContext.getEntityManager()*/);
         page = firstPage != null ? firstPage : page;
       } else {
-        page = sessionContext.getPagingProvider().getNextPage(skiptoken);
+        final JPAODataPagingProvider provider = sessionContext.getPagingProvider();
+        page = provider.isStateless() ? provider.getNextPage(skiptoken, uriInfo) : provider.getNextPage(skiptoken);
         if (page == null)
           throw new ODataJPAProcessorException(ODataJPAProcessorException.MessageKeys.QUERY_SERVER_DRIVEN_PAGING_GONE, HttpStatusCode.GONE, skiptoken);
       }
@@ -6,6 +6,7 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAAttribute;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPACollectionAttribute;
 // import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPADescriptionAttribute;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAElement;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntitySet;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAStructuredType;
@@ -13,8 +14,10 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAExceptio
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.sequoia.processor.core.api.JPAODataCRUDContextAccess;
 import nl.buildforce.sequoia.processor.core.api.JPAODataClaimProvider;
+import nl.buildforce.sequoia.processor.core.api.JPAODataMetrics;
 import nl.buildforce.sequoia.processor.core.api.JPAODataPage;
 import nl.buildforce.sequoia.processor.core.api.JPAODataRequestContextAccess;
+import nl.buildforce.sequoia.processor.core.database.JPAODataDatabaseSearch;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAQueryException;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAQueryException.MessageKeys;
@@ -29,6 +32,7 @@ import jakarta.persistence.criteria.From;
 import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.JoinType;
 import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import jakarta.persistence.criteria.Selection;
 import jakarta.persistence.Tuple;
@@ -69,10 +73,14 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import static nl.buildforce.sequoia.processor.core.api.JPAODataMetrics.Phase.CRITERIA_BUILD;
+import static nl.buildforce.sequoia.processor.core.api.JPAODataMetrics.Phase.SQL_EXECUTION;
 import static nl.buildforce.sequoia.processor.core.exception.ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_NOT_ALLOWED_MEMBER;
 
 public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery implements JPAQuery {
   protected static final String ALIAS_SEPARATOR = ".";
+  /** Maximum number of values of one IN condition; e.g. Oracle does not accept more than 1000. */
+  protected static final int KEY_LIST_CHUNK_SIZE = 1000;
   protected final UriInfoResource uriResource;
   protected final CriteriaQuery<Tuple> cq;
   protected Root<?> root;
@@ -82,6 +90,7 @@ public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery implements J
   protected final List<JPANavigationPropertyInfo> navigationInfo;
   protected final JPANavigationPropertyInfo lastInfo;
   protected final JPAODataRequestContextAccess requestContext;
+  private String entitySetName;
 
   public JPAAbstractJoinQuery(final OData odata, final JPAODataCRUDContextAccess sessionContext,
       final JPAEntityType jpaEntityType, final JPAODataRequestContextAccess requestContext,
@@ -118,6 +127,39 @@ public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery implements J
     return target;
   }
 
+  /**
+   * @return Name of the entity set the query reads from, which groups the measurements of the query
+   */
+  public String getEntitySetName() {
+    if (entitySetName == null) {
+      JPAEntitySet entitySet = null;
+      try {
+        entitySet = sd.getEntitySet(jpaEntity);
+      } catch (ODataJPAModelException e) {
+        // Measurements are grouped by the entity type instead
+      }
+      entitySetName = entitySet != null ? entitySet.getExternalName() : jpaEntity.getExternalName();
+    }
+    return entitySetName;
+  }
+
+  /**
+   * Records the time needed to build the query, the time needed to execute it and the number of rows read, if metrics
+   * are requested.
+   * @param start Start of the query build
+   * @param executionStart Start of the query execution
+   * @param rows
+   */
+  protected void recordExecution(final long start, final long executionStart, final int rows) {
+    final Optional<JPAODataMetrics> metrics = context.getMetrics();
+    if (metrics.isPresent()) {
+      final long end = System.nanoTime();
+      metrics.get().recordDuration(getEntitySetName(), CRITERIA_BUILD, executionStart - start);
+      metrics.get().recordDuration(getEntitySetName(), SQL_EXECUTION, end - executionStart);
+      metrics.get().recordRows(getEntitySetName(), rows);
+    }
+  }
+
   /**
    * Applies the $skip and $top options of the OData request to the query. The values are defined as follows:
    * <ul>
@@ -307,7 +349,6 @@ public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery implements J
 
     // TODO Functions and orderBy: Part 1 - 11.5.3.1 Invoking a Function
 
-    // final int handle = debugger.startRuntimeMeasurement(this, "createOrderByList");
     final List<Order> orders = new ArrayList<>();
     if (orderByOption != null) {
       try {
@@ -355,7 +396,6 @@ public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery implements J
       // Ensure results get ordered by primary key. By this it is ensured that the results will match the sub-select
       // results for $expand with $skip and $top
 
-    // // debugger.stopRuntimeMeasurement(handle);
     return orders;
   }
 
@@ -397,7 +437,6 @@ public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery implements J
       final Collection<JPAPath> requestedProperties, final From<?, ?> target, final List<String> groups)
       throws ODataApplicationException { // NOSONAR Allow subclasses to throw an exception
 
-    // final int handle = debugger.startRuntimeMeasurement(this, "createSelectClause");
     final List<Selection<?>> selections = new ArrayList<>();
 
     // Build select clause
@@ -408,14 +447,12 @@ public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery implements J
         selections.add(p);
       }
     }
-    // // debugger.stopRuntimeMeasurement(handle);
     return selections;
   }
 
   protected jakarta.persistence.criteria.Expression<Boolean> createWhere(final UriInfoResource uriInfo,
       final List<JPANavigationPropertyInfo> navigationInfo) throws ODataApplicationException {
 
-    // final int handle = debugger.startRuntimeMeasurement(this, "createWhere");
     jakarta.persistence.criteria.Expression<Boolean> whereCondition;
     // Given keys: Organizations('1')/Roles(...)
     try {
@@ -437,9 +474,9 @@ public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery implements J
 
     if (uriInfo.getSearchOption() != null && uriInfo.getSearchOption().getSearchExpression() != null)
       whereCondition = addWhereClause(whereCondition,
-          context.getDatabaseProcessor().createSearchWhereClause());
+          context.getSearchIndex().map(JPAODataDatabaseSearch.class::cast).orElseGet(context::getDatabaseProcessor)
+              .createSearchWhereClause(cb, this.cq, target, jpaEntity, uriInfo.getSearchOption()));
 
-    // // debugger.stopRuntimeMeasurement(handle);
     return whereCondition;
   }
 
@@ -834,13 +871,7 @@ public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery implements J
       final JPANavigationPropertyInfo naviInfo = info.get(keyBoundary.get().getNoHops() - 1);
       try {
         final JPAEntityType et = naviInfo.getEntityType();
-        final From<?, ?> f = naviInfo.getFromClause();
-
-        if (keyBoundary.get().getKeyBoundary().hasUpperBoundary()) {
-          return createBoundaryWithUpper(et, f, keyBoundary.get().getKeyBoundary());
-        } else {
-          return createBoundaryEquals(et, f, keyBoundary.get().getKeyBoundary());
-        }
+        return new CriteriaKeyBoundaryCondition(et, naviInfo.getFromClause()).create(et.getKey(), keyBoundary.get());
       } catch (ODataJPAModelException e) {
         throw new ODataJPAQueryException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
       }
@@ -848,56 +879,117 @@ public abstract class JPAAbstractJoinQuery extends JPAAbstractQuery implements J
     return null;
   }
 
+  /**
+   * Number of leading hops that are restricted by the keys of the entities read before. Their key predicates and
+   * filters need not to be evaluated again.
+   */
+  protected final int determineHopsRestrictedByKeys(final Optional<JPAKeyBoundary> keyBoundary) {
+    return keyBoundary.isPresent() && keyBoundary.get().hasKeys() ? keyBoundary.get().getNoHops() : 0;
+  }
+
+  /**
+   * Restricts the result to the entities following the last entity of the previous page. Criteria API does not support
+   * row value comparisons like (a, b) > (a', b'), so it is expanded, e.g. for $orderby=a desc,b: (a < a') OR (a = a'
+   * AND b > b').
+   * @param joinTables
+   * @param keysetOrder properties to compare, with true in case they are sorted descending
+   * @param keyset values of the last entity, by alias of the property
+   * @return
+   */
   @SuppressWarnings("unchecked")
-  private <Y extends Comparable<? super Y>> jakarta.persistence.criteria.Expression<Boolean> createBoundaryWithUpper(
-      final JPAEntityType et,
-      final From<?, ?> f, final JPAKeyPair jpaKeyPair)
-      throws ODataJPAModelException {
+  protected <Y extends Comparable<? super Y>> jakarta.persistence.criteria.Expression<Boolean> createKeysetBoundary(
+      final Map<String, From<?, ?>> joinTables, final Map<JPAPath, Boolean> keysetOrder,
+      final Map<String, Object> keyset) {
+
+    jakarta.persistence.criteria.Expression<Boolean> boundary = null;
+    jakarta.persistence.criteria.Expression<Boolean> equalBefore = null;
+    for (final Entry<JPAPath, Boolean> item : keysetOrder.entrySet()) {
+      final Path<Y> keysetPath = (Path<Y>) ExpressionUtil.convertToCriteriaPath(joinTables, target, item.getKey()
+          .getPath());
+      final Y value = (Y) keyset.get(item.getKey().getAlias());
+      final jakarta.persistence.criteria.Expression<Boolean> behind = Boolean.TRUE.equals(item.getValue())
+          ? cb.lessThan(keysetPath, value) : cb.greaterThan(keysetPath, value);
+      final jakarta.persistence.criteria.Expression<Boolean> part = equalBefore == null ? behind
+          : cb.and(equalBefore, behind);
+      boundary = boundary == null ? part : cb.or(boundary, part);
+      final jakarta.persistence.criteria.Expression<Boolean> equal = cb.equal(keysetPath, value);
+      equalBefore = equalBefore == null ? equal : cb.and(equalBefore, equal);
+    }
+    return boundary;
+  }
 
-    final List<JPAAttribute> keyElements = et.getKey();
-    jakarta.persistence.criteria.Expression<Boolean> lowerExpression = null;
-    jakarta.persistence.criteria.Expression<Boolean> upperExpression = null;
-    for (int primaryIndex = 0; primaryIndex < keyElements.size(); primaryIndex++) {
-      for (int secondaryIndex = primaryIndex; secondaryIndex < keyElements.size(); secondaryIndex++) {
-        final JPAAttribute keyElement = keyElements.get(secondaryIndex);
-        final Path<Y> keyPath = (Path<Y>) ExpressionUtil.convertToCriteriaPath(f,
-            et.getPath(keyElement.getExternalName()).getPath());
-        final Y lowerBoundary = jpaKeyPair.getMinElement(keyElement);
-        final Y upperBoundary = jpaKeyPair.getMaxElement(keyElement);
-        if (secondaryIndex == primaryIndex) {
-          if (primaryIndex == 0) {
-            lowerExpression = cb.greaterThanOrEqualTo(keyPath, lowerBoundary);
-            upperExpression = cb.lessThanOrEqualTo(keyPath, upperBoundary);
-          } else {
-            lowerExpression = cb.or(lowerExpression, cb.greaterThan(keyPath, lowerBoundary));
-            upperExpression = cb.or(upperExpression, cb.lessThan(keyPath, upperBoundary));
-          }
-        } else {
-          lowerExpression = cb.and(lowerExpression, cb.equal(keyPath, lowerBoundary));
-          upperExpression = cb.and(upperExpression, cb.equal(keyPath, upperBoundary));
-        }
-      }
+  /**
+   * Creates the key boundary condition as criteria predicate on the given from clause.
+   */
+  private class CriteriaKeyBoundaryCondition extends JPAKeyBoundaryCondition<Predicate> {
+    private final JPAEntityType et;
+    private final From<?, ?> from;
 
+    private CriteriaKeyBoundaryCondition(final JPAEntityType et, final From<?, ?> from) {
+      super(KEY_LIST_CHUNK_SIZE);
+      this.et = et;
+      this.from = from;
     }
-    return cb.and(lowerExpression, upperExpression);
-  }
 
-  @SuppressWarnings("unchecked")
-  private <Y extends Comparable<? super Y>> jakarta.persistence.criteria.Expression<Boolean> createBoundaryEquals(
-      final JPAEntityType et, final From<?, ?> f, final JPAKeyPair jpaKeyPair) throws ODataJPAModelException {
+    @Override
+    protected Predicate equal(final JPAAttribute keyElement, final Object value)
+        throws ODataJPAModelException {
+      return cb.equal(keyPath(keyElement), value);
+    }
 
-    jakarta.persistence.criteria.Expression<Boolean> whereCondition = null;
-    for (final JPAAttribute keyElement : et.getKey()) {
-      final Path<Y> keyPath = (Path<Y>) ExpressionUtil.convertToCriteriaPath(f, et.getPath(keyElement.getExternalName())
-          .getPath());
-      final Expression<Boolean> eqFragment = cb.equal(keyPath, jpaKeyPair.getMin().get(
-          keyElement));
-      if (whereCondition == null)
-        whereCondition = eqFragment;
-      else
-        whereCondition = cb.and(whereCondition, eqFragment);
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Predicate greaterThanOrEqualTo(final JPAAttribute keyElement, final Object value)
+        throws ODataJPAModelException {
+      final Path<Comparable<Object>> keyPath = keyPath(keyElement);
+      return cb.greaterThanOrEqualTo(keyPath, (Comparable<Object>) value);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Predicate lessThanOrEqualTo(final JPAAttribute keyElement, final Object value)
+        throws ODataJPAModelException {
+      final Path<Comparable<Object>> keyPath = keyPath(keyElement);
+      return cb.lessThanOrEqualTo(keyPath, (Comparable<Object>) value);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Predicate greaterThan(final JPAAttribute keyElement, final Object value)
+        throws ODataJPAModelException {
+      final Path<Comparable<Object>> keyPath = keyPath(keyElement);
+      return cb.greaterThan(keyPath, (Comparable<Object>) value);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Predicate lessThan(final JPAAttribute keyElement, final Object value)
+        throws ODataJPAModelException {
+      final Path<Comparable<Object>> keyPath = keyPath(keyElement);
+      return cb.lessThan(keyPath, (Comparable<Object>) value);
+    }
+
+    @Override
+    protected Predicate in(final JPAAttribute keyElement, final List<Object> values)
+        throws ODataJPAModelException {
+      return keyPath(keyElement).in(values);
+    }
+
+    @Override
+    protected Predicate and(final Predicate left, final Predicate right) {
+      return cb.and(left, right);
+    }
+
+    @Override
+    protected Predicate or(final List<Predicate> conditions) {
+      return cb.or(conditions.toArray(new Predicate[0]));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <Y> Path<Y> keyPath(final JPAAttribute keyElement)
+        throws ODataJPAModelException {
+      return (Path<Y>) ExpressionUtil.convertToCriteriaPath(from, et.getPath(keyElement.getExternalName()).getPath());
     }
-    return whereCondition;
   }
 
 }
\ No newline at end of file
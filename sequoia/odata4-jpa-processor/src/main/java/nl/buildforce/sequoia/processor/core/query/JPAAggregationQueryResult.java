@@ -0,0 +1,45 @@
+package nl.buildforce.sequoia.processor.core.query;
+
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
+import nl.buildforce.sequoia.processor.core.converter.JPATupleAggregationConverter;
+import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
+import nl.buildforce.olingo.commons.api.data.EntityCollection;
+import nl.buildforce.olingo.server.api.ODataApplicationException;
+
+import jakarta.persistence.Tuple;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static nl.buildforce.sequoia.processor.core.converter.JPAExpandResult.ROOT_RESULT_KEY;
+
+/**
+ * Result of an $apply request. Each row contains the values of the grouping properties and the aggregated values.
+ */
+public final class JPAAggregationQueryResult {
+  private final List<Tuple> rows;
+  private final JPAEntityType jpaEntityType;
+  private final Collection<JPAPath> groupingPath;
+
+  public JPAAggregationQueryResult(final List<Tuple> rows, final JPAEntityType jpaEntityType,
+      final Collection<JPAPath> groupingPath) {
+
+    Objects.requireNonNull(jpaEntityType);
+    this.rows = rows;
+    this.jpaEntityType = jpaEntityType;
+    this.groupingPath = groupingPath;
+  }
+
+  public EntityCollection asEntityCollection(final JPATupleChildConverter converter)
+      throws ODataApplicationException {
+
+    final Map<JPAJoinKey, List<Tuple>> result = new HashMap<>(1);
+    result.put(ROOT_RESULT_KEY, rows);
+    return new JPATupleAggregationConverter(converter).getResult(new JPAExpandQueryResult(result, null,
+        jpaEntityType, groupingPath), groupingPath).get(ROOT_RESULT_KEY);
+  }
+}
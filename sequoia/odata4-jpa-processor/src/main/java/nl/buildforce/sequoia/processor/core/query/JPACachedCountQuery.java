@@ -0,0 +1,24 @@
+package nl.buildforce.sequoia.processor.core.query;
+
+import nl.buildforce.olingo.server.api.ODataApplicationException;
+
+/**
+ * Counts the results of a request at most once. Server driven paging and $count=true need the same number, so the
+ * count determined for the one is taken over by the other. In case the count can be derived from the result of the
+ * data query, see {@link JPAJoinQuery#deriveCount(int)}, no count query is executed at all.
+ */
+public final class JPACachedCountQuery implements JPACountQuery {
+  private final JPACountQuery countQuery;
+  private Long count;
+
+  public JPACachedCountQuery(final JPACountQuery countQuery) {
+    this.countQuery = countQuery;
+  }
+
+  @Override
+  public Long countResults() throws ODataApplicationException {
+    if (count == null)
+      count = countQuery.countResults();
+    return count;
+  }
+}
@@ -9,6 +9,7 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAExceptio
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.sequoia.processor.core.api.JPAODataCRUDContextAccess;
 import nl.buildforce.sequoia.processor.core.api.JPAODataRequestContextAccess;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAQueryException;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAQueryException.MessageKeys;
 import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
@@ -39,7 +40,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-import static java.util.stream.Collectors.joining;
 
 public class JPACollectionJoinQuery extends JPAAbstractJoinQuery {
   private final JPAAssociationPath association;
@@ -57,13 +57,11 @@ public class JPACollectionJoinQuery extends JPAAbstractJoinQuery {
 
   @Override
   public JPACollectionQueryResult execute() throws ODataApplicationException {
-    // final int handle = debugger.startRuntimeMeasurement(this, "executeStandardQuery");
     try {
       final TypedQuery<Tuple> tupleQuery = createTupleQuery();
-      //final int resultHandle = debugger.startRuntimeMeasurement(tupleQuery, "getResultList");
       final List<Tuple> intermediateResult = tupleQuery.getResultList();
 
-      Map<String, List<Tuple>> result = convertResult(intermediateResult, association, 0, Long.MAX_VALUE);
+      Map<JPAJoinKey, List<Tuple>> result = convertResult(intermediateResult, association, 0, Long.MAX_VALUE);
 
       try {
         final Set<JPAPath> requestedSelection = new HashSet<>();
@@ -155,7 +153,6 @@ public class JPACollectionJoinQuery extends JPAAbstractJoinQuery {
       throws ODataApplicationException { // NOSONAR Allow
     // subclasses to throw an exception
 
-    // final int handle = debugger.startRuntimeMeasurement(this, "createSelectClause");
     final List<Selection<?>> selections = new ArrayList<>();
     // Based on an error in Eclipse Link first the join columns have to be selected. Otherwise the alias is assigned to
     // the wrong column. E.g. if Organization Comment shall be read Eclipse Link automatically selects also the Order
@@ -172,12 +169,11 @@ public class JPACollectionJoinQuery extends JPAAbstractJoinQuery {
       }
     }
 
-    // // debugger.stopRuntimeMeasurement(handle);
     return selections;
   }
 
   /**
-   * Splits up a expand results, so it is returned as a map that uses a concatenation of the field values know by the
+   * Splits up a expand results, so it is returned as a map that uses the join key of the field values know by the
    * parent.
    * @param intermediateResult
    * @param associationPath
@@ -186,51 +182,18 @@ public class JPACollectionJoinQuery extends JPAAbstractJoinQuery {
    * @return
    * @throws ODataApplicationException
    */
-  Map<String, List<Tuple>> convertResult(final List<Tuple> intermediateResult, final JPAAssociationPath associationPath,
-      final long skip, final long top) throws ODataApplicationException {
-    String joinKey = "";
-    long skipped = 0;
-    long taken = 0;
-
-    List<Tuple> subResult = null;
-    final Map<String, List<Tuple>> convertedResult = new HashMap<>();
-    for (final Tuple row : intermediateResult) {
-      String actualKey;
-      try {
-        actualKey = buildConcatenatedKey(row, associationPath);
-      } catch (ODataJPAModelException e) {
-        throw new ODataJPAQueryException(e, HttpStatusCode.BAD_REQUEST);
-      }
-
-      if (!actualKey.equals(joinKey)) {
-        subResult = new ArrayList<>();
-        convertedResult.put(actualKey, subResult);
-        joinKey = actualKey;
-        skipped = taken = 0;
-      }
-      if (skipped >= skip && taken < top) {
-        taken += 1;
-        subResult.add(row);
-      } else {
-        skipped += 1;
-      }
-    }
-    return convertedResult;
+  Map<JPAJoinKey, List<Tuple>> convertResult(final List<Tuple> intermediateResult,
+      final JPAAssociationPath associationPath, final long skip, final long top) throws ODataApplicationException {
+    return createJoinKey(associationPath).group(intermediateResult, skip, top);
   }
 
-  private String buildConcatenatedKey(final Tuple row, final JPAAssociationPath associationPath)
-      throws ODataJPAModelException {
-
-    if (associationPath.getJoinTable() == null) {
-      final List<JPAPath> joinColumns = associationPath.getRightColumnsList();
-      return joinColumns.stream()
-          .map(c -> (row.get(c.getAlias())).toString())
-          .collect(joining(JPAPath.PATH_SEPARATOR));
-    } else {
-      final List<JPAPath> joinColumns = associationPath.getLeftColumnsList();
-      return joinColumns.stream()
-          .map(c -> (row.get(association.getAlias() + ALIAS_SEPARATOR + c.getAlias())).toString())
-          .collect(joining(JPAPath.PATH_SEPARATOR));
+  private JPAJoinKey.Builder createJoinKey(final JPAAssociationPath associationPath) throws ODataApplicationException {
+    try {
+      if (associationPath.getJoinTable() == null)
+        return JPAJoinKey.builder(associationPath.getRightColumnsList());
+      return JPAJoinKey.builder(association.getAlias() + ALIAS_SEPARATOR, associationPath.getLeftColumnsList());
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(e, HttpStatusCode.BAD_REQUEST);
     }
   }
 
@@ -258,7 +221,6 @@ public class JPACollectionJoinQuery extends JPAAbstractJoinQuery {
   }
 
   private TypedQuery<Tuple> createTupleQuery() throws ODataApplicationException, JPANoSelectionException {
-    // final int handle = debugger.startRuntimeMeasurement(this, "createTupleQuery");
 
     final Collection<JPAPath> selectionPath = buildSelectionPathList(this.uriResource);
     final Map<String, From<?, ?>> joinTables = createFromClause(new ArrayList<>(1), selectionPath,
@@ -274,24 +236,23 @@ public class JPACollectionJoinQuery extends JPAAbstractJoinQuery {
     orderBy.addAll(createOrderByList(joinTables, null));
     cq.orderBy(orderBy);
 
-    // // debugger.stopRuntimeMeasurement(handle);
     return em.createQuery(cq);
   }
 
   private Expression<Boolean> createWhere() throws ODataApplicationException {
 
-    // final int handle = debugger.startRuntimeMeasurement(this, "createWhere");
-
     Expression<Boolean> whereCondition;
     // Given keys: Organizations('1')/Roles(...)
+    final List<JPANavigationPropertyInfo> unrestrictedHops = navigationInfo.subList(determineHopsRestrictedByKeys(
+        keyBoundary), navigationInfo.size());
     try {
-      whereCondition = createKeyWhere(navigationInfo);
+      whereCondition = createKeyWhere(unrestrictedHops);
       whereCondition = addWhereClause(whereCondition, createBoundary(navigationInfo, keyBoundary));
     } catch (ODataApplicationException e) {
       throw e;
     }
 
-    for (JPANavigationPropertyInfo info : this.navigationInfo) {
+    for (JPANavigationPropertyInfo info : unrestrictedHops) {
       if (info.getFilterCompiler() != null) {
         try {
           whereCondition = addWhereClause(whereCondition, info.getFilterCompiler().compile());
@@ -301,7 +262,6 @@ public class JPACollectionJoinQuery extends JPAAbstractJoinQuery {
         }
       }
     }
-    // // debugger.stopRuntimeMeasurement(handle);
     return whereCondition;
   }
 
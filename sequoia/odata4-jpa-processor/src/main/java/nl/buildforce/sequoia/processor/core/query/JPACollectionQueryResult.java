@@ -6,6 +6,7 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
 import nl.buildforce.sequoia.processor.core.converter.JPACollectionResult;
 import nl.buildforce.sequoia.processor.core.converter.JPAExpandResult;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
 import nl.buildforce.olingo.commons.api.data.Entity;
 import nl.buildforce.olingo.commons.api.data.EntityCollection;
@@ -21,12 +22,12 @@ import java.util.List;
 import java.util.Map;
 
 public class JPACollectionQueryResult implements JPACollectionResult, JPAConvertibleResult {
-  private static final Map<String, List<Tuple>> EMPTY_RESULT;
+  private static final Map<JPAJoinKey, List<Tuple>> EMPTY_RESULT;
 
   private final Map<JPAAssociationPath, JPAExpandResult> childrenResult;
-  private final Map<String, List<Tuple>> jpaResult;
-  private Map<String, List<Object>> collectionResult;
-  private final Map<String, Long> counts;
+  private final Map<JPAJoinKey, List<Tuple>> jpaResult;
+  private Map<JPAJoinKey, List<Object>> collectionResult;
+  private final Map<JPAJoinKey, Long> counts;
   private final JPAEntityType jpaEntityType;
   private final JPAAssociationPath association;
   private final Collection<JPAPath> requestedSelection;
@@ -42,7 +43,7 @@ public class JPACollectionQueryResult implements JPACollectionResult, JPAConvert
    * @see JPATupleChildConverter
    * @return
    */
-  private static Map<String, List<Tuple>> putEmptyResult() {
+  private static Map<JPAJoinKey, List<Tuple>> putEmptyResult() {
     EMPTY_RESULT.put(ROOT_RESULT_KEY, Collections.emptyList());
     return EMPTY_RESULT;
   }
@@ -53,7 +54,7 @@ public class JPACollectionQueryResult implements JPACollectionResult, JPAConvert
     this(putEmptyResult(), Collections.emptyMap(), jpaEntityType, association, selectionPath);
   }
 
-  public JPACollectionQueryResult(final Map<String, List<Tuple>> result, final Map<String, Long> counts,
+  public JPACollectionQueryResult(final Map<JPAJoinKey, List<Tuple>> result, final Map<JPAJoinKey, Long> counts,
       final JPAEntityType jpaEntityType, final JPAAssociationPath association,
       final Collection<JPAPath> selectionPath) {
     this.childrenResult = new HashMap<>(1);
@@ -65,10 +66,10 @@ public class JPACollectionQueryResult implements JPACollectionResult, JPAConvert
   }
 
   @Override
-  public Map<String, EntityCollection> asEntityCollection(JPATupleChildConverter converter)
+  public Map<JPAJoinKey, EntityCollection> asEntityCollection(JPATupleChildConverter converter)
       throws ODataApplicationException {
     this.collectionResult = converter.getCollectionResult(this, requestedSelection);
-    final Map<String, EntityCollection> result = new HashMap<>(1);
+    final Map<JPAJoinKey, EntityCollection> result = new HashMap<>(1);
     final EntityCollection collection = new EntityCollection();
     final Entity odataEntity = new Entity();
     final JPAAttribute leaf = (JPAAttribute) association.getPath().get(association.getPath().size() - 1);
@@ -106,12 +107,12 @@ public class JPACollectionQueryResult implements JPACollectionResult, JPAConvert
   }
 
   @Override
-  public Long getCount(final String key) {
+  public Long getCount(final JPAJoinKey key) {
     return counts != null ? counts.get(key) : null;
   }
 
   @Override
-  public EntityCollection getEntityCollection(String key) {
+  public EntityCollection getEntityCollection(JPAJoinKey key) {
     // Not needed yet. Collections with navigation properties not supported
     return new EntityCollection();
   }
@@ -122,17 +123,17 @@ public class JPACollectionQueryResult implements JPACollectionResult, JPAConvert
   }
 
   @Override
-  public List<Object> getPropertyCollection(final String key) {
+  public List<Object> getPropertyCollection(final JPAJoinKey key) {
     return collectionResult.getOrDefault(key, Collections.emptyList());
   }
 
   @Override
-  public List<Tuple> getResult(final String key) {
+  public List<Tuple> getResult(final JPAJoinKey key) {
     return jpaResult.get(key);
   }
 
   @Override
-  public Map<String, List<Tuple>> getResults() {
+  public Map<JPAJoinKey, List<Tuple>> getResults() {
     return jpaResult;
   }
 
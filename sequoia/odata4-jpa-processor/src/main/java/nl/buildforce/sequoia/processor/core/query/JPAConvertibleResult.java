@@ -3,6 +3,7 @@ package nl.buildforce.sequoia.processor.core.query;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAAssociationPath;
 import nl.buildforce.sequoia.processor.core.api.JPAODataRequestContextAccess;
 import nl.buildforce.sequoia.processor.core.converter.JPAExpandResult;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAQueryException;
 import nl.buildforce.olingo.commons.api.data.EntityCollection;
@@ -20,7 +21,7 @@ public interface JPAConvertibleResult {
    * @return
    * @throws ODataApplicationException
    */
-  Map<String, EntityCollection> asEntityCollection(final JPATupleChildConverter converter)
+  Map<JPAJoinKey, EntityCollection> asEntityCollection(final JPATupleChildConverter converter)
       throws ODataApplicationException;
 
   void putChildren(final Map<JPAAssociationPath, JPAExpandResult> childResults) throws ODataApplicationException;
@@ -31,7 +32,7 @@ public interface JPAConvertibleResult {
    * @return
    * @throws ODataApplicationException
    */
-  EntityCollection getEntityCollection(final String key) throws ODataApplicationException;
+  EntityCollection getEntityCollection(final JPAJoinKey key) throws ODataApplicationException;
 
   /**
    * Returns a key pair if the query had $top and/or $skip and the key of the entity implements {@link Comparable}.
@@ -44,4 +45,19 @@ public interface JPAConvertibleResult {
       final List<JPANavigationPropertyInfo> hops) throws ODataJPAQueryException {
     return Optional.empty();
   }
+
+  /**
+   * Returns the keys of all entities read if there are not more than <code>keyListLimit</code> of them and dependent
+   * queries are needed. Otherwise the key pair is returned, see {@link #getKeyBoundary(JPAODataRequestContextAccess,
+   * List)}.
+   * @param requestContext
+   * @param hops
+   * @param keyListLimit
+   * @return
+   * @throws ODataJPAQueryException
+   */
+  default Optional<JPAKeyBoundary> getKeyBoundary(JPAODataRequestContextAccess requestContext,
+      final List<JPANavigationPropertyInfo> hops, final int keyListLimit) throws ODataJPAQueryException {
+    return getKeyBoundary(requestContext, hops);
+  }
 }
\ No newline at end of file
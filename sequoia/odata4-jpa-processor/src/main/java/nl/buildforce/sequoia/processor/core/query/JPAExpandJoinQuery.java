@@ -1,6 +1,7 @@
 package nl.buildforce.sequoia.processor.core.query;
 
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAAssociationPath;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAAttribute;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAElement;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAOnConditionItem;
@@ -8,16 +9,32 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAException;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.sequoia.processor.core.api.JPAODataCRUDContextAccess;
+import nl.buildforce.sequoia.processor.core.api.JPAODataDatabaseProcessor;
+import nl.buildforce.sequoia.processor.core.api.JPAODataMetrics;
 import nl.buildforce.sequoia.processor.core.api.JPAODataRequestContextAccess;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
+import nl.buildforce.sequoia.processor.core.converter.JPATuple;
+import nl.buildforce.sequoia.processor.core.database.JPAODataDatabaseExpandLimit;
+import nl.buildforce.sequoia.processor.core.exception.ODataJPAFilterException;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAQueryException;
 import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
 import nl.buildforce.olingo.server.api.OData;
 import nl.buildforce.olingo.server.api.ODataApplicationException;
 import nl.buildforce.olingo.server.api.uri.UriInfoResource;
+import nl.buildforce.olingo.server.api.uri.UriParameter;
 import nl.buildforce.olingo.server.api.uri.UriResource;
+import nl.buildforce.olingo.server.api.uri.UriResourceComplexProperty;
 import nl.buildforce.olingo.server.api.uri.UriResourceCount;
+import nl.buildforce.olingo.server.api.uri.UriResourcePrimitiveProperty;
+import nl.buildforce.olingo.server.api.uri.UriResourceProperty;
+import nl.buildforce.olingo.server.api.uri.queryoption.OrderByItem;
 import nl.buildforce.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
+import nl.buildforce.olingo.server.api.uri.queryoption.expression.Member;
 
+import jakarta.persistence.Entity;
+import jakarta.persistence.Query;
+import jakarta.persistence.SecondaryTable;
+import jakarta.persistence.Table;
 import jakarta.persistence.Tuple;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaQuery;
@@ -27,17 +44,22 @@ import jakarta.persistence.criteria.Order;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Selection;
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
-import static java.util.stream.Collectors.joining;
 
 /**
  * A query to retrieve the expand entities.<p> According to
@@ -54,8 +76,14 @@ import static java.util.stream.Collectors.joining;
  */
 public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
   private final JPAAssociationPath association;
+  private static final Set<Class<?>> NATIVE_TYPES = Set.of(String.class, Character.class, char.class,
+      Integer.class, int.class, Long.class, long.class, Short.class, short.class, Byte.class, byte.class,
+      Double.class, double.class, Float.class, float.class, BigDecimal.class, BigInteger.class, Boolean.class,
+      boolean.class, LocalDate.class, LocalDateTime.class, LocalTime.class, java.util.Date.class,
+      java.sql.Date.class, java.sql.Timestamp.class, java.sql.Time.class);
   private final Optional<JPAKeyBoundary> keyBoundary;
   private TypedQuery<Tuple> tupleQuery;
+  private Set<JPAPath> selectionPath;
 
   public JPAExpandJoinQuery(final OData odata, final JPAODataCRUDContextAccess sessionContext,
       final JPAInlineItemInfo item, final Map<String, List<String>> requestHeaders,
@@ -86,29 +114,42 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
    * the first/least/max row per group in SQL</a>. Often databases offer the option to use <code>ROW_NUMBER</code>
    * together with <code>OVER ... ORDER BY</code> see e.g. <a
    * href="http://www.sqltutorial.org/sql-window-functions/sql-row_number/">SQL ROW_NUMBER</a>.
-   * Unfortunately this is not supported by JPA.
+   * Unfortunately this is not supported by JPA. Therefore the database processor is asked to provide a native query,
+   * see {@link JPAODataDatabaseExpandLimit}. If it does not, or the request is too complex for a native query, all
+   * expanded entities are read and the not requested once are thrown away.
    * @return query result
    * @throws ODataApplicationException
    */
   @Override
   public JPAExpandQueryResult execute() throws ODataApplicationException {
-    // final int handle = debugger.startRuntimeMeasurement(this, "execute");
-
+    final long start = System.nanoTime();
     long skip = 0;
     long top = Long.MAX_VALUE;
     try {
       tupleQuery = createTupleQuery();
+      final long executionStart = System.nanoTime();
 
-      // final int resultHandle = debugger.startRuntimeMeasurement(tupleQuery, "getResultList");
-      final List<Tuple> intermediateResult = tupleQuery.getResultList();
       if (uriResource.getTopOption() != null || uriResource.getSkipOption() != null) {
-        // Simplest solution for the problem. Read all and throw away, what is not requested
         if (uriResource.getSkipOption() != null)
           skip = uriResource.getSkipOption().getValue();
         if (uriResource.getTopOption() != null)
           top = uriResource.getTopOption().getValue();
       }
-      final Map<String, List<Tuple>> result = convertResult(intermediateResult, association, skip, top);
+      List<Tuple> intermediateResult = null;
+      if (skip != 0 || top != Long.MAX_VALUE) {
+        // Ask the database to restrict the rows per parent. Only the requested rows are returned
+        intermediateResult = executeLimitQuery(skip, top);
+        if (intermediateResult != null) {
+          skip = 0;
+          top = Long.MAX_VALUE;
+        }
+      }
+      if (intermediateResult == null)
+        // Simplest solution for the problem. Read all and throw away, what is not requested
+        intermediateResult = tupleQuery.getResultList();
+      recordExecution(start, executionStart, intermediateResult.size());
+      final Map<JPAJoinKey, List<Tuple>> result = convertResult(intermediateResult, association, skip, top);
+      recordFanOut(result);
 
       final Set<JPAPath> requestedSelection = new HashSet<>();
       buildSelectionAddNavigationAndSelect(uriResource, requestedSelection, uriResource.getSelectOption());
@@ -123,6 +164,14 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
     }
   }
 
+  private void recordFanOut(final Map<JPAJoinKey, List<Tuple>> result) {
+    final Optional<JPAODataMetrics> metrics = context.getMetrics();
+    if (metrics.isPresent()) {
+      for (final List<Tuple> children : result.values())
+        metrics.get().recordExpandFanOut(getEntitySetName(), children.size());
+    }
+  }
+
   /**
    * Returns the generated SQL string after the query has been executed, otherwise an empty string.<br>
    * As of now this is only supported for EclipseLink
@@ -175,7 +224,7 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
   }
 
   /**
-   * Splits up a expand results, so it is returned as a map that uses a concatenation of the field values know by the
+   * Splits up a expand results, so it is returned as a map that uses the join key of the field values know by the
    * parent.
    * @param intermediateResult
    * @param associationPath
@@ -184,53 +233,18 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
    * @return
    * @throws ODataApplicationException
    */
-  Map<String, List<Tuple>> convertResult(final List<Tuple> intermediateResult, final JPAAssociationPath associationPath,
-      final long skip, final long top) throws ODataApplicationException {
-    String joinKey = "";
-    long skiped = 0;
-    long taken = 0;
-
-    List<Tuple> subResult = null;
-    final Map<String, List<Tuple>> convertedResult = new HashMap<>();
-    for (final Tuple row : intermediateResult) {
-      String actualKey;
-      try {
-        actualKey = buildConcatenatedKey(row, associationPath);
-      } catch (ODataJPAModelException e) {
-        throw new ODataJPAQueryException(e, HttpStatusCode.BAD_REQUEST);
-      }
-
-      if (!actualKey.equals(joinKey)) {
-        subResult = new ArrayList<>();
-        convertedResult.put(actualKey, subResult);
-        joinKey = actualKey;
-        skiped = taken = 0;
-      }
-      if (skiped >= skip && taken < top) {
-        taken += 1;
-        subResult.add(row);
-      } else {
-        skiped += 1;
-      }
-    }
-    return convertedResult;
+  Map<JPAJoinKey, List<Tuple>> convertResult(final List<Tuple> intermediateResult,
+      final JPAAssociationPath associationPath, final long skip, final long top) throws ODataApplicationException {
+    return createJoinKey(associationPath).group(intermediateResult, skip, top);
   }
 
-  private String buildConcatenatedKey(final Tuple row, final JPAAssociationPath associationPath)
-      throws ODataJPAModelException {
-
-    if (associationPath.getJoinTable() == null) {
-      final List<JPAPath> joinColumns = associationPath.getRightColumnsList();
-      return joinColumns.stream()
-          .map(c -> (row.get(c
-              .getAlias()))
-                  .toString())
-          .collect(joining(JPAPath.PATH_SEPARATOR));
-    } else {
-      final List<JPAPath> joinColumns = associationPath.getLeftColumnsList();
-      return joinColumns.stream()
-          .map(c -> (row.get(association.getAlias() + ALIAS_SEPARATOR + c.getAlias())).toString())
-          .collect(joining(JPAPath.PATH_SEPARATOR));
+  private JPAJoinKey.Builder createJoinKey(final JPAAssociationPath associationPath) throws ODataApplicationException {
+    try {
+      if (associationPath.getJoinTable() == null)
+        return JPAJoinKey.builder(associationPath.getRightColumnsList());
+      return JPAJoinKey.builder(association.getAlias() + ALIAS_SEPARATOR, associationPath.getLeftColumnsList());
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(e, HttpStatusCode.BAD_REQUEST);
     }
   }
 
@@ -263,22 +277,17 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
     return selections;
   }
 
-  private Map<String, Long> convertCountResult(List<Tuple> intermediateResult) throws ODataJPAQueryException {
-    final Map<String, Long> result = new HashMap<>();
+  private Map<JPAJoinKey, Long> convertCountResult(List<Tuple> intermediateResult) throws ODataApplicationException {
+    final Map<JPAJoinKey, Long> result = new HashMap<>();
+    final JPAJoinKey.Builder keyBuilder = createJoinKey(association);
     for (Tuple row : intermediateResult) {
-      try {
-        final String actualKey = buildConcatenatedKey(row, association);
-        final Long count = (Long) row.get("$count");
-        result.put(actualKey, count);
-      } catch (ODataJPAModelException e) {
-        throw new ODataJPAQueryException(e, HttpStatusCode.BAD_REQUEST);
-      }
+      final Long count = (Long) row.get("$count");
+      result.put(keyBuilder.get(row), count);
     }
     return result;
   }
 
-  private Map<String, Long> count() throws ODataApplicationException {
-    //final int handle = debugger.startRuntimeMeasurement(this, "count");
+  private Map<JPAJoinKey, Long> count() throws ODataApplicationException {
     final List<UriResource> uriResourceParts = uriResource.getUriResourceParts();
     if (uriResource.getCountOption() != null
         || uriResourceParts != null
@@ -299,7 +308,6 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
       List<Tuple> intermediateResult = query.getResultList();
       return convertCountResult(intermediateResult);
     }
-    // // debugger.stopRuntimeMeasurement(handle);
     return null;
   }
 
@@ -327,9 +335,7 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
   }
 
   private TypedQuery<Tuple> createTupleQuery() throws ODataApplicationException, JPANoSelectionException {
-    // final int handle = debugger.startRuntimeMeasurement(this, "createTupleQuery");
-
-    final Set<JPAPath> selectionPath = buildSelectionPathList(this.uriResource);
+    selectionPath = buildSelectionPathList(this.uriResource);
     final Map<String, From<?, ?>> joinTables = createFromClause(new ArrayList<>(1),
         selectionPath, cq, lastInfo);
 
@@ -345,32 +351,31 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
     cq.orderBy(orderBy);
     // TODO group by also at $expand
 
-    // // debugger.stopRuntimeMeasurement(handle);
     return em.createQuery(cq);
   }
 
   private Expression<Boolean> createWhere() throws ODataApplicationException {
 
-    // final int handle = debugger.startRuntimeMeasurement(this, "createWhere");
-
     Expression<Boolean> whereCondition;
     // Given keys: Organizations('1')/Roles(...)
     try {
-      whereCondition = createKeyWhere(navigationInfo);
+      final List<JPANavigationPropertyInfo> unrestrictedHops = navigationInfo.subList(determineHopsRestrictedByKeys(
+          keyBoundary), navigationInfo.size());
+      whereCondition = createKeyWhere(unrestrictedHops);
       whereCondition = addWhereClause(whereCondition, createBoundary(navigationInfo, keyBoundary));
-      whereCondition = addWhereClause(whereCondition, createExpandWhere());
+      whereCondition = addWhereClause(whereCondition, createExpandWhere(unrestrictedHops));
       whereCondition = addWhereClause(whereCondition, createProtectionWhere(claimsProvider));
     } catch (ODataApplicationException e) {
       throw e;
     }
-    // // // debugger.stopRuntimeMeasurement(handle);
     return whereCondition;
   }
 
-  private Expression<Boolean> createExpandWhere() throws ODataApplicationException {
+  private Expression<Boolean> createExpandWhere(final List<JPANavigationPropertyInfo> hops)
+      throws ODataApplicationException {
 
     Expression<Boolean> whereCondition = null;
-    for (JPANavigationPropertyInfo info : this.navigationInfo) {
+    for (JPANavigationPropertyInfo info : hops) {
       if (info.getFilterCompiler() != null) {
         try {
           whereCondition = addWhereClause(whereCondition, info.getFilterCompiler().compile());
@@ -404,4 +409,335 @@ public final class JPAExpandJoinQuery extends JPAAbstractJoinQuery {
     }
   }
 
-}
\ No newline at end of file
+  /**
+   * Reads the expanded entities with a native query that applies $skip and $top per parent.
+   * @return the rows or null if the database processor does not support this or the request contains options that can
+   * not be converted into native SQL
+   */
+  private List<Tuple> executeLimitQuery(final long skip, final long top) throws ODataApplicationException {
+
+    try {
+      final JPAODataDatabaseProcessor dbProcessor = context.getDatabaseProcessor();
+      final String tableName = determineTableName(jpaEntity.getTypeClass());
+      final Map<String, String> parentColumns = determineParentColumns();
+      if (dbProcessor == null || tableName == null || parentColumns == null || !limitQuerySupported())
+        return null;
+
+      // Column name -> paths that are read from that column
+      final Map<String, List<JPAPath>> columns = new LinkedHashMap<>();
+      final List<String> partition = new ArrayList<>();
+      final List<String> orderBy = new ArrayList<>();
+      for (final JPAPath path : association.getRightColumnsList()) {
+        partition.add(path.getDBFieldName());
+        addLimitQueryColumn(columns, path);
+      }
+      if (uriResource.getOrderByOption() != null) {
+        for (final OrderByItem item : uriResource.getOrderByOption().getOrders()) {
+          final JPAPath path = determineOrderByPath(item);
+          if (path == null)
+            return null;
+          orderBy.add(path.getDBFieldName() + (item.isDescending() ? " DESC" : " ASC"));
+          addLimitQueryColumn(columns, path);
+        }
+      }
+      // Ensure a stable order, so the same $skip returns the same entities. Partition columns are constant anyhow
+      for (final JPAPath path : jpaEntity.getKeyPath()) {
+        if (!columns.containsKey(path.getDBFieldName()))
+          orderBy.add(path.getDBFieldName() + " ASC");
+        addLimitQueryColumn(columns, path);
+      }
+      for (final JPAPath path : selectionPath) {
+        if (!limitQueryColumnSupported(path))
+          return null;
+        addLimitQueryColumn(columns, path);
+      }
+
+      final List<Object> parameter = new ArrayList<>();
+      final String where = createLimitQueryWhere(parentColumns, parameter);
+      final Optional<String> sql = dbProcessor.createExpandLimitQuery(tableName, new ArrayList<>(columns.keySet()),
+          partition, orderBy, where, skip, top);
+      if (sql.isEmpty())
+        return null;
+
+      final Query query = em.createNativeQuery(sql.get());
+      for (int i = 0; i < parameter.size(); i++)
+        query.setParameter(i + 1, parameter.get(i));
+      final List<?> rows = query.getResultList();
+      final List<Tuple> result = new ArrayList<>(rows.size());
+      for (final Object row : rows) {
+        final Object[] values = columns.size() == 1 ? new Object[] { row } : (Object[]) row;
+        final JPATuple tuple = new JPATuple();
+        int index = 0;
+        for (final List<JPAPath> paths : columns.values()) {
+          for (final JPAPath path : paths) {
+            final Class<?> type = path.getLeaf().getType();
+            tuple.addElement(path.getAlias(), type, convertNativeValue(values[index], type));
+          }
+          index++;
+        }
+        result.add(tuple);
+      }
+      return result;
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * Only a plain expand of an entity set, optional with keys, can be converted. Filter, search and protections would
+   * need the complete criteria machinery.
+   */
+  private boolean limitQuerySupported() throws ODataJPAModelException {
+    if (association.getJoinTable() != null
+        || navigationInfo.size() != 2
+        || keyBoundary.isPresent() && keyBoundary.get().getNoHops() != 1
+        || uriResource.getFilterOption() != null
+        || uriResource.getSearchOption() != null)
+      return false;
+    final UriInfoResource rootUriInfo = navigationInfo.get(0).getUriInfo();
+    if (determineHopsRestrictedByKeys(keyBoundary) == 0 && rootUriInfo != null
+        && (rootUriInfo.getFilterOption() != null || rootUriInfo.getSearchOption() != null))
+      return false;
+    for (final JPANavigationPropertyInfo info : navigationInfo) {
+      if (!info.getEntityType().getProtections().isEmpty())
+        return false;
+    }
+    return true;
+  }
+
+  /**
+   * Determines for each key attribute of the parent the column of the expanded entity it is joined with.
+   * @return the columns by key alias or null if not all keys are part of the join condition
+   */
+  private Map<String, String> determineParentColumns() throws ODataJPAModelException {
+    final Map<String, String> parentColumns = new HashMap<>();
+    for (final JPAPath keyPath : navigationInfo.get(0).getEntityType().getKeyPath()) {
+      for (final JPAOnConditionItem item : association.getJoinColumnsList()) {
+        if (item.getLeftPath().getAlias().equals(keyPath.getAlias())
+            && keyPath.getLeaf().getConverter() == null)
+          parentColumns.put(keyPath.getAlias(), item.getRightPath().getDBFieldName());
+      }
+      if (!parentColumns.containsKey(keyPath.getAlias()))
+        return null;
+    }
+    return parentColumns;
+  }
+
+  /**
+   * The native query reads from one table. This excludes entities with a secondary table or being part of an
+   * inheritance hierarchy.
+   */
+  private String determineTableName(final Class<?> entityClass) {
+    final Table table = entityClass.getAnnotation(Table.class);
+    if (table == null || entityClass.getAnnotation(SecondaryTable.class) != null)
+      return null;
+    for (Class<?> superClass = entityClass.getSuperclass(); superClass != null; superClass = superClass
+        .getSuperclass()) {
+      if (superClass.getAnnotation(Entity.class) != null)
+        return null;
+    }
+    return table.schema().isEmpty() ? table.name() : table.schema() + "." + table.name();
+  }
+
+  private JPAPath determineOrderByPath(final OrderByItem item) throws ODataJPAModelException {
+    if (!(item.getExpression() instanceof Member))
+      return null;
+    final StringBuilder externalPath = new StringBuilder();
+    for (final UriResource uriResourceItem : ((Member) item.getExpression()).getResourcePath().getUriResourceParts()) {
+      if (!(uriResourceItem instanceof UriResourcePrimitiveProperty
+          || uriResourceItem instanceof UriResourceComplexProperty)
+          || ((UriResourceProperty) uriResourceItem).isCollection())
+        return null;
+      if (externalPath.length() > 0)
+        externalPath.append(JPAPath.PATH_SEPARATOR);
+      externalPath.append(((UriResourceProperty) uriResourceItem).getProperty().getName());
+    }
+    final JPAPath path = jpaEntity.getPath(externalPath.toString());
+    return path != null && path.isPartOfGroups(groups) && limitQueryColumnSupported(path) ? path : null;
+  }
+
+  private boolean limitQueryColumnSupported(final JPAPath path) {
+    final JPAAttribute leaf = path.getLeaf();
+    return !leaf.isAssociation() && !leaf.isCollection() && !leaf.isComplex() && !leaf.isEnum()
+        && leaf.getConverter() == null && NATIVE_TYPES.contains(leaf.getType());
+  }
+
+  private void addLimitQueryColumn(final Map<String, List<JPAPath>> columns, final JPAPath path) {
+    final List<JPAPath> paths = columns.computeIfAbsent(path.getDBFieldName(), k -> new ArrayList<>(1));
+    if (!paths.contains(path))
+      paths.add(path);
+  }
+
+  /**
+   * Mirrors the restrictions of the parent given by the key predicates and the key boundary, see
+   * {@link #createKeyWhere(List)} and {@link #createBoundary(List, Optional)}. The latter is created from the same
+   * {@link JPAKeyBoundaryCondition}.
+   */
+  private String createLimitQueryWhere(final Map<String, String> parentColumns, final List<Object> parameter)
+      throws ODataJPAModelException, ODataJPAFilterException {
+
+    final JPANavigationPropertyInfo parentInfo = navigationInfo.get(0);
+    final JPAEntityType parentType = parentInfo.getEntityType();
+    final NativeKeyBoundaryCondition boundaryCondition = new NativeKeyBoundaryCondition(parentType, parentColumns);
+    NativeCondition whereCondition = null;
+    if (determineHopsRestrictedByKeys(keyBoundary) == 0 && parentInfo.getKeyPredicates() != null) {
+      for (final UriParameter keyPredicate : parentInfo.getKeyPredicates()) {
+        final JPAPath keyPath = parentType.getPath(keyPredicate.getName());
+        final NativeCondition keyCondition = boundaryCondition.equal(keyPath.getLeaf(), ExpressionUtil
+            .convertValueOnAttribute(odata, keyPath.getLeaf(), keyPredicate.getText()));
+        whereCondition = whereCondition == null ? keyCondition : boundaryCondition.and(whereCondition, keyCondition);
+      }
+    }
+    if (keyBoundary.isPresent()) {
+      final NativeCondition keyCondition = boundaryCondition.create(parentType.getKey(), keyBoundary.get());
+      whereCondition = whereCondition == null ? keyCondition : boundaryCondition.and(whereCondition, keyCondition);
+    }
+    if (whereCondition == null)
+      return "";
+    parameter.addAll(whereCondition.parameter);
+    // Number the parameter in the order they appear
+    final StringBuilder where = new StringBuilder();
+    int count = 0;
+    for (final char c : whereCondition.sql.toCharArray()) {
+      where.append(c);
+      if (c == '?')
+        where.append(++count);
+    }
+    return where.toString();
+  }
+
+  /**
+   * Part of the where condition of a native query together with the values of its parameter, in the order they appear.
+   */
+  private static final class NativeCondition {
+    private final String sql;
+    private final List<Object> parameter;
+
+    private NativeCondition(final String sql, final List<Object> parameter) {
+      this.sql = sql;
+      this.parameter = parameter;
+    }
+  }
+
+  /**
+   * Native counterpart of the key boundary condition created by {@link #createBoundary(List, Optional)}. The key
+   * attributes of the parent are replaced by the columns of the expanded entity they are joined with.
+   */
+  private static final class NativeKeyBoundaryCondition extends JPAKeyBoundaryCondition<NativeCondition> {
+    private final JPAEntityType parentType;
+    private final Map<String, String> parentColumns;
+
+    private NativeKeyBoundaryCondition(final JPAEntityType parentType, final Map<String, String> parentColumns) {
+      super(KEY_LIST_CHUNK_SIZE);
+      this.parentType = parentType;
+      this.parentColumns = parentColumns;
+    }
+
+    @Override
+    protected NativeCondition equal(final JPAAttribute keyElement, final Object value)
+        throws ODataJPAModelException {
+      return compare(keyElement, " = ?", value);
+    }
+
+    @Override
+    protected NativeCondition greaterThanOrEqualTo(final JPAAttribute keyElement, final Object value)
+        throws ODataJPAModelException {
+      return compare(keyElement, " >= ?", value);
+    }
+
+    @Override
+    protected NativeCondition lessThanOrEqualTo(final JPAAttribute keyElement, final Object value)
+        throws ODataJPAModelException {
+      return compare(keyElement, " <= ?", value);
+    }
+
+    @Override
+    protected NativeCondition greaterThan(final JPAAttribute keyElement, final Object value)
+        throws ODataJPAModelException {
+      return compare(keyElement, " > ?", value);
+    }
+
+    @Override
+    protected NativeCondition lessThan(final JPAAttribute keyElement, final Object value)
+        throws ODataJPAModelException {
+      return compare(keyElement, " < ?", value);
+    }
+
+    @Override
+    protected NativeCondition in(final JPAAttribute keyElement, final List<Object> values)
+        throws ODataJPAModelException {
+      final StringBuilder sql = new StringBuilder(column(keyElement)).append(" IN (");
+      for (int i = 0; i < values.size(); i++)
+        sql.append(i == 0 ? "?" : ", ?");
+      return new NativeCondition(sql.append(')').toString(), values);
+    }
+
+    @Override
+    protected NativeCondition and(final NativeCondition left, final NativeCondition right) {
+      return combine(" AND ", List.of(left, right));
+    }
+
+    @Override
+    protected NativeCondition or(final List<NativeCondition> conditions) {
+      return combine(" OR ", conditions);
+    }
+
+    private NativeCondition compare(final JPAAttribute keyElement, final String operator, final Object value)
+        throws ODataJPAModelException {
+      return new NativeCondition(column(keyElement) + operator, Collections.singletonList(value));
+    }
+
+    private NativeCondition combine(final String operator, final List<NativeCondition> conditions) {
+      final StringBuilder sql = new StringBuilder("(");
+      final List<Object> parameter = new ArrayList<>();
+      for (final NativeCondition condition : conditions) {
+        if (sql.length() > 1)
+          sql.append(operator);
+        sql.append(condition.sql);
+        parameter.addAll(condition.parameter);
+      }
+      return new NativeCondition(sql.append(')').toString(), parameter);
+    }
+
+    private String column(final JPAAttribute keyElement) throws ODataJPAModelException {
+      return parentColumns.get(parentType.getPath(keyElement.getExternalName()).getAlias());
+    }
+  }
+
+  /**
+   * JDBC drivers return values in the type of the column, which may differ from the type of the attribute. E.g.
+   * a SMALLINT is returned as Integer or a DATE as java.sql.Date.
+   */
+  static Object convertNativeValue(final Object value, final Class<?> type) {
+    if (value == null || type.isInstance(value))
+      return value;
+    if (value instanceof Number) {
+      final Number number = (Number) value;
+      if (type == Integer.class || type == int.class) return number.intValue();
+      if (type == Long.class || type == long.class) return number.longValue();
+      if (type == Short.class || type == short.class) return number.shortValue();
+      if (type == Byte.class || type == byte.class) return number.byteValue();
+      if (type == Double.class || type == double.class) return number.doubleValue();
+      if (type == Float.class || type == float.class) return number.floatValue();
+      if (type == BigDecimal.class) return new BigDecimal(number.toString());
+      if (type == BigInteger.class) return new BigDecimal(number.toString()).toBigInteger();
+      if (type == Boolean.class || type == boolean.class) return number.intValue() != 0;
+    } else if (value instanceof java.sql.Timestamp) {
+      if (type == LocalDateTime.class) return ((java.sql.Timestamp) value).toLocalDateTime();
+      if (type == LocalDate.class) return ((java.sql.Timestamp) value).toLocalDateTime().toLocalDate();
+    } else if (value instanceof java.sql.Date) {
+      if (type == LocalDate.class) return ((java.sql.Date) value).toLocalDate();
+      if (type == LocalDateTime.class) return ((java.sql.Date) value).toLocalDate().atStartOfDay();
+    } else if (value instanceof java.sql.Time) {
+      if (type == LocalTime.class) return ((java.sql.Time) value).toLocalTime();
+    } else if (value instanceof Boolean) {
+      if (type == boolean.class) return value;
+    } else if (value instanceof Character || value instanceof String) {
+      if (type == String.class) return value.toString();
+      if ((type == Character.class || type == char.class) && value.toString().length() == 1)
+        return value.toString().charAt(0);
+    }
+    return value;
+  }
+
+}
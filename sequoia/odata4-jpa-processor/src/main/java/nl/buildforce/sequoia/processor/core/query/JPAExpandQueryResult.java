@@ -7,6 +7,7 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.sequoia.processor.core.api.JPAODataRequestContextAccess;
 import nl.buildforce.sequoia.processor.core.converter.JPAExpandResult;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAQueryException;
 import nl.buildforce.olingo.commons.api.data.EntityCollection;
@@ -18,6 +19,7 @@ import nl.buildforce.olingo.server.api.uri.queryoption.SelectOption;
 
 import jakarta.persistence.Tuple;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -31,15 +33,16 @@ import java.util.stream.Collectors;
 /**
  * Builds a hierarchy of expand results. One instance contains on the one hand of the result itself, a map which has the
  * join columns values of the parent as its key and on the other hand a map that point the results of the next expand.
- * The join columns are concatenated in the order they are stored in the corresponding Association Path.
+ * The key is a {@link JPAJoinKey} of the join columns in the order they are stored in the corresponding Association
+ * Path.
  *
  */
 public final class JPAExpandQueryResult implements JPAExpandResult, JPAConvertibleResult {
-    private static final Map<String, List<Tuple>> EMPTY_RESULT;
+    private static final Map<JPAJoinKey, List<Tuple>> EMPTY_RESULT;
     private final Map<JPAAssociationPath, JPAExpandResult> childrenResult;
-    private final Map<String, List<Tuple>> jpaResult;
-    private Map<String, EntityCollection> odataResult;
-    private final Map<String, Long> counts;
+    private final Map<JPAJoinKey, List<Tuple>> jpaResult;
+    private Map<JPAJoinKey, EntityCollection> odataResult;
+    private final Map<JPAJoinKey, Long> counts;
     private final JPAEntityType jpaEntityType;
     private final Collection<JPAPath> requestedSelection;
 
@@ -55,7 +58,7 @@ public final class JPAExpandQueryResult implements JPAExpandResult, JPAConvertib
      * @return
      * @see JPATupleChildConverter
      */
-    private static Map<String, List<Tuple>> putEmptyResult() {
+    private static Map<JPAJoinKey, List<Tuple>> putEmptyResult() {
         EMPTY_RESULT.put(ROOT_RESULT_KEY, Collections.emptyList());
         return EMPTY_RESULT;
     }
@@ -64,7 +67,7 @@ public final class JPAExpandQueryResult implements JPAExpandResult, JPAConvertib
         this(putEmptyResult(), Collections.emptyMap(), jpaEntityType, selectionPath);
     }
 
-    public JPAExpandQueryResult(final Map<String, List<Tuple>> result, final Map<String, Long> counts,
+    public JPAExpandQueryResult(final Map<JPAJoinKey, List<Tuple>> result, final Map<JPAJoinKey, Long> counts,
                                 final JPAEntityType jpaEntityType, final Collection<JPAPath> selectionPath) {
 
         Objects.requireNonNull(jpaEntityType);
@@ -76,7 +79,7 @@ public final class JPAExpandQueryResult implements JPAExpandResult, JPAConvertib
     }
 
     @Override
-    public Map<String, EntityCollection> asEntityCollection(final JPATupleChildConverter converter)
+    public Map<JPAJoinKey, EntityCollection> asEntityCollection(final JPATupleChildConverter converter)
             throws ODataApplicationException {
 
         convert(new JPATupleChildConverter(converter));
@@ -116,7 +119,7 @@ public final class JPAExpandQueryResult implements JPAExpandResult, JPAConvertib
      * @see org.apache.org.jpa.processor.core.converter.JPAExpandResult#getCount()
      */
     @Override
-    public Long getCount(final String key) {
+    public Long getCount(final JPAJoinKey key) {
         return counts != null ? counts.get(key) : null;
     }
 
@@ -137,7 +140,7 @@ public final class JPAExpandQueryResult implements JPAExpandResult, JPAConvertib
 
     public long getNoResultsDeep() {
         long count = 0;
-        for (Entry<String, List<Tuple>> result : jpaResult.entrySet()) {
+        for (Entry<JPAJoinKey, List<Tuple>> result : jpaResult.entrySet()) {
             count += result.getValue().size();
         }
         return count;
@@ -150,7 +153,7 @@ public final class JPAExpandQueryResult implements JPAExpandResult, JPAConvertib
      * @see org.apache.org.jpa.processor.core.converter.JPAExpandResult#getResult(java.lang.String)
      */
     @Override
-    public List<Tuple> getResult(final String key) {
+    public List<Tuple> getResult(final JPAJoinKey key) {
         return jpaResult.get(key);
     }
 
@@ -178,7 +181,7 @@ public final class JPAExpandQueryResult implements JPAExpandResult, JPAConvertib
     }
 
     @Override
-    public Map<String, List<Tuple>> getResults() {
+    public Map<JPAJoinKey, List<Tuple>> getResults() {
         return jpaResult;
     }
 
@@ -189,7 +192,7 @@ public final class JPAExpandQueryResult implements JPAExpandResult, JPAConvertib
      * @return
      */
     @Override
-    public EntityCollection getEntityCollection(final String key) {
+    public EntityCollection getEntityCollection(final JPAJoinKey key) {
         return odataResult.containsKey(key) ? odataResult.get(key) : new EntityCollection();
     }
 
@@ -199,16 +202,10 @@ public final class JPAExpandQueryResult implements JPAExpandResult, JPAConvertib
                                                    final List<JPANavigationPropertyInfo> hops) throws ODataJPAQueryException {
         try {
             if (!jpaResult.get(ROOT_RESULT_KEY).isEmpty()
-                    && (requestContext.getUriInfo().getExpandOption() != null
-                    || collectionPropertyRequested(requestContext))
+                    && childrenRequested(requestContext)
                     && (requestContext.getUriInfo().getTopOption() != null
                     || requestContext.getUriInfo().getSkipOption() != null)) {
-                final JPAKeyPair boundary = new JPAKeyPair(jpaEntityType.getKey());
-                for (final Tuple tuple : jpaResult.get(ROOT_RESULT_KEY)) {
-                    Map<JPAAttribute, Comparable> key = createKey(tuple);
-                    boundary.setValue(key);
-                }
-                return Optional.of(new JPAKeyBoundary(hops.size(), boundary));
+                return Optional.of(new JPAKeyBoundary(hops.size(), createKeyPair(null)));
             }
         } catch (ODataJPAModelException e) {
             throw new ODataJPAQueryException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
@@ -216,6 +213,40 @@ public final class JPAExpandQueryResult implements JPAExpandResult, JPAConvertib
         return JPAConvertibleResult.super.getKeyBoundary(requestContext, hops);
     }
 
+    @Override
+    public Optional<JPAKeyBoundary> getKeyBoundary(final JPAODataRequestContextAccess requestContext,
+                                                   final List<JPANavigationPropertyInfo> hops, final int keyListLimit) throws ODataJPAQueryException {
+        final List<Tuple> rootResult = jpaResult.get(ROOT_RESULT_KEY);
+        try {
+            if (!rootResult.isEmpty() && rootResult.size() <= keyListLimit && childrenRequested(requestContext)) {
+                final List<Map<JPAAttribute, Comparable>> keys = new ArrayList<>(rootResult.size());
+                return Optional.of(new JPAKeyBoundary(hops.size(), createKeyPair(keys), keys));
+            }
+        } catch (ODataJPAModelException e) {
+            throw new ODataJPAQueryException(e, HttpStatusCode.INTERNAL_SERVER_ERROR);
+        }
+        return getKeyBoundary(requestContext, hops);
+    }
+
+    private boolean childrenRequested(final JPAODataRequestContextAccess requestContext)
+            throws ODataJPAModelException {
+        return requestContext.getUriInfo().getExpandOption() != null || collectionPropertyRequested(requestContext);
+    }
+
+    /**
+     * Determines the lowest and highest key of the entities read. If a list is given, the key of each entity is added.
+     */
+    private JPAKeyPair createKeyPair(final List<Map<JPAAttribute, Comparable>> keys) throws ODataJPAModelException {
+        final JPAKeyPair boundary = new JPAKeyPair(jpaEntityType.getKey());
+        for (final Tuple tuple : jpaResult.get(ROOT_RESULT_KEY)) {
+            final Map<JPAAttribute, Comparable> key = createKey(tuple);
+            boundary.setValue(key);
+            if (keys != null)
+                keys.add(key);
+        }
+        return boundary;
+    }
+
     private boolean collectionPropertyRequested(final JPAODataRequestContextAccess requestContext)
             throws ODataJPAModelException {
         if (!jpaEntityType.getCollectionAttributesPath().isEmpty()) {
@@ -1,6 +1,7 @@
 package nl.buildforce.sequoia.processor.core.query;
 
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAAssociationPath;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAAttribute;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPACollectionAttribute;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
@@ -8,17 +9,31 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAExceptio
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.sequoia.processor.core.api.JPAODataCRUDContextAccess;
 import nl.buildforce.sequoia.processor.core.api.JPAODataRequestContextAccess;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAQueryException;
+import nl.buildforce.sequoia.processor.core.filter.JPAFilterCrossCompiler;
+import nl.buildforce.sequoia.processor.core.filter.JPAOperationConverter;
 import nl.buildforce.olingo.commons.api.edm.EdmNavigationProperty;
+import nl.buildforce.olingo.commons.api.edm.provider.CsdlProperty;
 import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
 import nl.buildforce.olingo.server.api.OData;
 import nl.buildforce.olingo.server.api.ODataApplicationException;
 import nl.buildforce.olingo.server.api.uri.UriInfoResource;
 import nl.buildforce.olingo.server.api.uri.UriResource;
+import nl.buildforce.olingo.server.api.uri.UriResourceCount;
 import nl.buildforce.olingo.server.api.uri.UriResourceNavigation;
 import nl.buildforce.olingo.server.api.uri.UriResourceProperty;
+import nl.buildforce.olingo.server.api.uri.queryoption.ApplyItem;
+import nl.buildforce.olingo.server.api.uri.queryoption.ApplyOption;
+import nl.buildforce.olingo.server.api.uri.queryoption.FilterOption;
 import nl.buildforce.olingo.server.api.uri.queryoption.OrderByItem;
 import nl.buildforce.olingo.server.api.uri.queryoption.OrderByOption;
+import nl.buildforce.olingo.server.api.uri.queryoption.apply.Aggregate;
+import nl.buildforce.olingo.server.api.uri.queryoption.apply.AggregateExpression;
+import nl.buildforce.olingo.server.api.uri.queryoption.apply.Filter;
+import nl.buildforce.olingo.server.api.uri.queryoption.apply.GroupBy;
+import nl.buildforce.olingo.server.api.uri.queryoption.apply.GroupByItem;
+import nl.buildforce.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
 import nl.buildforce.olingo.server.api.uri.queryoption.expression.Member;
 
 import jakarta.persistence.Tuple;
@@ -27,17 +42,31 @@ import jakarta.persistence.criteria.AbstractQuery;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.From;
 import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Selection;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.HashMap;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import static nl.buildforce.sequoia.processor.core.api.JPAODataMetrics.Phase.CRITERIA_BUILD;
 import static nl.buildforce.sequoia.processor.core.converter.JPAExpandResult.ROOT_RESULT_KEY;
 
 public class JPAJoinQuery extends JPAAbstractJoinQuery implements JPACountQuery {
+  private int firstResult;
+  private int maxResults = Integer.MAX_VALUE;
+  private Map<JPAPath, Boolean> keysetOrder;
+  private boolean keysetBoundary;
+  private Map<String, Object> lastKeyset;
 
   private static List<JPANavigationPropertyInfo> determineNavigationInfo(
       final JPAODataCRUDContextAccess sessionContext, final UriInfoResource uriResource) throws ODataJPAException, ODataApplicationException {
@@ -77,7 +106,6 @@ public class JPAJoinQuery extends JPAAbstractJoinQuery implements JPACountQuery
      * .../Organizations/$count
      * .../Organizations('3')/Roles/$count
      */
-    // final int handle = debugger.startRuntimeMeasurement(this, "countResults");
     final CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
     try {
       createFromClause(Collections.emptyList(), Collections.emptyList(), countQuery, lastInfo);
@@ -92,43 +120,195 @@ public class JPAJoinQuery extends JPAAbstractJoinQuery implements JPACountQuery
     }
   }
 
+  /**
+   * Reads only the ETag of the requested entity, which is usually a single indexed lookup. This allows to check the
+   * preconditions of a request without reading the entity itself.
+   * @return Empty if the entity type has no ETag, the entity does not exist or its ETag is null
+   * @throws ODataApplicationException
+   */
+  public Optional<Object> readEtag() throws ODataApplicationException {
+    final CriteriaQuery<Tuple> etagQuery = cb.createTupleQuery();
+    try {
+      if (!jpaEntity.hasEtag())
+        return Optional.empty();
+      final Map<String, From<?, ?>> joinTables = createFromClause(Collections.emptyList(), Collections.emptyList(),
+          etagQuery, lastInfo);
+
+      final Expression<Boolean> whereClause = createWhere();
+      if (whereClause != null)
+        etagQuery.where(whereClause);
+      etagQuery.multiselect(ExpressionUtil.convertToCriteriaPath(joinTables, target, jpaEntity.getEtagPath()
+          .getPath()));
+      final List<Tuple> result = em.createQuery(etagQuery).setMaxResults(1).getResultList();
+      return result.isEmpty() ? Optional.empty() : Optional.ofNullable(result.get(0).get(0));
+    } catch (JPANoSelectionException e) {
+      return Optional.empty();
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_ERROR,
+          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    }
+  }
+
   @Override
   public JPAConvertibleResult execute() throws ODataApplicationException {
     // Pre-process URI parameter, so they can be used at different places
-    // final int handle = debugger.startRuntimeMeasurement(this, "execute");
-
-    final List<JPAAssociationPath> orderByNaviAttributes = extractOrderByNaviAttributes();
+    final long start = System.nanoTime();
     final Collection<JPAPath> selectionPath = buildSelectionPathList(this.uriResource);
     try {
-      final Map<String, From<?, ?>> joinTables = createFromClause(orderByNaviAttributes, selectionPath, cq, lastInfo);
+      final TypedQuery<Tuple> tq = createTupleQuery(selectionPath);
 
-      cq.multiselect(createSelectClause(joinTables, selectionPath, target, groups)).distinct(
-          determineDistinct());
+      final HashMap<JPAJoinKey, List<Tuple>> result = new HashMap<>(1);
+      final long executionStart = System.nanoTime();
+      final List<Tuple> intermediateResult = tq.getResultList();
+      recordExecution(start, executionStart, intermediateResult.size());
+      if (keysetOrder != null && !intermediateResult.isEmpty())
+        lastKeyset = determineKeyset(intermediateResult.get(intermediateResult.size() - 1));
 
-      final Expression<Boolean> whereClause = createWhere();
-      if (whereClause != null)
-        cq.where(whereClause);
+      result.put(ROOT_RESULT_KEY, intermediateResult);
 
-      cq.orderBy(createOrderByList(joinTables, uriResource.getOrderByOption()));
+      return returnResult(selectionPath, result);
+    } catch (JPANoSelectionException e) {
+      return returnEmptyResult(selectionPath);
+    }
+  }
 
-      if (!orderByNaviAttributes.isEmpty())
-        cq.groupBy(createGroupBy(joinTables, selectionPath));
+  /**
+   * Same as <code>execute</code>, but the rows are not collected. They are provided as a stream, which is read while
+   * the response is written. Intended for requests without $expand and without collection properties.
+   * @return
+   * @throws ODataApplicationException
+   */
+  public JPAStreamQueryResult executeStreamed() throws ODataApplicationException {
+    final long start = System.nanoTime();
+    final Collection<JPAPath> selectionPath = buildSelectionPathList(this.uriResource);
+    try {
+      final TypedQuery<Tuple> tq = createTupleQuery(selectionPath);
+      // The rows are read while the response is written, so only the query build can be measured
+      context.getMetrics().ifPresent(metrics -> metrics.recordDuration(getEntitySetName(), CRITERIA_BUILD, System
+          .nanoTime() - start));
+      return new JPAStreamQueryResult(tq.getResultStream(), jpaEntity, selectionPath);
+    } catch (JPANoSelectionException e) {
+      return new JPAStreamQueryResult(Stream.empty(), jpaEntity, selectionPath);
+    }
+  }
 
-      final TypedQuery<Tuple> tq = em.createQuery(cq);
-      addTopSkip(tq);
+  /**
+   * Creates the query <code>execute</code> would run, without running it. Allows to look at, or measure, the query
+   * creation on its own.
+   * @return Empty if the request can not select anything
+   * @throws ODataApplicationException
+   */
+  public Optional<TypedQuery<Tuple>> buildQuery() throws ODataApplicationException {
+    try {
+      return Optional.of(createTupleQuery(buildSelectionPathList(this.uriResource)));
+    } catch (JPANoSelectionException e) {
+      return Optional.empty();
+    }
+  }
 
-      final HashMap<String, List<Tuple>> result = new HashMap<>(1);
-      // final int resultHandle = debugger.startRuntimeMeasurement(tq, "getResultList");
-      final List<Tuple> intermediateResult = tq.getResultList();
+  /**
+   * Fulfill $apply requests. The transformations are translated into one query with GROUP BY, so the database does the
+   * aggregation. Filter transformations can be followed either by an aggregate transformation or by a groupby
+   * transformation, which may contain an aggregate transformation. Aggregate expressions use the standard aggregation
+   * methods on properties of the entity or count the entities via <code>$count</code>. For details see
+   * <a href=
+   * "http://docs.oasis-open.org/odata/odata-data-aggregation-ext/v4.0/cs02/odata-data-aggregation-ext-v4.0-cs02.html#_Toc435016565"
+   * >OData Extension for Data Aggregation Version 4.0 - 3 System Query Option $apply</a>
+   * @return
+   * @throws ODataApplicationException
+   */
+  public JPAAggregationQueryResult executeAggregation() throws ODataApplicationException {
+    /*
+     * URL example:
+     * .../Organizations?$apply=groupby((Address/Region),aggregate($count as Count))
+     * .../AdministrativeDivisions?$apply=filter(CodeID eq 'NUTS2')/aggregate(Area with sum as Area)
+     */
+    final List<JPAPath> groupingPath = new ArrayList<>();
+    final Map<String, AggregateExpression> aggregates = new LinkedHashMap<>();
+    final List<FilterOption> filters = new ArrayList<>();
+    determineTransformations(groupingPath, aggregates, filters);
+    try {
+      final TypedQuery<Tuple> tq = createAggregationQuery(groupingPath, aggregates, filters);
+      addTopSkip(tq);
+      firstResult = tq.getFirstResult();
+      maxResults = tq.getMaxResults();
+      return new JPAAggregationQueryResult(tq.getResultList(), jpaEntity, groupingPath);
+    } catch (JPANoSelectionException e) {
+      return new JPAAggregationQueryResult(Collections.emptyList(), jpaEntity, groupingPath);
+    }
+  }
 
-      result.put(ROOT_RESULT_KEY, intermediateResult);
+  /**
+   * Fulfill $count requests together with $apply. An aggregation without grouping returns exactly one row. Otherwise
+   * the number of groups is counted by the database: for a single grouping property as the number of distinct values,
+   * plus one in case a group without value exists. JPQL does not support COUNT(DISTINCT) over several expressions nor
+   * sub queries in the FROM clause. So groups of several properties are not counted by the database: the grouping
+   * values are read, one row per group and without the aggregates, and the rows are counted.
+   * @return
+   * @throws ODataApplicationException
+   */
+  public Long countAggregationResults() throws ODataApplicationException {
+    final List<JPAPath> groupingPath = new ArrayList<>();
+    final Map<String, AggregateExpression> aggregates = new LinkedHashMap<>();
+    final List<FilterOption> filters = new ArrayList<>();
+    determineTransformations(groupingPath, aggregates, filters);
+    if (groupingPath.isEmpty())
+      return 1L;
+    try {
+      final Map<String, From<?, ?>> joinTables = createFromClause(Collections.emptyList(), Collections.emptyList(), cq,
+          lastInfo);
+      final List<Expression<?>> groupBy = new ArrayList<>();
+      for (final JPAPath path : groupingPath)
+        groupBy.add(ExpressionUtil.convertToCriteriaPath(joinTables, target, path.getPath()));
+
+      Expression<Boolean> whereClause = createWhere();
+      for (final FilterOption filter : filters)
+        whereClause = addWhereClause(whereClause, compileApplyFilter(filter));
+      if (whereClause != null)
+        cq.where(whereClause);
 
-      return returnResult(selectionPath, result);
+      if (groupBy.size() == 1) {
+        final Expression<?> group = groupBy.get(0);
+        cq.multiselect(cb.countDistinct(group), cb.sum(cb.<Integer> selectCase()
+            .when(cb.isNull(group), 1)
+            .otherwise(0)));
+        final Tuple counts = em.createQuery(cq).getSingleResult();
+        final Number nullValues = (Number) counts.get(1);
+        return ((Number) counts.get(0)).longValue() + (nullValues != null && nullValues.longValue() > 0 ? 1 : 0);
+      }
+      cq.multiselect(new ArrayList<Selection<?>>(groupBy)).groupBy(groupBy);
+      return (long) em.createQuery(cq).getResultList().size();
     } catch (JPANoSelectionException e) {
-      return returnEmptyResult(selectionPath);
+      return 0L;
     }
   }
 
+  /**
+   * Derives the number of results from the number of rows <code>execute</code> has returned. This is possible if fewer
+   * rows than requested by $top or the page have been returned, and either rows have been found or none have been
+   * skipped. In that case the result contains the last entity and the count is $skip plus the number of rows.
+   * @param noResults number of rows returned by <code>execute</code>
+   * @return
+   */
+  public Optional<Long> deriveCount(final int noResults) {
+    if (keysetBoundary)
+      // The number of skipped entities is not known
+      return Optional.empty();
+    if (noResults < maxResults && (noResults > 0 || firstResult == 0))
+      return Optional.of((long) firstResult + noResults);
+    return Optional.empty();
+  }
+
+  /**
+   * In case of keyset paging, provides the $orderby values and the key of the last entity <code>execute</code> has
+   * returned, so the next page can start behind it. Empty if the page does not use keyset paging, the request can not
+   * be processed this way or no entity was found.
+   * @return Map of the alias of a property and its value
+   */
+  public Optional<Map<String, Object>> getKeyset() {
+    return Optional.ofNullable(lastKeyset);
+  }
+
   public List<JPANavigationPropertyInfo> getNavigationInfo() {
     return navigationInfo;
   }
@@ -138,9 +318,265 @@ public class JPAJoinQuery extends JPAAbstractJoinQuery implements JPACountQuery
     return cq;
   }
 
+  private TypedQuery<Tuple> createTupleQuery(final Collection<JPAPath> selectionPath)
+      throws ODataApplicationException, JPANoSelectionException {
+
+    final List<JPAAssociationPath> orderByNaviAttributes = extractOrderByNaviAttributes();
+    final Map<String, From<?, ?>> joinTables = createFromClause(orderByNaviAttributes, selectionPath, cq, lastInfo);
+
+    cq.multiselect(createSelectClause(joinTables, selectionPath, target, groups)).distinct(
+        determineDistinct());
+
+    keysetOrder = determineKeysetOrder();
+    Expression<Boolean> whereClause = createWhere();
+    if (keysetOrder != null && !page.getKeyset().isEmpty()) {
+      whereClause = addWhereClause(whereClause, createKeysetBoundary(joinTables, keysetOrder, page.getKeyset()));
+      keysetBoundary = true;
+    }
+    if (whereClause != null)
+      cq.where(whereClause);
+
+    final List<Order> orders = createOrderByList(joinTables, uriResource.getOrderByOption());
+    if (keysetOrder != null)
+      // The key makes the order unique, which keyset paging requires
+      for (final JPAPath path : keysetOrder.keySet())
+        if (((JPAAttribute) path.getLeaf()).isKey())
+          orders.add(cb.asc(ExpressionUtil.convertToCriteriaPath(joinTables, target, path.getPath())));
+    cq.orderBy(orders);
+
+    if (!orderByNaviAttributes.isEmpty())
+      cq.groupBy(createGroupBy(joinTables, selectionPath));
+
+    final TypedQuery<Tuple> tq = em.createQuery(cq);
+    addTopSkip(tq);
+    if (keysetBoundary)
+      // The boundary replaces the offset
+      tq.setFirstResult(0);
+    firstResult = tq.getFirstResult();
+    maxResults = tq.getMaxResults();
+    return tq;
+  }
+
+  private TypedQuery<Tuple> createAggregationQuery(final List<JPAPath> groupingPath,
+      final Map<String, AggregateExpression> aggregates, final List<FilterOption> filters)
+      throws ODataApplicationException, JPANoSelectionException {
+
+    final Map<String, From<?, ?>> joinTables = createFromClause(Collections.emptyList(), Collections.emptyList(), cq,
+        lastInfo);
+    final List<Selection<?>> selections = new ArrayList<>();
+    final List<Expression<?>> groupBy = new ArrayList<>();
+    final Map<String, Expression<?>> orderable = new HashMap<>();
+    for (final JPAPath path : groupingPath) {
+      final Path<?> p = ExpressionUtil.convertToCriteriaPath(joinTables, target, path.getPath());
+      p.alias(path.getAlias());
+      selections.add(p);
+      groupBy.add(p);
+      orderable.put(path.getAlias(), p);
+    }
+    for (final Entry<String, AggregateExpression> aggregate : aggregates.entrySet()) {
+      final Expression<?> e = createAggregateExpression(joinTables, aggregate.getValue());
+      e.alias(aggregate.getKey());
+      selections.add(e);
+      orderable.put(aggregate.getKey(), e);
+    }
+    cq.multiselect(selections);
+
+    Expression<Boolean> whereClause = createWhere();
+    for (final FilterOption filter : filters)
+      whereClause = addWhereClause(whereClause, compileApplyFilter(filter));
+    if (whereClause != null)
+      cq.where(whereClause);
+    if (!groupBy.isEmpty())
+      cq.groupBy(groupBy);
+    cq.orderBy(createAggregationOrderBy(orderable, groupBy));
+    return em.createQuery(cq);
+  }
+
+  private Expression<Boolean> compileApplyFilter(final FilterOption filter) throws ODataApplicationException {
+    try {
+      return new JPAFilterCrossCompiler(odata, sd, jpaEntity, new JPAOperationConverter(cb, context
+          .getOperationConverter()), this, target, requestContext, filter.getExpression()).compile();
+    } catch (ExpressionVisitException e) {
+      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_FILTER_ERROR,
+          HttpStatusCode.BAD_REQUEST, e);
+    }
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  private Expression<?> createAggregateExpression(final Map<String, From<?, ?>> joinTables,
+      final AggregateExpression aggregate) throws ODataApplicationException {
+
+    if (!aggregate.getPath().isEmpty() && aggregate.getPath().get(aggregate.getPath().size() - 1)
+        instanceof UriResourceCount)
+      return cb.count(target);
+
+    final Path path = ExpressionUtil.convertToCriteriaPath(joinTables, target, determineApplyPath(
+        ((Member) aggregate.getExpression()).getResourcePath().getUriResourceParts()).getPath());
+    return switch (aggregate.getStandardMethod()) {
+      case SUM -> cb.sum(path);
+      case AVERAGE -> cb.avg(path);
+      case MIN -> cb.least(path);
+      case MAX -> cb.greatest(path);
+      case COUNT_DISTINCT -> cb.countDistinct(path);
+    };
+  }
+
+  /**
+   * $orderby can only refer to grouping properties and aliases of aggregated values. The grouping properties are
+   * appended, so the order is stable, which $skip and server driven paging require.
+   */
+  private List<Order> createAggregationOrderBy(final Map<String, Expression<?>> orderable,
+      final List<Expression<?>> groupBy) throws ODataApplicationException {
+
+    final List<Order> orders = new ArrayList<>();
+    final OrderByOption orderBy = uriResource.getOrderByOption();
+    if (orderBy != null) {
+      for (final OrderByItem orderByItem : orderBy.getOrders()) {
+        if (!(orderByItem.getExpression() instanceof Member))
+          throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_APPLY_NOT_SUPPORTED,
+              HttpStatusCode.NOT_IMPLEMENTED, "$orderby");
+        final String pathName = determineApplyPathName(((Member) orderByItem.getExpression()).getResourcePath()
+            .getUriResourceParts());
+        final Expression<?> expression = orderable.get(pathName);
+        if (expression == null)
+          throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_APPLY_NOT_SUPPORTED,
+              HttpStatusCode.NOT_IMPLEMENTED, "$orderby=" + pathName);
+        orders.add(orderByItem.isDescending() ? cb.desc(expression) : cb.asc(expression));
+      }
+    }
+    for (final Expression<?> expression : groupBy)
+      orders.add(cb.asc(expression));
+    return orders;
+  }
+
+  /**
+   * Splits the transformations of $apply into the filter conditions, the grouping properties and the aggregate
+   * expressions. Only filter and identity transformations followed by one groupby or aggregate transformation can be
+   * translated into a single query.
+   */
+  private void determineTransformations(final List<JPAPath> groupingPath,
+      final Map<String, AggregateExpression> aggregates, final List<FilterOption> filters)
+      throws ODataApplicationException {
+
+    if (uriResource.getFilterOption() != null)
+      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_APPLY_NOT_SUPPORTED,
+          HttpStatusCode.NOT_IMPLEMENTED, "$filter");
+    if (uriResource.getExpandOption() != null)
+      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_APPLY_NOT_SUPPORTED,
+          HttpStatusCode.NOT_IMPLEMENTED, "$expand");
+    boolean aggregated = false;
+    for (final ApplyItem item : uriResource.getApplyOption().getApplyItems()) {
+      if (aggregated)
+        // Transformations on aggregated values would require a sub-query
+        throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_APPLY_NOT_SUPPORTED,
+            HttpStatusCode.NOT_IMPLEMENTED, item.getKind().name().toLowerCase(Locale.ENGLISH));
+      switch (item.getKind()) {
+        case FILTER -> filters.add(((Filter) item).getFilterOption());
+        case IDENTITY -> {
+        }
+        case AGGREGATE -> {
+          addAggregates(aggregates, (Aggregate) item);
+          aggregated = true;
+        }
+        case GROUP_BY -> {
+          addGrouping(groupingPath, aggregates, (GroupBy) item);
+          aggregated = true;
+        }
+        default -> throw new ODataJPAQueryException(
+            ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_APPLY_NOT_SUPPORTED, HttpStatusCode.NOT_IMPLEMENTED,
+            item.getKind().name().toLowerCase(Locale.ENGLISH));
+      }
+    }
+    if (!aggregated)
+      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_APPLY_NOT_SUPPORTED,
+          HttpStatusCode.NOT_IMPLEMENTED, "filter without groupby or aggregate");
+  }
+
+  private void addGrouping(final List<JPAPath> groupingPath, final Map<String, AggregateExpression> aggregates,
+      final GroupBy groupBy) throws ODataApplicationException {
+
+    for (final GroupByItem item : groupBy.getGroupByItems()) {
+      if (item.isRollupAll() || !item.getRollup().isEmpty())
+        throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_APPLY_NOT_SUPPORTED,
+            HttpStatusCode.NOT_IMPLEMENTED, "rollup");
+      final JPAPath path = determineApplyPath(item.getPath());
+      if (path.getLeaf() instanceof JPAAttribute && ((JPAAttribute) path.getLeaf()).isComplex()) {
+        // Grouping by a complex property means grouping by all its properties
+        try {
+          for (final JPAPath attributePath : jpaEntity.getPathList())
+            if (attributePath.getAlias().startsWith(path.getAlias() + JPAPath.PATH_SEPARATOR))
+              groupingPath.add(attributePath);
+        } catch (ODataJPAModelException e) {
+          throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_ERROR,
+              HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+        }
+      } else {
+        groupingPath.add(path);
+      }
+    }
+    final ApplyOption nested = groupBy.getApplyOption();
+    if (nested != null) {
+      for (final ApplyItem item : nested.getApplyItems()) {
+        if (item.getKind() != ApplyItem.Kind.AGGREGATE)
+          throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_APPLY_NOT_SUPPORTED,
+              HttpStatusCode.NOT_IMPLEMENTED, item.getKind().name().toLowerCase(Locale.ENGLISH));
+        addAggregates(aggregates, (Aggregate) item);
+      }
+    }
+  }
+
+  private void addAggregates(final Map<String, AggregateExpression> aggregates, final Aggregate aggregate)
+      throws ODataApplicationException {
+
+    for (final AggregateExpression expression : aggregate.getExpressions()) {
+      if (expression.getAlias() == null || expression.getInlineAggregateExpression() != null
+          || !expression.getFrom().isEmpty() || expression.getCustomMethod() != null)
+        throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_APPLY_NOT_SUPPORTED,
+            HttpStatusCode.NOT_IMPLEMENTED, expression.getAlias() == null ? "custom aggregate" : expression
+                .getAlias());
+      final boolean isCount = !expression.getPath().isEmpty() && expression.getPath().get(expression.getPath()
+          .size() - 1) instanceof UriResourceCount;
+      if (!isCount && !(expression.getExpression() instanceof Member))
+        throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_APPLY_NOT_SUPPORTED,
+            HttpStatusCode.NOT_IMPLEMENTED, expression.getAlias());
+      if (!isCount)
+        // Check existence and authorization up front
+        determineApplyPath(((Member) expression.getExpression()).getResourcePath().getUriResourceParts());
+      aggregates.put(expression.getAlias(), expression);
+    }
+  }
+
+  /**
+   * Only single valued properties of the requested entity can be used by $apply.
+   */
+  private JPAPath determineApplyPath(final List<UriResource> resourceParts) throws ODataApplicationException {
+    try {
+      final JPAPath path = jpaEntity.getPath(determineApplyPathName(resourceParts));
+      if (path == null || !path.isPartOfGroups(groups))
+        throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_INVALID_SELECTION_PATH,
+            HttpStatusCode.BAD_REQUEST);
+      return path;
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_ERROR,
+          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    }
+  }
+
+  private String determineApplyPathName(final List<UriResource> resourceParts) throws ODataApplicationException {
+    final StringBuilder pathString = new StringBuilder();
+    for (final UriResource part : resourceParts) {
+      if (!(part instanceof UriResourceProperty) || ((UriResourceProperty) part).isCollection())
+        throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_APPLY_NOT_SUPPORTED,
+            HttpStatusCode.NOT_IMPLEMENTED, part.getSegmentValue());
+      if (pathString.length() > 0)
+        pathString.append(JPAPath.PATH_SEPARATOR);
+      pathString.append(part.getSegmentValue());
+    }
+    return pathString.toString();
+  }
+
   private List<Expression<?>> createGroupBy(final Map<String, From<?, ?>> joinTables,
       final Collection<JPAPath> selectionPathList) {
-    // final int handle = debugger.startRuntimeMeasurement(this, "createGroupBy");
 
     final List<Expression<?>> groupBy =
         new ArrayList<>();
@@ -149,10 +585,77 @@ public class JPAJoinQuery extends JPAAbstractJoinQuery implements JPACountQuery
       groupBy.add(ExpressionUtil.convertToCriteriaPath(joinTables, root, jpaPath.getPath()));
     }
 
-    // // debugger.stopRuntimeMeasurement(handle);
     return groupBy;
   }
 
+  /**
+   * Keyset paging is possible if all $orderby items are single valued primitive properties that are not nullable. The
+   * key is appended as tie-breaker.
+   * @return The properties to compare, with true in case they are sorted descending. Null if keyset paging is not
+   * possible.
+   */
+  private Map<JPAPath, Boolean> determineKeysetOrder() throws ODataApplicationException {
+    if (page == null || !page.isKeysetPaging())
+      return null;
+    final Map<JPAPath, Boolean> keysetItems = new LinkedHashMap<>();
+    try {
+      final OrderByOption orderBy = uriResource.getOrderByOption();
+      if (orderBy != null) {
+        for (final OrderByItem orderByItem : orderBy.getOrders()) {
+          if (!(orderByItem.getExpression() instanceof Member))
+            return null;
+          final StringBuilder pathString = new StringBuilder();
+          for (final UriResource part : ((Member) orderByItem.getExpression()).getResourcePath()
+              .getUriResourceParts()) {
+            if (!(part instanceof UriResourceProperty) || ((UriResourceProperty) part).isCollection())
+              return null;
+            if (pathString.length() > 0)
+              pathString.append(JPAPath.PATH_SEPARATOR);
+            pathString.append(((UriResourceProperty) part).getProperty().getName());
+          }
+          final JPAPath path = jpaEntity.getPath(pathString.toString());
+          if (path == null || !isKeysetAttribute((JPAAttribute) path.getLeaf()))
+            return null;
+          keysetItems.putIfAbsent(path, orderByItem.isDescending());
+        }
+      }
+      for (final JPAAttribute key : jpaEntity.getKey()) {
+        final JPAPath path = jpaEntity.getPath(key.getExternalName());
+        if (path == null || key.isComplex())
+          return null;
+        keysetItems.putIfAbsent(path, Boolean.FALSE);
+      }
+    } catch (ODataJPAModelException e) {
+      throw new ODataJPAQueryException(ODataJPAQueryException.MessageKeys.QUERY_PREPARATION_ERROR,
+          HttpStatusCode.INTERNAL_SERVER_ERROR, e);
+    }
+    return keysetItems;
+  }
+
+  private boolean isKeysetAttribute(final JPAAttribute attribute) throws ODataJPAModelException {
+    if (attribute.isKey())
+      return !attribute.isComplex();
+    return !attribute.isComplex() && !attribute.isCollection()
+        && attribute.getProperty() instanceof CsdlProperty
+        && !((CsdlProperty) attribute.getProperty()).isNullable();
+  }
+
+  private Map<String, Object> determineKeyset(final Tuple lastRow) {
+    final Map<String, Object> keyset = new HashMap<>(keysetOrder.size());
+    for (final JPAPath path : keysetOrder.keySet()) {
+      try {
+        final Object value = lastRow.get(path.getAlias());
+        if (value == null)
+          return null;
+        keyset.put(path.getAlias(), value);
+      } catch (IllegalArgumentException e) {
+        // Property not selected, so the next page has to be read with an offset
+        return null;
+      }
+    }
+    return keyset;
+  }
+
   private Expression<Boolean> createWhere() throws ODataApplicationException {
     return addWhereClause(super.createWhere(uriResource, navigationInfo), createProtectionWhere(claimsProvider));
   }
@@ -210,7 +713,7 @@ public class JPAJoinQuery extends JPAAbstractJoinQuery implements JPACountQuery
   }
 
   private JPAConvertibleResult returnResult(final Collection<JPAPath> selectionPath,
-      final HashMap<String, List<Tuple>> result) {
+      final HashMap<JPAJoinKey, List<Tuple>> result) {
     if (lastInfo.getAssociationPath() != null
         && (lastInfo.getAssociationPath().getLeaf() instanceof JPACollectionAttribute))
       return new JPACollectionQueryResult(result, null, jpaEntity, lastInfo.getAssociationPath(), selectionPath);
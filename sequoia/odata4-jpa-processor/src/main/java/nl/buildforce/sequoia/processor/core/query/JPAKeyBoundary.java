@@ -1,15 +1,31 @@
 package nl.buildforce.sequoia.processor.core.query;
 
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAAttribute;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 public class JPAKeyBoundary {
 
   private final int noHops;
   private final JPAKeyPair keyBoundary;
+  @SuppressWarnings("rawtypes")
+  private final List<Map<JPAAttribute, Comparable>> keys;
 
   JPAKeyBoundary(int noHops, JPAKeyPair keyBoundary) {
+    this(noHops, keyBoundary, Collections.emptyList());
+  }
+
+  /**
+   * @param keys Keys of all entities read by the query, used instead of the boundary if not empty
+   */
+  @SuppressWarnings("rawtypes")
+  JPAKeyBoundary(int noHops, JPAKeyPair keyBoundary, List<Map<JPAAttribute, Comparable>> keys) {
     this.noHops = noHops;
     this.keyBoundary = Objects.requireNonNull(keyBoundary);
+    this.keys = Objects.requireNonNull(keys);
   }
 
   public int getNoHops() {
@@ -20,9 +36,22 @@ public class JPAKeyBoundary {
     return keyBoundary;
   }
 
+  @SuppressWarnings("rawtypes")
+  public List<Map<JPAAttribute, Comparable>> getKeys() {
+    return keys;
+  }
+
+  /**
+   * True if the dependent queries are restricted by the keys of the entities read. In that case the key predicates
+   * and filters of the first {@link #getNoHops()} hops need not to be evaluated again.
+   */
+  public boolean hasKeys() {
+    return !keys.isEmpty();
+  }
+
   @Override
   public String toString() {
-    return "JPAKeyBoundary [noHops=" + noHops + ", keyBoundary=" + keyBoundary + "]";
+    return "JPAKeyBoundary [noHops=" + noHops + ", keyBoundary=" + keyBoundary + ", keys=" + keys.size() + "]";
   }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,127 @@
+package nl.buildforce.sequoia.processor.core.query;
+
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAAttribute;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the condition that restricts a query to the entities given by a {@link JPAKeyBoundary}. Either to a list of
+ * keys, to the keys between the lowest and the highest key or to a single key.<p>
+ * The structure of the condition is the same for a criteria query and a native query. Only the creation of the parts
+ * differs, which is left to the sub classes.
+ * @param <T> type of a condition
+ */
+abstract class JPAKeyBoundaryCondition<T> {
+
+  private final int chunkSize;
+
+  /**
+   * @param chunkSize maximum number of values compared with one IN condition
+   */
+  JPAKeyBoundaryCondition(final int chunkSize) {
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * @param keyElements key attributes of the entity type restricted by the boundary
+   */
+  final T create(final List<JPAAttribute> keyElements, final JPAKeyBoundary keyBoundary)
+      throws ODataJPAModelException {
+
+    if (keyBoundary.hasKeys())
+      return createKeyList(keyElements, keyBoundary.getKeys());
+    else if (keyBoundary.getKeyBoundary().hasUpperBoundary())
+      return createBoundaryWithUpper(keyElements, keyBoundary.getKeyBoundary());
+    else
+      return createBoundaryEquals(keyElements, keyBoundary.getKeyBoundary());
+  }
+
+  protected abstract T equal(final JPAAttribute keyElement, final Object value) throws ODataJPAModelException;
+
+  protected abstract T greaterThanOrEqualTo(final JPAAttribute keyElement, final Object value)
+      throws ODataJPAModelException;
+
+  protected abstract T lessThanOrEqualTo(final JPAAttribute keyElement, final Object value)
+      throws ODataJPAModelException;
+
+  protected abstract T greaterThan(final JPAAttribute keyElement, final Object value) throws ODataJPAModelException;
+
+  protected abstract T lessThan(final JPAAttribute keyElement, final Object value) throws ODataJPAModelException;
+
+  protected abstract T in(final JPAAttribute keyElement, final List<Object> values) throws ODataJPAModelException;
+
+  protected abstract T and(final T left, final T right);
+
+  protected abstract T or(final List<T> conditions);
+
+  /**
+   * A single key attribute is compared with IN conditions of at most chunk size values each; compound keys are
+   * compared attribute by attribute.
+   */
+  @SuppressWarnings("rawtypes")
+  private T createKeyList(final List<JPAAttribute> keyElements, final List<Map<JPAAttribute, Comparable>> keys)
+      throws ODataJPAModelException {
+
+    final List<T> conditions = new ArrayList<>();
+    if (keyElements.size() == 1) {
+      final JPAAttribute keyElement = keyElements.get(0);
+      for (int start = 0; start < keys.size(); start += chunkSize) {
+        final List<Object> values = new ArrayList<>(Math.min(chunkSize, keys.size() - start));
+        for (final Map<JPAAttribute, Comparable> key : keys.subList(start, Math.min(start + chunkSize, keys.size())))
+          values.add(key.get(keyElement));
+        conditions.add(in(keyElement, values));
+      }
+    } else {
+      for (final Map<JPAAttribute, Comparable> key : keys) {
+        T keyCondition = null;
+        for (final JPAAttribute keyElement : keyElements) {
+          final T eqFragment = equal(keyElement, key.get(keyElement));
+          keyCondition = keyCondition == null ? eqFragment : and(keyCondition, eqFragment);
+        }
+        conditions.add(keyCondition);
+      }
+    }
+    return conditions.size() == 1 ? conditions.get(0) : or(conditions);
+  }
+
+  private T createBoundaryWithUpper(final List<JPAAttribute> keyElements, final JPAKeyPair keyPair)
+      throws ODataJPAModelException {
+
+    T lowerCondition = null;
+    T upperCondition = null;
+    for (int primaryIndex = 0; primaryIndex < keyElements.size(); primaryIndex++) {
+      for (int secondaryIndex = primaryIndex; secondaryIndex < keyElements.size(); secondaryIndex++) {
+        final JPAAttribute keyElement = keyElements.get(secondaryIndex);
+        final Object lowerBoundary = keyPair.getMinElement(keyElement);
+        final Object upperBoundary = keyPair.getMaxElement(keyElement);
+        if (secondaryIndex == primaryIndex) {
+          if (primaryIndex == 0) {
+            lowerCondition = greaterThanOrEqualTo(keyElement, lowerBoundary);
+            upperCondition = lessThanOrEqualTo(keyElement, upperBoundary);
+          } else {
+            lowerCondition = or(List.of(lowerCondition, greaterThan(keyElement, lowerBoundary)));
+            upperCondition = or(List.of(upperCondition, lessThan(keyElement, upperBoundary)));
+          }
+        } else {
+          lowerCondition = and(lowerCondition, equal(keyElement, lowerBoundary));
+          upperCondition = and(upperCondition, equal(keyElement, upperBoundary));
+        }
+      }
+    }
+    return and(lowerCondition, upperCondition);
+  }
+
+  private T createBoundaryEquals(final List<JPAAttribute> keyElements, final JPAKeyPair keyPair)
+      throws ODataJPAModelException {
+
+    T whereCondition = null;
+    for (final JPAAttribute keyElement : keyElements) {
+      final T eqFragment = equal(keyElement, keyPair.getMin().get(keyElement));
+      whereCondition = whereCondition == null ? eqFragment : and(whereCondition, eqFragment);
+    }
+    return whereCondition;
+  }
+}
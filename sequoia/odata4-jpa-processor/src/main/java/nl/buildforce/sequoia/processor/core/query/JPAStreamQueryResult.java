@@ -0,0 +1,56 @@
+package nl.buildforce.sequoia.processor.core.query;
+
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAPath;
+import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
+import nl.buildforce.olingo.commons.api.data.EntityIterator;
+import nl.buildforce.olingo.server.api.ODataApplicationException;
+
+import jakarta.persistence.Tuple;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Result of a query whose rows are not collected, but read one by one while the response is written. As no children
+ * can be attached, only results without $expand and without collection properties can be provided this way.
+ * <p>
+ * The rows are taken from <code>TypedQuery.getResultStream</code>. Whether they are read from the database while the
+ * response is written depends on the JPA provider: EclipseLink does not stream on database level, its
+ * <code>getResultStream</code> reads the complete result list first. In this case only the converted entities and the
+ * serialized response are not kept in memory.
+ * <p>
+ * The stream has to be closed by closing the entity iterator, which the serializer does after writing, or by
+ * {@link #close()}, if the iterator is not handed over.
+ */
+public final class JPAStreamQueryResult implements AutoCloseable {
+  private final Stream<Tuple> rows;
+  private final JPAEntityType jpaEntityType;
+  private final Collection<JPAPath> requestedSelection;
+
+  public JPAStreamQueryResult(final Stream<Tuple> rows, final JPAEntityType jpaEntityType,
+      final Collection<JPAPath> selectionPath) {
+
+    Objects.requireNonNull(jpaEntityType);
+    this.rows = rows;
+    this.jpaEntityType = jpaEntityType;
+    this.requestedSelection = selectionPath;
+  }
+
+  /**
+   * Returns an iterator that converts a row first when it is requested. The stream is closed, when the last row has
+   * been read or the iterator is closed.
+   * @param converter
+   * @return
+   * @throws ODataApplicationException
+   */
+  public EntityIterator asEntityIterator(final JPATupleChildConverter converter) throws ODataApplicationException {
+    return new JPATupleChildConverter(converter).getResultIterator(new JPAExpandQueryResult(jpaEntityType,
+        requestedSelection), rows, requestedSelection);
+  }
+
+  @Override
+  public void close() {
+    rows.close();
+  }
+}
@@ -0,0 +1,155 @@
+package nl.buildforce.sequoia.processor.core.serializer;
+
+import nl.buildforce.olingo.commons.api.edm.EdmAnnotation;
+import nl.buildforce.olingo.commons.api.edm.EdmElement;
+import nl.buildforce.olingo.commons.api.edm.EdmEntityType;
+import nl.buildforce.olingo.commons.api.edm.EdmKeyPropertyRef;
+import nl.buildforce.olingo.commons.api.edm.EdmNavigationProperty;
+import nl.buildforce.olingo.commons.api.edm.EdmProperty;
+import nl.buildforce.olingo.commons.api.edm.EdmStructuredType;
+import nl.buildforce.olingo.commons.api.edm.EdmTerm;
+import nl.buildforce.olingo.commons.api.edm.EdmType;
+import nl.buildforce.olingo.commons.api.edm.FullQualifiedName;
+import nl.buildforce.olingo.commons.api.edm.constants.EdmTypeKind;
+import nl.buildforce.olingo.server.api.uri.UriResource;
+import nl.buildforce.olingo.server.api.uri.queryoption.ApplyItem;
+import nl.buildforce.olingo.server.api.uri.queryoption.ApplyOption;
+import nl.buildforce.olingo.server.api.uri.queryoption.apply.Aggregate;
+import nl.buildforce.olingo.server.api.uri.queryoption.apply.AggregateExpression;
+import nl.buildforce.olingo.server.api.uri.queryoption.apply.GroupBy;
+import nl.buildforce.olingo.server.api.uri.queryoption.apply.GroupByItem;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Type of the rows returned for an $apply request. A row contains only the grouping properties and the aggregated
+ * values, which are dynamic properties of the type the $apply option has been parsed with. The rows have no key and no
+ * navigation properties.
+ */
+final class JPAAggregationEntityType implements EdmEntityType {
+  private final EdmEntityType entityType;
+  private final EdmStructuredType applyType;
+  private final List<String> propertyNames;
+
+  JPAAggregationEntityType(final EdmEntityType entityType, final ApplyOption applyOption) {
+    this.entityType = entityType;
+    this.applyType = applyOption.getEdmStructuredType();
+    this.propertyNames = new ArrayList<>();
+    addPropertyNames(applyOption);
+  }
+
+  @Override
+  public boolean compatibleTo(final EdmType targetType) {
+    return entityType.compatibleTo(targetType);
+  }
+
+  @Override
+  public EdmAnnotation getAnnotation(final EdmTerm term, final String qualifier) {
+    return entityType.getAnnotation(term, qualifier);
+  }
+
+  @Override
+  public List<EdmAnnotation> getAnnotations() {
+    return entityType.getAnnotations();
+  }
+
+  @Override
+  public EdmEntityType getBaseType() {
+    return null;
+  }
+
+  @Override
+  public FullQualifiedName getFullQualifiedName() {
+    return entityType.getFullQualifiedName();
+  }
+
+  @Override
+  public List<String> getKeyPredicateNames() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public EdmKeyPropertyRef getKeyPropertyRef(final String keyPredicateName) {
+    return null;
+  }
+
+  @Override
+  public List<EdmKeyPropertyRef> getKeyPropertyRefs() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public EdmTypeKind getKind() {
+    return EdmTypeKind.ENTITY;
+  }
+
+  @Override
+  public String getName() {
+    return entityType.getName();
+  }
+
+  @Override
+  public String getNamespace() {
+    return entityType.getNamespace();
+  }
+
+  @Override
+  public EdmNavigationProperty getNavigationProperty(final String name) {
+    return null;
+  }
+
+  @Override
+  public List<String> getNavigationPropertyNames() {
+    return Collections.emptyList();
+  }
+
+  @Override
+  public EdmElement getProperty(final String name) {
+    return getStructuralProperty(name);
+  }
+
+  @Override
+  public List<String> getPropertyNames() {
+    return propertyNames;
+  }
+
+  @Override
+  public EdmProperty getStructuralProperty(final String name) {
+    return propertyNames.contains(name) ? applyType.getStructuralProperty(name) : null;
+  }
+
+  @Override
+  public boolean hasStream() {
+    return false;
+  }
+
+  @Override
+  public boolean isAbstract() {
+    return false;
+  }
+
+  @Override
+  public boolean isOpenType() {
+    return false;
+  }
+
+  private void addPropertyNames(final ApplyOption applyOption) {
+    for (final ApplyItem item : applyOption.getApplyItems()) {
+      if (item instanceof GroupBy) {
+        for (final GroupByItem groupByItem : ((GroupBy) item).getGroupByItems()) {
+          final List<UriResource> path = groupByItem.getPath();
+          if (!path.isEmpty() && !propertyNames.contains(path.get(0).getSegmentValue()))
+            propertyNames.add(path.get(0).getSegmentValue());
+        }
+        if (((GroupBy) item).getApplyOption() != null)
+          addPropertyNames(((GroupBy) item).getApplyOption());
+      } else if (item instanceof Aggregate) {
+        for (final AggregateExpression expression : ((Aggregate) item).getExpressions())
+          if (expression.getAlias() != null)
+            propertyNames.add(expression.getAlias());
+      }
+    }
+  }
+}
@@ -3,6 +3,7 @@ package nl.buildforce.sequoia.processor.core.serializer;
 import nl.buildforce.olingo.commons.api.data.Annotatable;
 import nl.buildforce.olingo.commons.api.data.ContextURL;
 import nl.buildforce.olingo.commons.api.data.EntityCollection;
+import nl.buildforce.olingo.commons.api.data.EntityIterator;
 import nl.buildforce.olingo.commons.api.edm.EdmEntitySet;
 import nl.buildforce.olingo.commons.api.edm.EdmEntityType;
 import nl.buildforce.olingo.commons.api.edm.EdmType;
@@ -14,6 +15,7 @@ import nl.buildforce.olingo.server.api.serializer.EntityCollectionSerializerOpti
 import nl.buildforce.olingo.server.api.serializer.ODataSerializer;
 import nl.buildforce.olingo.server.api.serializer.SerializerException;
 import nl.buildforce.olingo.server.api.serializer.SerializerResult;
+import nl.buildforce.olingo.server.api.serializer.SerializerStreamResult;
 import nl.buildforce.olingo.server.api.uri.UriHelper;
 import nl.buildforce.olingo.server.api.uri.UriInfo;
 
@@ -23,7 +25,7 @@ import nl.buildforce.sequoia.processor.core.query.Util;
 
 import java.net.URISyntaxException;
 
-final class JPASerializeEntityCollection implements JPAOperationSerializer {
+final class JPASerializeEntityCollection implements JPAOperationSerializer, JPAStreamSerializer {
   private final ServiceMetadata serviceMetadata;
   private final UriInfo uriInfo;
   private final UriHelper uriHelper;
@@ -47,6 +49,24 @@ final class JPASerializeEntityCollection implements JPAOperationSerializer {
           throws SerializerException, ODataJPASerializerException {
 
     final EdmEntitySet targetEdmEntitySet = Util.determineTargetEntitySet(uriInfo.getUriResourceParts());
+    // Aggregated rows contain only the grouping properties and the aggregated values
+    final EdmEntityType entityType = uriInfo.getApplyOption() != null ? new JPAAggregationEntityType(
+        targetEdmEntitySet.getEntityType(), uriInfo.getApplyOption()) : targetEdmEntitySet.getEntityType();
+    return serializer.entityCollection(this.serviceMetadata, entityType, result,
+        createEntitySetOptions(request, targetEdmEntitySet));
+  }
+
+  @Override
+  public SerializerStreamResult serialize(final ODataRequest request, final EntityIterator result)
+      throws SerializerException, ODataJPASerializerException {
+
+    final EdmEntitySet targetEdmEntitySet = Util.determineTargetEntitySet(uriInfo.getUriResourceParts());
+    return serializer.entityCollectionStreamed(this.serviceMetadata, targetEdmEntitySet.getEntityType(), result,
+        createEntitySetOptions(request, targetEdmEntitySet));
+  }
+
+  private EntityCollectionSerializerOptions createEntitySetOptions(final ODataRequest request,
+      final EdmEntitySet targetEdmEntitySet) throws SerializerException, ODataJPASerializerException {
 
     final String selectList = uriHelper.buildContextURLSelectList(targetEdmEntitySet.getEntityType(),
         uriInfo.getExpandOption(), uriInfo.getSelectOption());
@@ -63,16 +83,13 @@ final class JPASerializeEntityCollection implements JPAOperationSerializer {
     }
 
     final String id = request.getRawBaseUri() + "/" + targetEdmEntitySet.getEntityType().getName();
-    final EntityCollectionSerializerOptions opts = EntityCollectionSerializerOptions.with()
+    return EntityCollectionSerializerOptions.with()
         .contextURL(contextUrl)
         .id(id)
         .count(uriInfo.getCountOption())
         .select(uriInfo.getSelectOption())
         .expand(uriInfo.getExpandOption())
         .build();
-
-    return serializer.entityCollection(this.serviceMetadata, targetEdmEntitySet.getEntityType(), result, opts);
-
   }
 
   @Override
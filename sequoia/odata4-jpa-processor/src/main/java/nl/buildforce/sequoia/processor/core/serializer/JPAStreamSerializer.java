@@ -0,0 +1,17 @@
+package nl.buildforce.sequoia.processor.core.serializer;
+
+import nl.buildforce.sequoia.processor.core.exception.ODataJPASerializerException;
+import nl.buildforce.olingo.commons.api.data.EntityIterator;
+import nl.buildforce.olingo.server.api.ODataRequest;
+import nl.buildforce.olingo.server.api.serializer.SerializerException;
+import nl.buildforce.olingo.server.api.serializer.SerializerStreamResult;
+
+/**
+ * Serializer that is able to write an entity collection while it is read. The entities are taken from the iterator
+ * when the response content gets written.
+ */
+public interface JPAStreamSerializer extends JPASerializer {
+
+  SerializerStreamResult serialize(final ODataRequest request, final EntityIterator result)
+      throws SerializerException, ODataJPASerializerException;
+}
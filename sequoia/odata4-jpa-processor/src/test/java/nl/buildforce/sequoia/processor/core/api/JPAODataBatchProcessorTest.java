@@ -74,7 +74,7 @@ public class JPAODataBatchProcessorTest {
     when(requestContext.getCUDRequestHandler()).thenReturn(cudHandler);
     when(requestContext.getTransactionFactory()).thenReturn(factory);
     when(factory.createTransaction()).thenReturn(transaction);
-    cut = new JPAODataBatchProcessor(requestContext);
+    cut = new JPAODataBatchProcessor(context, requestContext);
     cut.init(odata, serviceMetadata);
     requests = new ArrayList<>();
     requests.add(request);
@@ -110,7 +110,7 @@ public class JPAODataBatchProcessorTest {
   @Test
   public void whenSuccessfulThenCallValidateChanges() throws ODataApplicationException,
       ODataLibraryException {
-    cut = new JPAODataBatchProcessor(requestContext);
+    cut = new JPAODataBatchProcessor(context, requestContext);
 
     when(response.getStatusCode()).thenReturn(HttpStatusCode.OK.getStatusCode());
     when(facade.handleODataRequest(request)).thenReturn(response);
@@ -122,7 +122,7 @@ public class JPAODataBatchProcessorTest {
   @Test
   public void whenValidateChangesThrowsThenRollbackAndThrow() throws ODataApplicationException,
       ODataLibraryException {
-    cut = new JPAODataBatchProcessor(requestContext);
+    cut = new JPAODataBatchProcessor(context, requestContext);
     ODataJPAProcessException error = new ODataJPAProcessorException(
         ODataJPAProcessorException.MessageKeys.GETTER_NOT_FOUND, HttpStatusCode.BAD_REQUEST);
     when(response.getStatusCode()).thenReturn(HttpStatusCode.OK.getStatusCode());
@@ -137,7 +137,7 @@ public class JPAODataBatchProcessorTest {
   @Test
   public void whenODataLibraryExceptionThrowsThenRollbackAndThrow() throws ODataApplicationException,
       ODataLibraryException {
-    cut = new JPAODataBatchProcessor(requestContext);
+    cut = new JPAODataBatchProcessor(context, requestContext);
     ODataLibraryException error = new BatchSerializerException("",
         BatchSerializerException.MessageKeys.MISSING_CONTENT_ID, "");
     when(response.getStatusCode()).thenReturn(HttpStatusCode.OK.getStatusCode());
@@ -161,7 +161,7 @@ public class JPAODataBatchProcessorTest {
   @Test
   public void whenProcessChangeSetReturnsUnsuccessfulCallThenRollback() throws ODataApplicationException,
       ODataLibraryException {
-    cut = new JPAODataBatchProcessor(requestContext);
+    cut = new JPAODataBatchProcessor(context, requestContext);
 
     when(response.getStatusCode()).thenReturn(HttpStatusCode.BAD_REQUEST.getStatusCode());
     when(facade.handleODataRequest(request)).thenReturn(response);
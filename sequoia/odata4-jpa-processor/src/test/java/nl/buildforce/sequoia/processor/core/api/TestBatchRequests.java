@@ -8,9 +8,18 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestBatchRequests extends TestBase {
 
@@ -57,6 +66,135 @@ public class TestBatchRequests extends TestBase {
     assertEquals("5", value.get("ID").asText());
   }
 
+  @Test
+  public void testStreamingTwoGetRequestCheckValue() throws IOException, ODataException {
+    StringBuffer requestBody = createBodyTwoGet();
+
+    IntegrationTestHelper helper = IntegrationTestHelper.with(emf, "$batch")
+        .requestBody(requestBody).streamingBatch(true).build();
+    assertEquals(202, helper.getStatus());
+    assertEquals("3", helper.getBatchResult(1).get("ID").asText());
+    assertEquals("5", helper.getBatchResult(2).get("ID").asText());
+  }
+
+  @Test
+  public void testStreamingTwoGetRequestSecondFailCheckStatus() throws IOException, ODataException {
+    StringBuffer requestBody = createBodyTwoGetOneFail();
+
+    IntegrationTestHelper helper = IntegrationTestHelper.with(emf, "$batch")
+        .requestBody(requestBody).streamingBatch(true).build();
+    assertEquals(200, helper.getBatchResultStatus(1));
+    assertEquals(404, helper.getBatchResultStatus(2));
+  }
+
+  @Test
+  public void testStreamingMalformedPartEndsResponse() throws IOException, ODataException {
+    StringBuffer requestBody = createBodyTwoGetOneMalformed();
+
+    IntegrationTestHelper helper = IntegrationTestHelper.with(emf, "$batch")
+        .requestBody(requestBody).streamingBatch(true).build();
+    assertEquals(202, helper.getStatus());
+    assertEquals(200, helper.getBatchResultStatus(1));
+    assertEquals(400, helper.getBatchResultStatus(2));
+    assertEquals(0, helper.getBatchResultStatus(3));
+    final List<String> act = helper.getRawBatchResult();
+    assertTrue(act.get(act.size() - 1).matches("--batch_.*--"));
+  }
+
+  @Test
+  public void testConcurrentTwoGetRequestCheckValue() throws IOException, ODataException {
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      IntegrationTestHelper helper = IntegrationTestHelper.with(emf, "$batch")
+          .requestBody(createBodyTwoGet()).batchExecutor(executor).build();
+      assertEquals(202, helper.getStatus());
+      assertEquals("3", helper.getBatchResult(1).get("ID").asText());
+      assertEquals("5", helper.getBatchResult(2).get("ID").asText());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testConcurrentTwoGetRequestSecondFailCheckStatus() throws IOException, ODataException {
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      IntegrationTestHelper helper = IntegrationTestHelper.with(emf, "$batch")
+          .requestBody(createBodyTwoGetOneFail()).batchExecutor(executor).build();
+      assertEquals(200, helper.getBatchResultStatus(1));
+      assertEquals(404, helper.getBatchResultStatus(2));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testConcurrentStreamingTwoGetRequestCheckValue() throws IOException, ODataException {
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      IntegrationTestHelper helper = IntegrationTestHelper.with(emf, "$batch")
+          .requestBody(createBodyTwoGet()).streamingBatch(true).batchExecutor(executor).build();
+      assertEquals(202, helper.getStatus());
+      assertEquals("3", helper.getBatchResult(1).get("ID").asText());
+      assertEquals("5", helper.getBatchResult(2).get("ID").asText());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testConcurrentMoreGetRequestsThanThreadsBoundsPendingRequests() throws IOException, ODataException {
+    final CountingExecutor executor = new CountingExecutor(2);
+    try {
+      IntegrationTestHelper helper = IntegrationTestHelper.with(emf, "$batch")
+          .requestBody(createBodyGetOrganizations(10)).batchExecutor(executor).build();
+      assertEquals(202, helper.getStatus());
+      for (int i = 1; i <= 10; i++)
+        assertEquals(String.valueOf(i), helper.getBatchResult(i).get("ID").asText());
+      assertEquals(10, executor.submitted.get());
+      assertTrue(executor.maxPending.get() <= 2, "Pending queries: " + executor.maxPending.get());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testMalformedPartRejectsBatch() throws IOException, ODataException {
+    StringBuffer requestBody = createBodyTwoGetOneMalformed();
+
+    IntegrationTestHelper helper = new IntegrationTestHelper(emf, "$batch", requestBody);
+    assertEquals(400, helper.getStatus());
+  }
+
+  private StringBuffer createBodyTwoGetOneMalformed() {
+    StringBuffer requestBody = new StringBuffer("--abc123\r\n");
+    requestBody.append("Content-Type: application/http\r\n");
+    requestBody.append("Content-Transfer-Encoding: binary\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("GET Organizations('3') HTTP/1.1\r\n");
+    requestBody.append("Content-Type: application/json\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("--abc123\r\n");
+    requestBody.append("Content-Type: application/http\r\n");
+    requestBody.append("Content-Transfer-Encoding: binary\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("GET Organizations('5') HTTP/1.1\r\n");
+    requestBody.append("Authorization: Basic\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("--abc123\r\n");
+    requestBody.append("Content-Type: application/http\r\n");
+    requestBody.append("Content-Transfer-Encoding: binary\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("GET Organizations('5') HTTP/1.1\r\n");
+    requestBody.append("Content-Type: application/json\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("--abc123--");
+    return requestBody;
+  }
+
   private StringBuffer createBodyTwoGetOneFail() {
     StringBuffer requestBody = new StringBuffer("--abc123\r\n");
     requestBody.append("Content-Type: application/http\r\n");
@@ -99,6 +237,22 @@ public class TestBatchRequests extends TestBase {
     return requestBody;
   }
 
+  private StringBuffer createBodyGetOrganizations(final int count) {
+    StringBuffer requestBody = new StringBuffer();
+    for (int i = 1; i <= count; i++) {
+      requestBody.append("--abc123\r\n");
+      requestBody.append("Content-Type: application/http\r\n");
+      requestBody.append("Content-Transfer-Encoding: binary\r\n");
+      requestBody.append("\r\n");
+      requestBody.append("GET Organizations('").append(i).append("') HTTP/1.1\r\n");
+      requestBody.append("Content-Type: application/json\r\n");
+      requestBody.append("\r\n");
+      requestBody.append("\r\n");
+    }
+    requestBody.append("--abc123--");
+    return requestBody;
+  }
+
   private StringBuffer createBodyOneGet() {
     StringBuffer requestBody = new StringBuffer("--abc123\r\n");
     requestBody.append("Content-Type: application/http\r\n");
@@ -111,4 +265,30 @@ public class TestBatchRequests extends TestBase {
     requestBody.append("--abc123--");
     return requestBody;
   }
-}
\ No newline at end of file
+
+  /**
+   * Counts the queries that have been submitted, but are not finished yet.
+   */
+  private static class CountingExecutor extends ThreadPoolExecutor {
+    private final AtomicInteger submitted = new AtomicInteger();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicInteger maxPending = new AtomicInteger();
+
+    private CountingExecutor(final int threads) {
+      super(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+    }
+
+    @Override
+    protected <T> RunnableFuture<T> newTaskFor(final Callable<T> callable) {
+      submitted.incrementAndGet();
+      maxPending.accumulateAndGet(pending.incrementAndGet(), Math::max);
+      return super.newTaskFor(() -> {
+        try {
+          return callable.call();
+        } finally {
+          pending.decrementAndGet();
+        }
+      });
+    }
+  }
+}
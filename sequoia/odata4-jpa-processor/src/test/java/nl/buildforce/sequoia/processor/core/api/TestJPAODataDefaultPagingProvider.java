@@ -0,0 +1,349 @@
+package nl.buildforce.sequoia.processor.core.api;
+
+import nl.buildforce.olingo.commons.api.edm.EdmEntitySet;
+import nl.buildforce.olingo.server.api.ODataApplicationException;
+import nl.buildforce.olingo.server.api.uri.UriInfo;
+import nl.buildforce.olingo.server.api.uri.UriResource;
+import nl.buildforce.olingo.server.api.uri.UriResourceEntitySet;
+import nl.buildforce.olingo.server.api.uri.queryoption.FilterOption;
+import nl.buildforce.olingo.server.api.uri.queryoption.SystemQueryOption;
+import nl.buildforce.olingo.server.api.uri.queryoption.SystemQueryOptionKind;
+import nl.buildforce.sequoia.processor.core.query.JPACountQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestJPAODataDefaultPagingProvider {
+  private static final byte[] KEY = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+  private JPACountQuery countQuery;
+  private Clock clock;
+
+  @BeforeEach
+  public void setup() throws ODataApplicationException {
+    countQuery = mock(JPACountQuery.class);
+    when(countQuery.countResults()).thenReturn(10L);
+    clock = mock(Clock.class);
+    when(clock.millis()).thenReturn(1000L);
+  }
+
+  @Test
+  public void testReturnNullIfEntitySetIsNotPaged() throws ODataApplicationException {
+    final JPAODataDefaultPagingProvider cut = JPAODataDefaultPagingProvider.with()
+        .setMaxPageSize("Persons", 5).build();
+
+    assertNull(cut.getFirstPage(buildUriInfo("Organizations"), null, countQuery));
+  }
+
+  @Test
+  public void testCachedPagesCoverResult() throws ODataApplicationException {
+    final JPAODataDefaultPagingProvider cut = JPAODataDefaultPagingProvider.with()
+        .setMaxPageSize("Organizations", 4).build();
+    final UriInfo uriInfo = buildUriInfo("Organizations");
+
+    final JPAODataPage first = cut.getFirstPage(uriInfo, null, countQuery);
+    assertEquals(0, first.getSkip());
+    assertEquals(4, first.getTop());
+    final JPAODataPage second = cut.getNextPage("'" + first.getSkipToken() + "'");
+    assertEquals(4, second.getSkip());
+    assertEquals(4, second.getTop());
+    assertEquals(uriInfo, second.getUriInfo());
+    final JPAODataPage third = cut.getNextPage((String) second.getSkipToken());
+    assertEquals(8, third.getSkip());
+    assertEquals(2, third.getTop());
+    assertNull(third.getSkipToken());
+    assertEquals(2, cut.getHitCount());
+    assertEquals(0, cut.getMissCount());
+  }
+
+  @Test
+  public void testRespectPreferredPageSize() throws ODataApplicationException {
+    final JPAODataDefaultPagingProvider cut = JPAODataDefaultPagingProvider.with()
+        .setMaxPageSize("Organizations", 4).build();
+
+    assertEquals(3, cut.getFirstPage(buildUriInfo("Organizations"), 3, countQuery).getTop());
+  }
+
+  @Test
+  public void testUnknownSkiptokenCountsAsMiss() {
+    final JPAODataDefaultPagingProvider cut = JPAODataDefaultPagingProvider.with()
+        .setMaxPageSize("Organizations", 4).build();
+
+    assertNull(cut.getNextPage("'abc'"));
+    assertEquals(1, cut.getMissCount());
+  }
+
+  @Test
+  public void testCachedPageExpires() throws ODataApplicationException {
+    final JPAODataDefaultPagingProvider cut = JPAODataDefaultPagingProvider.with()
+        .setMaxPageSize("Organizations", 4).setTimeToLive(Duration.ofSeconds(10)).setClock(clock).build();
+    final JPAODataPage first = cut.getFirstPage(buildUriInfo("Organizations"), null, countQuery);
+
+    when(clock.millis()).thenReturn(11001L);
+    assertNull(cut.getNextPage((String) first.getSkipToken()));
+    assertEquals(1, cut.getMissCount());
+    assertEquals(1, cut.getEvictionCount());
+    assertEquals(0, cut.getCacheSize());
+  }
+
+  @Test
+  public void testExpiredPagesAreRemovedFromIndexOnRead() throws ODataApplicationException {
+    final JPAODataDefaultPagingProvider cut = JPAODataDefaultPagingProvider.with()
+        .setMaxPageSize("Organizations", 2).setTimeToLive(Duration.ofSeconds(10)).setClock(clock).build();
+    final UriInfo uriInfo = buildUriInfo("Organizations");
+    cut.getFirstPage(uriInfo, null, countQuery);
+    final JPAODataPage second = cut.getFirstPage(uriInfo, null, countQuery);
+    when(clock.millis()).thenReturn(6000L);
+    final JPAODataPage third = cut.getFirstPage(uriInfo, null, countQuery);
+    assertEquals(3, cut.getIndexSize());
+
+    when(clock.millis()).thenReturn(11001L);
+    assertNull(cut.getNextPage((String) second.getSkipToken()));
+    assertEquals(1, cut.getIndexSize());
+    assertEquals(1, cut.getCacheSize());
+    assertEquals(2, cut.getEvictionCount());
+    assertNotNull(cut.getNextPage((String) third.getSkipToken()));
+  }
+
+  @Test
+  public void testCacheIsBounded() throws ODataApplicationException {
+    final JPAODataDefaultPagingProvider cut = JPAODataDefaultPagingProvider.with()
+        .setMaxPageSize("Organizations", 2).setCacheSize(2).build();
+    final UriInfo uriInfo = buildUriInfo("Organizations");
+
+    final JPAODataPage first = cut.getFirstPage(uriInfo, null, countQuery);
+    final JPAODataPage second = cut.getFirstPage(uriInfo, null, countQuery);
+    final JPAODataPage third = cut.getFirstPage(uriInfo, null, countQuery);
+    assertEquals(2, cut.getCacheSize());
+    assertEquals(1, cut.getEvictionCount());
+    assertNull(cut.getNextPage((String) first.getSkipToken()));
+    assertNotNull(cut.getNextPage((String) second.getSkipToken()));
+    assertNotNull(cut.getNextPage((String) third.getSkipToken()));
+  }
+
+  @Test
+  public void testExpiredPagesAreRemovedEverySweepInterval() throws ODataApplicationException {
+    final JPAODataDefaultPagingProvider cut = JPAODataDefaultPagingProvider.with()
+        .setMaxPageSize("Organizations", 2).setCacheSize(16).setTimeToLive(Duration.ofSeconds(10)).setClock(clock)
+        .build();
+    final UriInfo uriInfo = buildUriInfo("Organizations");
+    for (int i = 0; i < 16; i++)
+      cut.getFirstPage(uriInfo, null, countQuery);
+
+    when(clock.millis()).thenReturn(11001L);
+    // First insert into the full cache only evicts the oldest page
+    cut.getFirstPage(uriInfo, null, countQuery);
+    assertEquals(16, cut.getCacheSize());
+    assertEquals(1, cut.getEvictionCount());
+    // Second insert reaches the sweep interval of 16 / 8 inserts and removes all expired pages
+    cut.getFirstPage(uriInfo, null, countQuery);
+    assertEquals(2, cut.getCacheSize());
+    assertEquals(16, cut.getEvictionCount());
+  }
+
+  @Test
+  public void testCacheIsBoundedUnderConcurrentAccess() throws Exception {
+    final JPAODataDefaultPagingProvider cut = JPAODataDefaultPagingProvider.with()
+        .setMaxPageSize("Organizations", 2).setCacheSize(50).build();
+    final UriInfo uriInfo = buildUriInfo("Organizations");
+    final Set<Object> skiptokens = ConcurrentHashMap.newKeySet();
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<?>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++)
+        results.add(executor.submit(() -> {
+          for (int j = 0; j < 200; j++) {
+            final JPAODataPage page = cut.getFirstPage(uriInfo, null, countQuery);
+            skiptokens.add(page.getSkipToken());
+            cut.getNextPage((String) page.getSkipToken());
+          }
+          return null;
+        }));
+      for (final Future<?> result : results)
+        result.get(30, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+    assertEquals(1600, skiptokens.size());
+    assertTrue(cut.getCacheSize() <= 50);
+    // Follow-up pages are cached as well, if their previous page was still cached
+    assertEquals(1600 + cut.getHitCount() - cut.getCacheSize(), cut.getEvictionCount());
+    assertEquals(1600, cut.getHitCount() + cut.getMissCount());
+  }
+
+  @Test
+  public void testCachedKeysetIsHandedOver() throws ODataApplicationException {
+    final JPAODataDefaultPagingProvider cut = JPAODataDefaultPagingProvider.with()
+        .setMaxPageSize("Organizations", 4).setKeysetPaging(true).build();
+
+    final JPAODataPage first = cut.getFirstPage(buildUriInfo("Organizations"), null, countQuery);
+    assertTrue(first.getKeyset().isEmpty());
+    cut.lastEntityRead(first, Collections.singletonMap("ID", "4"));
+    final JPAODataPage second = cut.getNextPage((String) first.getSkipToken());
+    assertEquals("4", second.getKeyset().get("ID"));
+    assertEquals(4, second.getSkip());
+  }
+
+  @Test
+  public void testStatelessPagesCoverResult() throws ODataApplicationException {
+    final UriInfo uriInfo = buildUriInfo("Organizations");
+    final JPAODataPage first = createStatelessCut(false).getFirstPage(uriInfo, null, countQuery);
+    assertTrue(createStatelessCut(false).isStateless());
+    assertFalse(first.getSkipToken() instanceof String);
+
+    // Other instance with the same key
+    final JPAODataPage second = createStatelessCut(false).getNextPage(first.getSkipToken().toString(), uriInfo);
+    assertEquals(4, second.getSkip());
+    assertEquals(4, second.getTop());
+    final JPAODataPage third = createStatelessCut(false).getNextPage(second.getSkipToken().toString(), uriInfo);
+    assertEquals(8, third.getSkip());
+    assertEquals(2, third.getTop());
+    assertNull(third.getSkipToken());
+  }
+
+  @Test
+  public void testStatelessRejectsOtherKey() throws ODataApplicationException {
+    final UriInfo uriInfo = buildUriInfo("Organizations");
+    final JPAODataPage first = createStatelessCut(false).getFirstPage(uriInfo, null, countQuery);
+    final JPAODataDefaultPagingProvider cut = JPAODataDefaultPagingProvider.with().setMaxPageSize("Organizations", 4)
+        .setSigningKey("fedcba9876543210fedcba9876543210".getBytes(StandardCharsets.UTF_8)).build();
+
+    assertNull(cut.getNextPage(first.getSkipToken().toString(), uriInfo));
+    assertEquals(1, cut.getMissCount());
+  }
+
+  @Test
+  public void testStatelessRejectsManipulatedToken() throws ODataApplicationException {
+    final UriInfo uriInfo = buildUriInfo("Organizations");
+    final JPAODataDefaultPagingProvider cut = createStatelessCut(false);
+    final String skiptoken = cut.getFirstPage(uriInfo, null, countQuery).getSkipToken().toString();
+    final char[] manipulated = skiptoken.toCharArray();
+    manipulated[5] = manipulated[5] == 'A' ? 'B' : 'A';
+
+    assertNull(cut.getNextPage(new String(manipulated), uriInfo));
+    assertNull(cut.getNextPage("xyz", uriInfo));
+    assertNull(cut.getNextPage(skiptoken));
+  }
+
+  @Test
+  public void testStatelessRejectsOtherQuery() throws ODataApplicationException {
+    final UriInfo uriInfo = buildUriInfo("Organizations");
+    final JPAODataDefaultPagingProvider cut = createStatelessCut(false);
+    final String skiptoken = cut.getFirstPage(uriInfo, null, countQuery).getSkipToken().toString();
+
+    final UriInfo otherInfo = buildUriInfo("Organizations");
+    final FilterOption filter = mock(FilterOption.class);
+    when(filter.getKind()).thenReturn(SystemQueryOptionKind.FILTER);
+    when(filter.getName()).thenReturn("$filter");
+    when(filter.getText()).thenReturn("ID eq '1'");
+    final List<SystemQueryOption> options = new ArrayList<>();
+    options.add(filter);
+    when(otherInfo.getSystemQueryOptions()).thenReturn(options);
+
+    assertNull(cut.getNextPage(skiptoken, otherInfo));
+  }
+
+  @Test
+  public void testStatelessTokenExpires() throws ODataApplicationException {
+    final UriInfo uriInfo = buildUriInfo("Organizations");
+    final JPAODataDefaultPagingProvider cut = JPAODataDefaultPagingProvider.with().setMaxPageSize("Organizations", 4)
+        .setSigningKey(KEY).setTimeToLive(Duration.ofSeconds(10)).setClock(clock).build();
+    final String skiptoken = cut.getFirstPage(uriInfo, null, countQuery).getSkipToken().toString();
+
+    assertNotNull(cut.getNextPage(skiptoken, uriInfo));
+    when(clock.millis()).thenReturn(11001L);
+    assertNull(cut.getNextPage(skiptoken, uriInfo));
+  }
+
+  @Test
+  public void testStatelessTokenContainsKeyset() throws ODataApplicationException {
+    final UriInfo uriInfo = buildUriInfo("Organizations");
+    final JPAODataPage first = createStatelessCut(true).getFirstPage(uriInfo, null, countQuery);
+    final Map<String, Object> keyset = new HashMap<>();
+    keyset.put("ID", "4");
+    keyset.put("Number", 42);
+    keyset.put("Amount", new BigDecimal("12.50"));
+    keyset.put("Date", LocalDate.of(2020, 2, 29));
+    keyset.put("Timestamp", Timestamp.valueOf("2020-02-29 12:13:14.123456789"));
+    keyset.put("Uuid", UUID.fromString("8a8b3c49-8c5b-4ee2-a2b2-3f0b3d3b6f3a"));
+    createStatelessCut(true).lastEntityRead(first, keyset);
+
+    final JPAODataPage act = createStatelessCut(true).getNextPage(first.getSkipToken().toString(), uriInfo);
+    assertEquals(keyset, act.getKeyset());
+    assertEquals(Timestamp.class, act.getKeyset().get("Timestamp").getClass());
+  }
+
+  @Test
+  public void testStatelessTokenContainsLongKeyset() throws ODataApplicationException {
+    final UriInfo uriInfo = buildUriInfo("Organizations");
+    final JPAODataPage first = createStatelessCut(true).getFirstPage(uriInfo, null, countQuery);
+    // writeUTF is limited to 65535 bytes
+    final Map<String, Object> keyset = Collections.singletonMap("Name\u00e4", "\u00e4".repeat(40000));
+    createStatelessCut(true).lastEntityRead(first, keyset);
+
+    final JPAODataPage act = createStatelessCut(true).getNextPage(first.getSkipToken().toString(), uriInfo);
+    assertEquals(keyset, act.getKeyset());
+  }
+
+  @Test
+  public void testStatelessTokenWithoutKeysetFallsBackToSkip() throws ODataApplicationException {
+    final UriInfo uriInfo = buildUriInfo("Organizations");
+    final JPAODataPage first = createStatelessCut(true).getFirstPage(uriInfo, null, countQuery);
+    createStatelessCut(true).lastEntityRead(first, Collections.singletonMap("ID", new Object()));
+
+    final JPAODataPage act = createStatelessCut(true).getNextPage(first.getSkipToken().toString(), uriInfo);
+    assertTrue(act.isKeysetPaging());
+    assertTrue(act.getKeyset().isEmpty());
+    assertEquals(4, act.getSkip());
+  }
+
+  @Test
+  public void testBuilderRejectsShortKey() {
+    final JPAODataDefaultPagingProvider.Builder builder = JPAODataDefaultPagingProvider.with();
+    assertThrows(IllegalArgumentException.class, () -> builder.setSigningKey(new byte[8]));
+  }
+
+  private JPAODataDefaultPagingProvider createStatelessCut(final boolean keysetPaging) {
+    return JPAODataDefaultPagingProvider.with().setMaxPageSize("Organizations", 4).setSigningKey(KEY)
+        .setKeysetPaging(keysetPaging).build();
+  }
+
+  private UriInfo buildUriInfo(final String esName) {
+    final UriInfo uriInfo = mock(UriInfo.class);
+    final UriResourceEntitySet uriEs = mock(UriResourceEntitySet.class);
+    final EdmEntitySet es = mock(EdmEntitySet.class);
+    when(uriEs.getEntitySet()).thenReturn(es);
+    when(uriEs.toString()).thenReturn(esName);
+    when(es.getName()).thenReturn(esName);
+    final List<UriResource> resourceParts = new ArrayList<>();
+    resourceParts.add(uriEs);
+    when(uriInfo.getUriResourceParts()).thenReturn(resourceParts);
+    return uriInfo;
+  }
+}
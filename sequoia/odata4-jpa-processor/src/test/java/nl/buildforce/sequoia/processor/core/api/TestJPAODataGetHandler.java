@@ -1,5 +1,6 @@
 package nl.buildforce.sequoia.processor.core.api;
 
+import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAException;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAFilterException;
 import nl.buildforce.sequoia.processor.core.testmodel.DataSourceHelper;
@@ -9,6 +10,7 @@ import nl.buildforce.sequoia.processor.core.util.TestBase;
 import nl.buildforce.olingo.commons.api.ex.ODataException;
 import nl.buildforce.olingo.server.api.OData;
 import nl.buildforce.olingo.server.api.ODataHttpHandler;
+import nl.buildforce.olingo.server.api.ServiceMetadata;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentMatcher;
@@ -17,6 +19,11 @@ import jakarta.persistence.EntityManager;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -25,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -117,14 +125,14 @@ public class TestJPAODataGetHandler extends TestBase {
 
  @Test
   public void testGetHandlerProvidingContext() throws ODataException {
-    final JPAODataCRUDContextAccess context = new JPAODataServiceContext(PUNIT_NAME, ds);
+    final JPAODataCRUDContextAccess context = new JPAODataServiceContext(PUNIT_NAME, ds, enumPackages);
     cut = new JPAODataHandler(context);
     assertNotNull(cut);
   }
 
    @Test
   public void testGetRequestContextProvidingSessionContext() throws ODataException {
-    final JPAODataCRUDContextAccess context = new JPAODataServiceContext(PUNIT_NAME, ds);
+    final JPAODataCRUDContextAccess context = new JPAODataServiceContext(PUNIT_NAME, ds, enumPackages);
     cut = new JPAODataHandler(context);
     assertNotNull(cut.getJPAODataRequestContext());
   }
@@ -132,7 +140,7 @@ public class TestJPAODataGetHandler extends TestBase {
   @Test
   public void testPropertiesInstanceProvidingSessionContext() throws ODataException {
 
-    final JPAODataCRUDContextAccess context = new JPAODataServiceContext(PUNIT_NAME, ds);
+    final JPAODataCRUDContextAccess context = new JPAODataServiceContext(PUNIT_NAME, ds, enumPackages);
     cut = new JPAODataHandler(context);
     assertNull(cut.ds);
     assertNotNull(cut.odata);
@@ -198,7 +206,7 @@ public class TestJPAODataGetHandler extends TestBase {
     final OData odata = mock(OData.class);
     final ODataHttpHandler handler = mock(ODataHttpHandler.class);
     when(odata.createHandler(any())).thenReturn(handler);
-    final JPAODataCRUDContextAccess context = new JPAODataServiceContext(PUNIT_NAME, ds);
+    final JPAODataCRUDContextAccess context = new JPAODataServiceContext(PUNIT_NAME, ds, enumPackages);
     cut = new JPAODataHandler(context, odata);
     cut.process(request, response);
     verify(handler, times(1)).process(argThat(new HttpRequestMatcher()), any());
@@ -219,6 +227,40 @@ public class TestJPAODataGetHandler extends TestBase {
     verify(handler, times(1)).process(argThat(new HttpRequestMatcher()), any());
   }
 */
+  @Test
+  public void testServiceMetadataCreatedOncePerServiceContext() throws ODataException {
+    final OData odata = mock(OData.class);
+    final ODataHttpHandler handler = mock(ODataHttpHandler.class);
+    when(odata.createHandler(any())).thenReturn(handler);
+    when(odata.createServiceMetadata(any(), any())).thenReturn(mock(ServiceMetadata.class));
+    final JPAODataCRUDContextAccess context = new JPAODataServiceContext(PUNIT_NAME, ds, enumPackages);
+    new JPAODataHandler(context, odata).process(request, response);
+    new JPAODataHandler(context, odata).process(request, new HttpServletResponseDouble());
+    verify(odata, times(1)).createServiceMetadata(any(), any());
+    verify(handler, times(2)).process(any(HttpServletRequest.class), any());
+  }
+
+  @Test
+  public void testRequestLocalesRemovedAfterRequest() throws ODataException {
+    final OData odata = mock(OData.class);
+    final ODataHttpHandler handler = mock(ODataHttpHandler.class);
+    final List<List<Locale>> requestLocales = new ArrayList<>();
+    when(odata.createHandler(any())).thenReturn(handler);
+    doAnswer(invocation -> requestLocales.add(ODataJPAException.getLocaleList()))
+        .when(handler).process(any(HttpServletRequest.class), any());
+    final HttpServletRequest germanRequest = new HttpServletRequestWrapper(request) {
+      @Override
+      public Enumeration<Locale> getLocales() {
+        return Collections.enumeration(List.of(Locale.GERMAN));
+      }
+    };
+    final JPAODataCRUDContextAccess context = new JPAODataServiceContext(PUNIT_NAME, ds, enumPackages);
+    new JPAODataHandler(context, odata).process(germanRequest, response);
+
+    assertEquals(List.of(List.of(Locale.GERMAN)), requestLocales);
+    assertNull(ODataJPAException.getLocales());
+  }
+
   public static class HttpRequestMatcher implements ArgumentMatcher<HttpServletRequest> {
     @Override
     public boolean matches(final HttpServletRequest argument) {
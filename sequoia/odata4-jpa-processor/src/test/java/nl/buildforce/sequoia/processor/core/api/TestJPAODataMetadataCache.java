@@ -0,0 +1,222 @@
+package nl.buildforce.sequoia.processor.core.api;
+
+import nl.buildforce.sequoia.metadata.api.JPAEdmProvider;
+import nl.buildforce.sequoia.processor.core.util.TestBase;
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.olingo.commons.api.format.ContentType;
+import nl.buildforce.olingo.commons.api.http.HttpMethod;
+import nl.buildforce.olingo.server.api.OData;
+import nl.buildforce.olingo.server.api.ODataRequest;
+import nl.buildforce.olingo.server.api.ODataResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TestJPAODataMetadataCache extends TestBase {
+  private OData odata;
+  private JPAEdmProvider edmProvider;
+  private JPAODataMetadataCache cut;
+
+  @BeforeEach
+  public void setup() throws ODataException {
+    odata = OData.newInstance();
+    edmProvider = new JPAEdmProvider(PUNIT_NAME, emf, enumPackages);
+    cut = new JPAODataMetadataCache(odata, edmProvider, new ArrayList<>(), true);
+  }
+
+  @Test
+  public void testServiceMetadataUsesCacheAsETagSupport() {
+    assertSame(cut, cut.getServiceMetadata().getServiceMetadataETagSupport());
+  }
+
+  @Test
+  public void testMetadataEqualsUncachedMetadata() throws ODataException, IOException {
+    for (final ContentType format : new ContentType[] { ContentType.APPLICATION_XML, ContentType.APPLICATION_JSON }) {
+      final byte[] expected = odata.createSerializer(format).metadataDocument(odata.createServiceMetadata(edmProvider,
+          new ArrayList<>())).getContent().readAllBytes();
+      final ODataResponse response = readMetadata(createRequest(HttpMethod.GET), format);
+
+      assertEquals(200, response.getStatusCode());
+      assertEquals(format.toString(), response.getHeader("Content-Type"));
+      assertArrayEquals(expected, response.getContent().readAllBytes());
+    }
+  }
+
+  @Test
+  public void testMetadataRenderedOnce() throws ODataException {
+    assertSame(cut.getMetadataDocument(ContentType.APPLICATION_XML), cut.getMetadataDocument(
+        ContentType.APPLICATION_XML));
+    assertSame(cut.getServiceDocument(ContentType.APPLICATION_JSON, null), cut.getServiceDocument(
+        ContentType.APPLICATION_JSON, null));
+  }
+
+  @Test
+  public void testServiceDocumentWithServiceRootNotCached() throws ODataException {
+    final JPAODataMetadataCache.JPAODataDocument first = cut.getServiceDocument(ContentType.APPLICATION_JSON,
+        "http://localhost/a/");
+    assertNotSame(first, cut.getServiceDocument(ContentType.APPLICATION_JSON, "http://localhost/a/"));
+    assertEquals(first.getETag(), cut.getServiceDocument(ContentType.APPLICATION_JSON, "http://localhost/a/")
+        .getETag());
+    assertNotEquals(first.getETag(), cut.getServiceDocument(ContentType.APPLICATION_JSON, "http://localhost/b/")
+        .getETag());
+  }
+
+  @Test
+  public void testMetadataETagIsWeakAndStable() {
+    final String eTag = cut.getMetadataETag();
+    assertNotNull(eTag);
+    assertTrue(eTag.startsWith("W/\""));
+    assertEquals(eTag, new JPAODataMetadataCache(odata, edmProvider, new ArrayList<>(), false).getMetadataETag());
+    assertEquals(eTag, cut.getServiceDocumentETag());
+  }
+
+  @Test
+  public void testDocumentETagIsStrongPerRepresentation() throws ODataException {
+    final JPAODataMetadataCache.JPAODataDocument xml = cut.getMetadataDocument(ContentType.APPLICATION_XML);
+    final JPAODataMetadataCache.JPAODataDocument json = cut.getMetadataDocument(ContentType.APPLICATION_JSON);
+    assertTrue(xml.getETag().startsWith("\""));
+    assertTrue(xml.getCompressedETag().startsWith("\""));
+    assertNotEquals(xml.getETag(), json.getETag());
+    assertNotEquals(xml.getETag(), xml.getCompressedETag());
+    assertEquals(xml.getETag(), new JPAODataMetadataCache(odata, edmProvider, new ArrayList<>(), false)
+        .getMetadataDocument(ContentType.APPLICATION_XML).getETag());
+  }
+
+  @Test
+  public void testMetadataNotModified() throws ODataException {
+    final ODataRequest request = createRequest(HttpMethod.GET);
+    final String eTag = cut.getMetadataDocument(ContentType.APPLICATION_XML).getETag();
+    request.addHeader("If-None-Match", Collections.singletonList(eTag));
+    final ODataResponse response = readMetadata(request, ContentType.APPLICATION_XML);
+
+    assertEquals(304, response.getStatusCode());
+    assertEquals(eTag, response.getHeader("ETag"));
+    assertNull(response.getContent());
+  }
+
+  @Test
+  public void testMetadataModifiedOnETagOfOtherEncoding() throws ODataException {
+    final ODataRequest request = createRequest(HttpMethod.GET);
+    request.addHeader("Accept-Encoding", Collections.singletonList("gzip"));
+    request.addHeader("If-None-Match", Collections.singletonList(cut.getMetadataDocument(ContentType.APPLICATION_XML)
+        .getETag()));
+    final ODataResponse response = readMetadata(request, ContentType.APPLICATION_XML);
+
+    assertEquals(200, response.getStatusCode());
+    assertEquals("gzip", response.getHeader("Content-Encoding"));
+    assertEquals(cut.getMetadataDocument(ContentType.APPLICATION_XML).getCompressedETag(), response.getHeader("ETag"));
+  }
+
+  @Test
+  public void testMetadataModifiedOnOtherETag() throws ODataException {
+    final ODataRequest request = createRequest(HttpMethod.GET);
+    request.addHeader("If-None-Match", Collections.singletonList("\"0\""));
+    final ODataResponse response = readMetadata(request, ContentType.APPLICATION_XML);
+
+    assertEquals(200, response.getStatusCode());
+    assertNotNull(response.getContent());
+  }
+
+  @Test
+  public void testMetadataCompressedIfAccepted() throws ODataException, IOException {
+    final ODataRequest request = createRequest(HttpMethod.GET);
+    request.addHeader("Accept-Encoding", Collections.singletonList("deflate, gzip;q=0.8"));
+    final ODataResponse response = readMetadata(request, ContentType.APPLICATION_XML);
+
+    assertEquals("gzip", response.getHeader("Content-Encoding"));
+    assertEquals("Accept-Encoding", response.getHeader("Vary"));
+    assertArrayEquals(cut.getMetadataDocument(ContentType.APPLICATION_XML).getContent(), gunzip(response
+        .getContent()));
+  }
+
+  @Test
+  public void testMetadataNotCompressedIfRejected() throws ODataException {
+    final ODataRequest request = createRequest(HttpMethod.GET);
+    request.addHeader("Accept-Encoding", Collections.singletonList("gzip;q=0, identity"));
+    final ODataResponse response = readMetadata(request, ContentType.APPLICATION_XML);
+
+    assertNull(response.getHeader("Content-Encoding"));
+  }
+
+  @Test
+  public void testMetadataNotCompressedIfNotRequested() throws ODataException {
+    cut = new JPAODataMetadataCache(odata, edmProvider, new ArrayList<>(), false);
+    final ODataRequest request = createRequest(HttpMethod.GET);
+    request.addHeader("Accept-Encoding", Collections.singletonList("gzip"));
+    final ODataResponse response = readMetadata(request, ContentType.APPLICATION_XML);
+
+    assertNull(response.getHeader("Content-Encoding"));
+    assertNull(response.getHeader("Vary"));
+    assertNull(cut.getMetadataDocument(ContentType.APPLICATION_XML).getCompressedContent());
+  }
+
+  @Test
+  public void testMetadataHeadWithoutContent() throws ODataException {
+    final ODataResponse response = readMetadata(createRequest(HttpMethod.HEAD), ContentType.APPLICATION_XML);
+
+    assertEquals(200, response.getStatusCode());
+    assertNull(response.getContent());
+  }
+
+  @Test
+  public void testServiceDocumentFromCache() throws ODataException, IOException {
+    final JPAODataCRUDContextAccess context = mock(JPAODataCRUDContextAccess.class);
+    when(context.getMetadataCache()).thenReturn(Optional.of(cut));
+    final JPAODataServiceDocumentProcessor processor = new JPAODataServiceDocumentProcessor(context);
+    processor.init(odata, cut.getServiceMetadata());
+
+    final ODataResponse response = new ODataResponse();
+    processor.readServiceDocument(createRequest(HttpMethod.GET), response, ContentType.APPLICATION_JSON);
+    assertEquals(200, response.getStatusCode());
+    final String eTag = cut.getServiceDocument(ContentType.APPLICATION_JSON, null).getETag();
+    assertEquals(eTag, response.getHeader("ETag"));
+    final String document = new String(response.getContent().readAllBytes());
+    assertTrue(document.contains("Organizations"));
+
+    final ODataRequest request = createRequest(HttpMethod.GET);
+    request.addHeader("If-None-Match", Collections.singletonList(eTag));
+    final ODataResponse notModified = new ODataResponse();
+    processor.readServiceDocument(request, notModified, ContentType.APPLICATION_JSON);
+    assertEquals(304, notModified.getStatusCode());
+  }
+
+  private ODataResponse readMetadata(final ODataRequest request, final ContentType format) throws ODataException {
+    final JPAODataMetadataProcessor processor = new JPAODataMetadataProcessor(cut);
+    processor.init(odata, cut.getServiceMetadata());
+    final ODataResponse response = new ODataResponse();
+    processor.readMetadata(request, response, format);
+    return response;
+  }
+
+  private ODataRequest createRequest(final HttpMethod method) {
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(method);
+    return request;
+  }
+
+  private byte[] gunzip(final InputStream content) throws IOException {
+    final ByteArrayOutputStream result = new ByteArrayOutputStream();
+    try (InputStream in = new GZIPInputStream(content)) {
+      in.transferTo(result);
+    }
+    return result.toByteArray();
+  }
+}
@@ -0,0 +1,100 @@
+package nl.buildforce.sequoia.processor.core.api;
+
+import nl.buildforce.sequoia.processor.core.api.JPAODataDefaultMetrics.Histogram;
+import nl.buildforce.sequoia.processor.core.api.JPAODataMetrics.Phase;
+import nl.buildforce.sequoia.processor.core.util.IntegrationTestHelper;
+import nl.buildforce.sequoia.processor.core.util.TestBase;
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestJPAODataMetrics extends TestBase {
+
+  @Test
+  public void testPhasesAndRowsRecordedPerEntitySet() throws IOException, ODataException {
+    final JPAODataDefaultMetrics metrics = new JPAODataDefaultMetrics();
+
+    final IntegrationTestHelper helper = IntegrationTestHelper.with(emf, "Organizations").metrics(metrics).build();
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    for (final Phase phase : Phase.values())
+      assertEquals(1L, metrics.getHistogram("Organizations", phase.name()).orElseThrow().getCount(), phase.name());
+    final Histogram rows = metrics.getHistogram("Organizations", JPAODataDefaultMetrics.ROWS).orElseThrow();
+    assertEquals(1L, rows.getCount());
+    assertEquals(10L, rows.getSum());
+    assertEquals(0L, metrics.getHistogram("Organizations", JPAODataDefaultMetrics.EXPAND_FAN_OUT).orElseThrow()
+        .getCount());
+  }
+
+  @Test
+  public void testExpandFanOutRecordedForExpandedEntitySet() throws IOException, ODataException {
+    final JPAODataDefaultMetrics metrics = new JPAODataDefaultMetrics();
+
+    final IntegrationTestHelper helper = IntegrationTestHelper.with(emf, "Organizations?$expand=Roles")
+        .metrics(metrics).build();
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final Histogram rows = metrics.getHistogram("BusinessPartnerRoles", JPAODataDefaultMetrics.ROWS).orElseThrow();
+    final Histogram fanOut = metrics.getHistogram("BusinessPartnerRoles", JPAODataDefaultMetrics.EXPAND_FAN_OUT)
+        .orElseThrow();
+    assertEquals(1L, rows.getCount());
+    assertTrue(fanOut.getCount() > 0);
+    assertEquals(rows.getSum(), fanOut.getSum());
+    assertEquals(1L, metrics.getHistogram("BusinessPartnerRoles", Phase.SQL_EXECUTION.name()).orElseThrow()
+        .getCount());
+    assertEquals(0L, metrics.getHistogram("BusinessPartnerRoles", Phase.URI_PARSE.name()).orElseThrow().getCount());
+  }
+
+  @Test
+  public void testNothingRecordedForUnusedEntitySet() throws IOException, ODataException {
+    final JPAODataDefaultMetrics metrics = new JPAODataDefaultMetrics();
+
+    final IntegrationTestHelper helper = IntegrationTestHelper.with(emf, "Organizations('3')").metrics(metrics).build();
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    assertFalse(metrics.getHistogram("BusinessPartnerRoles", JPAODataDefaultMetrics.ROWS).isPresent());
+  }
+
+  @Test
+  public void testHistogramPercentiles() {
+    final JPAODataDefaultMetrics metrics = new JPAODataDefaultMetrics();
+    for (int i = 1; i <= 100; i++)
+      metrics.recordRows("Organizations", i);
+
+    final Histogram rows = metrics.getHistogram("Organizations", JPAODataDefaultMetrics.ROWS).orElseThrow();
+    assertEquals(100L, rows.getCount());
+    assertEquals(5050L, rows.getSum());
+    assertEquals(50.5, rows.getMean());
+    assertEquals(100L, rows.getMax());
+    assertEquals(63L, rows.getPercentile50());
+    assertEquals(100L, rows.getPercentile99());
+  }
+
+  @Test
+  public void testHistogramsRegisteredAsMXBeans() throws IOException, ODataException, JMException {
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final JPAODataDefaultMetrics metrics = new JPAODataDefaultMetrics(server, "TestService");
+    final ObjectName name = new ObjectName(
+        "nl.buildforce.sequoia:type=Metrics,service=TestService,entitySet=Organizations,name=SQL_EXECUTION");
+    try {
+      final IntegrationTestHelper helper = IntegrationTestHelper.with(emf, "Organizations").metrics(metrics).build();
+      helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+      assertTrue(server.isRegistered(name));
+      assertEquals(1L, server.getAttribute(name, "Count"));
+    } finally {
+      metrics.unregisterMBeans();
+    }
+    assertFalse(server.isRegistered(name));
+  }
+}
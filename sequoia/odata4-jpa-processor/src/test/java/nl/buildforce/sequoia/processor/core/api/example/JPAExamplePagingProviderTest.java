@@ -24,13 +24,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -228,6 +231,55 @@ public class JPAExamplePagingProviderTest {
     assertNotNull(cut.getNextPage((String) first.getSkipToken()));
   }
 
+  @Test
+  public void testReturnNoKeysetPerDefault() throws ODataApplicationException {
+    final UriInfo info = buildUriInfo();
+    final JPAExamplePagingProvider cut = createOrgCut(2);
+    final JPAODataPage first = cut.getFirstPage(info, null, countQuery /*, null*/);
+    final JPAODataPage second = cut.getNextPage(toODataString((String) first.getSkipToken()));
+
+    assertFalse(first.isKeysetPaging());
+    assertFalse(second.isKeysetPaging());
+    assertNull(second.getKeyset());
+  }
+
+  @Test
+  public void testReturnEmptyKeysetFirstPage() throws ODataApplicationException {
+    final UriInfo info = buildUriInfo();
+    final JPAExamplePagingProvider cut = createOrgKeysetCut(2);
+    final JPAODataPage act = cut.getFirstPage(info, null, countQuery /*, null*/);
+
+    assertTrue(act.isKeysetPaging());
+    assertTrue(act.getKeyset().isEmpty());
+    assertEquals(0, act.getSkip());
+  }
+
+  @Test
+  public void testReturnKeysetOfLastEntityNextPage() throws ODataApplicationException {
+    final UriInfo info = buildUriInfo();
+    final JPAExamplePagingProvider cut = createOrgKeysetCut(2);
+    final JPAODataPage first = cut.getFirstPage(info, null, countQuery /*, null*/);
+    cut.lastEntityRead(first, Collections.singletonMap("ID", "9"));
+    final JPAODataPage act = cut.getNextPage(toODataString((String) first.getSkipToken()));
+
+    assertTrue(act.isKeysetPaging());
+    assertEquals("9", act.getKeyset().get("ID"));
+    assertEquals(2, act.getSkip());
+    assertEquals(2, act.getTop());
+  }
+
+  @Test
+  public void testReturnEmptyKeysetIfLastEntityUnknown() throws ODataApplicationException {
+    final UriInfo info = buildUriInfo();
+    final JPAExamplePagingProvider cut = createOrgKeysetCut(2);
+    final JPAODataPage first = cut.getFirstPage(info, null, countQuery /*, null*/);
+    final JPAODataPage act = cut.getNextPage(toODataString((String) first.getSkipToken()));
+
+    assertTrue(act.isKeysetPaging());
+    assertTrue(act.getKeyset().isEmpty());
+    assertEquals(2, act.getSkip());
+  }
+
   private UriInfo buildUriInfo() {
     return buildUriInfo("Organizations", "Organization");
   }
@@ -287,6 +339,12 @@ public class JPAExamplePagingProviderTest {
     return new JPAExamplePagingProvider(sizes);
   }
 
+  private JPAExamplePagingProvider createOrgKeysetCut(final int size) {
+    final Map<String, Integer> sizes = new HashMap<>();
+    sizes.put("Organizations", size);
+    return new JPAExamplePagingProvider(sizes, 10, true);
+  }
+
   private JPAExamplePagingProvider createPersonCut(final int size) {
     final Map<String, Integer> sizes = new HashMap<>();
     sizes.put("Persons", size);
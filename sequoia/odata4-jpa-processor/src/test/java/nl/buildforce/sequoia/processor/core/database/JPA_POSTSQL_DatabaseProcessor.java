@@ -1,18 +1,24 @@
 package nl.buildforce.sequoia.processor.core.database;
 
 import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPADataBaseFunction;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPADBAdaptorException;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException;
 import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
 import nl.buildforce.olingo.server.api.ODataApplicationException;
 import nl.buildforce.olingo.server.api.uri.UriResource;
 import nl.buildforce.olingo.server.api.uri.UriResourceKind;
+import nl.buildforce.olingo.server.api.uri.queryoption.SearchOption;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 import static nl.buildforce.sequoia.processor.core.exception.ODataJPAProcessorException.MessageKeys.NOT_SUPPORTED_FUNC_WITH_NAVI;
 
@@ -26,7 +32,8 @@ class JPA_POSTSQL_DatabaseProcessor extends JPAAbstractDatabaseProcessor { // NO
   private static final String SELECT_COUNT_PATTERN = "SELECT COUNT(*) FROM $FUNCTIONNAME$($PARAMETER$)";
 
   @Override
-  public Expression<Boolean> createSearchWhereClause()
+  public Expression<Boolean> createSearchWhereClause(final CriteriaBuilder cb, final CriteriaQuery<?> cq,
+      final From<?, ?> root, final JPAEntityType entityType, final SearchOption searchOption)
       throws ODataApplicationException {
 
     /*
@@ -53,4 +60,10 @@ class JPA_POSTSQL_DatabaseProcessor extends JPAAbstractDatabaseProcessor { // NO
     throw new ODataJPAProcessorException(NOT_SUPPORTED_FUNC_WITH_NAVI, HttpStatusCode.NOT_IMPLEMENTED);
   }
 
-}
\ No newline at end of file
+  @Override
+  public Optional<String> createExpandLimitQuery(final String tableName, final List<String> columns,
+      final List<String> partition, final List<String> orderBy, final String where, final long skip, final long top) {
+    return Optional.of(createRowNumberExpandQuery(tableName, columns, partition, orderBy, where, skip, top));
+  }
+
+}
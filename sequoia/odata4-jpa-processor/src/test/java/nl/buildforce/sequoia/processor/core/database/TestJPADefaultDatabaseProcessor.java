@@ -18,7 +18,10 @@ import org.mockito.stubbing.Answer;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
+import java.util.Arrays;
+import java.util.Collections;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
@@ -98,7 +101,12 @@ public class TestJPADefaultDatabaseProcessor extends TestJPA_XXX_DatabaseProcess
 
   @Test
   public void testNotSupportedSearch() {
-    assertThrows(ODataJPADBAdaptorException.class, () -> cut.createSearchWhereClause());
+    assertThrows(ODataJPADBAdaptorException.class, () -> cut.createSearchWhereClause(null, null, null, null, null));
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testExpandLimitQueryNotSupported() {
+    assertFalse(cut.createExpandLimitQuery("\"T\"", Arrays.asList("\"P\"", "\"K\""), Collections.singletonList("\"P\""),
+        Collections.singletonList("\"K\" ASC"), "", 0, 2).isPresent());
+  }
+}
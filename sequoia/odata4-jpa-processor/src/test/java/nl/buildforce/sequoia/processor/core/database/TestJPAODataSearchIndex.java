@@ -0,0 +1,237 @@
+package nl.buildforce.sequoia.processor.core.database;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
+import nl.buildforce.sequoia.processor.core.api.JPAAbstractCUDRequestHandler;
+import nl.buildforce.sequoia.processor.core.processor.JPARequestEntity;
+import nl.buildforce.sequoia.processor.core.testmodel.AdministrativeDivisionDescription;
+import nl.buildforce.sequoia.processor.core.testmodel.AdministrativeDivisionDescriptionKey;
+import nl.buildforce.sequoia.processor.core.testmodel.Organization;
+import nl.buildforce.sequoia.processor.core.util.IntegrationTestHelper;
+import nl.buildforce.sequoia.processor.core.util.TestBase;
+import nl.buildforce.sequoia.processor.core.util.TestHelper;
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestJPAODataSearchIndex extends TestBase {
+  private JPAODataSearchIndex cut;
+  private JPAEntityType et;
+
+  @BeforeEach
+  public void setup() throws ODataException {
+    helper = new TestHelper(emf, PUNIT_NAME);
+    et = helper.getJPAEntityType("AdministrativeDivisionDescriptions");
+    cut = new JPAODataSearchIndex(helper.sd);
+    final EntityManager em = emf.createEntityManager();
+    try {
+      cut.build(em);
+    } finally {
+      em.close();
+    }
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "brussels,3",
+      "BRUSSELS,3",
+      "bruss,3",
+      "Brussels-Capital,3",
+      "brussels AND arrondissement,1",
+      "brussels AND NOT arrondissement,2",
+      "rheinland OR brussels,4",
+      "\"capital region\",2",
+      "unknown,0" })
+  public void testSearchReturnsMatchingEntities(final String search, final int count) throws IOException,
+      ODataException {
+
+    final IntegrationTestHelper helper = IntegrationTestHelper.with(emf,
+        "AdministrativeDivisionDescriptions?$search=" + search).searchIndex(cut).build();
+    helper.assertStatus(200);
+    final ArrayNode descriptions = helper.getValues();
+    assertEquals(count, descriptions.size());
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "brussels,3",
+      "bruss,3",
+      "russels,0",
+      "brussels AND NOT arrondissement,2",
+      "rheinland OR brussels,4",
+      "\"capital region\",2" })
+  public void testSearchWithKeysSplitIntoInLists(final String search, final int count) throws IOException,
+      ODataException {
+
+    cut = new JPAODataSearchIndex(helper.sd, 1);
+    final EntityManager em = emf.createEntityManager();
+    try {
+      cut.build(em);
+    } finally {
+      em.close();
+    }
+    final IntegrationTestHelper helper = IntegrationTestHelper.with(emf,
+        "AdministrativeDivisionDescriptions?$search=" + search).searchIndex(cut).build();
+    helper.assertStatus(200);
+    assertEquals(count, helper.getValues().size());
+  }
+
+  @Test
+  public void testSearchOnTypeWithoutSearchablePropertiesReturnsEmptyResult() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = IntegrationTestHelper.with(emf, "Organizations?$search=Third")
+        .searchIndex(cut).build();
+    helper.assertStatus(200);
+    assertEquals(0, helper.getValues().size());
+  }
+
+  @Test
+  public void testSearchCombinedWithFilter() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = IntegrationTestHelper.with(emf,
+        "AdministrativeDivisionDescriptions?$search=brussels&$filter=CodeID eq 'NUTS2'").searchIndex(cut).build();
+    helper.assertStatus(200);
+    final ArrayNode descriptions = helper.getValues();
+    assertEquals(1, descriptions.size());
+    assertEquals("BE10", descriptions.get(0).get("DivisionCode").asText());
+  }
+
+  @Test
+  public void testPutReplacesWordsOfEntity() throws IOException, ODataException {
+
+    cut.put(et, createBruxelles());
+
+    assertEquals(2, IntegrationTestHelper.with(emf, "AdministrativeDivisionDescriptions?$search=brussels")
+        .searchIndex(cut).build()
+        .getValues().size());
+    // The database is not changed, so the entity is found, but still has its old name
+    final ArrayNode descriptions = IntegrationTestHelper.with(emf,
+        "AdministrativeDivisionDescriptions?$search=bruxelles").searchIndex(cut).build().getValues();
+    assertEquals(1, descriptions.size());
+    assertEquals("BE1", descriptions.get(0).get("DivisionCode").asText());
+  }
+
+  @Test
+  public void testCollectedChangesTakenOverOnCommit() throws IOException, ODataException {
+
+    final EntityManager em = emf.createEntityManager();
+    try {
+      cut.begin(em);
+      cut.put(em, et, createBruxelles());
+      assertEquals(0, IntegrationTestHelper.with(emf, "AdministrativeDivisionDescriptions?$search=bruxelles")
+          .searchIndex(cut).build().getValues().size());
+
+      cut.commit(em);
+      assertEquals(1, IntegrationTestHelper.with(emf, "AdministrativeDivisionDescriptions?$search=bruxelles")
+          .searchIndex(cut).build().getValues().size());
+    } finally {
+      em.close();
+    }
+  }
+
+  @Test
+  public void testCollectedChangesDiscardedOnRollback() throws IOException, ODataException {
+
+    final EntityManager em = emf.createEntityManager();
+    try {
+      cut.begin(em);
+      cut.put(em, et, createBruxelles());
+      cut.rollback(em);
+      cut.commit(em);
+      assertEquals(0, IntegrationTestHelper.with(emf, "AdministrativeDivisionDescriptions?$search=bruxelles")
+          .searchIndex(cut).build().getValues().size());
+      // Without collecting, changes are taken over at once
+      cut.put(em, et, createBruxelles());
+      assertEquals(1, IntegrationTestHelper.with(emf, "AdministrativeDivisionDescriptions?$search=bruxelles")
+          .searchIndex(cut).build().getValues().size());
+    } finally {
+      em.close();
+    }
+  }
+
+  @Test
+  public void testRemoveDeletesEntityFromIndex() throws IOException, ODataException {
+
+    final Map<String, Object> keys = new HashMap<>();
+    keys.put("codePublisher", "Eurostat");
+    keys.put("codeID", "NUTS3");
+    keys.put("divisionCode", "BE100");
+    keys.put("language", "en");
+    cut.remove(et, keys);
+
+    assertEquals(2, IntegrationTestHelper.with(emf, "AdministrativeDivisionDescriptions?$search=brussels")
+        .searchIndex(cut).build()
+        .getValues().size());
+  }
+
+  @Test
+  public void testDeepInsertPutsRelatedEntitiesIntoIndex() throws IOException, ODataException {
+
+    final StringBuffer requestBody = new StringBuffer("--abc123\r\n");
+    requestBody.append("Content-Type: multipart/mixed;boundary=cs12345\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("--cs12345\r\n");
+    requestBody.append("Content-Type: application/http\r\n");
+    requestBody.append("Content-Transfer-Encoding: binary\r\n");
+    requestBody.append("Content-ID: 1\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("POST Organizations HTTP/1.1\r\n");
+    requestBody.append("Content-Type: application/json\r\n");
+    requestBody.append("Prefer: return=minimal\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("{\"ID\": \"Deep\", \"LocationName\": [{\"CodePublisher\": \"Eurostat\", \"CodeID\": \"NUTS1\", ");
+    requestBody.append("\"DivisionCode\": \"BE1\", \"Language\": \"en\", \"Name\": \"Bruxelles\"}]}\r\n");
+    requestBody.append("--cs12345--\r\n");
+    requestBody.append("--abc123--");
+
+    final IntegrationTestHelper create = IntegrationTestHelper.with(emf, "$batch").requestBody(requestBody)
+        .searchIndex(cut).cudRequestHandler(new CreateWithoutPersistence()).build();
+    assertEquals(204, create.getBatchResultStatus(1));
+
+    final ArrayNode descriptions = IntegrationTestHelper.with(emf,
+        "AdministrativeDivisionDescriptions?$search=bruxelles").searchIndex(cut).build().getValues();
+    assertEquals(1, descriptions.size());
+    assertEquals("BE1", descriptions.get(0).get("DivisionCode").asText());
+  }
+
+  private AdministrativeDivisionDescription createBruxelles() {
+    final AdministrativeDivisionDescription description = new AdministrativeDivisionDescription();
+    description.setKey(new AdministrativeDivisionDescriptionKey("Eurostat", "NUTS1", "BE1", "en"));
+    description.setName("Bruxelles");
+    return description;
+  }
+
+  /**
+   * Creates the instances of a deep insert of an organization with its location names, without storing them, so the
+   * test data stay as they are.
+   */
+  private static class CreateWithoutPersistence extends JPAAbstractCUDRequestHandler {
+
+    @Override
+    public Object createEntity(final JPARequestEntity requestEntity, final EntityManager em) {
+      final Organization organization = new Organization((String) requestEntity.getData().get("iD"));
+      final List<AdministrativeDivisionDescription> locationNames = new ArrayList<>();
+      for (final List<JPARequestEntity> relatedEntities : requestEntity.getRelatedEntities().values()) {
+        for (final JPARequestEntity relatedEntity : relatedEntities) {
+          final AdministrativeDivisionDescription locationName = new AdministrativeDivisionDescription();
+          locationName.setKey(new AdministrativeDivisionDescriptionKey("Eurostat", "NUTS1", "BE1", "en"));
+          locationName.setName((String) relatedEntity.getData().get("name"));
+          locationNames.add(locationName);
+        }
+      }
+      organization.setLocationName(locationNames);
+      return organization;
+    }
+  }
+}
@@ -10,6 +10,8 @@ import org.junit.jupiter.api.Test;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
+import java.util.Arrays;
+import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -36,9 +38,26 @@ public class TestJPA_HSQLDB_DatabaseProcessor extends TestJPA_XXX_DatabaseProces
     final SearchOption searchOption = mock(SearchOption.class);
 
     final ODataApplicationException act = assertThrows(ODataApplicationException.class,
-        () -> cut.createSearchWhereClause());
+        () -> cut.createSearchWhereClause(cb, cq, root, entityType, searchOption));
     assertEquals(HttpStatusCode.NOT_IMPLEMENTED.getStatusCode(), act.getStatusCode());
 
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testExpandLimitQueryUsesLateralJoin() {
+    assertEquals("SELECT C.\"P\", C.\"K\" FROM (SELECT DISTINCT \"P\" FROM \"S\".\"T\" WHERE \"P\" = ?1) G, "
+        + "LATERAL (SELECT T.\"P\", T.\"K\" FROM \"S\".\"T\" T WHERE T.\"P\" = G.\"P\" ORDER BY T.\"K\" DESC "
+        + "OFFSET 1 ROWS FETCH NEXT 2 ROWS ONLY) C ORDER BY C.\"P\", C.\"K\" DESC",
+        cut.createExpandLimitQuery("\"S\".\"T\"", Arrays.asList("\"P\"", "\"K\""), Collections.singletonList("\"P\""),
+            Collections.singletonList("\"K\" DESC"), "\"P\" = ?1", 1, 2).orElse(""));
+  }
+
+  @Test
+  public void testExpandLimitQueryWithoutTop() {
+    assertEquals("SELECT C.\"P\", C.\"K\" FROM (SELECT DISTINCT \"P\" FROM \"T\") G, "
+        + "LATERAL (SELECT T.\"P\", T.\"K\" FROM \"T\" T WHERE T.\"P\" = G.\"P\" ORDER BY T.\"K\" ASC "
+        + "OFFSET 3 ROWS) C ORDER BY C.\"P\", C.\"K\" ASC",
+        cut.createExpandLimitQuery("\"T\"", Arrays.asList("\"P\"", "\"K\""), Collections.singletonList("\"P\""),
+            Collections.singletonList("\"K\" ASC"), "", 3, Long.MAX_VALUE).orElse(""));
+  }
+}
@@ -10,6 +10,8 @@ import org.junit.jupiter.api.Test;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Root;
+import java.util.Arrays;
+import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -35,9 +37,17 @@ public class TestJPA_POSTSQL_DatabaseProcessor extends TestJPA_XXX_DatabaseProce
     final SearchOption searchOption = mock(SearchOption.class);
 
     final ODataApplicationException act = assertThrows(ODataApplicationException.class,
-        () -> cut.createSearchWhereClause());
+        () -> cut.createSearchWhereClause(cb, cq, root, entityType, searchOption));
     assertEquals(HttpStatusCode.NOT_IMPLEMENTED.getStatusCode(), act.getStatusCode());
 
   }
 
-}
\ No newline at end of file
+  @Test
+  public void testExpandLimitQueryUsesRowNumber() {
+    assertEquals("SELECT Q.\"P\", Q.\"K\" FROM (SELECT \"P\", \"K\", ROW_NUMBER() OVER (PARTITION BY \"P\" "
+        + "ORDER BY \"K\" DESC) AS \"$ROW_NO\" FROM \"T\" WHERE \"P\" = ?1) Q "
+        + "WHERE Q.\"$ROW_NO\" > 1 AND Q.\"$ROW_NO\" <= 3 ORDER BY Q.\"P\", Q.\"$ROW_NO\"",
+        cut.createExpandLimitQuery("\"T\"", Arrays.asList("\"P\"", "\"K\""), Collections.singletonList("\"P\""),
+            Collections.singletonList("\"K\" DESC"), "\"P\" = ?1", 1, 2).orElse(""));
+  }
+}
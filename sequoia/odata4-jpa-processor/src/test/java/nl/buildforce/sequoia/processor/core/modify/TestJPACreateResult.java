@@ -16,6 +16,7 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.sequoia.processor.core.converter.JPACollectionResult;
 import nl.buildforce.sequoia.processor.core.converter.JPAExpandResult;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import nl.buildforce.sequoia.processor.core.converter.JPATupleChildConverter;
 import nl.buildforce.sequoia.processor.core.util.ServiceMetadataDouble;
 import nl.buildforce.sequoia.processor.core.util.TestBase;
@@ -53,7 +54,7 @@ public abstract class TestJPACreateResult extends TestBase {
 
     createCutGetResultSimpleEntity();
 
-    List<Tuple> act = cut.getResult("root");
+    List<Tuple> act = cut.getResult(JPAExpandResult.ROOT_RESULT_KEY);
 
     assertNotNull(act);
     assertEquals(1, act.size());
@@ -66,7 +67,7 @@ public abstract class TestJPACreateResult extends TestBase {
 
     createCutGetResultWithOneLevelEmbedded();
 
-    List<Tuple> act = cut.getResult("root");
+    List<Tuple> act = cut.getResult(JPAExpandResult.ROOT_RESULT_KEY);
 
     assertNotNull(act);
     assertEquals(1, act.size());
@@ -79,7 +80,7 @@ public abstract class TestJPACreateResult extends TestBase {
 
     createCutGetResultWithTwoLevelEmbedded();
 
-    List<Tuple> act = cut.getResult("root");
+    List<Tuple> act = cut.getResult(JPAExpandResult.ROOT_RESULT_KEY);
     assertNotNull(act);
     assertEquals(1, act.size());
     assertEquals("01", act.get(0).get("ID"));
@@ -94,7 +95,7 @@ public abstract class TestJPACreateResult extends TestBase {
     assertEquals(1, act.size());
     for (JPAAssociationPath actPath : act.keySet()) {
       assertEquals("Children", actPath.getAlias());
-      List<Tuple> subResult = act.get(actPath).getResult("Eurostat/NUTS1/BE2");
+      List<Tuple> subResult = act.get(actPath).getResult(JPAJoinKey.of("Eurostat", "NUTS1", "BE2"));
       assertEquals(1, subResult.size());
     }
   }
@@ -103,7 +104,7 @@ public abstract class TestJPACreateResult extends TestBase {
   public void testGetResultWithDescriptionProperty() throws ODataJPAModelException, ODataApplicationException {
 
     createCutGetResultWithDescriptionProperty();
-    final List<Tuple> act = cut.getResult("root");
+    final List<Tuple> act = cut.getResult(JPAExpandResult.ROOT_RESULT_KEY);
     assertEquals(1, act.size());
     final Tuple actResult = act.get(0);
     assertEquals(7L, actResult.get("ETag"));
@@ -118,7 +119,7 @@ public abstract class TestJPACreateResult extends TestBase {
     assertEquals(1, act.size());
     for (JPAAssociationPath actPath : act.keySet()) {
       assertEquals("Children", actPath.getAlias());
-      List<Tuple> subResult = act.get(actPath).getResult("Eurostat/NUTS1/BE2");
+      List<Tuple> subResult = act.get(actPath).getResult(JPAJoinKey.of("Eurostat", "NUTS1", "BE2"));
       assertEquals(2, subResult.size());
     }
   }
@@ -128,7 +129,7 @@ public abstract class TestJPACreateResult extends TestBase {
     createCutGetResultEntityWithSimpleCollection();
 
     final Map<JPAAssociationPath, JPAExpandResult> act = cut.getChildren();
-    assertDoesNotContain(cut.getResult("root"), "Comment");
+    assertDoesNotContain(cut.getResult(JPAExpandResult.ROOT_RESULT_KEY), "Comment");
     assertNotNull(act);
     assertFalse(act.isEmpty());
     for (Entry<JPAAssociationPath, JPAExpandResult> entity : act.entrySet()) {
@@ -149,7 +150,7 @@ public abstract class TestJPACreateResult extends TestBase {
     createCutGetResultEntityWithComplexCollection();
 
     Map<JPAAssociationPath, JPAExpandResult> act = cut.getChildren();
-    assertDoesNotContain(cut.getResult("root"), "InhouseAddress");
+    assertDoesNotContain(cut.getResult(JPAExpandResult.ROOT_RESULT_KEY), "InhouseAddress");
     assertNotNull(act);
     assertFalse(act.isEmpty());
     for (Entry<JPAAssociationPath, JPAExpandResult> entity : act.entrySet()) {
@@ -171,7 +172,7 @@ public abstract class TestJPACreateResult extends TestBase {
 
     final Map<JPAAssociationPath, JPAExpandResult> act = cut.getChildren();
     boolean found = false;
-    assertDoesNotContain(cut.getResult("root"), "Complex/Address");
+    assertDoesNotContain(cut.getResult(JPAExpandResult.ROOT_RESULT_KEY), "Complex/Address");
     assertNotNull(act);
     assertFalse(act.isEmpty());
     for (Entry<JPAAssociationPath, JPAExpandResult> entity : act.entrySet()) {
@@ -198,7 +199,7 @@ public abstract class TestJPACreateResult extends TestBase {
 
     final Map<JPAAssociationPath, JPAExpandResult> act = cut.getChildren();
     boolean found = false;
-    assertDoesNotContain(cut.getResult("root"), "Nested");
+    assertDoesNotContain(cut.getResult(JPAExpandResult.ROOT_RESULT_KEY), "Nested");
     assertNotNull(act);
     assertFalse(act.isEmpty());
     for (Entry<JPAAssociationPath, JPAExpandResult> entity : act.entrySet()) {
@@ -225,7 +226,7 @@ public abstract class TestJPACreateResult extends TestBase {
 
     final Map<JPAAssociationPath, JPAExpandResult> act = cut.getChildren();
     boolean found = false;
-    assertDoesNotContain(cut.getResult("root"), "FirstLevel/SecondLevel/Address");
+    assertDoesNotContain(cut.getResult(JPAExpandResult.ROOT_RESULT_KEY), "FirstLevel/SecondLevel/Address");
     assertNotNull(act);
     assertFalse(act.isEmpty());
     for (Entry<JPAAssociationPath, JPAExpandResult> entity : act.entrySet()) {
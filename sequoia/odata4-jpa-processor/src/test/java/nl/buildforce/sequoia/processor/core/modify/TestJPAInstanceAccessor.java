@@ -0,0 +1,80 @@
+package nl.buildforce.sequoia.processor.core.modify;
+
+import nl.buildforce.sequoia.processor.core.modify.JPAInstanceAccessor.Getter;
+import nl.buildforce.sequoia.processor.core.modify.JPAInstanceAccessor.Setter;
+import nl.buildforce.sequoia.processor.core.testmodel.Organization;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestJPAInstanceAccessor {
+
+  @Test
+  public void testAccessorCreatedOncePerClass() {
+    assertSame(JPAInstanceAccessor.of(Organization.class), JPAInstanceAccessor.of(Organization.class));
+  }
+
+  @Test
+  public void testGetterReadsValue() throws ReflectiveOperationException {
+    final Organization org = new Organization("Willi");
+
+    final Getter getter = JPAInstanceAccessor.of(Organization.class).getGetter("ID");
+    assertEquals("iD", getter.getAttributeName());
+    assertEquals("Willi", getter.get(org));
+  }
+
+  @Test
+  public void testSetterWritesValue() throws ReflectiveOperationException {
+    final Organization org = new Organization();
+
+    JPAInstanceAccessor.of(Organization.class).getSetter("Name1", String.class).set(org, "Test Org");
+    assertEquals("Test Org", org.getName1());
+  }
+
+  @Test
+  public void testSettersOfAttribute() {
+    final List<Setter> setters = JPAInstanceAccessor.of(Organization.class).getSetters("name1");
+    assertEquals(1, setters.size());
+    assertEquals(String.class, setters.get(0).getParameterType());
+    assertTrue(JPAInstanceAccessor.of(Organization.class).getSetters("unknown").isEmpty());
+  }
+
+  @Test
+  public void testGettersContainAllAttributes() {
+    assertTrue(JPAInstanceAccessor.of(Organization.class).getGetters().stream()
+        .anyMatch(getter -> "name2".equals(getter.getAttributeName())));
+  }
+
+  @Test
+  public void testThrowsNoSuchMethodOnMissingMethod() {
+    final JPAInstanceAccessor cut = JPAInstanceAccessor.of(Organization.class);
+    assertThrows(NoSuchMethodException.class, () -> cut.getGetter("Unknown"));
+    assertThrows(NoSuchMethodException.class, () -> cut.getSetter("Name1", Integer.class));
+  }
+
+  @Test
+  public void testThrowsIllegalArgumentOnWrongValueType() throws NoSuchMethodException {
+    final Setter setter = JPAInstanceAccessor.of(Organization.class).getSetter("Name1", String.class);
+    assertThrows(IllegalArgumentException.class, () -> setter.set(new Organization(), 10));
+  }
+
+  @Test
+  public void testWrapsExceptionOfMethod() throws NoSuchMethodException {
+    final Setter setter = JPAInstanceAccessor.of(ThrowingSetter.class).getSetter("Value", String.class);
+    final InvocationTargetException e = assertThrows(InvocationTargetException.class,
+        () -> setter.set(new ThrowingSetter(), "Test"));
+    assertEquals(IllegalStateException.class, e.getCause().getClass());
+  }
+
+  public static class ThrowingSetter {
+    public void setValue(final String value) {
+      throw new IllegalStateException(value);
+    }
+  }
+}
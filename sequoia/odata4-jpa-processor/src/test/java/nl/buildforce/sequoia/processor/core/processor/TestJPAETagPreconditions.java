@@ -0,0 +1,153 @@
+package nl.buildforce.sequoia.processor.core.processor;
+
+import nl.buildforce.sequoia.processor.core.api.JPAAbstractCUDRequestHandler;
+import nl.buildforce.sequoia.processor.core.modify.JPAUpdateResult;
+import nl.buildforce.sequoia.processor.core.testmodel.Organization;
+import nl.buildforce.sequoia.processor.core.util.IntegrationTestHelper;
+import nl.buildforce.sequoia.processor.core.util.TestBase;
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.olingo.commons.api.http.HttpMethod;
+import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestJPAETagPreconditions extends TestBase {
+
+  @ParameterizedTest
+  @CsvSource(delimiter = ';', value = {
+      "If-None-Match;\"0\";304",
+      "If-None-Match;W/\"0\";304",
+      "If-None-Match;*;304",
+      "If-None-Match;\"1\";200",
+      "If-Match;\"0\";200",
+      "If-Match;\"1\";412" })
+  public void testReadPreconditions(final String header, final String value, final int status) throws IOException,
+      ODataException {
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, "Organizations('1')", createHeaders(header,
+        value));
+    helper.assertStatus(status);
+  }
+
+  @Test
+  public void testReadPreconditionsOfUnknownEntity() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, "Organizations('XX')", createHeaders(
+        "If-None-Match", "\"0\""));
+    helper.assertStatus(HttpStatusCode.NOT_FOUND.getStatusCode());
+  }
+
+  @Test
+  public void testReadPreconditionsIgnoredForCollection() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, "Organizations", createHeaders(
+        "If-None-Match", "\"0\""));
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+  }
+
+  @Test
+  public void testReadPreconditionsOfNavigationToSingleEntity() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "BusinessPartnerRoles(BusinessPartnerID='2',RoleCategory='A')/BusinessPartner", createHeaders("If-None-Match",
+            "\"0\""));
+    helper.assertStatus(HttpStatusCode.NOT_MODIFIED.getStatusCode());
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiter = ';', value = {
+      "DELETE Organizations('1');If-Match: \"5\"",
+      "PATCH Organizations('1');If-Match: \"5\"",
+      "PATCH Organizations('1');If-None-Match: *",
+      "PATCH Organizations('XX');If-Match: *" })
+  public void testChangePreconditionsFailBeforeChange(final String requestLine, final String precondition)
+      throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, "$batch", createChangeSet(requestLine,
+        precondition));
+    assertEquals(HttpStatusCode.PRECONDITION_FAILED.getStatusCode(), helper.getBatchResultStatus(1));
+
+    final IntegrationTestHelper read = new IntegrationTestHelper(emf, "Organizations('1')");
+    read.assertStatus(HttpStatusCode.OK.getStatusCode());
+    assertEquals("First Org.", read.getValue().get("Name1").asText());
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiter = ';', value = {
+      "PATCH Organizations('1');200",
+      "DELETE Organizations('1');204" })
+  public void testChangePreconditionsMatchETagOfRead(final String requestLine, final int status)
+      throws IOException, ODataException {
+
+    final IntegrationTestHelper read = new IntegrationTestHelper(emf, "Organizations('1')");
+    read.assertStatus(HttpStatusCode.OK.getStatusCode());
+    final String etag = read.getValue().get("@odata.etag").asText();
+    assertEquals("\"0\"", etag);
+
+    final IntegrationTestHelper helper = IntegrationTestHelper.with(emf, "$batch")
+        .requestBody(createChangeSet(requestLine, "If-Match: " + etag))
+        .cudRequestHandler(new UnchangedRequestHandler())
+        .build();
+    assertEquals(status, helper.getBatchResultStatus(1));
+  }
+
+  @Test
+  public void testETagHeaderEqualsETagOfPayload() throws IOException, ODataException {
+
+    final IntegrationTestHelper read = new IntegrationTestHelper(emf, "Organizations('1')");
+    read.assertStatus(HttpStatusCode.OK.getStatusCode());
+    assertEquals(read.getValue().get("@odata.etag").asText(), read.getHeader("ETag"));
+  }
+
+  private Map<String, List<String>> createHeaders(final String name, final String value) {
+    final Map<String, List<String>> headers = new HashMap<>();
+    headers.put(name, Collections.singletonList(value));
+    return headers;
+  }
+
+  private StringBuffer createChangeSet(final String requestLine, final String precondition) {
+    final StringBuffer requestBody = new StringBuffer("--abc123\r\n");
+    requestBody.append("Content-Type: multipart/mixed;boundary=cs12345\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("--cs12345\r\n");
+    requestBody.append("Content-Type: application/http\r\n");
+    requestBody.append("Content-Transfer-Encoding: binary\r\n");
+    requestBody.append("Content-ID: 1\r\n");
+    requestBody.append("\r\n");
+    requestBody.append(requestLine).append(" HTTP/1.1\r\n");
+    requestBody.append("Content-Type: application/json\r\n");
+    requestBody.append(precondition).append("\r\n");
+    requestBody.append("\r\n");
+    requestBody.append("{\"Name1\": \"Changed\"}\r\n");
+    requestBody.append("--cs12345--\r\n");
+    requestBody.append("--abc123--");
+    return requestBody;
+  }
+
+  /**
+   * Accepts changes of organizations without executing them, so the test data stay as they are.
+   */
+  private static class UnchangedRequestHandler extends JPAAbstractCUDRequestHandler {
+
+    @Override
+    public JPAUpdateResult updateEntity(final JPARequestEntity requestEntity, final EntityManager em,
+        final HttpMethod method) {
+      return new JPAUpdateResult(false, em.find(Organization.class, requestEntity.getKeys().get("iD")));
+    }
+
+    @Override
+    public void deleteEntity(final JPARequestEntity requestEntity, final EntityManager em) {
+      // Entity is kept
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package nl.buildforce.sequoia.processor.core.query;
+
+import nl.buildforce.olingo.server.api.ODataApplicationException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TestJPACachedCountQuery {
+
+  @Test
+  public void testCountExecutedOnlyOnce() throws ODataApplicationException {
+    final JPACountQuery countQuery = mock(JPACountQuery.class);
+    when(countQuery.countResults()).thenReturn(5L);
+
+    final JPACachedCountQuery cut = new JPACachedCountQuery(countQuery);
+    assertEquals(5L, cut.countResults());
+    assertEquals(5L, cut.countResults());
+    verify(countQuery, times(1)).countResults();
+  }
+
+  @Test
+  public void testCountNotExecutedIfNotRequested() throws ODataApplicationException {
+    final JPACountQuery countQuery = mock(JPACountQuery.class);
+
+    new JPACachedCountQuery(countQuery);
+    verify(countQuery, times(0)).countResults();
+  }
+}
@@ -0,0 +1,86 @@
+package nl.buildforce.sequoia.processor.core.query;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import nl.buildforce.sequoia.processor.core.util.IntegrationTestHelper;
+import nl.buildforce.sequoia.processor.core.util.TestBase;
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * $expand and collection property queries restricted by the keys of the parents instead of their filter. The results
+ * have to be the same, regardless if the key list is used or not.
+ */
+public class TestJPAExpandKeyList extends TestBase {
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "Organizations?$expand=Roles&$orderby=ID",
+      "Organizations?$top=3&$skip=2&$orderby=ID&$expand=Roles",
+      "Organizations?$filter=Address/Region eq 'US-CA'&$expand=Roles",
+      "Organizations('3')?$expand=Roles",
+      "Organizations('3')/Roles?$expand=BusinessPartner",
+      "Organizations?$top=2&$skip=2&$orderby=ID&$expand=Roles($count=true;$top=1;$orderby=RoleCategory desc)",
+      "AdministrativeDivisions?$filter=CodeID eq 'NUTS2'&$top=4&$orderby=DivisionCode&$expand=Children",
+      "AdministrativeDivisions?$filter=CodeID eq 'NUTS1'&$expand=Children($top=2;$orderby=DivisionCode desc)",
+      "Persons?$select=ID,InhouseAddress&$orderby=ID",
+      "Organizations?$filter=ID eq 'XX'&$expand=Roles" })
+  public void testKeyListResultEqualsFilterResult(final String url) throws IOException, ODataException {
+
+    final IntegrationTestHelper filtered = IntegrationTestHelper.with(emf, url)
+        .dataSource(ds).expandKeyListLimit(0).build();
+    final IntegrationTestHelper keyList = IntegrationTestHelper.with(emf, url)
+        .dataSource(ds).expandKeyListLimit(1000).build();
+    filtered.assertStatus(HttpStatusCode.OK.getStatusCode());
+    keyList.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    assertEquals(readSorted(filtered), readSorted(keyList));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "Organizations?$top=3&$orderby=ID&$expand=Roles",
+      "AdministrativeDivisions?$filter=CodeID eq 'NUTS2'&$expand=Children" })
+  public void testMoreParentsThanLimitFallsBack(final String url) throws IOException, ODataException {
+
+    final IntegrationTestHelper filtered = IntegrationTestHelper.with(emf, url)
+        .dataSource(ds).expandKeyListLimit(0).build();
+    final IntegrationTestHelper keyList = IntegrationTestHelper.with(emf, url)
+        .dataSource(ds).expandKeyListLimit(1).build();
+    filtered.assertStatus(HttpStatusCode.OK.getStatusCode());
+    keyList.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ObjectMapper mapper = new ObjectMapper();
+    assertEquals(mapper.readTree(filtered.getRawResult()), mapper.readTree(keyList.getRawResult()));
+  }
+
+  /**
+   * The rows of a collection property have no defined order, so the elements of InhouseAddress are compared sorted.
+   */
+  private JsonNode readSorted(final IntegrationTestHelper helper) throws IOException {
+    final JsonNode result = new ObjectMapper().readTree(helper.getRawResult());
+    final JsonNode values = result.get("value");
+    if (values != null) {
+      for (final JsonNode value : values) {
+        final JsonNode addresses = value.get("InhouseAddress");
+        if (addresses instanceof ArrayNode) {
+          final List<JsonNode> elements = new ArrayList<>();
+          addresses.forEach(elements::add);
+          elements.sort(Comparator.comparing(JsonNode::toString));
+          ((ArrayNode) addresses).removeAll().addAll(elements);
+        }
+      }
+    }
+    return result;
+  }
+}
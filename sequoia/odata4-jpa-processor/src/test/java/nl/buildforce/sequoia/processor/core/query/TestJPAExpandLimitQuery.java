@@ -0,0 +1,187 @@
+package nl.buildforce.sequoia.processor.core.query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import nl.buildforce.sequoia.processor.core.api.JPAODataDatabaseProcessor;
+import nl.buildforce.sequoia.processor.core.database.JPA_H2_DatabaseProcessor;
+import nl.buildforce.sequoia.processor.core.database.JPA_HSQLDB_DatabaseProcessor;
+import nl.buildforce.sequoia.processor.core.testmodel.DataSourceHelper;
+import nl.buildforce.sequoia.processor.core.util.IntegrationTestHelper;
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Persistence;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.eclipse.persistence.config.EntityManagerProperties.NON_JTA_DATASOURCE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * $top and $skip at $expand executed by the database. The results have to be the same, regardless if the database
+ * processor supports this or not.
+ */
+public class TestJPAExpandLimitQuery {
+  protected static final String PUNIT_NAME = "nl.buildforce.sequoia";
+
+  private static final Map<DataSourceHelper, DataSource> dataSources = new HashMap<>();
+  private static final Map<DataSourceHelper, EntityManagerFactory> factories = new HashMap<>();
+
+  private static EntityManagerFactory getEmf(final DataSourceHelper db) {
+    return factories.computeIfAbsent(db, k -> {
+      final Map<String, Object> properties = new HashMap<>();
+      properties.put(NON_JTA_DATASOURCE, getDs(db));
+      return Persistence.createEntityManagerFactory(PUNIT_NAME, properties);
+    });
+  }
+
+  private static DataSource getDs(final DataSourceHelper db) {
+    return dataSources.computeIfAbsent(db, DataSourceHelper::createDataSource);
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = DataSourceHelper.class, names = { "DB_H2", "DB_HSQLDB", "DB_DERBY" })
+  public void testExpandWithOrderByDescTop(final DataSourceHelper db) throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(getEmf(db), getDs(db),
+        "AdministrativeDivisions(DivisionCode='BE2',CodeID='NUTS1',CodePublisher='Eurostat')?$expand=Children($top=2;$orderby=DivisionCode desc)");
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ArrayNode children = (ArrayNode) helper.getValue().get("Children");
+    assertEquals(2, children.size());
+    assertEquals("BE25", children.get(0).get("DivisionCode").asText());
+    assertEquals("BE24", children.get(1).get("DivisionCode").asText());
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = DataSourceHelper.class, names = { "DB_H2", "DB_HSQLDB", "DB_DERBY" })
+  public void testExpandWithOrderByDescTopSkip(final DataSourceHelper db) throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(getEmf(db), getDs(db),
+        "AdministrativeDivisions(DivisionCode='BE2',CodeID='NUTS1',CodePublisher='Eurostat')?$expand=Children($top=2;$skip=2;$orderby=DivisionCode desc)");
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ArrayNode children = (ArrayNode) helper.getValue().get("Children");
+    assertEquals(2, children.size());
+    assertEquals("BE23", children.get(0).get("DivisionCode").asText());
+    assertEquals("BE22", children.get(1).get("DivisionCode").asText());
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = DataSourceHelper.class, names = { "DB_H2", "DB_HSQLDB", "DB_DERBY" })
+  public void testExpandWithSkipOnly(final DataSourceHelper db) throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(getEmf(db), getDs(db),
+        "AdministrativeDivisions(DivisionCode='BE2',CodeID='NUTS1',CodePublisher='Eurostat')?$expand=Children($skip=3)");
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ArrayNode children = (ArrayNode) helper.getValue().get("Children");
+    assertEquals(2, children.size());
+    assertEquals("BE24", children.get(0).get("DivisionCode").asText());
+    assertEquals("BE25", children.get(1).get("DivisionCode").asText());
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = DataSourceHelper.class, names = { "DB_H2", "DB_HSQLDB", "DB_DERBY" })
+  public void testExpandTopPerParentWithBoundary(final DataSourceHelper db) throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(getEmf(db), getDs(db),
+        "Organizations?$top=2&$skip=2&$orderby=ID&$expand=Roles($count=true;$top=1;$orderby=RoleCategory desc)");
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ArrayNode orgs = helper.getValues();
+    assertEquals(2, orgs.size());
+    assertEquals("2", orgs.get(0).get("ID").asText());
+    assertEquals(2, orgs.get(0).get("Roles@odata.count").asInt());
+    assertEquals(1, orgs.get(0).get("Roles").size());
+    assertEquals("C", orgs.get(0).get("Roles").get(0).get("RoleCategory").asText());
+    assertEquals("3", orgs.get(1).get("ID").asText());
+    assertEquals(3, orgs.get(1).get("Roles@odata.count").asInt());
+    assertEquals(1, orgs.get(1).get("Roles").size());
+    assertEquals("C", orgs.get(1).get("Roles").get(0).get("RoleCategory").asText());
+  }
+
+  private static Stream<Arguments> nativeQueries() {
+    final List<String> urls = List.of(
+        // Key predicates of a compound key
+        "AdministrativeDivisions(DivisionCode='BE2',CodeID='NUTS1',CodePublisher='Eurostat')?$expand=Children($top=2;$skip=1;$orderby=DivisionCode desc)",
+        // Key predicate
+        "Organizations('3')?$expand=Roles($top=2;$orderby=RoleCategory desc)",
+        // Boundary with upper and lower key
+        "Organizations?$top=3&$skip=1&$orderby=ID&$expand=Roles($top=1;$orderby=RoleCategory desc)",
+        // Boundary of one key
+        "Organizations?$top=1&$skip=2&$orderby=ID&$expand=Roles($skip=1)",
+        // Key list of a compound key
+        "AdministrativeDivisions?$filter=CodeID eq 'NUTS1'&$expand=Children($top=2;$orderby=DivisionCode)",
+        // Key list
+        "Organizations?$filter=Address/Region eq 'US-CA'&$expand=Roles($top=1)");
+    final List<Arguments> arguments = new ArrayList<>();
+    for (final DataSourceHelper db : List.of(DataSourceHelper.DB_H2, DataSourceHelper.DB_HSQLDB))
+      for (final String url : urls)
+        arguments.add(Arguments.of(db, url));
+    return arguments.stream();
+  }
+
+  @ParameterizedTest
+  @MethodSource("nativeQueries")
+  public void testNativeQueryResultEqualsCriteriaResult(final DataSourceHelper db, final String url)
+      throws IOException, ODataException {
+
+    final List<String> nativeQueries = new ArrayList<>();
+    final IntegrationTestHelper nativeResult = IntegrationTestHelper.with(getEmf(db), url).dataSource(getDs(db))
+        .expandKeyListLimit(1000).databaseProcessor(createProcessor(db, nativeQueries, true)).build();
+    final IntegrationTestHelper criteriaResult = IntegrationTestHelper.with(getEmf(db), url).dataSource(getDs(db))
+        .expandKeyListLimit(1000).databaseProcessor(createProcessor(db, new ArrayList<>(), false)).build();
+    nativeResult.assertStatus(HttpStatusCode.OK.getStatusCode());
+    criteriaResult.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    assertFalse(nativeQueries.isEmpty(), "Native query not executed");
+    final ObjectMapper mapper = new ObjectMapper();
+    assertEquals(mapper.readTree(criteriaResult.getRawResult()), mapper.readTree(nativeResult.getRawResult()));
+  }
+
+  /**
+   * Database processor that records the native queries it creates or, if native queries are not allowed, lets the
+   * criteria query process the request.
+   */
+  private static JPAODataDatabaseProcessor createProcessor(final DataSourceHelper db, final List<String> queries,
+      final boolean nativeAllowed) {
+
+    if (db == DataSourceHelper.DB_H2) {
+      return new JPA_H2_DatabaseProcessor() {
+        @Override
+        public Optional<String> createExpandLimitQuery(final String tableName, final List<String> columns,
+            final List<String> partition, final List<String> orderBy, final String where, final long skip,
+            final long top) {
+          if (!nativeAllowed)
+            return Optional.empty();
+          final Optional<String> query = super.createExpandLimitQuery(tableName, columns, partition, orderBy, where,
+              skip, top);
+          query.ifPresent(queries::add);
+          return query;
+        }
+      };
+    }
+    return new JPA_HSQLDB_DatabaseProcessor() {
+      @Override
+      public Optional<String> createExpandLimitQuery(final String tableName, final List<String> columns,
+          final List<String> partition, final List<String> orderBy, final String where, final long skip,
+          final long top) {
+        if (!nativeAllowed)
+          return Optional.empty();
+        final Optional<String> query = super.createExpandLimitQuery(tableName, columns, partition, orderBy, where,
+            skip, top);
+        query.ifPresent(queries::add);
+        return query;
+      }
+    };
+  }
+}
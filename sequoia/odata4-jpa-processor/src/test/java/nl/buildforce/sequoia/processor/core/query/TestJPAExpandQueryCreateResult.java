@@ -6,6 +6,7 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAExceptio
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.sequoia.processor.core.api.JPAODataCRUDContextAccess;
 import nl.buildforce.sequoia.processor.core.api.JPAODataContextAccessDouble;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import nl.buildforce.sequoia.processor.core.exception.JPAIllegalAccessException;
 import nl.buildforce.sequoia.processor.core.processor.JPAODataRequestContextImpl;
 import nl.buildforce.sequoia.processor.core.util.EdmEntityTypeDouble;
@@ -58,11 +59,11 @@ public class TestJPAExpandQueryCreateResult extends TestBase {
     Tuple t = new TupleDouble(oneResult);
     result.add(t);
 
-    Map<String, List<Tuple>> act = cut.convertResult(result, exp, 0, Long.MAX_VALUE);
+    Map<JPAJoinKey, List<Tuple>> act = cut.convertResult(result, exp, 0, Long.MAX_VALUE);
 
-    assertNotNull(act.get("1"));
-    assertEquals(1, act.get("1").size());
-    assertEquals("1", act.get("1").get(0).get("BusinessPartnerID"));
+    assertNotNull(act.get(JPAJoinKey.of("1")));
+    assertEquals(1, act.get(JPAJoinKey.of("1")).size());
+    assertEquals("1", act.get(JPAJoinKey.of("1")).get(0).get("BusinessPartnerID"));
   }
 
   @Test
@@ -83,12 +84,12 @@ public class TestJPAExpandQueryCreateResult extends TestBase {
     t = new TupleDouble(oneResult);
     result.add(t);
 
-    Map<String, List<Tuple>> act = cut.convertResult(result, exp, 0, Long.MAX_VALUE);
+    Map<JPAJoinKey, List<Tuple>> act = cut.convertResult(result, exp, 0, Long.MAX_VALUE);
 
     assertEquals(1, act.size());
-    assertNotNull(act.get("2"));
-    assertEquals(2, act.get("2").size());
-    assertEquals("2", act.get("2").get(0).get("BusinessPartnerID"));
+    assertNotNull(act.get(JPAJoinKey.of("2")));
+    assertEquals(2, act.get(JPAJoinKey.of("2")).size());
+    assertEquals("2", act.get(JPAJoinKey.of("2")).get(0).get("BusinessPartnerID"));
   }
 
   @Test
@@ -109,12 +110,12 @@ public class TestJPAExpandQueryCreateResult extends TestBase {
     t = new TupleDouble(oneResult);
     result.add(t);
 
-    Map<String, List<Tuple>> act = cut.convertResult(result, exp, 0, 1);
+    Map<JPAJoinKey, List<Tuple>> act = cut.convertResult(result, exp, 0, 1);
 
     assertEquals(1, act.size());
-    assertNotNull(act.get("2"));
-    assertEquals(1, act.get("2").size());
-    assertEquals("A", act.get("2").get(0).get("RoleCategory"));
+    assertNotNull(act.get(JPAJoinKey.of("2")));
+    assertEquals(1, act.get(JPAJoinKey.of("2")).size());
+    assertEquals("A", act.get(JPAJoinKey.of("2")).get(0).get("RoleCategory"));
   }
 
   @Test
@@ -135,12 +136,12 @@ public class TestJPAExpandQueryCreateResult extends TestBase {
     t = new TupleDouble(oneResult);
     result.add(t);
 
-    Map<String, List<Tuple>> act = cut.convertResult(result, exp, 1, 1000);
+    Map<JPAJoinKey, List<Tuple>> act = cut.convertResult(result, exp, 1, 1000);
 
     assertEquals(1, act.size());
-    assertNotNull(act.get("2"));
-    assertEquals(1, act.get("2").size());
-    assertEquals("C", act.get("2").get(0).get("RoleCategory"));
+    assertNotNull(act.get(JPAJoinKey.of("2")));
+    assertEquals(1, act.get(JPAJoinKey.of("2")).size());
+    assertEquals("C", act.get(JPAJoinKey.of("2")).get(0).get("RoleCategory"));
   }
 
   @Test
@@ -161,13 +162,13 @@ public class TestJPAExpandQueryCreateResult extends TestBase {
     t = new TupleDouble(oneResult);
     result.add(t);
 
-    Map<String, List<Tuple>> act = cut.convertResult(result, exp, 0, Long.MAX_VALUE);
+    Map<JPAJoinKey, List<Tuple>> act = cut.convertResult(result, exp, 0, Long.MAX_VALUE);
 
     assertEquals(2, act.size());
-    assertNotNull(act.get("1"));
-    assertNotNull(act.get("2"));
-    assertEquals(1, act.get("2").size());
-    assertEquals("C", act.get("2").get(0).get("RoleCategory"));
+    assertNotNull(act.get(JPAJoinKey.of("1")));
+    assertNotNull(act.get(JPAJoinKey.of("2")));
+    assertEquals(1, act.get(JPAJoinKey.of("2")).size());
+    assertEquals("C", act.get(JPAJoinKey.of("2")).get(0).get("RoleCategory"));
   }
 
   @Test
@@ -183,11 +184,11 @@ public class TestJPAExpandQueryCreateResult extends TestBase {
     Tuple t = new TupleDouble(oneResult);
     result.add(t);
 
-    Map<String, List<Tuple>> act = cut.convertResult(result, exp, 0, Long.MAX_VALUE);
+    Map<JPAJoinKey, List<Tuple>> act = cut.convertResult(result, exp, 0, Long.MAX_VALUE);
 
-    assertNotNull(act.get("NUTS/2/BE25"));
-    assertEquals(1, act.get("NUTS/2/BE25").size());
-    assertEquals("BE2", act.get("NUTS/2/BE25").get(0).get("ParentDivisionCode"));
+    assertNotNull(act.get(JPAJoinKey.of("NUTS", "2", "BE25")));
+    assertEquals(1, act.get(JPAJoinKey.of("NUTS", "2", "BE25")).size());
+    assertEquals("BE2", act.get(JPAJoinKey.of("NUTS", "2", "BE25")).get(0).get("ParentDivisionCode"));
   }
 
   @Test
@@ -215,15 +216,15 @@ public class TestJPAExpandQueryCreateResult extends TestBase {
     t = new TupleDouble(oneResult);
     result.add(t);
 
-    Map<String, List<Tuple>> act = cut.convertResult(result, exp, 0, Long.MAX_VALUE);
+    Map<JPAJoinKey, List<Tuple>> act = cut.convertResult(result, exp, 0, Long.MAX_VALUE);
 
     assertEquals(2, act.size());
-    assertNotNull(act.get("NUTS/2/BE25"));
-    assertEquals(1, act.get("NUTS/2/BE25").size());
-    assertEquals("BE2", act.get("NUTS/2/BE25").get(0).get("ParentDivisionCode"));
-    assertNotNull(act.get("NUTS/2/BE10"));
-    assertEquals(1, act.get("NUTS/2/BE10").size());
-    assertEquals("BE1", act.get("NUTS/2/BE10").get(0).get("ParentDivisionCode"));
+    assertNotNull(act.get(JPAJoinKey.of("NUTS", "2", "BE25")));
+    assertEquals(1, act.get(JPAJoinKey.of("NUTS", "2", "BE25")).size());
+    assertEquals("BE2", act.get(JPAJoinKey.of("NUTS", "2", "BE25")).get(0).get("ParentDivisionCode"));
+    assertNotNull(act.get(JPAJoinKey.of("NUTS", "2", "BE10")));
+    assertEquals(1, act.get(JPAJoinKey.of("NUTS", "2", "BE10")).size());
+    assertEquals("BE1", act.get(JPAJoinKey.of("NUTS", "2", "BE10")).get(0).get("ParentDivisionCode"));
   }
 
   @Test
@@ -241,11 +242,11 @@ public class TestJPAExpandQueryCreateResult extends TestBase {
     Tuple t = new TupleDouble(oneResult);
     result.add(t);
 
-    Map<String, List<Tuple>> act = cut.convertResult(result, exp, 0, Long.MAX_VALUE);
+    Map<JPAJoinKey, List<Tuple>> act = cut.convertResult(result, exp, 0, Long.MAX_VALUE);
 
-    assertNotNull(act.get("2"));
-    assertEquals(1, act.get("2").size());
-    assertEquals("97", act.get("2").get(0).get("ID"));
+    assertNotNull(act.get(JPAJoinKey.of("2")));
+    assertEquals(1, act.get(JPAJoinKey.of("2")).size());
+    assertEquals("97", act.get(JPAJoinKey.of("2")).get(0).get("ID"));
   }
 
 }
\ No newline at end of file
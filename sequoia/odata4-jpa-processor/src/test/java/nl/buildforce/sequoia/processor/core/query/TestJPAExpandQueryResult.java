@@ -4,6 +4,8 @@ import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAEntityType;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAException;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
 import nl.buildforce.sequoia.processor.core.api.JPAODataRequestContextAccess;
+import nl.buildforce.sequoia.processor.core.converter.JPAExpandResult;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import nl.buildforce.sequoia.processor.core.exception.ODataJPAQueryException;
 import nl.buildforce.sequoia.processor.core.util.TestBase;
 import nl.buildforce.sequoia.processor.core.util.TestHelper;
@@ -42,7 +44,7 @@ public class TestJPAExpandQueryResult extends TestBase {
   private ExpandOption expand;
   private JPAODataRequestContextAccess requestContext;
   private TestHelper helper;
-  private final HashMap<String, List<Tuple>> queryResult = new HashMap<>(1);
+  private final HashMap<JPAJoinKey, List<Tuple>> queryResult = new HashMap<>(1);
   private final List<Tuple> tuples = new ArrayList<>();
   private JPAEntityType et;
   private List<JPANavigationPropertyInfo> hops;
@@ -63,7 +65,7 @@ public class TestJPAExpandQueryResult extends TestBase {
     skip = mock(SkipOption.class);
     expand = mock(ExpandOption.class);
     when(requestContext.getUriInfo()).thenReturn(uriInfo);
-    queryResult.put("root", tuples);
+    queryResult.put(JPAExpandResult.ROOT_RESULT_KEY, tuples);
   }
 
   @Test
@@ -114,7 +116,7 @@ public class TestJPAExpandQueryResult extends TestBase {
   @Test
   public void checkGetKeyBoundaryEmptyBoundaryNoResult() throws ODataJPAModelException, ODataJPAQueryException {
 
-    queryResult.put("root", Collections.emptyList());
+    queryResult.put(JPAExpandResult.ROOT_RESULT_KEY, Collections.emptyList());
 
     cut = new JPAExpandQueryResult(queryResult, null, helper.getJPAEntityType("Organizations"),
         Collections.emptyList());
@@ -217,6 +219,47 @@ public class TestJPAExpandQueryResult extends TestBase {
     assertEquals(15, act.get().getKeyBoundary().getMax().get(et.getKey().get(0)));
   }
 
+  @Test
+  public void checkGetKeyBoundaryKeyListWithoutTopSkip() throws ODataJPAModelException, ODataJPAQueryException {
+
+    addTuple(12);
+    addTuple(15);
+    cut = new JPAExpandQueryResult(queryResult, null, et, Collections.emptyList());
+    when(uriInfo.getExpandOption()).thenReturn(expand);
+    final Optional<JPAKeyBoundary> act = cut.getKeyBoundary(requestContext, hops, 2);
+    assertTrue(act.isPresent());
+    assertTrue(act.get().hasKeys());
+    assertEquals(2, act.get().getKeys().size());
+    assertEquals(12, act.get().getKeys().get(0).get(et.getKey().get(0)));
+    assertEquals(15, act.get().getKeys().get(1).get(et.getKey().get(0)));
+    assertEquals(2, act.get().getNoHops());
+  }
+
+  @Test
+  public void checkGetKeyBoundaryKeyListExceedsLimit() throws ODataJPAModelException, ODataJPAQueryException {
+
+    addTuple(12);
+    addTuple(15);
+    cut = new JPAExpandQueryResult(queryResult, null, et, Collections.emptyList());
+    when(uriInfo.getSkipOption()).thenReturn(skip);
+    when(uriInfo.getExpandOption()).thenReturn(expand);
+    when(skip.getValue()).thenReturn(2);
+    final Optional<JPAKeyBoundary> act = cut.getKeyBoundary(requestContext, hops, 1);
+    assertTrue(act.isPresent());
+    assertFalse(act.get().hasKeys());
+    assertEquals(15, act.get().getKeyBoundary().getMax().get(et.getKey().get(0)));
+  }
+
+  @Test
+  public void checkGetKeyBoundaryKeyListNoExpand() throws ODataJPAModelException, ODataJPAQueryException {
+
+    addTuple(12);
+    cut = new JPAExpandQueryResult(queryResult, null, helper.getJPAEntityType("AdministrativeDivisionDescriptions"),
+        Collections.emptyList());
+    final Optional<JPAKeyBoundary> act = cut.getKeyBoundary(requestContext, hops, 10);
+    assertFalse(act.isPresent());
+  }
+
   private void addTuple(final Integer value) {
     final Map<String, Object> key = new HashMap<>(1);
     final TupleDouble tuple = new TupleDouble(key);
@@ -0,0 +1,146 @@
+package nl.buildforce.sequoia.processor.core.query;
+
+import nl.buildforce.sequoia.metadata.core.edm.mapper.api.JPAAssociationPath;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAException;
+import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAModelException;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
+import nl.buildforce.sequoia.processor.core.util.TestBase;
+import nl.buildforce.sequoia.processor.core.util.TestHelper;
+import nl.buildforce.sequoia.processor.core.util.TupleDouble;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import jakarta.persistence.Tuple;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TestJPAJoinKey extends TestBase {
+  private JPAAssociationPath roles;
+  private JPAAssociationPath parent;
+
+  @BeforeEach
+  public void setup() throws ODataJPAException {
+    helper = new TestHelper(emf, PUNIT_NAME);
+    roles = helper.getJPAAssociationPath("Organizations", "Roles");
+    parent = helper.getJPAAssociationPath("AdministrativeDivisions", "Parent");
+  }
+
+  @Test
+  public void checkBuildSingleColumn() throws ODataJPAModelException {
+    assertEquals(JPAJoinKey.of("3"), JPAJoinKey.build(createRow("ID", "3"), roles.getLeftColumnsList()));
+  }
+
+  @Test
+  public void checkBuildCompoundKey() throws ODataJPAModelException {
+    final Tuple row = createDivision("NUTS", "2", "BE25");
+    final JPAJoinKey act = JPAJoinKey.build(row, parent.getLeftColumnsList());
+    assertEquals(JPAJoinKey.of("NUTS", "2", "BE25"), act);
+    assertEquals("NUTS/2/BE25", act.toString());
+  }
+
+  @Test
+  public void checkIntegralValuesEqualIndependentOfType() {
+    assertEquals(JPAJoinKey.of(5), JPAJoinKey.of(5L));
+    assertEquals(JPAJoinKey.of(5).hashCode(), JPAJoinKey.of(5L).hashCode());
+    assertEquals(JPAJoinKey.of((short) 5), JPAJoinKey.of(5));
+    assertEquals(JPAJoinKey.of(1, "A"), JPAJoinKey.of(1L, "A"));
+  }
+
+  @Test
+  public void checkLongValueOutsideIntRange() {
+    final long value = Integer.MAX_VALUE + 1L;
+    assertEquals(JPAJoinKey.of(value), JPAJoinKey.of(Long.valueOf(value)));
+    assertNotEquals(JPAJoinKey.of(Integer.MIN_VALUE), JPAJoinKey.of(value));
+    assertEquals(Long.toString(value), JPAJoinKey.of(value).toString());
+  }
+
+  @Test
+  public void checkDifferentValuesNotEqual() {
+    assertNotEquals(JPAJoinKey.of("1"), JPAJoinKey.of(1));
+    assertNotEquals(JPAJoinKey.of("NUTS", "2", "BE25"), JPAJoinKey.of("NUTS", "2", "BE24"));
+    assertNotEquals(JPAJoinKey.ROOT, JPAJoinKey.of("root"));
+  }
+
+  @Test
+  public void checkGetReusesKeyOfPreviousRowWithSameValues() throws ODataJPAModelException {
+    final JPAJoinKey.Builder cut = JPAJoinKey.builder(roles.getRightColumnsList());
+
+    final JPAJoinKey first = cut.get(createRow("BusinessPartnerID", "1"));
+    final JPAJoinKey second = cut.get(createRow("BusinessPartnerID", "1"));
+    assertEquals(JPAJoinKey.of("1"), first);
+    assertSame(first, second);
+  }
+
+  @Test
+  public void checkGetBuildsNewKeyOnChangedValue() throws ODataJPAModelException {
+    final JPAJoinKey.Builder cut = JPAJoinKey.builder(parent.getLeftColumnsList());
+
+    final JPAJoinKey first = cut.get(createDivision("NUTS", "2", "BE25"));
+    final JPAJoinKey second = cut.get(createDivision("NUTS", "2", "BE24"));
+    assertEquals(JPAJoinKey.of("NUTS", "2", "BE25"), first);
+    assertEquals(JPAJoinKey.of("NUTS", "2", "BE24"), second);
+    assertNotSame(first, second);
+  }
+
+  @Test
+  public void checkGetReturnsSameKeyAsBuild() throws ODataJPAModelException {
+    final Tuple row = createDivision("NUTS", "3", "BE251");
+    assertEquals(JPAJoinKey.build(row, parent.getLeftColumnsList()),
+        JPAJoinKey.builder(parent.getLeftColumnsList()).get(row));
+  }
+
+  @Test
+  public void checkGetUsesPrefix() throws ODataJPAModelException {
+    final Map<String, Object> values = new HashMap<>();
+    values.put("Roles.ID", "5");
+    final JPAJoinKey.Builder cut = JPAJoinKey.builder("Roles.", roles.getLeftColumnsList());
+
+    assertEquals(JPAJoinKey.of("5"), cut.get(new TupleDouble(values)));
+  }
+
+  @Test
+  public void checkGroupFindsRowsByKeyOfParent() throws ODataJPAModelException {
+    final List<Tuple> rows = Arrays.asList(createRow("BusinessPartnerID", 1), createRow("BusinessPartnerID", 1),
+        createRow("BusinessPartnerID", 2));
+
+    final Map<JPAJoinKey, List<Tuple>> act = JPAJoinKey.builder(roles.getRightColumnsList()).group(rows, 0,
+        Long.MAX_VALUE);
+    assertEquals(2, act.size());
+    assertEquals(2, act.get(JPAJoinKey.build(createRow("ID", 1L), roles.getLeftColumnsList())).size());
+    assertEquals(1, act.get(JPAJoinKey.build(createRow("ID", 2L), roles.getLeftColumnsList())).size());
+  }
+
+  @Test
+  public void checkGroupAppliesSkipAndTopPerKey() throws ODataJPAModelException {
+    final List<Tuple> rows = Arrays.asList(createRow("BusinessPartnerID", "1"), createRow("BusinessPartnerID", "1"),
+        createRow("BusinessPartnerID", "1"), createRow("BusinessPartnerID", "2"));
+
+    final Map<JPAJoinKey, List<Tuple>> act = JPAJoinKey.builder(roles.getRightColumnsList()).group(rows, 1, 1);
+    assertEquals(1, act.get(JPAJoinKey.of("1")).size());
+    assertSame(rows.get(1), act.get(JPAJoinKey.of("1")).get(0));
+    assertTrue(act.get(JPAJoinKey.of("2")).isEmpty());
+  }
+
+  private Tuple createRow(final String alias, final Object value) {
+    final Map<String, Object> values = new HashMap<>();
+    values.put(alias, value);
+    return new TupleDouble(values);
+  }
+
+  private Tuple createDivision(final String codePublisher, final String parentCodeID,
+      final String parentDivisionCode) {
+    final Map<String, Object> values = new HashMap<>();
+    values.put("CodePublisher", codePublisher);
+    values.put("ParentCodeID", parentCodeID);
+    values.put("ParentDivisionCode", parentDivisionCode);
+    return new TupleDouble(values);
+  }
+}
@@ -14,6 +14,8 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -473,6 +475,47 @@ public class TestJPAProcessorExpand extends TestBase {
     assertEquals(7, children.size());
   }
 
+  @Test
+  public void testExpandTwoNavigationPathConcurrent() throws IOException, ODataException {
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final IntegrationTestHelper helper = IntegrationTestHelper.with(emf,
+          "AdministrativeDivisions(DivisionCode='BE32',CodeID='NUTS2',CodePublisher='Eurostat')?$expand=Parent,Children")
+          .expandExecutor(executor).build();
+      helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+      final ObjectNode org = helper.getValue();
+      assertNotNull(org.get("Parent"));
+      final ObjectNode parent = (ObjectNode) org.get("Parent");
+      assertEquals("BE3", parent.get("DivisionCode").asText());
+      final ArrayNode children = (ArrayNode) org.get("Children");
+      assertEquals(7, children.size());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testExpandNestedNavigationPathConcurrent() throws IOException, ODataException {
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final IntegrationTestHelper helper = IntegrationTestHelper.with(emf,
+          "AdministrativeDivisions(DivisionCode='BE32',CodeID='NUTS2',CodePublisher='Eurostat')?$expand=Parent($expand=Children($orderby=DivisionCode)),Children($top=2;$orderby=DivisionCode desc)")
+          .expandExecutor(executor).build();
+      helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+      final ObjectNode org = helper.getValue();
+      final ArrayNode siblings = (ArrayNode) org.get("Parent").get("Children");
+      assertEquals(5, siblings.size());
+      assertEquals("BE31", siblings.get(0).get("DivisionCode").asText());
+      final ArrayNode children = (ArrayNode) org.get("Children");
+      assertEquals(2, children.size());
+      assertEquals("BE327", children.get(0).get("DivisionCode").asText());
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   @Test
   public void testExpandAllNavigationPath() throws IOException, ODataException {
     final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
@@ -0,0 +1,158 @@
+package nl.buildforce.sequoia.processor.core.query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import nl.buildforce.sequoia.processor.core.util.IntegrationTestHelper;
+import nl.buildforce.sequoia.processor.core.util.TestBase;
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TestJPAQueryApply extends TestBase {
+
+  @Test
+  public void testGroupByComplexPropertyMember() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "Organizations?$apply=groupby((Address/Region))");
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ArrayNode groups = helper.getValues();
+    assertEquals(7, groups.size());
+    assertEquals("US-CA", groups.get(0).get("Address").get("Region").asText());
+    assertNull(groups.get(0).get("ID"));
+  }
+
+  @Test
+  public void testGroupByWithCount() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "Organizations?$apply=groupby((Address/Region),aggregate($count as Count))");
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ArrayNode groups = helper.getValues();
+    assertEquals(7, groups.size());
+    assertEquals("US-CA", groups.get(0).get("Address").get("Region").asText());
+    assertEquals(3, groups.get(0).get("Count").asInt());
+    assertEquals("US-SC", groups.get(4).get("Address").get("Region").asText());
+    assertEquals(2, groups.get(4).get("Count").asInt());
+  }
+
+  @Test
+  public void testAggregateCountWithoutGrouping() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "Organizations?$apply=aggregate($count as Count)");
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ArrayNode groups = helper.getValues();
+    assertEquals(1, groups.size());
+    assertEquals(10, groups.get(0).get("Count").asInt());
+  }
+
+  @Test
+  public void testFilterAndStandardAggregationMethods() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "AdministrativeDivisions?$apply=filter(CodeID eq 'LAU2')/groupby((ParentDivisionCode),"
+            + "aggregate(Population with sum as TotalPopulation,Area with min as MinArea,Area with max as MaxArea,"
+            + "$count as Count))");
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ArrayNode groups = helper.getValues();
+    assertEquals(8, groups.size());
+    assertEquals("BE251", groups.get(0).get("ParentDivisionCode").asText());
+    assertEquals(280735, groups.get(0).get("TotalPopulation").asLong());
+    assertEquals(17411180, groups.get(0).get("MinArea").asLong());
+    assertEquals(138402202, groups.get(0).get("MaxArea").asLong());
+    assertEquals(10, groups.get(0).get("Count").asInt());
+  }
+
+  @Test
+  public void testOrderByAliasWithTop() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "AdministrativeDivisions?$apply=filter(CodeID eq 'LAU2')/groupby((ParentDivisionCode),"
+            + "aggregate(Population with sum as TotalPopulation))&$orderby=TotalPopulation desc&$top=2");
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ArrayNode groups = helper.getValues();
+    assertEquals(2, groups.size());
+    assertEquals("BE254", groups.get(0).get("ParentDivisionCode").asText());
+    assertEquals("BE251", groups.get(1).get("ParentDivisionCode").asText());
+  }
+
+  @Test
+  public void testCountReturnsNumberOfGroups() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "AdministrativeDivisions?$apply=filter(CodeID eq 'LAU2')/groupby((ParentDivisionCode))&$count=true&$top=2");
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ObjectNode result = (ObjectNode) new ObjectMapper().readTree(helper.getRawResult());
+    assertEquals(8, result.get("@odata.count").asInt());
+    assertEquals(2, result.get("value").size());
+  }
+
+  @Test
+  public void testCountReturnsNumberOfGroupsOfSeveralProperties() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "AdministrativeDivisions?$apply=filter(CodeID eq 'LAU2')/groupby((CodeID,ParentDivisionCode))"
+            + "&$count=true&$top=2");
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ObjectNode result = (ObjectNode) new ObjectMapper().readTree(helper.getRawResult());
+    assertEquals(8, result.get("@odata.count").asInt());
+    assertEquals(2, result.get("value").size());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "Organizations?$apply=aggregate($count as Count)&$count=true&$skip=1",
+      "Organizations?$apply=groupby((Address/Region))&$count=true&$top=2",
+      "Organizations?$apply=groupby((Address/Region,Address/Country))&$count=true&$top=2",
+      "Organizations?$apply=filter(ID eq 'XX')/groupby((Address/Region))&$count=true&$top=2" })
+  public void testCountEqualsNumberOfAggregatedRows(final String url) throws IOException, ODataException {
+
+    final IntegrationTestHelper all = new IntegrationTestHelper(emf, url.replaceAll("&\\$(top|skip)=\\d+", ""));
+    all.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, url);
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+    final ObjectNode result = (ObjectNode) new ObjectMapper().readTree(helper.getRawResult());
+    assertEquals(all.getValues().size(), result.get("@odata.count").asInt());
+  }
+
+  @Test
+  public void testGroupByEmptyResult() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "Organizations?$apply=filter(ID eq 'XX')/groupby((Address/Region))");
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+    assertEquals(0, helper.getValues().size());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "AdministrativeDivisions?$apply=topcount(2,Area)",
+      "Organizations?$apply=groupby((Address/Region))/filter(Address/Region eq 'US-CA')",
+      "Organizations?$apply=groupby((Address/Region))&$expand=Roles",
+      "Organizations?$apply=filter(ID eq '1')" })
+  public void testUnsupportedTransformationReturnsNotImplemented(final String url) throws IOException,
+      ODataException {
+
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, url);
+    helper.assertStatus(HttpStatusCode.NOT_IMPLEMENTED.getStatusCode());
+    assertFalse(helper.getRawResult().isEmpty());
+  }
+}
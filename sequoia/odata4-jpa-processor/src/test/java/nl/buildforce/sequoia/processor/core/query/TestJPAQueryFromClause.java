@@ -45,6 +45,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestJPAQueryFromClause extends TestBase {
   private JPAAbstractJoinQuery cut;
@@ -86,6 +87,14 @@ public class TestJPAQueryFromClause extends TestBase {
     assertNotNull(act.get(jpaEntityType.getExternalFQN().getFullQualifiedNameAsString()));
   }
 
+  @Test
+  public void checkBuildQueryCreatesFromClauseWithoutExecution() throws ODataApplicationException {
+
+    assertTrue(((JPAJoinQuery) cut).buildQuery().isPresent());
+    assertEquals(1, cut.cq.getRoots().size());
+    assertEquals(jpaEntityType.getTypeClass(), cut.cq.getRoots().iterator().next().getJavaType());
+  }
+
   @Test
   public void checkFromListOrderByContainsOne() throws ODataJPAModelException, ODataApplicationException,
       JPANoSelectionException {
@@ -40,6 +40,46 @@ public class TestJPAQueryNavigationCount extends TestBase {
     assertEquals("7", helper.getRawResult());
   }
 
+  @Test
+  public void testEntitySetCountOptionDerivedFromResult() throws IOException, ODataException {
+
+    IntegrationTestHelper helper = new IntegrationTestHelper(emf, "Organizations?$count=true&$skip=8&$orderby=ID");
+    assertEquals(200, helper.getStatus());
+
+    assertEquals(10, helper.getValue().get("@odata.count").asInt());
+    assertEquals(2, helper.getValues().size());
+  }
+
+  @Test
+  public void testEntitySetCountOptionWithTop() throws IOException, ODataException {
+
+    IntegrationTestHelper helper = new IntegrationTestHelper(emf, "Organizations?$count=true&$top=3");
+    assertEquals(200, helper.getStatus());
+
+    assertEquals(10, helper.getValue().get("@odata.count").asInt());
+    assertEquals(3, helper.getValues().size());
+  }
+
+  @Test
+  public void testEntitySetCountOptionSkipBeyondResult() throws IOException, ODataException {
+
+    IntegrationTestHelper helper = new IntegrationTestHelper(emf, "Organizations?$count=true&$skip=20");
+    assertEquals(200, helper.getStatus());
+
+    assertEquals(10, helper.getValue().get("@odata.count").asInt());
+    assertEquals(0, helper.getValues().size());
+  }
+
+  @Test
+  public void testEntityNavigateCountOption() throws IOException, ODataException {
+
+    IntegrationTestHelper helper = new IntegrationTestHelper(emf, "Organizations('3')/Roles?$count=true");
+    assertEquals(200, helper.getStatus());
+
+    assertEquals(3, helper.getValue().get("@odata.count").asInt());
+    assertEquals(3, helper.getValues().size());
+  }
+
   @Disabled
   @Test
   public void testEntitySetCountWithFilterOnDescription() throws IOException, ODataException {
@@ -0,0 +1,86 @@
+package nl.buildforce.sequoia.processor.core.query;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import nl.buildforce.sequoia.processor.core.util.IntegrationTestHelper;
+import nl.buildforce.sequoia.processor.core.util.TestBase;
+import nl.buildforce.olingo.commons.api.ex.ODataException;
+import nl.buildforce.olingo.commons.api.http.HttpStatusCode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TestJPAQueryStreamed extends TestBase {
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "Organizations?$orderby=ID",
+      "Organizations?$select=ID,Name1&$orderby=Name1 desc",
+      "Organizations?$filter=Address/Region eq 'US-CA'",
+      "Organizations('3')/Roles",
+      "Organizations?$expand=Roles",
+      "Persons('99')/InhouseAddress",
+      "BusinessPartnerRoles?$top=3&$skip=2",
+      "BusinessPartnerRoles?$count=true&$orderby=RoleCategory" })
+  public void testStreamedResultEqualsConvertedResult(final String url) throws IOException, ODataException {
+
+    final IntegrationTestHelper converted = new IntegrationTestHelper(emf, url);
+    final IntegrationTestHelper streamed = IntegrationTestHelper.with(emf, url).streamingResponse(true).build();
+    converted.assertStatus(HttpStatusCode.OK.getStatusCode());
+    streamed.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ObjectMapper mapper = new ObjectMapper();
+    assertEquals(mapper.readTree(converted.getRawResult()), mapper.readTree(streamed.getRawResult()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "Organizations?$orderby=ID&$format=xml",
+      "Organizations?$select=ID,Name1&$filter=Address/Region eq 'US-CA'&$format=xml",
+      "Organizations('3')/Roles?$format=xml",
+      "BusinessPartnerRoles?$top=3&$skip=2&$format=xml" })
+  public void testStreamedXmlResultEqualsConvertedResult(final String url) throws IOException, ODataException {
+
+    final IntegrationTestHelper converted = new IntegrationTestHelper(emf, url);
+    final IntegrationTestHelper streamed = IntegrationTestHelper.with(emf, url).streamingResponse(true).build();
+    converted.assertStatus(HttpStatusCode.OK.getStatusCode());
+    streamed.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    assertEquals(withoutUpdated(converted.getRawResult()), withoutUpdated(streamed.getRawResult()));
+  }
+
+  @Test
+  public void testStreamedResultWithCount() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = IntegrationTestHelper.with(emf,
+        "Organizations?$select=ID&$count=true&$top=2&$orderby=ID").streamingResponse(true).build();
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ObjectNode result = (ObjectNode) new ObjectMapper().readTree(helper.getRawResult());
+    assertEquals(10, result.get("@odata.count").asInt());
+    assertEquals(2, result.get("value").size());
+  }
+
+  @Test
+  public void testStreamedEmptyResult() throws IOException, ODataException {
+
+    final IntegrationTestHelper helper = IntegrationTestHelper.with(emf, "Organizations?$select=ID&$filter=ID eq 'XX'")
+        .streamingResponse(true).build();
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final ArrayNode orgs = helper.getValues();
+    assertEquals(0, orgs.size());
+  }
+
+  /**
+   * Atom entries carry the time of serialization
+   */
+  private static String withoutUpdated(final String feed) {
+    return feed.replaceAll("<a:updated>[^<]*</a:updated>", "");
+  }
+}
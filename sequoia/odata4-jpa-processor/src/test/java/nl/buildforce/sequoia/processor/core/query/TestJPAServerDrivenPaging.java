@@ -1,13 +1,16 @@
 package nl.buildforce.sequoia.processor.core.query;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import nl.buildforce.olingo.commons.api.edm.EdmEntitySet;
 import nl.buildforce.olingo.commons.api.edm.EdmEntityType;
@@ -35,7 +38,9 @@ import nl.buildforce.olingo.server.api.uri.queryoption.expression.Member;
 import nl.buildforce.sequoia.processor.core.api.JPAClaimsPair;
 import nl.buildforce.sequoia.processor.core.api.JPAODataClaimsProvider;
 import nl.buildforce.sequoia.processor.core.api.JPAODataPage;
+import nl.buildforce.sequoia.processor.core.api.JPAODataDefaultPagingProvider;
 import nl.buildforce.sequoia.processor.core.api.JPAODataPagingProvider;
+import nl.buildforce.sequoia.processor.core.api.example.JPAExamplePagingProvider;
 import nl.buildforce.sequoia.processor.core.util.CountQueryMatcher;
 import nl.buildforce.sequoia.processor.core.util.IntegrationTestHelper;
 import nl.buildforce.sequoia.processor.core.util.TestBase;
@@ -43,11 +48,16 @@ import nl.buildforce.sequoia.processor.core.util.TestBase;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyMap;
 import static org.mockito.Mockito.argThat;
 import static org.mockito.Mockito.isNotNull;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -167,6 +177,25 @@ public class TestJPAServerDrivenPaging extends TestBase {
     verify(provider).getFirstPage(any(), any(), argThat(new CountQueryMatcher(3L))/*, any()*/);
   }
 
+  @Test
+  public void testCountOptionUsesCountOfPage() throws IOException, ODataException {
+
+    final JPAODataPagingProvider provider = mock(JPAODataPagingProvider.class);
+    final List<Long> pageCounts = new ArrayList<>();
+    when(provider.getFirstPage(any(), any(), any() /*, any()*/)).thenAnswer(i -> {
+      pageCounts.add(((JPACountQuery) i.getArguments()[2]).countResults());
+      return new JPAODataPage((UriInfo) i.getArguments()[0], 0, 5, "Hugo");
+    });
+    IntegrationTestHelper helper = new IntegrationTestHelper(emf, "Organizations?$orderby=ID desc&$count=true",
+        provider);
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    assertEquals(5, helper.getValues().size());
+    assertEquals(1, pageCounts.size());
+    assertEquals(10L, pageCounts.get(0));
+    assertEquals(10, helper.getValue().get("@odata.count").asInt());
+  }
+
   @Test
   public void testMaxPageSizeHeaderProvided() throws IOException, ODataException {
 
@@ -270,6 +299,121 @@ public class TestJPAServerDrivenPaging extends TestBase {
     assertNull(act.getValues().get(0).get("Country"));
   }
 
+  @Test
+  public void testKeysetPagingReturnsSameEntitiesAsOffsetPaging() throws IOException, ODataException {
+    final JPAODataPagingProvider provider = spy(createKeysetProvider("Organizations", 3));
+
+    assertEquals(readAllPages("Organizations?$orderby=ID desc", createProvider("Organizations", 3, false)),
+        readAllPages("Organizations?$orderby=ID desc", provider));
+    // Four pages, the last one has no next link
+    verify(provider, times(3)).lastEntityRead(any(), anyMap());
+  }
+
+  @Test
+  public void testKeysetPagingWithoutOrderByUsesKey() throws IOException, ODataException {
+    final JPAODataPagingProvider provider = spy(createKeysetProvider("Organizations", 4));
+
+    final List<String> act = readAllPages("Organizations", provider);
+    assertEquals(Arrays.asList("1", "10", "2", "3", "4", "5", "6", "7", "8", "9"), act);
+    verify(provider, times(2)).lastEntityRead(any(), anyMap());
+  }
+
+  @Test
+  public void testKeysetPagingWithCompoundKey() throws IOException, ODataException {
+    final JPAODataPagingProvider provider = spy(createKeysetProvider("BusinessPartnerRoles", 2));
+
+    // The key is used as tie-breaker
+    assertEquals(Arrays.asList("99/X", "99/Z", "98/X", "97/Y", "7/C", "3/A", "3/B", "3/C", "2/A", "2/C", "1/A"),
+        readAllPages("BusinessPartnerRoles?$orderby=BusinessPartnerID desc", provider));
+    verify(provider, times(5)).lastEntityRead(any(), anyMap());
+  }
+
+  @Test
+  public void testKeysetPagingFallsBackToOffsetForNullableOrderBy() throws IOException, ODataException {
+    final JPAODataPagingProvider provider = spy(createKeysetProvider("Organizations", 3));
+
+    assertEquals(readAllPages("Organizations?$orderby=Name1", createProvider("Organizations", 3, false)),
+        readAllPages("Organizations?$orderby=Name1", provider));
+    verify(provider, never()).lastEntityRead(any(), anyMap());
+  }
+
+  @Test
+  public void testStatelessPagingAcrossInstances() throws IOException, ODataException {
+    final String url = "Organizations?$filter=Address/Country ne 'XXX'&$orderby=Name1 desc&$select=ID,Name1";
+
+    assertEquals(readAllPages(url, (JPAODataPagingProvider) null), readAllPages(url, createStatelessProvider(false), createStatelessProvider(
+        false)));
+  }
+
+  @Test
+  public void testStatelessKeysetPagingAcrossInstances() throws IOException, ODataException {
+    final String url = "BusinessPartnerRoles?$orderby=BusinessPartnerID desc&$count=true";
+
+    assertEquals(Arrays.asList("99/X", "99/Z", "98/X", "97/Y", "7/C", "3/A", "3/B", "3/C", "2/A", "2/C", "1/A"),
+        readAllPages(url, createStatelessProvider(true), createStatelessProvider(true)));
+  }
+
+  @Test
+  public void testStatelessNextLinkRepeatsQueryOptions() throws IOException, ODataException {
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf,
+        "Organizations?$top=8&$skip=1&$filter=Name1 ne 'A%26B'&$orderby=ID", createStatelessProvider(false));
+    helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+
+    final String nextLink = helper.getValue().get("@odata.nextLink").asText();
+    assertTrue(nextLink.startsWith("Organizations?$filter=Name1%20ne%20'A%26B'&$orderby=ID&$skiptoken="), nextLink);
+  }
+
+  @Test
+  public void testStatelessReturnsGoneIfQueryOptionsChanged() throws IOException, ODataException {
+    final JPAODataPagingProvider provider = createStatelessProvider(false);
+    final IntegrationTestHelper helper = new IntegrationTestHelper(emf, "Organizations?$orderby=ID", provider);
+    final String nextLink = helper.getValue().get("@odata.nextLink").asText();
+
+    new IntegrationTestHelper(emf, nextLink, provider).assertStatus(HttpStatusCode.OK.getStatusCode());
+    new IntegrationTestHelper(emf, nextLink.replace("$orderby=ID", "$orderby=Name1"), provider).assertStatus(
+        HttpStatusCode.GONE.getStatusCode());
+  }
+
+  private JPAODataPagingProvider createStatelessProvider(final boolean keyset) {
+    return JPAODataDefaultPagingProvider.with()
+        .setMaxPageSize("Organizations", 3)
+        .setMaxPageSize("BusinessPartnerRoles", 2)
+        .setKeysetPaging(keyset)
+        .setSigningKey("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8))
+        .build();
+  }
+
+  private JPAExamplePagingProvider createKeysetProvider(final String entitySet, final int size) {
+    return createProvider(entitySet, size, true);
+  }
+
+  private JPAExamplePagingProvider createProvider(final String entitySet, final int size, final boolean keyset) {
+    final Map<String, Integer> sizes = new HashMap<>();
+    sizes.put(entitySet, size);
+    return new JPAExamplePagingProvider(sizes, 10, keyset);
+  }
+
+  private List<String> readAllPages(final String url, final JPAODataPagingProvider... providers) throws IOException,
+      ODataException {
+
+    final List<String> entities = new ArrayList<>();
+    String nextUrl = url;
+    int pageNo = 0;
+    while (nextUrl != null) {
+      final JPAODataPagingProvider provider = providers[pageNo++ % providers.length];
+      final IntegrationTestHelper helper = provider == null ? new IntegrationTestHelper(emf, nextUrl)
+          : new IntegrationTestHelper(emf, nextUrl, provider);
+      helper.assertStatus(HttpStatusCode.OK.getStatusCode());
+      final ObjectNode page = helper.getValue();
+      for (final JsonNode entity : page.get("value"))
+        entities.add(entity.has("ID") ? entity.get("ID").asText() : entity.get("BusinessPartnerID").asText() + "/"
+            + entity.get("RoleCategory").asText());
+      nextUrl = page.has("@odata.nextLink") ? page.get("@odata.nextLink").asText() : null;
+    }
+    return entities;
+  }
+
+
   private UriInfo buildUriInfo() throws EdmPrimitiveTypeException {
     final UriInfo uriInfo = mock(UriInfo.class);
     final UriResourceEntitySet uriEs = mock(UriResourceEntitySet.class);
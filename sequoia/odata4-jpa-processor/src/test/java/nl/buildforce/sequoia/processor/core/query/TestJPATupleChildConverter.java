@@ -10,9 +10,11 @@ import nl.buildforce.sequoia.processor.core.util.TupleDouble;
 import nl.buildforce.sequoia.processor.core.util.UriHelperDouble;
 import nl.buildforce.olingo.commons.api.data.ComplexValue;
 import nl.buildforce.olingo.commons.api.data.EntityCollection;
+import nl.buildforce.olingo.commons.api.data.EntityIterator;
 import nl.buildforce.olingo.commons.api.data.ValueType;
 import nl.buildforce.olingo.server.api.ODataApplicationException;
 import nl.buildforce.sequoia.processor.core.converter.JPAExpandResult;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -22,9 +24,13 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class TestJPATupleChildConverter extends TestBase {
   public static final int NO_POSTAL_ADDRESS_FIELDS = 8;
@@ -33,7 +39,7 @@ public class TestJPATupleChildConverter extends TestBase {
   private List<Tuple> jpaQueryResult;
   private UriHelperDouble uriHelper;
   private Map<String, String> keyPredicates;
-  private final HashMap<String, List<Tuple>> queryResult = new HashMap<>(1);
+  private final HashMap<JPAJoinKey, List<Tuple>> queryResult = new HashMap<>(1);
 
   @BeforeEach
   public void setup() throws ODataJPAException {
@@ -125,6 +131,35 @@ public class TestJPATupleChildConverter extends TestBase {
     assertEquals("Willi", act.getEntities().get(0).getProperty("Name1").getValue().toString());
   }
 
+  @Test
+  public void checkStreamedResultClosedAfterLastRow() throws ODataApplicationException, ODataJPAModelException {
+    final AtomicInteger closed = new AtomicInteger();
+    final EntityIterator act = cut.getResultIterator(new JPAExpandQueryResult(queryResult, null, helper
+        .getJPAEntityType("Organizations"), Collections.emptyList()), createRows("1", "5").onClose(
+            closed::incrementAndGet), Collections.emptyList());
+
+    assertEquals("1", act.next().getProperty("ID").getValue());
+    assertEquals("5", act.next().getProperty("ID").getValue());
+    assertEquals(0, closed.get());
+    assertFalse(act.hasNext());
+    assertEquals(1, closed.get());
+    act.close();
+    assertEquals(1, closed.get());
+  }
+
+  @Test
+  public void checkStreamedResultClosedIfIterationAborted() throws ODataApplicationException, ODataJPAModelException {
+    final AtomicInteger closed = new AtomicInteger();
+    final EntityIterator act = cut.getResultIterator(new JPAExpandQueryResult(queryResult, null, helper
+        .getJPAEntityType("Organizations"), Collections.emptyList()), createRows("1", "5").onClose(
+            closed::incrementAndGet), Collections.emptyList());
+
+    assertTrue(act.hasNext());
+    act.next();
+    act.close();
+    assertEquals(1, closed.get());
+  }
+
   @Test
   public void checkConvertsOneResultsTwoElementsSelectionWithEtag() throws ODataApplicationException,
       ODataJPAModelException {
@@ -143,7 +178,7 @@ public class TestJPATupleChildConverter extends TestBase {
     assertEquals(1, act.getEntities().get(0).getProperties().size());
     assertEquals("1", act.getEntities().get(0).getProperties().get(0).getValue());
     assertEquals("ID", act.getEntities().get(0).getProperties().get(0).getName());
-    assertEquals("2", act.getEntities().get(0).getETag());
+    assertEquals("\"2\"", act.getEntities().get(0).getETag());
   }
 
   @Test
@@ -225,8 +260,8 @@ public class TestJPATupleChildConverter extends TestBase {
   public void checkConvertMediaStreamStaticMime() throws ODataJPAModelException, NumberFormatException,
       ODataApplicationException {
 
-    HashMap<String, List<Tuple>> result = new HashMap<>(1);
-    result.put("root", jpaQueryResult);
+    HashMap<JPAJoinKey, List<Tuple>> result = new HashMap<>(1);
+    result.put(JPAExpandResult.ROOT_RESULT_KEY, jpaQueryResult);
 
     cut = new JPATupleChildConverter(helper.sd, uriHelper, new ServiceMetadataDouble(nameBuilder, "PersonImage"));
 
@@ -247,8 +282,8 @@ public class TestJPATupleChildConverter extends TestBase {
   public void checkConvertMediaStreamDynamicMime() throws ODataJPAModelException, NumberFormatException,
       ODataApplicationException {
 
-    HashMap<String, List<Tuple>> result = new HashMap<>(1);
-    result.put("root", jpaQueryResult);
+    HashMap<JPAJoinKey, List<Tuple>> result = new HashMap<>(1);
+    result.put(JPAExpandResult.ROOT_RESULT_KEY, jpaQueryResult);
 
     cut = new JPATupleChildConverter(helper.sd, uriHelper, new ServiceMetadataDouble(nameBuilder,
         "OrganizationImage"));
@@ -267,4 +302,15 @@ public class TestJPATupleChildConverter extends TestBase {
     assertEquals(2, act.getEntities().get(0).getProperties().size());
   }
 
-}
\ No newline at end of file
+
+  private Stream<Tuple> createRows(final String... ids) {
+    final List<Tuple> rows = new ArrayList<>();
+    for (final String id : ids) {
+      final HashMap<String, Object> row = new HashMap<>();
+      row.put("ID", id);
+      rows.add(new TupleDouble(row));
+      keyPredicates.put(id, "Organizations('" + id + "')");
+    }
+    return rows.stream();
+  }
+}
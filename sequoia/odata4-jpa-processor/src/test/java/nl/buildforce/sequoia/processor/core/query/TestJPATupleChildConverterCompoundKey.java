@@ -12,6 +12,7 @@ import nl.buildforce.sequoia.processor.core.util.UriHelperDouble;
 import nl.buildforce.olingo.commons.api.data.EntityCollection;
 import nl.buildforce.olingo.server.api.ODataApplicationException;
 import nl.buildforce.sequoia.processor.core.converter.JPAExpandResult;
+import nl.buildforce.sequoia.processor.core.converter.JPAJoinKey;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -44,8 +45,8 @@ public class TestJPATupleChildConverterCompoundKey extends TestBase {
   public void checkConvertsOneResultsTwoKeys() throws ODataApplicationException, ODataJPAModelException {
     // .../BusinessPartnerRoles(BusinessPartnerID='3',RoleCategory='C')
 
-    HashMap<String, List<Tuple>> resultContainer = new HashMap<>(1);
-    resultContainer.put("root", jpaQueryResult);
+    HashMap<JPAJoinKey, List<Tuple>> resultContainer = new HashMap<>(1);
+    resultContainer.put(JPAExpandResult.ROOT_RESULT_KEY, jpaQueryResult);
 
     cut = new JPATupleChildConverter(helper.sd, uriHelper, new ServiceMetadataDouble(nameBuilder,
         "BusinessPartnerRole"));
@@ -75,8 +76,8 @@ public class TestJPATupleChildConverterCompoundKey extends TestBase {
   public void checkConvertsOneResultsEmbeddedKey() throws ODataApplicationException, ODataJPAModelException {
     // .../AdministrativeDivisionDescriptions(CodePublisher='ISO', CodeID='3166-1', DivisionCode='DEU',Language='en')
 
-    HashMap<String, List<Tuple>> resultContainer = new HashMap<>(1);
-    resultContainer.put("root", jpaQueryResult);
+    HashMap<JPAJoinKey, List<Tuple>> resultContainer = new HashMap<>(1);
+    resultContainer.put(JPAExpandResult.ROOT_RESULT_KEY, jpaQueryResult);
 
     cut = new JPATupleChildConverter(helper.sd, uriHelper, new ServiceMetadataDouble(nameBuilder,
         "AdministrativeDivisionDescription"));
@@ -7,9 +7,11 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.InputStream;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Locale;
 
 import static org.junit.jupiter.api.Assertions.fail;
@@ -18,16 +20,17 @@ public class HttpServletResponseDouble implements HttpServletResponse {
 
     private final ServletOutputStream outputStream = new OutPutStream();
     private int setStatus;
+    private final Map<String, List<String>> headers = new HashMap<>();
 
     @Override
-    public String getHeader(String var1) {
-        fail();
-        return null;
+    public String getHeader(String name) {
+        final List<String> values = headers.get(name.toLowerCase(Locale.ENGLISH));
+        return values == null ? null : values.get(0);
     }
 
     @Override
-    public Collection<String> getHeaders(String s) {
-        return null;
+    public Collection<String> getHeaders(String name) {
+        return headers.get(name.toLowerCase(Locale.ENGLISH));
     }
 
     @Override
@@ -202,6 +205,7 @@ public class HttpServletResponseDouble implements HttpServletResponse {
 
     @Override
     public void addHeader(String name, String value) {
+        headers.computeIfAbsent(name.toLowerCase(Locale.ENGLISH), k -> new ArrayList<>()).add(value);
     }
 
     @Override
@@ -15,6 +15,8 @@ import java.io.InputStreamReader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import javax.sql.DataSource;
 
 import nl.buildforce.olingo.commons.api.ex.ODataException;
@@ -22,13 +24,18 @@ import nl.buildforce.olingo.server.api.OData;
 import nl.buildforce.olingo.server.api.ODataHttpHandler;
 import nl.buildforce.sequoia.metadata.api.JPAEdmProvider;
 import nl.buildforce.sequoia.metadata.core.edm.mapper.exception.ODataJPAException;
+import nl.buildforce.sequoia.processor.core.api.JPACUDRequestHandler;
 import nl.buildforce.sequoia.processor.core.api.JPAODataBatchProcessor;
 import nl.buildforce.sequoia.processor.core.api.JPAODataCRUDContextAccess;
 import nl.buildforce.sequoia.processor.core.api.JPAODataClaimsProvider;
 import nl.buildforce.sequoia.processor.core.api.JPAODataContextAccessDouble;
+import nl.buildforce.sequoia.processor.core.api.JPAODataDatabaseProcessor;
 import nl.buildforce.sequoia.processor.core.api.JPAODataGroupProvider;
+import nl.buildforce.sequoia.processor.core.api.JPAODataMetrics;
 import nl.buildforce.sequoia.processor.core.api.JPAODataPagingProvider;
 import nl.buildforce.sequoia.processor.core.api.JPAODataRequestProcessor;
+import nl.buildforce.sequoia.processor.core.api.JPAODataUriParseMetrics;
+import nl.buildforce.sequoia.processor.core.database.JPAODataSearchIndex;
 import nl.buildforce.sequoia.processor.core.processor.JPAODataRequestContextImpl;
 
 import org.apache.commons.lang3.ArrayUtils;
@@ -42,48 +49,48 @@ public class IntegrationTestHelper {
   private final HttpServletResponseDouble resp;
 
   public IntegrationTestHelper(final EntityManagerFactory localEmf, final String urlPath) throws ODataJPAException {
-    this(localEmf, null, urlPath, null, null, null);
+    this(with(localEmf, urlPath));
   }
 
   public IntegrationTestHelper(final EntityManagerFactory localEmf, final String urlPath,
       final Map<String, List<String>> headers) throws ODataJPAException {
-    this(localEmf, null, urlPath, null, null, null, headers, null, null);
+    this(with(localEmf, urlPath).headers(headers));
   }
 
   public IntegrationTestHelper(final EntityManagerFactory localEmf, final String urlPath,
       final JPAODataGroupProvider groups) throws ODataJPAException {
-    this(localEmf, null, urlPath, null, null, null, null, null, groups);
+    this(with(localEmf, urlPath).groups(groups));
   }
 
   public IntegrationTestHelper(EntityManagerFactory localEmf, DataSource ds, String urlPath) throws
           ODataException {
-    this(localEmf, ds, urlPath, null, null, null);
+    this(with(localEmf, urlPath).dataSource(ds));
   }
 
   public IntegrationTestHelper(EntityManagerFactory localEmf, String urlPath, StringBuffer requestBody) throws ODataJPAException {
-    this(localEmf, null, urlPath, requestBody, null, null);
+    this(with(localEmf, urlPath).requestBody(requestBody));
   }
 
   public IntegrationTestHelper(EntityManagerFactory localEmf, DataSource ds, String urlPath, String functionPackage) throws ODataJPAException {
-    this(localEmf, ds, urlPath, null, functionPackage, null);
+    this(with(localEmf, urlPath).dataSource(ds).functionPackage(functionPackage));
   }
 
   public IntegrationTestHelper(final EntityManagerFactory localEmf, final String urlPath, final JPAODataPagingProvider provider) throws ODataJPAException {
-    this(localEmf, null, urlPath, null, null, provider);
+    this(with(localEmf, urlPath).pagingProvider(provider));
   }
 
   public IntegrationTestHelper(EntityManagerFactory localEmf, final String urlPath, JPAODataClaimsProvider claims) throws ODataJPAException {
-    this(localEmf, null, urlPath, null, null, null, null, claims, null);
+    this(with(localEmf, urlPath).claims(claims));
   }
 
   public IntegrationTestHelper(EntityManagerFactory localEmf, final String urlPath,
       final JPAODataPagingProvider provider, JPAODataClaimsProvider claims) throws ODataJPAException {
-    this(localEmf, null, urlPath, null, null, provider, null, claims, null);
+    this(with(localEmf, urlPath).pagingProvider(provider).claims(claims));
   }
 
   public IntegrationTestHelper(final EntityManagerFactory emf, final String urlPath,
       final JPAODataPagingProvider provider, final Map<String, List<String>> headers) throws ODataJPAException {
-    this(emf, null, urlPath, null, null, provider, headers, null, null);
+    this(with(emf, urlPath).pagingProvider(provider).headers(headers));
   }
 
   public IntegrationTestHelper(EntityManagerFactory localEmf,
@@ -92,7 +99,8 @@ public class IntegrationTestHelper {
                                StringBuffer requestBody,
                                String functionPackage,
                                JPAODataPagingProvider provider) throws ODataJPAException {
-    this(localEmf, ds, urlPath, requestBody, functionPackage, provider, null, null, null);
+    this(with(localEmf, urlPath).dataSource(ds).requestBody(requestBody).functionPackage(functionPackage)
+        .pagingProvider(provider));
   }
 
   public IntegrationTestHelper(final EntityManagerFactory localEmf,
@@ -104,31 +112,53 @@ public class IntegrationTestHelper {
                                final Map<String, List<String>> headers,
                                final JPAODataClaimsProvider claims,
                                final JPAODataGroupProvider groups) throws ODataJPAException {
-    final EntityManager em = localEmf.createEntityManager();
+    this(with(localEmf, urlPath).dataSource(ds).requestBody(requestBody).functionPackage(functionPackage)
+        .pagingProvider(provider).headers(headers).claims(claims).groups(groups));
+  }
+
+  private IntegrationTestHelper(final Builder builder) throws ODataJPAException {
+    final EntityManager em = builder.emf.createEntityManager();
     final OData odata = OData.newInstance();
     String[] packages = TestBase.enumPackages;
     final JPAODataRequestContextImpl requestContext = new JPAODataRequestContextImpl();
-    final HttpServletRequestDouble req = new HttpServletRequestDouble(uriPrefix + urlPath, requestBody, headers);
+    final HttpServletRequestDouble req = new HttpServletRequestDouble(uriPrefix + builder.urlPath, builder.requestBody,
+        builder.headers);
     resp = new HttpServletResponseDouble();
-    if (functionPackage != null) packages = ArrayUtils.add(packages, functionPackage);
+    if (builder.functionPackage != null) packages = ArrayUtils.add(packages, builder.functionPackage);
 
-    final JPAODataCRUDContextAccess sessionContext = new JPAODataContextAccessDouble(
-            new JPAEdmProvider(PUNIT_NAME, localEmf, /*null,*/ packages), ds, provider, functionPackage);
+    final JPAODataCRUDContextAccess sessionContext = new SessionContext(
+            new JPAEdmProvider(PUNIT_NAME, builder.emf, /*null,*/ packages), builder);
 
     final ODataHttpHandler handler = odata.createHandler(
             odata.createServiceMetadata(sessionContext.getEdmProvider(), new ArrayList<>()));
-    requestContext.setClaimsProvider(claims);
-    requestContext.setGroupsProvider(groups);
+    requestContext.setClaimsProvider(builder.claims);
+    requestContext.setGroupsProvider(builder.groups);
     requestContext.setEntityManager(em);
+    if (builder.cudRequestHandler != null)
+      requestContext.setCUDRequestHandler(builder.cudRequestHandler);
     handler.register(new JPAODataRequestProcessor(sessionContext, requestContext));
-    handler.register(new JPAODataBatchProcessor(requestContext));
+    handler.register(new JPAODataBatchProcessor(sessionContext, requestContext));
+    if (builder.metrics != null)
+      handler.register(new JPAODataUriParseMetrics(builder.metrics));
     handler.process(req, resp);
   }
 
+  /**
+   * Creates a builder for a request, that needs more than the options provided by the constructors, e.g.
+   * <code>IntegrationTestHelper.with(emf, url).expandExecutor(executor).build()</code>.
+   */
+  public static Builder with(final EntityManagerFactory localEmf, final String urlPath) {
+    return new Builder(localEmf, urlPath);
+  }
+
   public int getStatus() {
     return resp.getStatus();
   }
 
+  public String getHeader(final String name) {
+    return resp.getHeader(name);
+  }
+
   public String getRawResult() throws IOException {
     InputStream in = resp.getInputStream();
     StringBuilder sb = new StringBuilder();
@@ -233,4 +263,173 @@ public class IntegrationTestHelper {
     return result;
   }
 
-}
\ No newline at end of file
+  public static final class Builder {
+    private final EntityManagerFactory emf;
+    private final String urlPath;
+    private DataSource ds;
+    private StringBuffer requestBody;
+    private String functionPackage;
+    private JPAODataPagingProvider pagingProvider;
+    private Map<String, List<String>> headers;
+    private JPAODataClaimsProvider claims;
+    private JPAODataGroupProvider groups;
+    private ExecutorService expandExecutor;
+    private boolean streamingResponse;
+    private boolean streamingBatch;
+    private ExecutorService batchExecutor;
+    private JPAODataSearchIndex searchIndex;
+    private JPAODataMetrics metrics;
+    private int expandKeyListLimit;
+    private JPAODataDatabaseProcessor databaseProcessor;
+    private JPACUDRequestHandler cudRequestHandler;
+
+    private Builder(final EntityManagerFactory emf, final String urlPath) {
+      this.emf = emf;
+      this.urlPath = urlPath;
+    }
+
+    public Builder dataSource(final DataSource ds) {
+      this.ds = ds;
+      return this;
+    }
+
+    public Builder requestBody(final StringBuffer requestBody) {
+      this.requestBody = requestBody;
+      return this;
+    }
+
+    public Builder functionPackage(final String functionPackage) {
+      this.functionPackage = functionPackage;
+      return this;
+    }
+
+    public Builder pagingProvider(final JPAODataPagingProvider pagingProvider) {
+      this.pagingProvider = pagingProvider;
+      return this;
+    }
+
+    public Builder headers(final Map<String, List<String>> headers) {
+      this.headers = headers;
+      return this;
+    }
+
+    public Builder claims(final JPAODataClaimsProvider claims) {
+      this.claims = claims;
+      return this;
+    }
+
+    public Builder groups(final JPAODataGroupProvider groups) {
+      this.groups = groups;
+      return this;
+    }
+
+    public Builder expandExecutor(final ExecutorService expandExecutor) {
+      this.expandExecutor = expandExecutor;
+      return this;
+    }
+
+    public Builder streamingResponse(final boolean streamingResponse) {
+      this.streamingResponse = streamingResponse;
+      return this;
+    }
+
+    public Builder streamingBatch(final boolean streamingBatch) {
+      this.streamingBatch = streamingBatch;
+      return this;
+    }
+
+    public Builder batchExecutor(final ExecutorService batchExecutor) {
+      this.batchExecutor = batchExecutor;
+      return this;
+    }
+
+    public Builder searchIndex(final JPAODataSearchIndex searchIndex) {
+      this.searchIndex = searchIndex;
+      return this;
+    }
+
+    public Builder metrics(final JPAODataMetrics metrics) {
+      this.metrics = metrics;
+      return this;
+    }
+
+    public Builder expandKeyListLimit(final int expandKeyListLimit) {
+      this.expandKeyListLimit = expandKeyListLimit;
+      return this;
+    }
+
+    /**
+     * Database processor to be used instead of the one determined from the data source.
+     */
+    public Builder databaseProcessor(final JPAODataDatabaseProcessor databaseProcessor) {
+      this.databaseProcessor = databaseProcessor;
+      return this;
+    }
+
+    public Builder cudRequestHandler(final JPACUDRequestHandler cudRequestHandler) {
+      this.cudRequestHandler = cudRequestHandler;
+      return this;
+    }
+
+    public IntegrationTestHelper build() throws ODataJPAException {
+      return new IntegrationTestHelper(this);
+    }
+  }
+
+  /**
+   * Session context providing the optional features set at the builder.
+   */
+  private static final class SessionContext extends JPAODataContextAccessDouble {
+    private final Builder builder;
+
+    private SessionContext(final JPAEdmProvider edmProvider, final Builder builder) {
+      super(edmProvider, builder.ds, builder.pagingProvider, builder.functionPackage);
+      this.builder = builder;
+    }
+
+    @Override
+    public JPAODataDatabaseProcessor getDatabaseProcessor() {
+      return builder.databaseProcessor != null ? builder.databaseProcessor : super.getDatabaseProcessor();
+    }
+
+    @Override
+    public Optional<EntityManagerFactory> getEntityManagerFactory() {
+      return Optional.of(builder.emf);
+    }
+
+    @Override
+    public Optional<ExecutorService> getExpandExecutor() {
+      return Optional.ofNullable(builder.expandExecutor);
+    }
+
+    @Override
+    public int getExpandKeyListLimit() {
+      return builder.expandKeyListLimit;
+    }
+
+    @Override
+    public boolean useStreamingResponse() {
+      return builder.streamingResponse;
+    }
+
+    @Override
+    public boolean useStreamingBatch() {
+      return builder.streamingBatch;
+    }
+
+    @Override
+    public Optional<ExecutorService> getBatchExecutor() {
+      return Optional.ofNullable(builder.batchExecutor);
+    }
+
+    @Override
+    public Optional<JPAODataSearchIndex> getSearchIndex() {
+      return Optional.ofNullable(builder.searchIndex);
+    }
+
+    @Override
+    public Optional<JPAODataMetrics> getMetrics() {
+      return Optional.ofNullable(builder.metrics);
+    }
+  }
+}